@@ -167,6 +167,15 @@ public interface APIManager {
      */
     String getGraphqlSchemaDefinition(String apiId, String orgId) throws APIManagementException;
 
+    /**
+     * Get the persisted query manifest of a graphql API
+     * @param apiId  ID of the API or of an API revision
+     * @param orgId  Identifier of an organization
+     * @return persisted query manifest of the API, or null if the API does not have one
+     * @throws APIManagementException
+     */
+    String getGraphQLPersistedQueryManifest(String apiId, String orgId) throws APIManagementException;
+
     /**
      * Returns the OpenAPI definition as a string
      *
@@ -1156,6 +1156,16 @@ public interface APIProvider extends APIManager {
      */
     void saveGraphqlSchemaDefinition(String apiId, String definition, String orgId) throws APIManagementException;
 
+    /**
+     * Add, update or remove the persisted query manifest of a graphql API
+     * @param apiId    ID of the API
+     * @param manifest Persisted query manifest of the API, or null to remove it
+     * @param orgId    Identifier of an organization
+     * @throws APIManagementException
+     */
+    void saveGraphQLPersistedQueryManifest(String apiId, String manifest, String orgId)
+            throws APIManagementException;
+
     /**
      * Get API product by uuid
      * @param uuid Id of the api product
@@ -36,6 +36,7 @@ public class GatewayAPIDTO implements Serializable {
     private String provider;
     private String tenantDomain;
     private String apiId;
+    private String revision;
     private String apiDefinition;
     private String graphQLSchema;
     private GatewayContentDTO[] sequenceToBeAdd;
@@ -99,6 +100,16 @@ public class GatewayAPIDTO implements Serializable {
         this.apiId = apiId;
     }
 
+    public String getRevision() {
+
+        return revision;
+    }
+
+    public void setRevision(String revision) {
+
+        this.revision = revision;
+    }
+
     public String getApiDefinition() {
 
         return apiDefinition;
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.api.model.subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Changes of the subscription data of a tenant between two revisions. The changes are tracked per application: the
+ * current application, subscriptions and key mappings of each changed application replace the ones loaded before.
+ * An application which is no longer present was removed, along with its subscriptions and key mappings.
+ */
+public class SubscriptionDataChanges {
+
+    private long revision;
+    private boolean complete;
+    private Set<Integer> applicationIds = new TreeSet<>();
+    private List<Application> applications = new ArrayList<>();
+    private List<Subscription> subscriptions = new ArrayList<>();
+    private List<ApplicationKeyMapping> applicationKeyMappings = new ArrayList<>();
+
+    /**
+     * @return revision of the subscription data the changes lead to
+     */
+    public long getRevision() {
+
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+
+        this.revision = revision;
+    }
+
+    /**
+     * @return false if the changes since the requested revision are no longer available, or are too many to be
+     * loaded one application at a time, in which case the whole subscription data has to be loaded again
+     */
+    public boolean isComplete() {
+
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+
+        this.complete = complete;
+    }
+
+    public Set<Integer> getApplicationIds() {
+
+        return applicationIds;
+    }
+
+    public void setApplicationIds(Set<Integer> applicationIds) {
+
+        this.applicationIds = applicationIds;
+    }
+
+    public List<Application> getApplications() {
+
+        return applications;
+    }
+
+    public void setApplications(List<Application> applications) {
+
+        this.applications = applications;
+    }
+
+    public List<Subscription> getSubscriptions() {
+
+        return subscriptions;
+    }
+
+    public void setSubscriptions(List<Subscription> subscriptions) {
+
+        this.subscriptions = subscriptions;
+    }
+
+    public List<ApplicationKeyMapping> getApplicationKeyMappings() {
+
+        return applicationKeyMappings;
+    }
+
+    public void setApplicationKeyMappings(List<ApplicationKeyMapping> applicationKeyMappings) {
+
+        this.applicationKeyMappings = applicationKeyMappings;
+    }
+}
@@ -18,8 +18,11 @@ package org.wso2.carbon.apimgt.common.analytics;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.apimgt.common.analytics.collectors.impl.RequestAggregator;
 import org.wso2.carbon.apimgt.common.analytics.publishers.impl.AnalyticsDataPublisher;
 
+import java.util.Map;
+
 /**
  * Configuration holder.
  */
@@ -27,6 +30,7 @@ public class AnalyticsServiceReferenceHolder {
     private static final Log log = LogFactory.getLog(AnalyticsServiceReferenceHolder.class);
     private static final AnalyticsServiceReferenceHolder instance = new AnalyticsServiceReferenceHolder();
     private AnalyticsCommonConfiguration analyticsCommonConfiguration;
+    private volatile RequestAggregator requestAggregator;
 
     private AnalyticsServiceReferenceHolder() {
 
@@ -45,5 +49,58 @@ public class AnalyticsServiceReferenceHolder {
         // initialize data publisher at server start up
         AnalyticsDataPublisher.getInstance().initialize(analyticsCommonConfiguration);
         log.debug("Analytics data publisher initialized.");
+        Map<String, String> configs = analyticsCommonConfiguration.getConfigurations();
+        if (Boolean.parseBoolean(configs.get(Constants.AGGREGATION_ENABLED))) {
+            startRequestAggregation(configs);
+        }
+    }
+
+    private void startRequestAggregation(Map<String, String> configs) {
+        long interval = Constants.DEFAULT_AGGREGATION_INTERVAL;
+        double samplePercentage = 0;
+        try {
+            String intervalConfig = configs.get(Constants.AGGREGATION_INTERVAL);
+            if (intervalConfig != null) {
+                interval = Long.parseLong(intervalConfig.trim());
+            }
+            String samplePercentageConfig = configs.get(Constants.AGGREGATION_SAMPLE_PERCENTAGE);
+            if (samplePercentageConfig != null) {
+                samplePercentage = Double.parseDouble(samplePercentageConfig.trim());
+            }
+        } catch (NumberFormatException e) {
+            log.error("Invalid analytics request aggregation configuration. Requests are not aggregated.", e);
+            return;
+        }
+        if (interval <= 0 || samplePercentage < 0 || samplePercentage > 100) {
+            log.error("Invalid analytics request aggregation interval " + interval + " or sample percentage "
+                    + samplePercentage + ". Requests are not aggregated.");
+            return;
+        }
+        stopRequestAggregation();
+        RequestAggregator aggregator = new RequestAggregator(interval, samplePercentage);
+        aggregator.start();
+        this.requestAggregator = aggregator;
+        if (log.isDebugEnabled()) {
+            log.debug("Analytics request aggregation started with interval " + interval + " ms and sample percentage "
+                    + samplePercentage + ".");
+        }
+    }
+
+    /**
+     * Stops aggregating requests, after publishing the pending rollups.
+     */
+    public void stopRequestAggregation() {
+        RequestAggregator aggregator = this.requestAggregator;
+        if (aggregator != null) {
+            this.requestAggregator = null;
+            aggregator.stop();
+        }
+    }
+
+    /**
+     * @return the request aggregator, or null if requests are published one by one
+     */
+    public RequestAggregator getRequestAggregator() {
+        return requestAggregator;
     }
 }
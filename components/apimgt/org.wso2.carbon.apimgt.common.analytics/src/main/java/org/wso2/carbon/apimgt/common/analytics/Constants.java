@@ -28,4 +28,18 @@ public class Constants {
     public static final String ANONYMOUS_VALUE = "anonymous";
     public static final String UNKNOWN_VALUE = "UNKNOWN";
     public static final int UNKNOWN_INT_VALUE = -1;
+
+    public static final String ASYNC_PUBLISHING_ENABLED = "publisher.async.enabled";
+    public static final String ASYNC_PUBLISHING_BUFFER_SIZE = "publisher.async.buffer.size";
+    public static final String ASYNC_PUBLISHING_WORKERS = "publisher.async.workers";
+    public static final String ASYNC_PUBLISHING_BATCH_SIZE = "publisher.async.batch.size";
+    public static final String ASYNC_PUBLISHING_OVERFLOW_POLICY = "publisher.async.overflow.policy";
+    public static final int DEFAULT_ASYNC_PUBLISHING_BUFFER_SIZE = 8192;
+    public static final int DEFAULT_ASYNC_PUBLISHING_WORKERS = 1;
+    public static final int DEFAULT_ASYNC_PUBLISHING_BATCH_SIZE = 256;
+
+    public static final String AGGREGATION_ENABLED = "collector.aggregation.enabled";
+    public static final String AGGREGATION_INTERVAL = "collector.aggregation.interval";
+    public static final String AGGREGATION_SAMPLE_PERCENTAGE = "collector.aggregation.sample.percentage";
+    public static final long DEFAULT_AGGREGATION_INTERVAL = 60000L;
 }
@@ -19,9 +19,12 @@ package org.wso2.carbon.apimgt.common.analytics.collectors.impl;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.apimgt.common.analytics.AnalyticsServiceReferenceHolder;
 import org.wso2.carbon.apimgt.common.analytics.Constants;
 import org.wso2.carbon.apimgt.common.analytics.collectors.AnalyticsDataProvider;
+import org.wso2.carbon.apimgt.common.analytics.publishers.RequestDataPublisher;
 import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Application;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Event;
 
 import java.time.Instant;
 import java.time.OffsetDateTime;
@@ -55,6 +58,20 @@ public abstract class CommonRequestDataCollector extends AbstractRequestDataColl
         return application;
     }
 
+    /**
+     * Publishes the event, or adds it to the rollup of its key if requests are aggregated, in which case it is
+     * published only if it is sampled.
+     *
+     * @param processor publisher of the event
+     * @param event     analytics event
+     */
+    protected void publish(RequestDataPublisher processor, Event event) {
+        RequestAggregator requestAggregator = AnalyticsServiceReferenceHolder.getInstance().getRequestAggregator();
+        if (requestAggregator == null || requestAggregator.aggregate(processor, event)) {
+            processor.publish(event);
+        }
+    }
+
     public static String getTimeInISO(long time) {
         OffsetDateTime offsetDateTime = OffsetDateTime
                 .ofInstant(Instant.ofEpochMilli(time), ZoneOffset.UTC.normalized());
@@ -0,0 +1,143 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.common.analytics.collectors.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies in milliseconds, with buckets of a fixed relative width in the manner of an HDR histogram.
+ * <p>
+ * Values below 16 have a bucket each. Above that, each power of two range is split into 16 buckets, so the value
+ * reported for a percentile is within 1/16 of the recorded value. Values of 2^31 and above are counted in the last
+ * bucket.
+ * <p>
+ * Values can be recorded concurrently, and {@link #getAndReset()} moves the recorded values to a snapshot without
+ * losing a value recorded meanwhile, which is then either in the snapshot or left in this histogram.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+    private static final long MAX_TRACKABLE_VALUE = Integer.MAX_VALUE;
+    private static final int BUCKET_COUNT = 32 - SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT * SUB_BUCKET_COUNT);
+    private final AtomicLong maxValue = new AtomicLong();
+
+    void record(long value) {
+
+        long trackedValue = Math.min(Math.max(value, 0), MAX_TRACKABLE_VALUE);
+        counts.incrementAndGet(indexOf(trackedValue));
+        if (value > maxValue.get()) {
+            maxValue.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    long getTotalCount() {
+
+        long totalCount = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            totalCount += counts.get(i);
+        }
+        return totalCount;
+    }
+
+    long getMaxValue() {
+
+        return maxValue.get();
+    }
+
+    /**
+     * Moves the recorded values to a new histogram and resets this one.
+     * <p>
+     * The count and the maximum of a value recorded during the reset may end up in different snapshots, so the
+     * maximum of the snapshot is kept within the range of its highest bucket.
+     *
+     * @return histogram of the values recorded since the last reset
+     */
+    LatencyHistogram getAndReset() {
+
+        LatencyHistogram snapshot = new LatencyHistogram();
+        int highestIndex = -1;
+        for (int i = 0; i < counts.length(); i++) {
+            if (counts.get(i) != 0) {
+                snapshot.counts.set(i, counts.getAndSet(i, 0));
+                highestIndex = i;
+            }
+        }
+        long max = maxValue.getAndSet(0);
+        if (highestIndex >= 0) {
+            long highestValue = highestIndex == counts.length() - 1 ? Long.MAX_VALUE : highestValueOf(highestIndex);
+            snapshot.maxValue.set(Math.min(Math.max(max, lowestValueOf(highestIndex)), highestValue));
+        }
+        return snapshot;
+    }
+
+    /**
+     * @param percentile percentile between 0 and 100
+     * @return highest value of the bucket holding the percentile, or 0 if nothing was recorded
+     */
+    long getValueAtPercentile(double percentile) {
+
+        long totalCount = getTotalCount();
+        long max = maxValue.get();
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+            if (count >= rank) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    static int indexOf(long value) {
+
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & SUB_BUCKET_MASK);
+    }
+
+    static long lowestValueOf(int index) {
+
+        int bucket = index >>> SUB_BUCKET_BITS;
+        long subBucket = index & SUB_BUCKET_MASK;
+        if (bucket == 0) {
+            return subBucket;
+        }
+        return (SUB_BUCKET_COUNT + subBucket) << (bucket - 1);
+    }
+
+    static long highestValueOf(int index) {
+
+        int bucket = index >>> SUB_BUCKET_BITS;
+        long subBucket = index & SUB_BUCKET_MASK;
+        if (bucket == 0) {
+            return subBucket;
+        }
+        return ((SUB_BUCKET_COUNT + subBucket + 1) << (bucket - 1)) - 1;
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.common.analytics.collectors.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.apimgt.common.analytics.Constants;
+import org.wso2.carbon.apimgt.common.analytics.publishers.RequestDataPublisher;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.API;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Application;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Error;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Event;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Latencies;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.MetaInfo;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Operation;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Rollup;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Target;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates analytics events per API, operation, application, response status class and error into rollups, and
+ * publishes one rollup event per key at a fixed interval instead of one event per request.
+ * <p>
+ * A rollup event carries the attributes of its key and the timestamp of the first request in the interval, without
+ * the attributes of a single request such as the correlation id and the target, along with the average latencies and
+ * the number of requests and response latency percentiles in its {@link Rollup}. A percentage of the requests can
+ * also be published as they are, as samples. Samples are marked with the {@link Rollup#TYPE_SAMPLE} aggregation type,
+ * as they are already counted in the rollups.
+ * <p>
+ * The rollup of a key is kept in {@link LongAdder}s and atomic fields, which are read and reset as the rollup is
+ * published, so a request added meanwhile is counted in either this or the next interval. The rollup of a key which
+ * had no requests in an interval is removed, once the threads adding to it are done, and published once more if they
+ * added a request.
+ */
+public class RequestAggregator {
+
+    private static final Log log = LogFactory.getLog(RequestAggregator.class);
+
+    private final long interval;
+    private final double samplePercentage;
+    private final Map<Key, Aggregate> aggregates = new ConcurrentHashMap<>();
+    private ScheduledExecutorService executor;
+
+    /**
+     * @param interval         aggregation interval in milliseconds
+     * @param samplePercentage percentage of the requests to publish as samples, between 0 and 100
+     */
+    public RequestAggregator(long interval, double samplePercentage) {
+
+        this.interval = interval;
+        this.samplePercentage = samplePercentage;
+    }
+
+    /**
+     * Starts publishing the rollups at the aggregation interval.
+     */
+    public synchronized void start() {
+
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "AnalyticsRequestAggregator");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleAtFixedRate(this::publish, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops publishing, after publishing the pending rollups.
+     */
+    public synchronized void stop() {
+
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+            publish();
+        }
+    }
+
+    /**
+     * Adds an event to the rollup of its key.
+     *
+     * @param publisher publisher of the event
+     * @param event     analytics event
+     * @return true if the event is a sample, which should be published as well
+     */
+    public boolean aggregate(RequestDataPublisher publisher, Event event) {
+
+        Key key = new Key(publisher.getClass(), event);
+        while (true) {
+            Aggregate aggregate = aggregates.get(key);
+            if (aggregate == null) {
+                aggregate = aggregates.computeIfAbsent(key, k -> new Aggregate(publisher, event));
+            }
+            // A retired rollup has been removed from the map, so the next lookup finds or adds a new one
+            if (aggregate.acquire()) {
+                try {
+                    aggregate.add(event);
+                } finally {
+                    aggregate.release();
+                }
+                break;
+            }
+        }
+        if (samplePercentage > 0 && ThreadLocalRandom.current().nextDouble() * 100 < samplePercentage) {
+            Rollup sample = new Rollup();
+            sample.setAggregationType(Rollup.TYPE_SAMPLE);
+            event.setRollup(sample);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Publishes one rollup event for each key which had requests since the last call, and retires the rollups of the
+     * keys which had none.
+     */
+    synchronized void publish() {
+
+        for (Map.Entry<Key, Aggregate> entry : aggregates.entrySet()) {
+            Aggregate aggregate = entry.getValue();
+            if (!publish(aggregate) && aggregates.remove(entry.getKey(), aggregate)) {
+                aggregate.retire();
+                publish(aggregate);
+            }
+        }
+    }
+
+    private boolean publish(Aggregate aggregate) {
+
+        Event event = aggregate.getAndReset(interval);
+        if (event == null) {
+            return false;
+        }
+        try {
+            aggregate.publisher.publish(event);
+        } catch (RuntimeException e) {
+            log.error("Error while publishing analytics rollup event.", e);
+        }
+        return true;
+    }
+
+    /**
+     * Aggregation key of an event.
+     */
+    private static final class Key {
+
+        private final Class<?> publisherClass;
+        private final String apiId;
+        private final String apiMethod;
+        private final String apiResourceTemplate;
+        private final String applicationId;
+        private final String keyType;
+        private final int statusClass;
+        private final String errorType;
+        private final int errorCode;
+        private final int hashCode;
+
+        private Key(Class<?> publisherClass, Event event) {
+
+            this.publisherClass = publisherClass;
+            API api = event.getApi();
+            this.apiId = api != null ? api.getApiId() : null;
+            Operation operation = event.getOperation();
+            this.apiMethod = operation != null ? operation.getApiMethod() : null;
+            this.apiResourceTemplate = operation != null ? operation.getApiResourceTemplate() : null;
+            Application application = event.getApplication();
+            this.applicationId = application != null ? application.getApplicationId() : null;
+            this.keyType = application != null ? application.getKeyType() : null;
+            this.statusClass = event.getProxyResponseCode() / 100;
+            this.errorType = event.getErrorType();
+            Error error = event.getError();
+            this.errorCode = error != null ? error.getErrorCode() : 0;
+            this.hashCode = Objects.hash(publisherClass, apiId, apiMethod, apiResourceTemplate, applicationId, keyType,
+                    statusClass, errorType, errorCode);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hashCode == key.hashCode && statusClass == key.statusClass && errorCode == key.errorCode
+                    && publisherClass == key.publisherClass && Objects.equals(apiId, key.apiId)
+                    && Objects.equals(apiMethod, key.apiMethod)
+                    && Objects.equals(apiResourceTemplate, key.apiResourceTemplate)
+                    && Objects.equals(applicationId, key.applicationId) && Objects.equals(keyType, key.keyType)
+                    && Objects.equals(errorType, key.errorType);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hashCode;
+        }
+    }
+
+    /**
+     * Requests of a key since the last publish.
+     */
+    private static final class Aggregate {
+
+        private final RequestDataPublisher publisher;
+        private final Event first;
+        private final AtomicReference<String> requestTimestamp = new AtomicReference<>();
+        private final LongAdder requestCount = new LongAdder();
+        private final LatencyHistogram responseLatencies = new LatencyHistogram();
+        private final LongAdder latencyCount = new LongAdder();
+        private final LongAdder backendLatencyTotal = new LongAdder();
+        private final LongAdder requestMediationLatencyTotal = new LongAdder();
+        private final LongAdder responseMediationLatencyTotal = new LongAdder();
+        private final LongAdder responseLatencyTotal = new LongAdder();
+        private final AtomicInteger users = new AtomicInteger();
+        private volatile boolean retired;
+
+        private Aggregate(RequestDataPublisher publisher, Event first) {
+
+            this.publisher = publisher;
+            this.first = first;
+        }
+
+        /**
+         * @return true if requests can be added, or false if the rollup has been retired
+         */
+        private boolean acquire() {
+
+            users.incrementAndGet();
+            if (retired) {
+                users.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        private void release() {
+
+            users.decrementAndGet();
+        }
+
+        /**
+         * Stops adding requests to the rollup, and waits for the threads which are adding to it. A thread either
+         * sees the rollup retired, or is seen adding to it, as each writes its own field before reading the other.
+         */
+        private void retire() {
+
+            retired = true;
+            while (users.get() != 0) {
+                Thread.yield();
+            }
+        }
+
+        private void add(Event event) {
+
+            if (requestTimestamp.get() == null) {
+                requestTimestamp.compareAndSet(null, event.getRequestTimestamp());
+            }
+            Latencies latencies = event.getLatencies();
+            // A request without latencies is counted, but not taken as a request with no latency
+            if (latencies != null) {
+                responseLatencies.record(latencies.getResponseLatency());
+                responseLatencyTotal.add(latencies.getResponseLatency());
+                backendLatencyTotal.add(latencies.getBackendLatency());
+                requestMediationLatencyTotal.add(latencies.getRequestMediationLatency());
+                responseMediationLatencyTotal.add(latencies.getResponseMediationLatency());
+                latencyCount.increment();
+            }
+            requestCount.increment();
+        }
+
+        /**
+         * @param interval aggregation interval in milliseconds
+         * @return rollup event of the requests since the last call, or null if there were none
+         */
+        private Event getAndReset(long interval) {
+
+            long count = requestCount.sumThenReset();
+            if (count == 0) {
+                return null;
+            }
+            Event event = new Event();
+            event.setApi(first.getApi());
+            event.setOperation(first.getOperation());
+            event.setApplication(first.getApplication());
+            event.setError(first.getError());
+            event.setErrorType(first.getErrorType());
+            event.setProxyResponseCode(first.getProxyResponseCode());
+            String timestamp = requestTimestamp.getAndSet(null);
+            event.setRequestTimestamp(timestamp != null ? timestamp : first.getRequestTimestamp());
+            event.setUserAgentHeader(Constants.UNKNOWN_VALUE);
+            event.setUserIp(Constants.UNKNOWN_VALUE);
+            Target target = new Target();
+            target.setTargetResponseCode(Constants.UNKNOWN_INT_VALUE);
+            event.setTarget(target);
+            MetaInfo firstMetaInfo = first.getMetaInfo();
+            if (firstMetaInfo != null) {
+                MetaInfo metaInfo = new MetaInfo();
+                metaInfo.setCorrelationId(Constants.UNKNOWN_VALUE);
+                metaInfo.setRegionId(firstMetaInfo.getRegionId());
+                metaInfo.setGatewayType(firstMetaInfo.getGatewayType());
+                event.setMetaInfo(metaInfo);
+            }
+
+            LatencyHistogram latencyHistogram = responseLatencies.getAndReset();
+            long latencies = latencyCount.sumThenReset();
+            long responseLatency = responseLatencyTotal.sumThenReset();
+            long backendLatency = backendLatencyTotal.sumThenReset();
+            long requestMediationLatency = requestMediationLatencyTotal.sumThenReset();
+            long responseMediationLatency = responseMediationLatencyTotal.sumThenReset();
+            if (latencies > 0) {
+                Latencies averageLatencies = new Latencies();
+                averageLatencies.setResponseLatency(responseLatency / latencies);
+                averageLatencies.setBackendLatency(backendLatency / latencies);
+                averageLatencies.setRequestMediationLatency(requestMediationLatency / latencies);
+                averageLatencies.setResponseMediationLatency(responseMediationLatency / latencies);
+                event.setLatencies(averageLatencies);
+            }
+
+            Rollup rollup = new Rollup();
+            rollup.setAggregationType(Rollup.TYPE_ROLLUP);
+            rollup.setRequestCount(count);
+            rollup.setAggregationInterval(interval);
+            rollup.setResponseLatencyP50(latencyHistogram.getValueAtPercentile(50));
+            rollup.setResponseLatencyP90(latencyHistogram.getValueAtPercentile(90));
+            rollup.setResponseLatencyP99(latencyHistogram.getValueAtPercentile(99));
+            rollup.setResponseLatencyMax(latencyHistogram.getMaxValue());
+            event.setRollup(rollup);
+            return event;
+        }
+    }
+}
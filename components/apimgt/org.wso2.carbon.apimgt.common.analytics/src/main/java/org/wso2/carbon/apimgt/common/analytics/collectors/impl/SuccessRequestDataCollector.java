@@ -86,7 +86,7 @@ public class SuccessRequestDataCollector extends CommonRequestDataCollector impl
         event.setUserAgentHeader(userAgent);
         event.setUserIp(userIp);
 
-        this.processor.publish(event);
+        publish(this.processor, event);
     }
 
 }
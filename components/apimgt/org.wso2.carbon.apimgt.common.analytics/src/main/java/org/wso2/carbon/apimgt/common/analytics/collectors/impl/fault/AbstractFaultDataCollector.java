@@ -54,7 +54,7 @@ public abstract class AbstractFaultDataCollector extends CommonRequestDataCollec
         }
         faultyEvent.setErrorType(this.subType.name());
         faultyEvent.setError(error);
-        this.processor.publish(faultyEvent);
+        publish(this.processor, faultyEvent);
     }
 
     private boolean isValidSubCategory(FaultSubCategory subCategory) {
@@ -37,6 +37,8 @@ public class Event {
     private MetaInfo metaInfo;
     @JsonUnwrapped
     private Error error;
+    @JsonUnwrapped
+    private Rollup rollup;
     private int proxyResponseCode;
     private String requestTimestamp;
     private String userAgentHeader;
@@ -124,6 +126,14 @@ public class Event {
         this.metaInfo = metaInfo;
     }
 
+    public Rollup getRollup() {
+        return rollup;
+    }
+
+    public void setRollup(Rollup rollup) {
+        this.rollup = rollup;
+    }
+
     public String getUserAgentHeader() {
         return userAgentHeader;
     }
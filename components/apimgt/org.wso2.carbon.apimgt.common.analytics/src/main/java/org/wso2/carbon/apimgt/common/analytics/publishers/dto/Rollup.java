@@ -0,0 +1,90 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.common.analytics.publishers.dto;
+
+/**
+ * Aggregation attribute in analytics event, set when requests are aggregated instead of published one by one.
+ */
+public class Rollup {
+    public static final String TYPE_ROLLUP = "ROLLUP";
+    public static final String TYPE_SAMPLE = "SAMPLE";
+
+    private String aggregationType;
+    private long requestCount;
+    private long aggregationInterval;
+    private long responseLatencyP50;
+    private long responseLatencyP90;
+    private long responseLatencyP99;
+    private long responseLatencyMax;
+
+    public String getAggregationType() {
+        return aggregationType;
+    }
+
+    public void setAggregationType(String aggregationType) {
+        this.aggregationType = aggregationType;
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    public void setRequestCount(long requestCount) {
+        this.requestCount = requestCount;
+    }
+
+    public long getAggregationInterval() {
+        return aggregationInterval;
+    }
+
+    public void setAggregationInterval(long aggregationInterval) {
+        this.aggregationInterval = aggregationInterval;
+    }
+
+    public long getResponseLatencyP50() {
+        return responseLatencyP50;
+    }
+
+    public void setResponseLatencyP50(long responseLatencyP50) {
+        this.responseLatencyP50 = responseLatencyP50;
+    }
+
+    public long getResponseLatencyP90() {
+        return responseLatencyP90;
+    }
+
+    public void setResponseLatencyP90(long responseLatencyP90) {
+        this.responseLatencyP90 = responseLatencyP90;
+    }
+
+    public long getResponseLatencyP99() {
+        return responseLatencyP99;
+    }
+
+    public void setResponseLatencyP99(long responseLatencyP99) {
+        this.responseLatencyP99 = responseLatencyP99;
+    }
+
+    public long getResponseLatencyMax() {
+        return responseLatencyMax;
+    }
+
+    public void setResponseLatencyMax(long responseLatencyMax) {
+        this.responseLatencyMax = responseLatencyMax;
+    }
+}
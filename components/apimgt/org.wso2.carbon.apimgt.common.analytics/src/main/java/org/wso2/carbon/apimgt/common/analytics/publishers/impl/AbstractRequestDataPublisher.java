@@ -43,21 +43,40 @@ public abstract class AbstractRequestDataPublisher implements RequestDataPublish
     @Override
     public void publish(Event analyticsEvent) {
 
+        AsyncEventPublisher asyncEventPublisher = AnalyticsDataPublisher.getInstance().getAsyncEventPublisher();
+        if (asyncEventPublisher != null) {
+            asyncEventPublisher.publish(this, analyticsEvent);
+        } else {
+            publishEvent(analyticsEvent);
+        }
+    }
+
+    /**
+     * Publishes the event to the metric reporter on the calling thread.
+     *
+     * @param analyticsEvent analytics event
+     */
+    void publishEvent(Event analyticsEvent) {
+
         CounterMetric counterMetric = this.getCounterMetric();
         if (counterMetric == null) {
             log.error("counterMetric cannot be null.");
             return;
         }
 
-        Map<String, Object> dataMap = OBJECT_MAPPER.convertValue(analyticsEvent, MAP_TYPE_REFERENCE);
         MetricEventBuilder builder = counterMetric.getEventBuilder();
-        for (Map.Entry<String, Object> entry : dataMap.entrySet()) {
-            try {
-                builder.addAttribute(entry.getKey(), entry.getValue());
-            } catch (MetricReportingException e) {
-                log.error("Error adding data to the event stream.", e);
-                return;
+        try {
+            if (EventAttributeWriter.isSupported(analyticsEvent)) {
+                EventAttributeWriter.write(analyticsEvent, builder);
+            } else {
+                Map<String, Object> dataMap = OBJECT_MAPPER.convertValue(analyticsEvent, MAP_TYPE_REFERENCE);
+                for (Map.Entry<String, Object> entry : dataMap.entrySet()) {
+                    builder.addAttribute(entry.getKey(), entry.getValue());
+                }
             }
+        } catch (MetricReportingException e) {
+            log.error("Error adding data to the event stream.", e);
+            return;
         }
 
         try {
@@ -28,6 +28,7 @@ import org.wso2.am.analytics.publisher.reporter.MetricSchema;
 import org.wso2.carbon.apimgt.common.analytics.AnalyticsCommonConfiguration;
 import org.wso2.carbon.apimgt.common.analytics.Constants;
 
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -36,9 +37,11 @@ import java.util.Map;
 public class AnalyticsDataPublisher {
 
     private static final Log log = LogFactory.getLog(AnalyticsDataPublisher.class);
+    private static final long ASYNC_PUBLISHER_STOP_TIMEOUT = 5000L;
     private static AnalyticsDataPublisher instance = new AnalyticsDataPublisher();
     private CounterMetric successMetricReporter;
     private CounterMetric faultyMetricReporter;
+    private volatile AsyncEventPublisher asyncEventPublisher;
 
     private AnalyticsDataPublisher() {
 
@@ -84,6 +87,76 @@ public class AnalyticsDataPublisher {
         } catch (MetricCreationException | IllegalArgumentException e) {
             log.error("Error initializing event publisher.", e);
         }
+
+        if (Boolean.parseBoolean(configs.get(Constants.ASYNC_PUBLISHING_ENABLED))) {
+            startAsyncPublishing(configs);
+        }
+    }
+
+    private void startAsyncPublishing(Map<String, String> configs) {
+
+        int bufferSize = getIntConfig(configs, Constants.ASYNC_PUBLISHING_BUFFER_SIZE,
+                Constants.DEFAULT_ASYNC_PUBLISHING_BUFFER_SIZE);
+        int workers = getIntConfig(configs, Constants.ASYNC_PUBLISHING_WORKERS,
+                Constants.DEFAULT_ASYNC_PUBLISHING_WORKERS);
+        int batchSize = getIntConfig(configs, Constants.ASYNC_PUBLISHING_BATCH_SIZE,
+                Constants.DEFAULT_ASYNC_PUBLISHING_BATCH_SIZE);
+        AsyncEventPublisher.OverflowPolicy overflowPolicy = AsyncEventPublisher.OverflowPolicy.DROP_NEWEST;
+        String overflowPolicyConfig = configs.get(Constants.ASYNC_PUBLISHING_OVERFLOW_POLICY);
+        if (!StringUtils.isEmpty(overflowPolicyConfig)) {
+            try {
+                overflowPolicy = AsyncEventPublisher.OverflowPolicy.valueOf(
+                        overflowPolicyConfig.trim().toUpperCase(Locale.ENGLISH).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                log.error("Invalid analytics event overflow policy " + overflowPolicyConfig + ". Using "
+                        + overflowPolicy + ".");
+            }
+        }
+
+        stopAsyncPublishing();
+        AsyncEventPublisher publisher = new AsyncEventPublisher(bufferSize, workers, batchSize, overflowPolicy);
+        publisher.start();
+        publisher.registerMBean();
+        this.asyncEventPublisher = publisher;
+        if (log.isDebugEnabled()) {
+            log.debug("Asynchronous analytics publishing started with buffer size " + publisher.getBufferSize()
+                    + ", " + workers + " workers and overflow policy " + overflowPolicy + ".");
+        }
+    }
+
+    private int getIntConfig(Map<String, String> configs, String name, int defaultValue) {
+
+        String value = configs.get(name);
+        if (StringUtils.isEmpty(value)) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            log.error("Invalid value " + value + " for " + name + ". Using " + defaultValue + ".");
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Stops publishing asynchronously, after publishing the buffered events. Events are published on the calling
+     * threads afterwards.
+     */
+    public void stopAsyncPublishing() {
+
+        AsyncEventPublisher publisher = this.asyncEventPublisher;
+        if (publisher != null) {
+            this.asyncEventPublisher = null;
+            publisher.stop(ASYNC_PUBLISHER_STOP_TIMEOUT);
+        }
+    }
+
+    /**
+     * @return the asynchronous event publisher, or null if events are published on the calling threads
+     */
+    public AsyncEventPublisher getAsyncEventPublisher() {
+
+        return asyncEventPublisher;
     }
 
     public CounterMetric getSuccessMetricReporter() {
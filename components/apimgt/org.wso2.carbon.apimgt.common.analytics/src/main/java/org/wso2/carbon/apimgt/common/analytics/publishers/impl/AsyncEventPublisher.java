@@ -0,0 +1,382 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.common.analytics.publishers.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Event;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Publishes analytics events from a pool of worker threads, so that the threads handling the requests only add the
+ * events to a bounded buffer and do not wait for the metric reporters.
+ * <p>
+ * The buffer is a lock-free ring buffer which can be added to and drained by many threads. Each slot has a sequence
+ * number telling whether it is free for the position being added or holds the event of the position being drained,
+ * and a position is claimed by a compare and set of the add or drain counter. When the buffer is full, events are
+ * dropped according to the {@link OverflowPolicy}, so adding an event never blocks.
+ * <p>
+ * A worker which finds the buffer empty waits on a condition, with a timeout, until an event is added. Adding an
+ * event only takes the lock of the condition when a worker is waiting, so a busy buffer is not contended on the lock.
+ * Once stopped, new events are dropped, and the events added while stopping are published before {@link #stop(long)}
+ * returns.
+ * <p>
+ * The events must not be modified once added, as they are published later on a worker thread.
+ */
+public class AsyncEventPublisher implements AsyncEventPublisherMBean {
+
+    private static final Log log = LogFactory.getLog(AsyncEventPublisher.class);
+    public static final String MBEAN_NAME = "org.wso2.carbon.apimgt:type=AnalyticsEventPublisher";
+    private static final long IDLE_TIMEOUT = TimeUnit.SECONDS.toNanos(1);
+    private static final int MAX_DROP_OLDEST_ATTEMPTS = 8;
+
+    private final AtomicLongArray sequences;
+    private final AbstractRequestDataPublisher[] publishers;
+    private final Event[] events;
+    private final int mask;
+    private final AtomicLong addPosition = new AtomicLong();
+    private final AtomicLong drainPosition = new AtomicLong();
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final Thread[] workers;
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final ReentrantLock idleLock = new ReentrantLock();
+    private final Condition notEmpty = idleLock.newCondition();
+    private final AtomicInteger idleWorkers = new AtomicInteger();
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    /**
+     * @param bufferSize     number of events the buffer holds, rounded up to a power of two
+     * @param workerCount    number of threads publishing the events
+     * @param batchSize      maximum number of events a worker drains from the buffer at a time
+     * @param overflowPolicy what to drop when the buffer is full
+     */
+    public AsyncEventPublisher(int bufferSize, int workerCount, int batchSize, OverflowPolicy overflowPolicy) {
+
+        int capacity = Integer.highestOneBit(Math.max(bufferSize, 2) - 1) << 1;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.publishers = new AbstractRequestDataPublisher[capacity];
+        this.events = new Event[capacity];
+        this.mask = capacity - 1;
+        this.batchSize = Math.max(batchSize, 1);
+        this.overflowPolicy = overflowPolicy;
+        this.workers = new Thread[Math.max(workerCount, 1)];
+    }
+
+    /**
+     * Starts the worker threads.
+     */
+    public synchronized void start() {
+
+        if (running) {
+            return;
+        }
+        running = true;
+        stopped = false;
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(this::work, "AnalyticsEventPublisher-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Stops the worker threads, after they publish the buffered events. Events added from now on are dropped, and
+     * the events still buffered once the workers have stopped are published on the calling thread.
+     *
+     * @param timeout time in milliseconds to wait for each worker
+     */
+    public synchronized void stop(long timeout) {
+
+        if (!running) {
+            return;
+        }
+        stopped = true;
+        running = false;
+        signalWorkers(true);
+        for (Thread worker : workers) {
+            try {
+                worker.join(timeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        drain(Integer.MAX_VALUE, true);
+    }
+
+    /**
+     * Adds an event to be published by the given publisher, or drops an event if the buffer is full.
+     *
+     * @param publisher publisher of the event
+     * @param event     analytics event
+     */
+    public void publish(AbstractRequestDataPublisher publisher, Event event) {
+
+        if (stopped || overflowPolicy == OverflowPolicy.SAMPLE && !sample()) {
+            droppedCount.increment();
+            return;
+        }
+        if (offer(publisher, event)) {
+            added();
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+            for (int i = 0; i < MAX_DROP_OLDEST_ATTEMPTS; i++) {
+                if (drain(1, false) > 0) {
+                    droppedCount.increment();
+                }
+                if (offer(publisher, event)) {
+                    added();
+                    return;
+                }
+            }
+        }
+        droppedCount.increment();
+    }
+
+    /**
+     * Wakes up a waiting worker after an event is added. An event which was added while the publisher was stopping
+     * may have been missed by the final drain of {@link #stop(long)}, so it is published on the calling thread.
+     */
+    private void added() {
+
+        if (stopped) {
+            drain(Integer.MAX_VALUE, true);
+        } else if (idleWorkers.get() > 0) {
+            signalWorkers(false);
+        }
+    }
+
+    private void signalWorkers(boolean all) {
+
+        idleLock.lock();
+        try {
+            if (all) {
+                notEmpty.signalAll();
+            } else {
+                notEmpty.signal();
+            }
+        } finally {
+            idleLock.unlock();
+        }
+    }
+
+    /**
+     * Decides whether to keep an event when sampling. All events are kept while the buffer is at most half full,
+     * then the chance of keeping an event falls to zero as the buffer fills up.
+     */
+    private boolean sample() {
+
+        int capacity = mask + 1;
+        int half = capacity >> 1;
+        long free = capacity - getBufferedCount();
+        return free >= half || ThreadLocalRandom.current().nextInt(half) < free;
+    }
+
+    private boolean offer(AbstractRequestDataPublisher publisher, Event event) {
+
+        long position = addPosition.get();
+        int index;
+        while (true) {
+            index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (addPosition.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = addPosition.get();
+            } else if (difference < 0) {
+                // The slot still holds the event added one round before, so the buffer is full
+                return false;
+            } else {
+                position = addPosition.get();
+            }
+        }
+        publishers[index] = publisher;
+        events[index] = event;
+        // A volatile write, so that either a stopping publisher drains the event or the adding thread sees the stop
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Takes up to the given number of events from the buffer.
+     *
+     * @param max     maximum number of events to take
+     * @param publish whether to publish the events or to drop them
+     * @return number of events taken
+     */
+    int drain(int max, boolean publish) {
+
+        int count = 0;
+        while (count < max) {
+            long position = drainPosition.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference < 0) {
+                // The event of the position is not added yet, so the buffer is empty
+                break;
+            }
+            if (difference > 0 || !drainPosition.compareAndSet(position, position + 1)) {
+                continue;
+            }
+            AbstractRequestDataPublisher publisher = publishers[index];
+            Event event = events[index];
+            publishers[index] = null;
+            events[index] = null;
+            sequences.lazySet(index, position + mask + 1);
+            count++;
+            if (publish) {
+                try {
+                    publisher.publishEvent(event);
+                    publishedCount.increment();
+                } catch (RuntimeException e) {
+                    log.error("Error while publishing analytics event.", e);
+                }
+            }
+        }
+        return count;
+    }
+
+    private void work() {
+
+        while (true) {
+            if (drain(batchSize, true) == 0) {
+                if (!running) {
+                    // Publish the events added while stopping
+                    if (drain(Integer.MAX_VALUE, true) == 0) {
+                        return;
+                    }
+                } else {
+                    awaitEvents();
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits until an event is added, the publisher is stopped or the idle timeout elapses. A worker announces that it
+     * is waiting before checking the buffer, and a thread adding an event checks for waiting workers after adding it,
+     * so an added event is either seen by the check or signalled to the worker.
+     */
+    private void awaitEvents() {
+
+        idleLock.lock();
+        try {
+            idleWorkers.incrementAndGet();
+            try {
+                if (running && getBufferedCount() == 0) {
+                    notEmpty.awaitNanos(IDLE_TIMEOUT);
+                }
+            } finally {
+                idleWorkers.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            // Workers are only stopped through stop(), so the interrupt is ignored
+            if (log.isDebugEnabled()) {
+                log.debug("Analytics event publisher worker interrupted while idle.");
+            }
+        } finally {
+            idleLock.unlock();
+        }
+    }
+
+    /**
+     * Registers this publisher in the platform MBean server.
+     */
+    public void registerMBean() {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(MBEAN_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(this, objectName);
+        } catch (JMException e) {
+            log.warn("Error while registering analytics event publisher MBean", e);
+        }
+    }
+
+    @Override
+    public long getPublishedCount() {
+
+        return publishedCount.sum();
+    }
+
+    @Override
+    public long getDroppedCount() {
+
+        return droppedCount.sum();
+    }
+
+    @Override
+    public int getBufferedCount() {
+
+        long buffered = addPosition.get() - drainPosition.get();
+        return (int) Math.max(0, Math.min(buffered, mask + 1));
+    }
+
+    @Override
+    public int getBufferSize() {
+
+        return mask + 1;
+    }
+
+    @Override
+    public String getOverflowPolicy() {
+
+        return overflowPolicy.name();
+    }
+
+    /**
+     * What to drop when the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop the oldest buffered event to make room for the new event.
+         */
+        DROP_OLDEST,
+        /**
+         * Drop the new event.
+         */
+        DROP_NEWEST,
+        /**
+         * Drop a growing share of the new events once the buffer is half full, and all of them when it is full.
+         */
+        SAMPLE
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.common.analytics.publishers.impl;
+
+/**
+ * JMX view of the asynchronous analytics event publisher.
+ */
+public interface AsyncEventPublisherMBean {
+
+    /**
+     * @return number of events handed over to the metric reporters
+     */
+    long getPublishedCount();
+
+    /**
+     * @return number of events dropped as the buffer was full
+     */
+    long getDroppedCount();
+
+    /**
+     * @return number of events waiting in the buffer
+     */
+    int getBufferedCount();
+
+    /**
+     * @return number of events the buffer holds
+     */
+    int getBufferSize();
+
+    /**
+     * @return what is dropped when the buffer is full
+     */
+    String getOverflowPolicy();
+}
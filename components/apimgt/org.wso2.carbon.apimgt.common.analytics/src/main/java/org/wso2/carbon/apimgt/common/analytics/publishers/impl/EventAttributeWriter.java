@@ -0,0 +1,149 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.common.analytics.publishers.impl;
+
+import org.wso2.am.analytics.publisher.exception.MetricReportingException;
+import org.wso2.am.analytics.publisher.reporter.MetricEventBuilder;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.API;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Application;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Error;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Event;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.ExtendedAPI;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Latencies;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.MetaInfo;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Operation;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Rollup;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Target;
+
+/**
+ * Writes the attributes of an analytics event straight into a metric event builder, with the same names and values
+ * as the map Jackson converts the event into, without going through the map.
+ * <p>
+ * Only the event DTOs of this module, and fault sub categories which are enums, are known to the writer. Events
+ * holding subclasses of the DTOs, which may have more properties, are not supported and have to be converted with
+ * Jackson.
+ */
+final class EventAttributeWriter {
+
+    private EventAttributeWriter() {
+
+    }
+
+    /**
+     * Checks whether the event and all its nested objects are of the types known to the writer.
+     *
+     * @param event analytics event
+     * @return true if the event can be written with {@link #write(Event, MetricEventBuilder)}
+     */
+    static boolean isSupported(Event event) {
+
+        return event.getClass() == Event.class
+                && (event.getApi() == null || event.getApi().getClass() == API.class
+                || event.getApi().getClass() == ExtendedAPI.class)
+                && isOfType(event.getOperation(), Operation.class)
+                && isOfType(event.getTarget(), Target.class)
+                && isOfType(event.getApplication(), Application.class)
+                && isOfType(event.getLatencies(), Latencies.class)
+                && isOfType(event.getMetaInfo(), MetaInfo.class)
+                && isOfType(event.getError(), Error.class)
+                && isOfType(event.getRollup(), Rollup.class)
+                && (event.getError() == null || event.getError().getErrorMessage() == null
+                || event.getError().getErrorMessage() instanceof Enum);
+    }
+
+    private static boolean isOfType(Object value, Class<?> type) {
+
+        return value == null || value.getClass() == type;
+    }
+
+    /**
+     * Adds the attributes of the event to the builder. The attributes of a null nested object are omitted, as they are
+     * when the event is unwrapped by Jackson.
+     *
+     * @param event   analytics event, which is supported by the writer
+     * @param builder builder of the metric event
+     * @throws MetricReportingException if an attribute is not accepted by the builder
+     */
+    static void write(Event event, MetricEventBuilder builder) throws MetricReportingException {
+
+        API api = event.getApi();
+        if (api != null) {
+            builder.addAttribute("apiId", api.getApiId());
+            builder.addAttribute("apiType", api.getApiType());
+            builder.addAttribute("apiName", api.getApiName());
+            builder.addAttribute("apiVersion", api.getApiVersion());
+            builder.addAttribute("apiCreator", api.getApiCreator());
+            builder.addAttribute("apiCreatorTenantDomain", api.getApiCreatorTenantDomain());
+            if (api instanceof ExtendedAPI) {
+                builder.addAttribute("organizationId", ((ExtendedAPI) api).getOrganizationId());
+            }
+        }
+        Operation operation = event.getOperation();
+        if (operation != null) {
+            builder.addAttribute("apiMethod", operation.getApiMethod());
+            builder.addAttribute("apiResourceTemplate", operation.getApiResourceTemplate());
+        }
+        Target target = event.getTarget();
+        if (target != null) {
+            builder.addAttribute("targetResponseCode", target.getTargetResponseCode());
+            builder.addAttribute("responseCacheHit", target.isResponseCacheHit());
+            builder.addAttribute("destination", target.getDestination());
+        }
+        Application application = event.getApplication();
+        if (application != null) {
+            builder.addAttribute("keyType", application.getKeyType());
+            builder.addAttribute("applicationId", application.getApplicationId());
+            builder.addAttribute("applicationName", application.getApplicationName());
+            builder.addAttribute("applicationOwner", application.getApplicationOwner());
+        }
+        Latencies latencies = event.getLatencies();
+        if (latencies != null) {
+            builder.addAttribute("responseLatency", latencies.getResponseLatency());
+            builder.addAttribute("backendLatency", latencies.getBackendLatency());
+            builder.addAttribute("requestMediationLatency", latencies.getRequestMediationLatency());
+            builder.addAttribute("responseMediationLatency", latencies.getResponseMediationLatency());
+        }
+        MetaInfo metaInfo = event.getMetaInfo();
+        if (metaInfo != null) {
+            builder.addAttribute("correlationId", metaInfo.getCorrelationId());
+            builder.addAttribute("regionId", metaInfo.getRegionId());
+            builder.addAttribute("gatewayType", metaInfo.getGatewayType());
+        }
+        Error error = event.getError();
+        if (error != null) {
+            builder.addAttribute("errorCode", error.getErrorCode());
+            builder.addAttribute("errorMessage",
+                    error.getErrorMessage() != null ? ((Enum<?>) error.getErrorMessage()).name() : null);
+        }
+        Rollup rollup = event.getRollup();
+        if (rollup != null) {
+            builder.addAttribute("aggregationType", rollup.getAggregationType());
+            builder.addAttribute("requestCount", rollup.getRequestCount());
+            builder.addAttribute("aggregationInterval", rollup.getAggregationInterval());
+            builder.addAttribute("responseLatencyP50", rollup.getResponseLatencyP50());
+            builder.addAttribute("responseLatencyP90", rollup.getResponseLatencyP90());
+            builder.addAttribute("responseLatencyP99", rollup.getResponseLatencyP99());
+            builder.addAttribute("responseLatencyMax", rollup.getResponseLatencyMax());
+        }
+        builder.addAttribute("proxyResponseCode", event.getProxyResponseCode());
+        builder.addAttribute("requestTimestamp", event.getRequestTimestamp());
+        builder.addAttribute("errorType", event.getErrorType());
+        builder.addAttribute("userAgentHeader", event.getUserAgentHeader());
+        builder.addAttribute("userIp", event.getUserIp());
+    }
+}
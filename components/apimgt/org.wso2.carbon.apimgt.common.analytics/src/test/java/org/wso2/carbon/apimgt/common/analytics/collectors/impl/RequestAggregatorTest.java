@@ -0,0 +1,233 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.common.analytics.collectors.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.am.analytics.publisher.reporter.CounterMetric;
+import org.wso2.carbon.apimgt.common.analytics.publishers.RequestDataPublisher;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.API;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Application;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Event;
+import org.wso2.carbon.apimgt.common.analytics.Constants;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Latencies;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.MetaInfo;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Operation;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Rollup;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Target;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Unit test cases related RequestAggregator.
+ */
+public class RequestAggregatorTest {
+
+    @Test
+    public void testRollups() {
+
+        RecordingPublisher publisher = new RecordingPublisher();
+        RequestAggregator requestAggregator = new RequestAggregator(60000, 0);
+        for (int i = 1; i <= 100; i++) {
+            Assert.assertFalse(requestAggregator.aggregate(publisher, createEvent("app1", 200, i)));
+        }
+        for (int i = 0; i < 10; i++) {
+            requestAggregator.aggregate(publisher, createEvent("app2", 200, 10));
+            requestAggregator.aggregate(publisher, createEvent("app2", 503, 10));
+        }
+        requestAggregator.publish();
+
+        Assert.assertEquals(3, publisher.events.size());
+        publisher.events.sort(Comparator.comparingLong(event -> -event.getRollup().getRequestCount()));
+        Event rollupEvent = publisher.events.get(0);
+        Rollup rollup = rollupEvent.getRollup();
+        Assert.assertEquals(Rollup.TYPE_ROLLUP, rollup.getAggregationType());
+        Assert.assertEquals("app1", rollupEvent.getApplication().getApplicationId());
+        Assert.assertEquals(100, rollup.getRequestCount());
+        Assert.assertEquals(60000, rollup.getAggregationInterval());
+        Assert.assertEquals(50, rollupEvent.getLatencies().getResponseLatency());
+        Assert.assertEquals(50, rollup.getResponseLatencyP50(), 50 / 16);
+        Assert.assertEquals(99, rollup.getResponseLatencyP99(), 99 / 16);
+        Assert.assertEquals(100, rollup.getResponseLatencyMax());
+        Assert.assertEquals(10, publisher.events.get(1).getRollup().getRequestCount());
+        Assert.assertEquals(10, publisher.events.get(2).getRollup().getRequestCount());
+
+        publisher.events.clear();
+        requestAggregator.publish();
+        Assert.assertTrue(publisher.events.isEmpty());
+    }
+
+    @Test
+    public void testSamples() {
+
+        RecordingPublisher publisher = new RecordingPublisher();
+        RequestAggregator requestAggregator = new RequestAggregator(60000, 100);
+        Event event = createEvent("app1", 200, 5);
+        Assert.assertTrue(requestAggregator.aggregate(publisher, event));
+        Assert.assertEquals(Rollup.TYPE_SAMPLE, event.getRollup().getAggregationType());
+
+        requestAggregator.publish();
+        Assert.assertEquals(1, publisher.events.size());
+        Assert.assertEquals(1, publisher.events.get(0).getRollup().getRequestCount());
+    }
+
+    @Test
+    public void testRequestAttributesAreCleared() {
+
+        RecordingPublisher publisher = new RecordingPublisher();
+        RequestAggregator requestAggregator = new RequestAggregator(60000, 0);
+        Event event = createEvent("app1", 200, 5);
+        MetaInfo metaInfo = new MetaInfo();
+        metaInfo.setCorrelationId("correlation1");
+        metaInfo.setGatewayType("SYNAPSE");
+        event.setMetaInfo(metaInfo);
+        Target target = new Target();
+        target.setDestination("http://backend1");
+        target.setTargetResponseCode(200);
+        event.setTarget(target);
+        requestAggregator.aggregate(publisher, event);
+        requestAggregator.publish();
+
+        Event rollupEvent = publisher.events.get(0);
+        Assert.assertEquals(Constants.UNKNOWN_VALUE, rollupEvent.getMetaInfo().getCorrelationId());
+        Assert.assertEquals("SYNAPSE", rollupEvent.getMetaInfo().getGatewayType());
+        Assert.assertNull(rollupEvent.getTarget().getDestination());
+        Assert.assertEquals(Constants.UNKNOWN_INT_VALUE, rollupEvent.getTarget().getTargetResponseCode());
+        Assert.assertEquals("correlation1", metaInfo.getCorrelationId());
+    }
+
+    @Test
+    public void testRequestsWithoutLatencies() {
+
+        RecordingPublisher publisher = new RecordingPublisher();
+        RequestAggregator requestAggregator = new RequestAggregator(60000, 0);
+        for (int i = 0; i < 10; i++) {
+            requestAggregator.aggregate(publisher, createEvent("app1", 200, 100));
+            Event event = createEvent("app1", 200, 0);
+            event.setLatencies(null);
+            requestAggregator.aggregate(publisher, event);
+        }
+        requestAggregator.publish();
+
+        Event rollupEvent = publisher.events.get(0);
+        Assert.assertEquals(20, rollupEvent.getRollup().getRequestCount());
+        Assert.assertEquals(100, rollupEvent.getLatencies().getResponseLatency());
+        Assert.assertEquals(100, rollupEvent.getRollup().getResponseLatencyP50(), 100 / 16);
+    }
+
+    @Test
+    public void testConcurrentRequestsAreCountedOnce() throws Exception {
+
+        RecordingPublisher publisher = new RecordingPublisher();
+        RequestAggregator requestAggregator = new RequestAggregator(60000, 0);
+        int threads = 4;
+        int requestsPerThread = 20000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < requestsPerThread; i++) {
+                        requestAggregator.aggregate(publisher, createEvent("app" + i % 8, 200, i % 100));
+                    }
+                }));
+            }
+            boolean done = false;
+            while (!done) {
+                requestAggregator.publish();
+                done = futures.stream().allMatch(Future::isDone);
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        requestAggregator.publish();
+
+        long requestCount = 0;
+        for (Event event : publisher.events) {
+            requestCount += event.getRollup().getRequestCount();
+        }
+        Assert.assertEquals(threads * requestsPerThread, requestCount);
+    }
+
+    @Test
+    public void testLatencyHistogram() {
+
+        Random random = new Random(1);
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Long> values = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            long value = (long) Math.exp(random.nextDouble() * 14);
+            values.add(value);
+            histogram.record(value);
+        }
+        values.sort(Long::compare);
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            long expected = values.get((int) Math.ceil(percentile / 100 * values.size()) - 1);
+            long actual = histogram.getValueAtPercentile(percentile);
+            Assert.assertTrue(actual >= expected && actual <= expected + expected / 16);
+        }
+        Assert.assertEquals(values.get(values.size() - 1).longValue(), histogram.getValueAtPercentile(100));
+        Assert.assertEquals(10000, histogram.getTotalCount());
+    }
+
+    private Event createEvent(String applicationId, int proxyResponseCode, long responseLatency) {
+
+        Event event = new Event();
+        API api = new API();
+        api.setApiId("api1");
+        event.setApi(api);
+        Operation operation = new Operation();
+        operation.setApiMethod("GET");
+        operation.setApiResourceTemplate("/pets");
+        event.setOperation(operation);
+        Application application = new Application();
+        application.setApplicationId(applicationId);
+        event.setApplication(application);
+        Latencies latencies = new Latencies();
+        latencies.setResponseLatency(responseLatency);
+        event.setLatencies(latencies);
+        event.setProxyResponseCode(proxyResponseCode);
+        return event;
+    }
+
+    private static class RecordingPublisher implements RequestDataPublisher {
+
+        private final List<Event> events = new ArrayList<>();
+
+        @Override
+        public void publish(Event analyticsEvent) {
+
+            events.add(analyticsEvent);
+        }
+
+        @Override
+        public CounterMetric getCounterMetric() {
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.common.analytics.publishers.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.am.analytics.publisher.reporter.CounterMetric;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Unit test cases related AsyncEventPublisher.
+ */
+public class AsyncEventPublisherTest {
+
+    @Test
+    public void testAllEventsArePublished() throws Exception {
+
+        RecordingPublisher publisher = new RecordingPublisher();
+        AsyncEventPublisher asyncEventPublisher = new AsyncEventPublisher(1024, 2, 64,
+                AsyncEventPublisher.OverflowPolicy.DROP_NEWEST);
+        asyncEventPublisher.start();
+        int threads = 4;
+        int eventsPerThread = 10000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        asyncEventPublisher.publish(publisher, new Event());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        asyncEventPublisher.stop(10000);
+        long dropped = asyncEventPublisher.getDroppedCount();
+        Assert.assertEquals(threads * eventsPerThread - dropped, asyncEventPublisher.getPublishedCount());
+        Assert.assertEquals(asyncEventPublisher.getPublishedCount(), publisher.events.size());
+        Assert.assertEquals(0, asyncEventPublisher.getBufferedCount());
+    }
+
+    @Test
+    public void testDropNewest() {
+
+        AsyncEventPublisher asyncEventPublisher = new AsyncEventPublisher(4, 1, 16,
+                AsyncEventPublisher.OverflowPolicy.DROP_NEWEST);
+        RecordingPublisher publisher = new RecordingPublisher();
+        List<Event> events = publish(asyncEventPublisher, publisher, 6);
+        Assert.assertEquals(4, asyncEventPublisher.getBufferedCount());
+        Assert.assertEquals(2, asyncEventPublisher.getDroppedCount());
+        Assert.assertTrue(publisher.events.isEmpty());
+
+        Assert.assertEquals(4, asyncEventPublisher.drain(Integer.MAX_VALUE, true));
+        Assert.assertEquals(events.subList(0, 4), new ArrayList<>(publisher.events));
+    }
+
+    @Test
+    public void testDropOldest() {
+
+        AsyncEventPublisher asyncEventPublisher = new AsyncEventPublisher(4, 1, 16,
+                AsyncEventPublisher.OverflowPolicy.DROP_OLDEST);
+        RecordingPublisher publisher = new RecordingPublisher();
+        List<Event> events = publish(asyncEventPublisher, publisher, 6);
+        Assert.assertEquals(4, asyncEventPublisher.getBufferedCount());
+        Assert.assertEquals(2, asyncEventPublisher.getDroppedCount());
+
+        Assert.assertEquals(4, asyncEventPublisher.drain(Integer.MAX_VALUE, true));
+        Assert.assertEquals(events.subList(2, 6), new ArrayList<>(publisher.events));
+    }
+
+    @Test
+    public void testSample() {
+
+        AsyncEventPublisher asyncEventPublisher = new AsyncEventPublisher(8, 1, 16,
+                AsyncEventPublisher.OverflowPolicy.SAMPLE);
+        publish(asyncEventPublisher, new RecordingPublisher(), 100);
+        int buffered = asyncEventPublisher.getBufferedCount();
+        Assert.assertTrue(buffered >= 4 && buffered <= 8);
+        Assert.assertEquals(100 - buffered, asyncEventPublisher.getDroppedCount());
+    }
+
+    @Test
+    public void testIdleWorkerIsWokenUp() throws Exception {
+
+        RecordingPublisher publisher = new RecordingPublisher();
+        AsyncEventPublisher asyncEventPublisher = new AsyncEventPublisher(16, 1, 16,
+                AsyncEventPublisher.OverflowPolicy.DROP_NEWEST);
+        asyncEventPublisher.start();
+        try {
+            // Let the worker find the buffer empty and wait
+            Thread.sleep(100);
+            asyncEventPublisher.publish(publisher, new Event());
+            long deadline = System.currentTimeMillis() + 500;
+            while (publisher.events.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            // The idle timeout is a second, so the event is published only if the worker is signalled
+            Assert.assertEquals(1, publisher.events.size());
+        } finally {
+            asyncEventPublisher.stop(10000);
+        }
+    }
+
+    @Test
+    public void testEventsAreNotLostOnStop() {
+
+        RecordingPublisher publisher = new RecordingPublisher();
+        AsyncEventPublisher asyncEventPublisher = new AsyncEventPublisher(16, 1, 16,
+                AsyncEventPublisher.OverflowPolicy.DROP_NEWEST);
+        asyncEventPublisher.start();
+        publish(asyncEventPublisher, publisher, 8);
+        asyncEventPublisher.stop(10000);
+        Assert.assertEquals(8, publisher.events.size());
+        Assert.assertEquals(0, asyncEventPublisher.getBufferedCount());
+
+        // Events added after stopping are dropped instead of being left in the buffer
+        publish(asyncEventPublisher, publisher, 4);
+        Assert.assertEquals(0, asyncEventPublisher.getBufferedCount());
+        Assert.assertEquals(4, asyncEventPublisher.getDroppedCount());
+        Assert.assertEquals(8, publisher.events.size());
+    }
+
+    private List<Event> publish(AsyncEventPublisher asyncEventPublisher, RecordingPublisher publisher, int count) {
+
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Event event = new Event();
+            events.add(event);
+            asyncEventPublisher.publish(publisher, event);
+        }
+        return events;
+    }
+
+    private static class RecordingPublisher extends AbstractRequestDataPublisher {
+
+        private final Queue<Event> events = new ConcurrentLinkedQueue<>();
+
+        @Override
+        void publishEvent(Event analyticsEvent) {
+
+            events.add(analyticsEvent);
+        }
+
+        @Override
+        public CounterMetric getCounterMetric() {
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.common.analytics.publishers.impl;
+
+import org.wso2.am.analytics.publisher.reporter.MetricEventBuilder;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.API;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Event;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.ExtendedAPI;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * Time to add the attributes of an analytics event to the metric event builder, between converting the event into a
+ * map with Jackson as the publisher did before, and {@link EventAttributeWriter}. Success and fault events populated
+ * as in {@link EventAttributeWriterTest} are published alternately, and both add the same attributes to a builder
+ * which only counts them.
+ * <p>
+ * This is not run as a unit test. Run it with the test classpath of this module, e.g.
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.wso2.carbon.apimgt.common.analytics.publishers.impl.EventAttributeWriterBenchmark},
+ * optionally passing the number of events of each round, which defaults to 1000000.
+ */
+public class EventAttributeWriterBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private static long attributes;
+
+    public static void main(String[] args) throws Exception {
+
+        int eventCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+        Event successEvent = EventAttributeWriterTest.populate(new Event());
+        successEvent.setApi(EventAttributeWriterTest.populate(new ExtendedAPI()));
+        successEvent.setError(null);
+        successEvent.setErrorType(null);
+        successEvent.setRollup(null);
+        Event faultEvent = EventAttributeWriterTest.populate(new Event());
+        faultEvent.setApi(EventAttributeWriterTest.populate(new API()));
+        faultEvent.setRollup(null);
+        Event[] events = {successEvent, faultEvent};
+
+        MetricEventBuilder builder = (MetricEventBuilder) Proxy.newProxyInstance(
+                MetricEventBuilder.class.getClassLoader(), new Class<?>[]{MetricEventBuilder.class},
+                (proxy, method, methodArgs) -> {
+                    attributes++;
+                    return proxy;
+                });
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < eventCount; i++) {
+                Map<String, Object> dataMap = AbstractRequestDataPublisher.OBJECT_MAPPER.convertValue(
+                        events[i & 1], AbstractRequestDataPublisher.MAP_TYPE_REFERENCE);
+                for (Map.Entry<String, Object> entry : dataMap.entrySet()) {
+                    builder.addAttribute(entry.getKey(), entry.getValue());
+                }
+            }
+            long jacksonTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < eventCount; i++) {
+                Event event = events[i & 1];
+                if (EventAttributeWriter.isSupported(event)) {
+                    EventAttributeWriter.write(event, builder);
+                }
+            }
+            long writerTime = System.nanoTime() - start;
+
+            System.out.printf("round %d: convertValue %.0f ns/event, EventAttributeWriter %.0f ns/event%n", round,
+                    (double) jacksonTime / eventCount, (double) writerTime / eventCount);
+        }
+        System.out.println(attributes + " attributes added");
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.common.analytics.publishers.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.am.analytics.publisher.reporter.MetricEventBuilder;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.API;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Error;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Event;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.ExtendedAPI;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.Rollup;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.enums.FaultSubCategories;
+import org.wso2.carbon.apimgt.common.analytics.publishers.dto.enums.FaultSubCategory;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit test cases related EventAttributeWriter, which checks that the writer adds the same attributes as the map
+ * Jackson converts an event into. The events are populated through all the setters of the event DTOs, so that a
+ * property added to a DTO fails the test until the writer adds it too.
+ */
+public class EventAttributeWriterTest {
+
+    @Test
+    public void testSuccessEventAttributesMatchJackson() throws Exception {
+
+        Event event = populate(new Event());
+        event.setApi(populate(new ExtendedAPI()));
+        event.setError(null);
+        event.setErrorType(null);
+        event.setRollup(null);
+
+        assertAttributesMatchJackson(event);
+    }
+
+    @Test
+    public void testFaultEventAttributesMatchJackson() throws Exception {
+
+        Event event = populate(new Event());
+        event.setApi(populate(new API()));
+        event.setRollup(null);
+        for (Class<?> faultSubCategories : FaultSubCategories.class.getClasses()) {
+            for (Object faultSubCategory : faultSubCategories.getEnumConstants()) {
+                event.getError().setErrorMessage((FaultSubCategory) faultSubCategory);
+                assertAttributesMatchJackson(event);
+            }
+        }
+    }
+
+    @Test
+    public void testFullyPopulatedEventAttributesMatchJackson() throws Exception {
+
+        Event event = populate(new Event());
+        event.setApi(populate(new ExtendedAPI()));
+        Map<String, Object> attributes = assertAttributesMatchJackson(event);
+        for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            Assert.assertNotNull("Attribute " + attribute.getKey() + " is not populated", attribute.getValue());
+        }
+    }
+
+    @Test
+    public void testEmptyEventAttributesMatchJackson() throws Exception {
+
+        assertAttributesMatchJackson(new Event());
+    }
+
+    @Test
+    public void testSubclassesOfEventDTOsAreNotSupported() {
+
+        Event event = new Event();
+        event.setError(new Error() {
+        });
+        Assert.assertFalse(EventAttributeWriter.isSupported(event));
+
+        event = new Event();
+        event.setRollup(new Rollup() {
+        });
+        Assert.assertFalse(EventAttributeWriter.isSupported(event));
+    }
+
+    private static Map<String, Object> assertAttributesMatchJackson(Event event) throws Exception {
+
+        Assert.assertTrue(EventAttributeWriter.isSupported(event));
+        Map<String, Object> expected = AbstractRequestDataPublisher.OBJECT_MAPPER.convertValue(event,
+                AbstractRequestDataPublisher.MAP_TYPE_REFERENCE);
+        Map<String, Object> attributes = new HashMap<>();
+        EventAttributeWriter.write(event, recordingBuilder(attributes));
+        // Map equality also compares the types of the values, e.g. a long latency written as an int does not match
+        Assert.assertEquals(new HashMap<>(expected), attributes);
+        return attributes;
+    }
+
+    static MetricEventBuilder recordingBuilder(Map<String, Object> attributes) {
+
+        return (MetricEventBuilder) Proxy.newProxyInstance(MetricEventBuilder.class.getClassLoader(),
+                new Class<?>[]{MetricEventBuilder.class}, (proxy, method, args) -> {
+                    if ("addAttribute".equals(method.getName())) {
+                        Assert.assertFalse("Attribute " + args[0] + " is added twice",
+                                attributes.containsKey(args[0]));
+                        attributes.put((String) args[0], args[1]);
+                        return proxy;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Sets every property of an event DTO through its setters, to a value which is distinct for each property. The
+     * nested DTOs of an event are populated the same way.
+     */
+    static <T> T populate(T dto) throws Exception {
+
+        int index = 1;
+        for (Method method : dto.getClass().getMethods()) {
+            if (!method.getName().startsWith("set") || method.getParameterCount() != 1) {
+                continue;
+            }
+            Class<?> type = method.getParameterTypes()[0];
+            String property = method.getName().substring(3);
+            Object value;
+            if (type == String.class) {
+                value = property + "-value";
+            } else if (type == int.class) {
+                value = 200 + index;
+            } else if (type == long.class) {
+                // Beyond the range of an int, so that a long written as an int does not match
+                value = Integer.MAX_VALUE + 1000L * index;
+            } else if (type == boolean.class) {
+                value = true;
+            } else if (type == FaultSubCategory.class) {
+                value = FaultSubCategories.Throttling.API_LEVEL_LIMIT_EXCEEDED;
+            } else if (type.getPackage() == Event.class.getPackage()) {
+                value = populate(type.getDeclaredConstructor().newInstance());
+            } else {
+                throw new AssertionError("No test value for property " + property + " of type " + type.getName()
+                        + " of " + dto.getClass().getSimpleName());
+            }
+            method.invoke(dto, value);
+            index++;
+        }
+        return dto;
+    }
+}
@@ -22,13 +22,21 @@ import graphql.ExecutionResult;
 import graphql.GraphQL;
 import graphql.GraphQLError;
 import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.FieldComplexityEnvironment;
 import graphql.analysis.MaxQueryComplexityInstrumentation;
 import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.language.Document;
 import graphql.schema.GraphQLSchema;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.apimgt.common.gateway.dto.QueryAnalyzerResponseDTO;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This class contains methods using for Graphql query depth and complexity analysis.
@@ -137,6 +145,113 @@ public class QueryAnalyzer {
         return queryAnalyzerResponseDTO;
     }
 
+    /**
+     * This method checks an already calculated query depth against the maximum query depth.
+     *
+     * @param maxQueryDepth maximum query depth
+     * @param queryDepth    depth of the query, calculated by {@link #calculateQueryDepth(Document)}
+     * @return true, if the query depth does not exceed the maximum value or false, if query depth exceeds the maximum
+     */
+    public QueryAnalyzerResponseDTO analyseQueryDepth(int maxQueryDepth, int queryDepth) {
+
+        QueryAnalyzerResponseDTO queryAnalyzerResponseDTO = new QueryAnalyzerResponseDTO();
+        if (maxQueryDepth > 0 && queryDepth > maxQueryDepth) {
+            // Same error as the one of MaxQueryDepthInstrumentation.
+            queryAnalyzerResponseDTO.addErrorToList("maximum query depth exceeded " + queryDepth + " > "
+                    + maxQueryDepth);
+            log.error(queryAnalyzerResponseDTO.getErrorList().toString());
+            queryAnalyzerResponseDTO.setSuccess(false);
+            return queryAnalyzerResponseDTO;
+        }
+        queryAnalyzerResponseDTO.setSuccess(true);
+        return queryAnalyzerResponseDTO;
+    }
+
+    /**
+     * This method checks an already calculated query complexity against the maximum query complexity.
+     *
+     * @param maxQueryComplexity maximum query complexity value
+     * @param queryComplexity    complexity of the query, calculated by
+     *                           {@link #calculateQueryComplexity(Document, FieldComplexityCalculator)}
+     * @return true, if query complexity does not exceed the maximum or false, if query complexity exceeds the maximum
+     */
+    public QueryAnalyzerResponseDTO analyseQueryComplexity(int maxQueryComplexity, int queryComplexity) {
+
+        QueryAnalyzerResponseDTO queryAnalyzerResponseDTO = new QueryAnalyzerResponseDTO();
+        if (maxQueryComplexity > 0 && queryComplexity > maxQueryComplexity) {
+            log.error("maximum query complexity exceeded " + queryComplexity + " > " + maxQueryComplexity);
+            queryAnalyzerResponseDTO.addErrorToList("maximum query complexity exceeded");
+            queryAnalyzerResponseDTO.setSuccess(false);
+            return queryAnalyzerResponseDTO;
+        }
+        queryAnalyzerResponseDTO.setSuccess(true);
+        return queryAnalyzerResponseDTO;
+    }
+
+    /**
+     * This method calculates the depth of a parsed query, the same way {@link MaxQueryDepthInstrumentation} does,
+     * without executing the query.
+     *
+     * @param document parsed query
+     * @return depth of the query
+     */
+    public int calculateQueryDepth(Document document) {
+
+        return newQueryTraverser(document).reducePreOrder(
+                (environment, depth) -> Math.max(getPathLength(environment.getParentEnvironment()), depth), 0);
+    }
+
+    /**
+     * This method calculates the complexity of a parsed query, the same way {@link MaxQueryComplexityInstrumentation}
+     * does, without executing the query.
+     *
+     * @param document                  parsed query
+     * @param fieldComplexityCalculator Field Complexity Calculator
+     * @return complexity of the query
+     */
+    public int calculateQueryComplexity(Document document, FieldComplexityCalculator fieldComplexityCalculator) {
+
+        Map<QueryVisitorFieldEnvironment, Integer> valuesByParent = new LinkedHashMap<>();
+        newQueryTraverser(document).visitPostOrder(new QueryVisitorStub() {
+            @Override
+            public void visitField(QueryVisitorFieldEnvironment environment) {
+
+                int childComplexity = valuesByParent.getOrDefault(environment, 0);
+                int value = environment.isTypeNameIntrospectionField() ? 0 :
+                        fieldComplexityCalculator.calculate(toFieldComplexityEnvironment(environment),
+                                childComplexity);
+                valuesByParent.merge(environment.getParentEnvironment(), value, Integer::sum);
+            }
+        });
+        return valuesByParent.getOrDefault(null, 0);
+    }
+
+    private QueryTraverser newQueryTraverser(Document document) {
+
+        return QueryTraverser.newQueryTraverser().schema(schema).document(document)
+                .variables(Collections.emptyMap()).build();
+    }
+
+    private static int getPathLength(QueryVisitorFieldEnvironment environment) {
+
+        int length = 1;
+        while (environment != null) {
+            environment = environment.getParentEnvironment();
+            length++;
+        }
+        return length;
+    }
+
+    private static FieldComplexityEnvironment toFieldComplexityEnvironment(QueryVisitorFieldEnvironment environment) {
+
+        FieldComplexityEnvironment parentEnvironment = null;
+        if (environment.getParentEnvironment() != null) {
+            parentEnvironment = toFieldComplexityEnvironment(environment.getParentEnvironment());
+        }
+        return new FieldComplexityEnvironment(environment.getField(), environment.getFieldDefinition(),
+                environment.getFieldsContainer(), environment.getArguments(), parentEnvironment);
+    }
+
     public GraphQLSchema getSchema() {
         return schema;
     }
@@ -0,0 +1,354 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.common.gateway.util;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of the properties field of the throttle request stream, used instead of a JSON string
+ * when binary properties encoding is enabled.
+ * <p>
+ * An encoded value is {@link #PREFIX} followed by the Base64 form of: a version byte, the varint number of entries
+ * and then, per entry, a varint key tag, a type byte and the value. A key tag greater than zero is the position of
+ * the key in {@link #KEY_DICTIONARY}, while a zero tag is followed by the key as a length prefixed UTF-8 string.
+ * Integral values are written as zig-zag varints. The key dictionary is append only, as gateways and traffic
+ * managers of different versions have to agree on the positions of existing keys.
+ * <p>
+ * Decoding produces the same value types as parsing the JSON form of the properties, so that the throttle
+ * conditions evaluated on the decoded map behave the same for both encodings.
+ */
+public final class ThrottleEventPropertiesCodec {
+
+    /**
+     * Leading character of an encoded value, which can not start the JSON form of the properties.
+     */
+    public static final char PREFIX = '!';
+
+    private static final byte VERSION = 1;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_TRUE = 3;
+    private static final byte TYPE_FALSE = 4;
+    private static final byte TYPE_BIG_INTEGER = 5;
+    private static final byte TYPE_DOUBLE = 6;
+
+    private static final String[] KEY_DICTIONARY = {
+            null, "ip", "ipv6", "messageSize", "applicationName", "subscriptionType", "Host", "User-Agent",
+            "Accept", "Accept-Encoding", "Accept-Language", "Content-Type", "Content-Length", "Connection",
+            "Authorization", "Cache-Control", "Origin", "Referer", "X-Forwarded-For", "X-Forwarded-Host",
+            "X-Forwarded-Proto", "X-Real-IP", "activityid", "iss", "sub", "aud", "exp", "iat", "jti", "scope"
+    };
+
+    private static final Map<String, Integer> KEY_TAGS = new HashMap<>();
+
+    static {
+        for (int i = 1; i < KEY_DICTIONARY.length; i++) {
+            KEY_TAGS.put(KEY_DICTIONARY[i], i);
+        }
+    }
+
+    private ThrottleEventPropertiesCodec() {
+
+    }
+
+    /**
+     * Encodes the given properties. Values other than strings, numbers and booleans are written as their string
+     * form, the same way they would appear in the JSON form of the properties.
+     *
+     * @param properties properties of a throttle request event
+     * @return encoded properties
+     */
+    public static String encode(Map<String, ?> properties) {
+
+        Encoder encoder = new Encoder();
+        encoder.putAll(properties);
+        return encoder.encode();
+    }
+
+    /**
+     * @param properties properties field of a throttle request event
+     * @return true if the properties are in the binary encoding
+     */
+    public static boolean isEncoded(String properties) {
+
+        return properties != null && !properties.isEmpty() && properties.charAt(0) == PREFIX;
+    }
+
+    /**
+     * Decodes properties encoded by {@link #encode(Map)}. Integral values are returned as {@link Integer} when they
+     * fit, otherwise as {@link Long} or {@link BigInteger}.
+     *
+     * @param properties encoded properties
+     * @return decoded properties
+     * @throws IllegalArgumentException if the properties are not a valid encoded value
+     */
+    public static Map<String, Object> decode(String properties) {
+
+        if (!isEncoded(properties)) {
+            throw new IllegalArgumentException("Properties are not in the binary encoding");
+        }
+        Reader reader = new Reader(Base64.getDecoder().decode(properties.substring(1)));
+        byte version = reader.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported properties encoding version " + version);
+        }
+        int size = (int) reader.readVarint();
+        Map<String, Object> decoded = new HashMap<>(Math.max(16, size * 2));
+        for (int i = 0; i < size; i++) {
+            int tag = (int) reader.readVarint();
+            String key;
+            if (tag == 0) {
+                key = reader.readString();
+            } else if (tag < KEY_DICTIONARY.length) {
+                key = KEY_DICTIONARY[tag];
+            } else {
+                throw new IllegalArgumentException("Unknown properties key tag " + tag);
+            }
+            decoded.put(key, readValue(reader));
+        }
+        return decoded;
+    }
+
+    /**
+     * Encodes properties added one at a time, so that they can be written from their source maps without first
+     * copying them into a single map. As with {@link Map#putAll(Map)}, when a key is added more than once the value
+     * added last is the one decoded.
+     */
+    public static final class Encoder {
+
+        private final Writer writer = new Writer();
+        private int size;
+
+        /**
+         * Adds a property. Values other than strings, numbers and booleans are written as their string form.
+         *
+         * @param key   property key
+         * @param value property value
+         */
+        public void put(String key, Object value) {
+
+            Integer tag = KEY_TAGS.get(key);
+            if (tag != null) {
+                writer.writeVarint(tag);
+            } else {
+                writer.writeVarint(0);
+                writer.writeString(String.valueOf(key));
+            }
+            writeValue(writer, value);
+            size++;
+        }
+
+        /**
+         * @param properties properties to add
+         */
+        public void putAll(Map<String, ?> properties) {
+
+            for (Map.Entry<String, ?> entry : properties.entrySet()) {
+                put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        /**
+         * @return encoded properties
+         */
+        public String encode() {
+
+            Writer header = new Writer();
+            header.writeByte(VERSION);
+            header.writeVarint(size);
+            byte[] record = new byte[header.position + writer.position];
+            System.arraycopy(header.buffer, 0, record, 0, header.position);
+            System.arraycopy(writer.buffer, 0, record, header.position, writer.position);
+            byte[] encoded = Base64.getEncoder().encode(record);
+            char[] chars = new char[encoded.length + 1];
+            chars[0] = PREFIX;
+            for (int i = 0; i < encoded.length; i++) {
+                chars[i + 1] = (char) encoded[i];
+            }
+            return new String(chars);
+        }
+    }
+
+    private static void writeValue(Writer writer, Object value) {
+
+        if (value == null) {
+            writer.writeByte(TYPE_NULL);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte) {
+            writer.writeByte(TYPE_LONG);
+            long longValue = ((Number) value).longValue();
+            writer.writeVarint((longValue << 1) ^ (longValue >> 63));
+        } else if (value instanceof BigInteger) {
+            BigInteger bigInteger = (BigInteger) value;
+            if (bigInteger.bitLength() < 64) {
+                writeValue(writer, bigInteger.longValue());
+            } else {
+                writer.writeByte(TYPE_BIG_INTEGER);
+                writer.writeBytes(bigInteger.toByteArray());
+            }
+        } else if (value instanceof Double || value instanceof Float) {
+            writer.writeByte(TYPE_DOUBLE);
+            long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                writer.writeByte((byte) (bits >>> shift));
+            }
+        } else if (value instanceof Boolean) {
+            writer.writeByte((Boolean) value ? TYPE_TRUE : TYPE_FALSE);
+        } else {
+            writer.writeByte(TYPE_STRING);
+            writer.writeString(value.toString());
+        }
+    }
+
+    private static Object readValue(Reader reader) {
+
+        byte type = reader.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return reader.readString();
+            case TYPE_LONG:
+                long zigZag = reader.readVarint();
+                long value = (zigZag >>> 1) ^ -(zigZag & 1);
+                if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                    return (int) value;
+                }
+                return value;
+            case TYPE_TRUE:
+                return Boolean.TRUE;
+            case TYPE_FALSE:
+                return Boolean.FALSE;
+            case TYPE_BIG_INTEGER:
+                return new BigInteger(reader.readBytes());
+            case TYPE_DOUBLE:
+                long bits = 0;
+                for (int i = 0; i < 8; i++) {
+                    bits = (bits << 8) | (reader.readByte() & 0xFF);
+                }
+                return Double.longBitsToDouble(bits);
+            default:
+                throw new IllegalArgumentException("Unknown properties value type " + type);
+        }
+    }
+
+    /**
+     * Growable byte buffer for encoding.
+     */
+    private static final class Writer {
+
+        private byte[] buffer = new byte[128];
+        private int position;
+
+        private void ensureCapacity(int length) {
+
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+            }
+        }
+
+        private void writeByte(byte value) {
+
+            ensureCapacity(1);
+            buffer[position++] = value;
+        }
+
+        private void writeVarint(long value) {
+
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] bytes) {
+
+            writeVarint(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void writeString(String value) {
+
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+    }
+
+    /**
+     * Reader over an encoded byte array.
+     */
+    private static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+
+        private Reader(byte[] buffer) {
+
+            this.buffer = buffer;
+        }
+
+        private byte readByte() {
+
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Unexpected end of encoded properties");
+            }
+            return buffer[position++];
+        }
+
+        private long readVarint() {
+
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in encoded properties");
+        }
+
+        private byte[] readBytes() {
+
+            long length = readVarint();
+            if (length < 0 || length > buffer.length - position) {
+                throw new IllegalArgumentException("Invalid length in encoded properties");
+            }
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + (int) length);
+            position += (int) length;
+            return bytes;
+        }
+
+        private String readString() {
+
+            return new String(readBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
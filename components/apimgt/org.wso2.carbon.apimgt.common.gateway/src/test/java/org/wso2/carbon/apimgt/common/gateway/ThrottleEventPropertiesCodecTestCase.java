@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.common.gateway;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.carbon.apimgt.common.gateway.util.ThrottleEventPropertiesCodec;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test cases for {@link ThrottleEventPropertiesCodec}
+ */
+public class ThrottleEventPropertiesCodecTestCase {
+
+    @Test
+    public void testEncodeAndDecode() {
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("ip", 3232235777L);
+        properties.put("ipv6", 0);
+        properties.put("messageSize", 512L);
+        properties.put("Host", "localhost:8243");
+        properties.put("X-Custom-Header", "välue");
+        properties.put("negative", -42L);
+        properties.put("ratio", 0.25);
+        properties.put("enabled", true);
+        properties.put("empty", null);
+        properties.put("ipv6Value", new BigInteger("42540766411282592856903984951653826561"));
+
+        String encoded = ThrottleEventPropertiesCodec.encode(properties);
+        Assert.assertTrue(ThrottleEventPropertiesCodec.isEncoded(encoded));
+        Map<String, Object> decoded = ThrottleEventPropertiesCodec.decode(encoded);
+
+        Assert.assertEquals(properties.size(), decoded.size());
+        Assert.assertEquals(3232235777L, decoded.get("ip"));
+        Assert.assertEquals(0, decoded.get("ipv6"));
+        Assert.assertEquals(512, decoded.get("messageSize"));
+        Assert.assertEquals("localhost:8243", decoded.get("Host"));
+        Assert.assertEquals("välue", decoded.get("X-Custom-Header"));
+        Assert.assertEquals(-42, decoded.get("negative"));
+        Assert.assertEquals(0.25, decoded.get("ratio"));
+        Assert.assertEquals(Boolean.TRUE, decoded.get("enabled"));
+        Assert.assertTrue(decoded.containsKey("empty"));
+        Assert.assertNull(decoded.get("empty"));
+        Assert.assertEquals(new BigInteger("42540766411282592856903984951653826561"), decoded.get("ipv6Value"));
+    }
+
+    @Test
+    public void testEncodeFromSourceMaps() {
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Host", "localhost:8243");
+        headers.put("X-Custom-Header", "header");
+        Map<String, Object> customProperties = new HashMap<>();
+        customProperties.put("X-Custom-Header", "custom");
+        customProperties.put("tier", "Gold");
+
+        ThrottleEventPropertiesCodec.Encoder encoder = new ThrottleEventPropertiesCodec.Encoder();
+        encoder.put("ip", 3232235777L);
+        encoder.putAll(headers);
+        encoder.putAll(customProperties);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("ip", 3232235777L);
+        properties.putAll(headers);
+        properties.putAll(customProperties);
+
+        Map<String, Object> decoded = ThrottleEventPropertiesCodec.decode(encoder.encode());
+        Assert.assertEquals(ThrottleEventPropertiesCodec.decode(ThrottleEventPropertiesCodec.encode(properties)),
+                decoded);
+        Assert.assertEquals("custom", decoded.get("X-Custom-Header"));
+    }
+
+    @Test
+    public void testJsonPropertiesAreNotEncoded() {
+
+        Assert.assertFalse(ThrottleEventPropertiesCodec.isEncoded("{\"ip\":2130706433}"));
+        Assert.assertFalse(ThrottleEventPropertiesCodec.isEncoded(""));
+        Assert.assertFalse(ThrottleEventPropertiesCodec.isEncoded(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeTruncatedProperties() {
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("Host", "localhost");
+        String encoded = ThrottleEventPropertiesCodec.encode(properties);
+        ThrottleEventPropertiesCodec.decode(encoded.substring(0, encoded.length() - 4));
+    }
+}
@@ -17,6 +17,8 @@
  */
 package org.wso2.carbon.apimgt.common.gateway.graphql;
 
+import graphql.language.Document;
+import graphql.parser.Parser;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.SchemaParser;
 import graphql.schema.idl.TypeDefinitionRegistry;
@@ -120,4 +122,45 @@ public class QueryAnalyzerTestCase {
         Assert.assertTrue(queryAnalyzerResponseDTO.isSuccess());
         Assert.assertTrue(queryAnalyzerResponseDTO.getErrorList().isEmpty());
     }
+
+    @Test
+    public void testAnalyseCalculatedQueryDepth() {
+        String payload = "subscription {\n" +
+                "  liftStatusChange {\n" +
+                "    name\n" +
+                "    id\n" +
+                "  }\n" +
+                "}\n";
+        Document document = new Parser().parseDocument(payload);
+        int queryDepth = queryAnalyzer.calculateQueryDepth(document);
+        Assert.assertEquals(2, queryDepth);
+        Assert.assertTrue(queryAnalyzer.analyseQueryDepth(2, queryDepth).isSuccess());
+        Assert.assertTrue(queryAnalyzer.analyseQueryDepth(0, queryDepth).isSuccess());
+        QueryAnalyzerResponseDTO queryAnalyzerResponseDTO = queryAnalyzer.analyseQueryDepth(1, queryDepth);
+        Assert.assertFalse(queryAnalyzerResponseDTO.isSuccess());
+        Assert.assertEquals(queryAnalyzer.analyseQueryDepth(1, payload).getErrorList(),
+                queryAnalyzerResponseDTO.getErrorList());
+    }
+
+    @Test
+    public void testAnalyseCalculatedQueryComplexity() {
+        String payload = "subscription {\n" +
+                "  liftStatusChange {\n" +
+                "    name\n" +
+                "    id\n" +
+                "    night\n" +
+                "  }\n" +
+                "}\n";
+        Document document = new Parser().parseDocument(payload);
+        int queryComplexity = queryAnalyzer.calculateQueryComplexity(document, fieldComplexityCalculator);
+        Assert.assertTrue(queryAnalyzer.analyseQueryComplexity(queryComplexity, payload, fieldComplexityCalculator)
+                .isSuccess());
+        Assert.assertFalse(queryAnalyzer.analyseQueryComplexity(queryComplexity - 1, payload,
+                fieldComplexityCalculator).isSuccess());
+        Assert.assertTrue(queryAnalyzer.analyseQueryComplexity(queryComplexity, queryComplexity).isSuccess());
+        QueryAnalyzerResponseDTO queryAnalyzerResponseDTO = queryAnalyzer.analyseQueryComplexity(4, queryComplexity);
+        Assert.assertFalse(queryAnalyzerResponseDTO.isSuccess());
+        Assert.assertTrue(queryAnalyzerResponseDTO.getErrorList().toString()
+                .contains("maximum query complexity exceeded"));
+    }
 }
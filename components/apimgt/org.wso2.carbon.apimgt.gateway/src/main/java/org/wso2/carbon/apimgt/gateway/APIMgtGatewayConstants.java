@@ -76,6 +76,8 @@ public class APIMgtGatewayConstants {
     public static final String TRANSPORT_HEADERS = "TRANSPORT_HEADERS";
     public static final String REGEX_THREAT_PROTECTOR_ENABLED_TENANTS = "regexThreatProtectorEnabledTenants";
     public static final String PAYLOAD_SIZE_LIMIT_FOR_REGEX_TREAT_PROTECTOR = "payloadSizeLimitForRegexThreatProtector";
+    public static final String XML_SCHEMA_REFRESH_INTERVAL = "xmlSchemaValidatorRefreshInterval";
+    public static final String XML_SCHEMA_DOWNLOAD_TIMEOUT = "xmlSchemaValidatorDownloadTimeout";
 
     /**
      * Constants for handling threat protection exceptions.
@@ -165,6 +167,8 @@ public class APIMgtGatewayConstants {
     public static final String HOST_HEADER = "HostHeader";
     public static final String API_OBJECT = "API";
     public static final String OAUTH_ENDPOINT_INSTANCE = "oauth.instance";
+    public static final String BACKEND_TOKEN_CACHE_SIZE = "backendTokenCacheSize";
+    public static final String BACKEND_TOKEN_REFRESH_SKEW = "backendTokenRefreshSkew";
     public static final String VALIDATED_X509_CERT = "ValidatedX509Cert";
     public static final String RESOURCE_SPAN = "API:Resource";
 }
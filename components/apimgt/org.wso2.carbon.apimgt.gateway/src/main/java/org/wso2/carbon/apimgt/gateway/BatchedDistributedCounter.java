@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Distributed throttle counters which are updated locally and synchronized with a shared counter store in batches.
+ * <p>
+ * Each update only adds to a local {@link LongAdder}. At every sync, the increments made since the previous sync are
+ * added to the counters of the store and the merged values are read back, all in a single round trip. The value of a
+ * counter is the merged value of the last sync plus the local increments made after it.
+ * <p>
+ * Error bound: the increments of a node reach the other nodes at most one sync interval (plus a round trip) late. With
+ * N nodes which each admit r requests per second to a key, the value seen by a node can lag behind the cluster wide
+ * count by up to (N - 1) * r * interval, which is how far a throttle limit can be exceeded within a window. The local
+ * increments are never dropped when a sync fails; they are added at the next sync. Increments which are not synced
+ * when a node goes down, at most r * interval of them, are lost.
+ * <p>
+ * A counter which is evicted while it is updated is never synced again, so the update is retried on a new counter.
+ * The expiry time of a counter is set along with each increment sent to the store, so that an increment made after
+ * the counter was removed from the store, or expired, does not recreate it without an expiry.
+ */
+public class BatchedDistributedCounter {
+
+    private static final Log log = LogFactory.getLog(BatchedDistributedCounter.class);
+
+    /**
+     * Counters which are not updated locally for this many syncs are no longer synced, and are loaded from the store
+     * again when they are used next.
+     */
+    private static final int IDLE_SYNCS_BEFORE_EVICTION = 10;
+
+    private final CounterStore counterStore;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Long> expiryTimes = new ConcurrentHashMap<>();
+    private ScheduledExecutorService executor;
+
+    /**
+     * Shared store of the counters.
+     */
+    public interface CounterStore {
+
+        /**
+         * Adds the given deltas to the counters of the store, in a single round trip, and returns their resulting
+         * values. A zero delta only reads the counter. Counters which do not exist in the store have the value 0.
+         *
+         * @param deltas      increments of the counters by key
+         * @param expiryTimes expiry times in milliseconds to set on the incremented counters by key, in the same
+         *                    round trip as the increments
+         * @return values of the counters by key
+         */
+        Map<String, Long> addAndGet(Map<String, Long> deltas, Map<String, Long> expiryTimes);
+    }
+
+    public BatchedDistributedCounter(CounterStore counterStore) {
+
+        this.counterStore = counterStore;
+    }
+
+    /**
+     * Starts syncing the counters with the store at the given interval.
+     *
+     * @param syncInterval sync interval in milliseconds
+     */
+    public synchronized void start(long syncInterval) {
+
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "DistributedCounterSync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::sync, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops syncing the counters, after syncing the pending increments.
+     */
+    public synchronized void stop() {
+
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+            sync();
+        }
+    }
+
+    public long get(String key) {
+
+        return getCounter(key).value();
+    }
+
+    public long addAndGet(String key, long delta) {
+
+        while (true) {
+            Counter counter = getCounter(key);
+            if (counter.tryAdd(delta)) {
+                return counter.value();
+            }
+        }
+    }
+
+    public long getAndAdd(String key, long delta) {
+
+        return addAndGet(key, delta) - delta;
+    }
+
+    /**
+     * Replaces the local counter after the counter of the store is set to the given value.
+     *
+     * @param key   counter key
+     * @param value value of the counter in the store
+     */
+    public void reset(String key, long value) {
+
+        Counter counter = counters.put(key, new Counter(new SyncState(value, 0, true)));
+        if (counter != null) {
+            counter.close();
+        }
+    }
+
+    /**
+     * Drops the local counter after the counter of the store is removed.
+     *
+     * @param key counter key
+     */
+    public void remove(String key) {
+
+        Counter counter = counters.remove(key);
+        if (counter != null) {
+            counter.close();
+        }
+        expiryTimes.remove(key);
+    }
+
+    /**
+     * Sets the expiry time of a counter, which is set on the counter of the store along with each increment synced
+     * until it elapses.
+     *
+     * @param key        counter key
+     * @param expiryTime expiry time in milliseconds
+     */
+    public void setExpiry(String key, long expiryTime) {
+
+        expiryTimes.put(key, expiryTime);
+    }
+
+    /**
+     * Adds the local increments made since the previous sync to the store, and refreshes the local counters with the
+     * merged values.
+     */
+    public synchronized void sync() {
+
+        Map<String, Counter> syncedCounters = new HashMap<>();
+        Map<String, Long> deltas = new HashMap<>();
+        Map<String, Long> expiries = new HashMap<>();
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            SyncState syncState = counter.syncState;
+            if (!syncState.loaded) {
+                // The thread which created the counter is still loading it from the store.
+                continue;
+            }
+            long delta = counter.added.sum() - syncState.synced;
+            if (delta == 0 && ++counter.idleSyncs >= IDLE_SYNCS_BEFORE_EVICTION) {
+                // A counter updated while being evicted is kept, and synced at the next sync.
+                if (counter.tryEvict()) {
+                    counters.remove(entry.getKey(), counter);
+                }
+                continue;
+            }
+            if (delta != 0) {
+                counter.idleSyncs = 0;
+                Long expiryTime = expiryTimes.get(entry.getKey());
+                if (expiryTime != null) {
+                    expiries.put(entry.getKey(), expiryTime);
+                }
+            }
+            syncedCounters.put(entry.getKey(), counter);
+            deltas.put(entry.getKey(), delta);
+        }
+        long now = System.currentTimeMillis();
+        expiryTimes.values().removeIf(expiryTime -> expiryTime <= now);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Map<String, Long> values;
+        try {
+            values = counterStore.addAndGet(deltas, expiries);
+        } catch (RuntimeException e) {
+            // Increments are not marked as synced, so that they are added at the next sync.
+            log.error("Error while syncing " + deltas.size() + " distributed counters", e);
+            return;
+        }
+        for (Map.Entry<String, Counter> entry : syncedCounters.entrySet()) {
+            Counter counter = entry.getValue();
+            Long value = values.get(entry.getKey());
+            // Only this method updates the sync state of loaded counters.
+            counter.syncState = new SyncState(value != null ? value : 0,
+                    counter.syncState.synced + deltas.get(entry.getKey()), true);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Synced " + deltas.size() + " distributed counters");
+        }
+    }
+
+    private Counter getCounter(String key) {
+
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        Counter newCounter = new Counter(new SyncState(0, 0, false));
+        counter = counters.putIfAbsent(key, newCounter);
+        if (counter != null) {
+            return counter;
+        }
+        // Load the value of the store once, so that the first requests of a node do not start from zero.
+        long value = 0;
+        try {
+            Long storedValue = counterStore.addAndGet(Collections.singletonMap(key, 0L), Collections.emptyMap())
+                    .get(key);
+            if (storedValue != null) {
+                value = storedValue;
+            }
+        } catch (RuntimeException e) {
+            log.error("Error while loading distributed counter " + key + ". It is loaded at the next sync.", e);
+        }
+        newCounter.syncState = new SyncState(value, 0, true);
+        return newCounter;
+    }
+
+    private static final class Counter {
+
+        private final LongAdder added = new LongAdder();
+        // Write locked for good once the counter is evicted or replaced, which fails the updates made to it since.
+        private final StampedLock evictionLock = new StampedLock();
+        private volatile SyncState syncState;
+        private int idleSyncs;
+        private boolean closed;
+
+        private Counter(SyncState syncState) {
+
+            this.syncState = syncState;
+        }
+
+        /**
+         * Adds to the counter unless it is evicted. An update which overlaps an eviction attempt is undone, so that
+         * an evicted counter never holds updates which are not synced.
+         *
+         * @return false if the update has to be retried on the current counter of the key
+         */
+        private boolean tryAdd(long delta) {
+
+            long stamp = evictionLock.tryOptimisticRead();
+            if (stamp == 0) {
+                return false;
+            }
+            added.add(delta);
+            if (evictionLock.validate(stamp)) {
+                return true;
+            }
+            added.add(-delta);
+            return false;
+        }
+
+        /**
+         * Evicts the counter if it has no updates which are not synced.
+         *
+         * @return true if the counter was evicted
+         */
+        private synchronized boolean tryEvict() {
+
+            if (closed) {
+                return true;
+            }
+            long stamp = evictionLock.writeLock();
+            if (added.sum() != syncState.synced) {
+                evictionLock.unlockWrite(stamp);
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+
+        /**
+         * Fails the updates made to the counter from now on, after it is replaced.
+         */
+        private synchronized void close() {
+
+            if (!closed) {
+                evictionLock.writeLock();
+                closed = true;
+            }
+        }
+
+        private long value() {
+
+            SyncState state = syncState;
+            return state.value + added.sum() - state.synced;
+        }
+    }
+
+    /**
+     * Value of a counter in the store at the last sync, and the local increments added to the store up to it.
+     */
+    private static final class SyncState {
+
+        private final long value;
+        private final long synced;
+        private final boolean loaded;
+
+        private SyncState(long value, long synced, boolean loaded) {
+
+            this.value = value;
+            this.synced = synced;
+            this.loaded = loaded;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.SchemaParser;
 import graphql.schema.idl.TypeDefinitionRegistry;
 import graphql.schema.idl.UnExecutableSchemaGenerator;
+import org.apache.axiom.om.util.AXIOMUtil;
 import org.apache.axis2.AxisFault;
 import org.apache.axis2.context.MessageContext;
 import org.apache.commons.codec.binary.Base64;
@@ -31,12 +32,15 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.synapse.SynapseConstants;
 import org.apache.synapse.transport.dynamicconfigurations.DynamicProfileReloaderHolder;
+import org.wso2.carbon.apimgt.api.gateway.CredentialDto;
 import org.wso2.carbon.apimgt.api.gateway.GatewayAPIDTO;
 import org.wso2.carbon.apimgt.api.gateway.GatewayContentDTO;
 import org.wso2.carbon.apimgt.api.gateway.GraphQLSchemaDTO;
 import org.wso2.carbon.apimgt.api.model.API;
 import org.wso2.carbon.apimgt.api.model.APIIdentifier;
 import org.wso2.carbon.apimgt.api.model.APIProductIdentifier;
+import org.wso2.carbon.apimgt.gateway.handlers.graphQL.GraphQLPersistedQueryStore;
+import org.wso2.carbon.apimgt.gateway.handlers.security.SchemaValidator;
 import org.wso2.carbon.apimgt.gateway.internal.DataHolder;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
 import org.wso2.carbon.apimgt.gateway.service.APIGatewayAdmin;
@@ -44,6 +48,7 @@ import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.dto.GatewayArtifactSynchronizerProperties;
 import org.wso2.carbon.apimgt.impl.dto.GatewayCleanupSkipList;
 import org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer.ArtifactRetriever;
+import org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer.GatewaySnapshot;
 import org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer.exception.ArtifactSynchronizerException;
 import org.wso2.carbon.apimgt.impl.notifier.events.APIEvent;
 import org.wso2.carbon.apimgt.impl.notifier.events.DeployAPIInGatewayEvent;
@@ -51,15 +56,29 @@ import org.wso2.carbon.apimgt.impl.utils.GatewayUtils;
 import org.wso2.carbon.apimgt.keymgt.SubscriptionDataHolder;
 import org.wso2.carbon.apimgt.keymgt.model.SubscriptionDataStore;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.core.util.CryptoException;
+import org.wso2.carbon.core.util.CryptoUtil;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import javax.xml.stream.XMLStreamException;
 
 /**
  * This class contains the methods used to retrieve artifacts from a storage and deploy and undeploy the API in gateway.
@@ -67,15 +86,32 @@ import java.util.UUID;
 public class InMemoryAPIDeployer {
 
     private static final Log log = LogFactory.getLog(InMemoryAPIDeployer.class);
+    private static final long INITIAL_RETRIEVAL_RETRY_DELAY = 100;
+    private static final ExecutorService snapshotReconciler = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "GatewaySnapshotReconciler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Deployments of events and deployments of snapshot artifacts are serialized, and APIs deployed or undeployed by
+    // events of a tenant whose snapshot is being reconciled are left as they are by the reconciliation, so that an
+    // artifact retrieved before an event is never deployed over the deployment of the event.
+    private static final Object deploymentLock = new Object();
+    private static final Map<String, Set<String>> apisDeployedDuringReconciliation = new ConcurrentHashMap<>();
     ArtifactRetriever artifactRetriever;
     GatewayArtifactSynchronizerProperties gatewayArtifactSynchronizerProperties;
     private boolean debugEnabled = log.isDebugEnabled();
 
     public InMemoryAPIDeployer() {
 
-        this.artifactRetriever = ServiceReferenceHolder.getInstance().getArtifactRetriever();
-        this.gatewayArtifactSynchronizerProperties = ServiceReferenceHolder
-                .getInstance().getAPIManagerConfiguration().getGatewayArtifactSynchronizerProperties();
+        this(ServiceReferenceHolder.getInstance().getArtifactRetriever(), ServiceReferenceHolder
+                .getInstance().getAPIManagerConfiguration().getGatewayArtifactSynchronizerProperties());
+    }
+
+    InMemoryAPIDeployer(ArtifactRetriever artifactRetriever,
+                        GatewayArtifactSynchronizerProperties gatewayArtifactSynchronizerProperties) {
+
+        this.artifactRetriever = artifactRetriever;
+        this.gatewayArtifactSynchronizerProperties = gatewayArtifactSynchronizerProperties;
     }
 
     /**
@@ -89,22 +125,17 @@ public class InMemoryAPIDeployer {
         String apiId = gatewayEvent.getUuid();
         Set<String> gatewayLabels = gatewayEvent.getGatewayLabels();
         try {
-            GatewayAPIDTO gatewayAPIDTO = retrieveArtifact(apiId, gatewayLabels);
-            if (gatewayAPIDTO != null) {
-                APIGatewayAdmin apiGatewayAdmin = new APIGatewayAdmin();
-                MessageContext.setCurrentMessageContext(
-                        org.wso2.carbon.apimgt.gateway.utils.GatewayUtils.createAxis2MessageContext());
-                unDeployAPI(apiGatewayAdmin, gatewayEvent);
-                apiGatewayAdmin.deployAPI(gatewayAPIDTO);
-                addDeployedCertificatesToAPIAssociation(gatewayAPIDTO);
-                addDeployedGraphqlQLToAPI(gatewayAPIDTO);
-                DataHolder.getInstance().addKeyManagerToAPIMapping(apiId, gatewayAPIDTO.getKeyManagers());
-                if (debugEnabled) {
-                    log.debug("API with " + apiId + " is deployed in gateway with the labels " + String.join(",",
-                            gatewayLabels));
-                }
-                return true;
+            GatewayAPIDTO gatewayAPIDTO = retrieveArtifacts(Collections.singletonList(gatewayEvent), gatewayLabels)
+                    .get(apiId);
+            if (gatewayAPIDTO == null) {
+                String msg = "Error retrieving artifacts for API " + apiId + ". Storage returned null";
+                log.error(msg);
+                throw new ArtifactSynchronizerException(msg);
             }
+            APIGatewayAdmin apiGatewayAdmin = new APIGatewayAdmin();
+            MessageContext.setCurrentMessageContext(
+                    org.wso2.carbon.apimgt.gateway.utils.GatewayUtils.createAxis2MessageContext());
+            deployAPI(apiGatewayAdmin, gatewayEvent, gatewayAPIDTO);
         } catch (IOException | ArtifactSynchronizerException e) {
             String msg = "Error deploying " + apiId + " in Gateway";
             log.error(msg, e);
@@ -115,38 +146,170 @@ public class InMemoryAPIDeployer {
         return true;
     }
 
-    private GatewayAPIDTO retrieveArtifact(String apiId, Set<String> gatewayLabels)
-            throws ArtifactSynchronizerException {
+    /**
+     * Deploy the APIs of several deployment events of a tenant in the gateway, retrieving their artifacts from the
+     * storage at once. The events are expected to have the same gateway labels.
+     *
+     * @param gatewayEvents Gateway Deployment events.
+     * @throws ArtifactSynchronizerException if the artifacts could not be retrieved from the storage
+     */
+    public void deployAPIs(List<DeployAPIInGatewayEvent> gatewayEvents) throws ArtifactSynchronizerException {
+
+        if (gatewayEvents.isEmpty()) {
+            return;
+        }
+        Map<String, GatewayAPIDTO> gatewayAPIDTOs =
+                retrieveArtifacts(gatewayEvents, gatewayEvents.get(0).getGatewayLabels());
+        try {
+            APIGatewayAdmin apiGatewayAdmin = new APIGatewayAdmin();
+            MessageContext.setCurrentMessageContext(
+                    org.wso2.carbon.apimgt.gateway.utils.GatewayUtils.createAxis2MessageContext());
+            for (DeployAPIInGatewayEvent gatewayEvent : gatewayEvents) {
+                String apiId = gatewayEvent.getUuid();
+                GatewayAPIDTO gatewayAPIDTO = gatewayAPIDTOs.get(apiId);
+                if (gatewayAPIDTO == null) {
+                    log.error("Error retrieving artifacts for API " + apiId + ". Storage returned null");
+                    continue;
+                }
+                try {
+                    deployAPI(apiGatewayAdmin, gatewayEvent, gatewayAPIDTO);
+                } catch (IOException e) {
+                    // Continue deploying the other APIs of the events.
+                    log.error("Error deploying " + apiId + " in Gateway", e);
+                }
+            }
+        } finally {
+            MessageContext.destroyCurrentMessageContext();
+        }
+    }
 
-        GatewayAPIDTO result;
+    private void deployAPI(APIGatewayAdmin apiGatewayAdmin, DeployAPIInGatewayEvent gatewayEvent,
+                           GatewayAPIDTO gatewayAPIDTO) throws IOException {
 
+        String apiId = gatewayEvent.getUuid();
+        synchronized (deploymentLock) {
+            recordEventDeployment(gatewayEvent);
+            unDeployAPI(apiGatewayAdmin, gatewayEvent);
+            apiGatewayAdmin.deployAPI(gatewayAPIDTO);
+            addDeployedCertificatesToAPIAssociation(gatewayAPIDTO);
+            addDeployedGraphqlQLToAPI(gatewayAPIDTO);
+            addDeployedOpenAPIValidatorToAPI(gatewayAPIDTO);
+            DataHolder.getInstance().addKeyManagerToAPIMapping(apiId, gatewayAPIDTO.getKeyManagers());
+        }
+        if (debugEnabled) {
+            log.debug("API with " + apiId + " is deployed in gateway with the labels " + String.join(",",
+                    gatewayEvent.getGatewayLabels()));
+        }
+    }
+
+    /**
+     * Marks the API of an event as deployed by the event, if the snapshot of its tenant is being reconciled.
+     */
+    private static void recordEventDeployment(DeployAPIInGatewayEvent gatewayEvent) {
+
+        Set<String> deployedApis = apisDeployedDuringReconciliation.get(gatewayEvent.getTenantDomain());
+        if (deployedApis != null) {
+            deployedApis.add(gatewayEvent.getUuid());
+        }
+    }
+
+    /**
+     * Retrieves the artifacts of the APIs of the given deployment events from the storage. The artifacts are
+     * retrieved as soon as the events arrive, and the retrieval is retried with an exponential backoff only for the
+     * APIs whose artifact is not in the storage yet, or is not of the revision deployed by the event, until the event
+     * waiting time elapses. The artifacts which are still not of the deployed revision by then are not returned, so
+     * that an API is never deployed with an artifact of another revision, and stays as it is deployed until the
+     * artifacts of the tenant are deployed again, e.g. on the next startup, or another revision is deployed.
+     *
+     * @return artifacts of the APIs of the deployed revisions by API UUID
+     */
+    Map<String, GatewayAPIDTO> retrieveArtifacts(List<DeployAPIInGatewayEvent> gatewayEvents,
+                                                 Set<String> gatewayLabels)
+            throws ArtifactSynchronizerException {
+
+        if (artifactRetriever == null) {
+            String msg = "Artifact retriever not found";
+            log.error(msg);
+            throw new ArtifactSynchronizerException(msg);
+        }
         String labelString = String.join("|", gatewayLabels);
         String encodedString = Base64.encodeBase64URLSafeString(labelString.getBytes());
-        if (artifactRetriever != null) {
+        Map<String, DeployAPIInGatewayEvent> pendingEvents = new LinkedHashMap<>();
+        for (DeployAPIInGatewayEvent gatewayEvent : gatewayEvents) {
+            pendingEvents.put(gatewayEvent.getUuid(), gatewayEvent);
+        }
+        Map<String, GatewayAPIDTO> gatewayAPIDTOs = new HashMap<>();
+        long waitingTime = gatewayArtifactSynchronizerProperties.getEventWaitingTime();
+        long deadline = System.currentTimeMillis() + waitingTime;
+        long retryDelay = INITIAL_RETRIEVAL_RETRY_DELAY;
+        while (true) {
+            List<String> gatewayRuntimeArtifacts;
             try {
-                String gatewayRuntimeArtifact = artifactRetriever.retrieveArtifact(apiId, encodedString);
-                if (StringUtils.isNotEmpty(gatewayRuntimeArtifact)) {
-                    result = new Gson().fromJson(gatewayRuntimeArtifact, GatewayAPIDTO.class);
-                } else {
-                    String msg = "Error retrieving artifacts for API " + apiId + ". Storage returned null";
-                    log.error(msg);
-                    throw new ArtifactSynchronizerException(msg);
-                }
+                gatewayRuntimeArtifacts =
+                        artifactRetriever.retrieveArtifacts(new ArrayList<>(pendingEvents.keySet()), encodedString);
             } catch (ArtifactSynchronizerException e) {
-                String msg = "Error deploying " + apiId + " in Gateway";
+                String msg = "Error retrieving artifacts of " + String.join(",", pendingEvents.keySet());
                 log.error(msg, e);
                 throw new ArtifactSynchronizerException(msg, e);
             }
-        } else {
-            String msg = "Artifact retriever not found";
-            log.error(msg);
-            throw new ArtifactSynchronizerException(msg);
+            for (String gatewayRuntimeArtifact : gatewayRuntimeArtifacts) {
+                if (StringUtils.isEmpty(gatewayRuntimeArtifact)) {
+                    continue;
+                }
+                GatewayAPIDTO gatewayAPIDTO = new Gson().fromJson(gatewayRuntimeArtifact, GatewayAPIDTO.class);
+                DeployAPIInGatewayEvent gatewayEvent = pendingEvents.get(gatewayAPIDTO.getApiId());
+                if (gatewayEvent != null) {
+                    gatewayAPIDTOs.put(gatewayAPIDTO.getApiId(), gatewayAPIDTO);
+                    if (isDeployedRevision(gatewayEvent, gatewayAPIDTO)) {
+                        pendingEvents.remove(gatewayAPIDTO.getApiId());
+                    }
+                }
+            }
+            long remainingTime = deadline - System.currentTimeMillis();
+            if (pendingEvents.isEmpty() || remainingTime <= 0) {
+                break;
+            }
+            if (debugEnabled) {
+                log.debug("Artifacts of " + String.join(",", pendingEvents.keySet()) + " are not available in "
+                        + "the storage yet. Retrying in " + Math.min(retryDelay, remainingTime) + "ms");
+            }
+            try {
+                Thread.sleep(Math.min(retryDelay, remainingTime));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            retryDelay *= 2;
         }
-        return result;
+        for (DeployAPIInGatewayEvent gatewayEvent : pendingEvents.values()) {
+            GatewayAPIDTO gatewayAPIDTO = gatewayAPIDTOs.remove(gatewayEvent.getUuid());
+            if (gatewayAPIDTO != null) {
+                log.warn("Artifact of API " + gatewayEvent.getUuid() + " in the storage is of revision "
+                        + gatewayAPIDTO.getRevision() + " instead of the deployed revision "
+                        + gatewayEvent.getRevision() + " after waiting " + waitingTime
+                        + "ms. The API is not deployed with it.");
+            } else {
+                log.warn("Artifact of API " + gatewayEvent.getUuid() + " is not available in the storage after "
+                        + "waiting " + waitingTime + "ms.");
+            }
+        }
+        return gatewayAPIDTOs;
     }
 
     /**
-     * Deploy an API in the gateway using the deployAPI method in gateway admin.
+     * Artifacts of control planes which do not send the deployed revision in the events, or do not include it in the
+     * artifacts, are accepted as they are.
+     */
+    private boolean isDeployedRevision(DeployAPIInGatewayEvent gatewayEvent, GatewayAPIDTO gatewayAPIDTO) {
+
+        return gatewayEvent.getRevision() == null || gatewayAPIDTO.getRevision() == null
+                || gatewayEvent.getRevision().equals(gatewayAPIDTO.getRevision());
+    }
+
+    /**
+     * Deploy an API in the gateway using the deployAPI method in gateway admin. If gateway snapshots are enabled and
+     * there is a snapshot of the artifacts of the tenant, the artifacts of the snapshot are deployed and the
+     * deployment is reconciled with the storage in the background.
      *
      * @param assignedGatewayLabels - The labels which the gateway subscribed to
      * @param tenantDomain          tenantDomain of API.
@@ -161,35 +324,39 @@ public class InMemoryAPIDeployer {
         if (gatewayArtifactSynchronizerProperties.isRetrieveFromStorageEnabled()) {
             if (artifactRetriever != null) {
                 try {
-                    int errorCount = 0;
                     String labelString = String.join("|", assignedGatewayLabels);
                     String encodedString = Base64.encodeBase64URLSafeString(labelString.getBytes());
                     APIGatewayAdmin apiGatewayAdmin = new APIGatewayAdmin();
                     MessageContext.setCurrentMessageContext(org.wso2.carbon.apimgt.gateway.utils.GatewayUtils.createAxis2MessageContext());
                     PrivilegedCarbonContext.startTenantFlow();
                     PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(tenantDomain, true);
-                    List<String> gatewayRuntimeArtifacts = ServiceReferenceHolder.getInstance().getArtifactRetriever()
-                            .retrieveAllArtifacts(encodedString, tenantDomain);
+                    Map<String, String> snapshotArtifacts = readArtifactSnapshot(labelString, tenantDomain);
+                    List<String> gatewayRuntimeArtifacts;
+                    Set<String> skippedApis = Collections.emptySet();
+                    if (snapshotArtifacts != null) {
+                        log.info("Deploying " + snapshotArtifacts.size() + " APIs of tenant " + tenantDomain
+                                + " from the local snapshot");
+                        gatewayRuntimeArtifacts = new ArrayList<>(snapshotArtifacts.values());
+                        skippedApis = ConcurrentHashMap.newKeySet();
+                        apisDeployedDuringReconciliation.put(tenantDomain, skippedApis);
+                    } else {
+                        gatewayRuntimeArtifacts = ServiceReferenceHolder.getInstance().getArtifactRetriever()
+                                .retrieveAllArtifacts(encodedString, tenantDomain);
+                    }
+                    Map<String, String> deployedArtifacts = new LinkedHashMap<>();
+                    int errorCount;
+                    synchronized (deploymentLock) {
+                        errorCount = deployArtifacts(apiGatewayAdmin, gatewayRuntimeArtifacts, deployedArtifacts,
+                                skippedApis);
+                    }
+                    if (snapshotArtifacts != null) {
+                        reconcileWithStorage(labelString, tenantDomain, snapshotArtifacts, skippedApis);
+                    } else {
+                        writeArtifactSnapshot(labelString, tenantDomain, deployedArtifacts);
+                    }
                     if (gatewayRuntimeArtifacts.size() == 0) {
                         return true;
                     }
-                    for (String runtimeArtifact : gatewayRuntimeArtifacts) {
-                        GatewayAPIDTO gatewayAPIDTO = null;
-                        try {
-                            if (StringUtils.isNotEmpty(runtimeArtifact)) {
-                                gatewayAPIDTO = new Gson().fromJson(runtimeArtifact, GatewayAPIDTO.class);
-                                log.info("Deploying synapse artifacts of " + gatewayAPIDTO.getName());
-                                apiGatewayAdmin.deployAPI(gatewayAPIDTO);
-                                addDeployedCertificatesToAPIAssociation(gatewayAPIDTO);
-                                addDeployedGraphqlQLToAPI(gatewayAPIDTO);
-                                DataHolder.getInstance().addKeyManagerToAPIMapping(gatewayAPIDTO.getApiId(),
-                                        gatewayAPIDTO.getKeyManagers());
-                            }
-                        } catch (AxisFault axisFault) {
-                            log.error("Error in deploying " + gatewayAPIDTO.getName() + " to the Gateway ", axisFault);
-                            errorCount++;
-                        }
-                    }
                     // reload dynamic profiles to avoid delays in loading certs in mutual ssl enabled APIs upon
                     // server restart
                     DynamicProfileReloaderHolder.getInstance().reloadAllHandlers();
@@ -218,6 +385,259 @@ public class InMemoryAPIDeployer {
         return result;
     }
 
+    /**
+     * Deploys the given runtime artifacts.
+     *
+     * @param apiGatewayAdmin   gateway admin to deploy the artifacts with
+     * @param runtimeArtifacts  runtime artifacts to deploy
+     * @param deployedArtifacts map to which the runtime artifacts are added against the id of their API
+     * @param skippedApis       ids of the APIs which are not deployed, as they were deployed by events
+     * @return number of artifacts which failed to deploy
+     */
+    private int deployArtifacts(APIGatewayAdmin apiGatewayAdmin, List<String> runtimeArtifacts,
+                                Map<String, String> deployedArtifacts, Set<String> skippedApis) {
+
+        int errorCount = 0;
+        for (String runtimeArtifact : runtimeArtifacts) {
+            GatewayAPIDTO gatewayAPIDTO = null;
+            try {
+                if (StringUtils.isNotEmpty(runtimeArtifact)) {
+                    gatewayAPIDTO = new Gson().fromJson(runtimeArtifact, GatewayAPIDTO.class);
+                    if (skippedApis.contains(gatewayAPIDTO.getApiId())) {
+                        continue;
+                    }
+                    deployedArtifacts.put(gatewayAPIDTO.getApiId(), runtimeArtifact);
+                    log.info("Deploying synapse artifacts of " + gatewayAPIDTO.getName());
+                    apiGatewayAdmin.deployAPI(gatewayAPIDTO);
+                    addDeployedCertificatesToAPIAssociation(gatewayAPIDTO);
+                    addDeployedGraphqlQLToAPI(gatewayAPIDTO);
+                    addDeployedOpenAPIValidatorToAPI(gatewayAPIDTO);
+                    DataHolder.getInstance().addKeyManagerToAPIMapping(gatewayAPIDTO.getApiId(),
+                            gatewayAPIDTO.getKeyManagers());
+                }
+            } catch (AxisFault axisFault) {
+                log.error("Error in deploying " + gatewayAPIDTO.getName() + " to the Gateway ", axisFault);
+                errorCount++;
+            }
+        }
+        return errorCount;
+    }
+
+    /**
+     * Retrieves the artifacts of the tenant from the storage in the background and brings the APIs deployed from
+     * the snapshot in line with them. APIs which changed since the snapshot are deployed again, APIs which are no
+     * longer in the storage are undeployed, and the snapshot is replaced with the retrieved artifacts. APIs deployed
+     * or undeployed by events since the snapshot was read are left as they are, as the events are newer than the
+     * retrieved artifacts.
+     */
+    private void reconcileWithStorage(String labelString, String tenantDomain, Map<String, String> snapshotArtifacts,
+                                      Set<String> deployedApis) {
+
+        try {
+            snapshotReconciler.execute(() -> {
+                try {
+                    reconcile(labelString, tenantDomain, snapshotArtifacts, deployedApis);
+                } finally {
+                    apisDeployedDuringReconciliation.remove(tenantDomain, deployedApis);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            apisDeployedDuringReconciliation.remove(tenantDomain, deployedApis);
+            log.warn("APIs deployed from the local snapshot of tenant " + tenantDomain + " are not reconciled as "
+                    + "the gateway is shutting down");
+        }
+    }
+
+    private void reconcile(String labelString, String tenantDomain, Map<String, String> snapshotArtifacts,
+                           Set<String> deployedApis) {
+
+        try {
+            MessageContext.setCurrentMessageContext(
+                    org.wso2.carbon.apimgt.gateway.utils.GatewayUtils.createAxis2MessageContext());
+            PrivilegedCarbonContext.startTenantFlow();
+            PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(tenantDomain, true);
+            String encodedString = Base64.encodeBase64URLSafeString(labelString.getBytes());
+            List<String> runtimeArtifacts = ServiceReferenceHolder.getInstance().getArtifactRetriever()
+                    .retrieveAllArtifacts(encodedString, tenantDomain);
+            APIGatewayAdmin apiGatewayAdmin = new APIGatewayAdmin();
+            Gson gson = new Gson();
+            List<String> changedArtifacts = new ArrayList<>();
+            Map<String, String> retrievedArtifacts = new LinkedHashMap<>();
+            for (String runtimeArtifact : runtimeArtifacts) {
+                if (StringUtils.isNotEmpty(runtimeArtifact)) {
+                    GatewayAPIDTO gatewayAPIDTO = gson.fromJson(runtimeArtifact, GatewayAPIDTO.class);
+                    retrievedArtifacts.put(gatewayAPIDTO.getApiId(), runtimeArtifact);
+                    // Snapshot artifacts are serialized again when their credentials are decrypted, so they are
+                    // compared with the retrieved artifacts serialized in the same way.
+                    if (!gson.toJson(gatewayAPIDTO).equals(snapshotArtifacts.get(gatewayAPIDTO.getApiId()))) {
+                        changedArtifacts.add(runtimeArtifact);
+                    }
+                }
+            }
+            int errorCount;
+            int removedCount = 0;
+            synchronized (deploymentLock) {
+                errorCount = deployArtifacts(apiGatewayAdmin, changedArtifacts, new HashMap<>(), deployedApis);
+                for (Map.Entry<String, String> snapshotArtifact : snapshotArtifacts.entrySet()) {
+                    if (!retrievedArtifacts.containsKey(snapshotArtifact.getKey())
+                            && !deployedApis.contains(snapshotArtifact.getKey())) {
+                        unDeploySnapshotArtifact(apiGatewayAdmin, tenantDomain, snapshotArtifact.getValue());
+                        removedCount++;
+                    }
+                }
+                // The artifacts of the APIs deployed by events are not written to the snapshot, as they may be
+                // older than the deployed ones. They are retrieved again on the next startup.
+                retrievedArtifacts.keySet().removeAll(deployedApis);
+            }
+            if (!changedArtifacts.isEmpty() || removedCount > 0) {
+                DynamicProfileReloaderHolder.getInstance().reloadAllHandlers();
+            }
+            log.info("Reconciled the APIs of tenant " + tenantDomain + " deployed from the local snapshot. "
+                    + changedArtifacts.size() + " APIs were deployed and " + removedCount + " were undeployed");
+            if (errorCount == 0) {
+                writeArtifactSnapshot(labelString, tenantDomain, retrievedArtifacts);
+            }
+        } catch (ArtifactSynchronizerException | AxisFault e) {
+            log.error("Error while reconciling the APIs deployed from the local snapshot of tenant "
+                    + tenantDomain, e);
+        } finally {
+            MessageContext.destroyCurrentMessageContext();
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    /**
+     * Stops reconciling the APIs deployed from snapshots with the storage, interrupting a running reconciliation.
+     */
+    public static void shutDownSnapshotReconciler() {
+
+        snapshotReconciler.shutdownNow();
+    }
+
+    /**
+     * Undeploys an API deployed from a snapshot artifact, removing every artifact the API added to the gateway.
+     */
+    private void unDeploySnapshotArtifact(APIGatewayAdmin apiGatewayAdmin, String tenantDomain, String runtimeArtifact)
+            throws AxisFault {
+
+        GatewayAPIDTO gatewayAPIDTO = new Gson().fromJson(runtimeArtifact, GatewayAPIDTO.class);
+        log.info("Undeploying synapse artifacts of " + gatewayAPIDTO.getName() + " as it is no longer deployed");
+        gatewayAPIDTO.setSequencesToBeRemove(getNames(gatewayAPIDTO.getSequenceToBeAdd()));
+        gatewayAPIDTO.setLocalEntriesToBeRemove(getNames(gatewayAPIDTO.getLocalEntriesToBeAdd()));
+        gatewayAPIDTO.setEndpointEntriesToBeRemove(getNames(gatewayAPIDTO.getEndpointEntriesToBeAdd()));
+        gatewayAPIDTO.setClientCertificatesToBeRemove(getNames(gatewayAPIDTO.getClientCertificatesToBeAdd()));
+        if (gatewayAPIDTO.getCredentialsToBeAdd() != null) {
+            gatewayAPIDTO.setCredentialsToBeRemove(Arrays.stream(gatewayAPIDTO.getCredentialsToBeAdd())
+                    .map(CredentialDto::getAlias).toArray(String[]::new));
+        }
+        apiGatewayAdmin.unDeployAPI(gatewayAPIDTO);
+        removeResourceMatchers(tenantDomain, gatewayAPIDTO.getName(), gatewayAPIDTO.getVersion());
+        DataHolder.getInstance().getApiToCertificatesMap().remove(gatewayAPIDTO.getApiId());
+        DataHolder.getInstance().removeGraphQLSchemaDTOForAPI(gatewayAPIDTO.getApiId());
+        DataHolder.getInstance().removeKeyManagerToAPIMapping(gatewayAPIDTO.getApiId());
+        DataHolder.getInstance().removeOpenAPIValidator(gatewayAPIDTO.getApiId());
+    }
+
+    private static String[] getNames(GatewayContentDTO[] gatewayContents) {
+
+        if (gatewayContents == null) {
+            return null;
+        }
+        return Arrays.stream(gatewayContents).map(GatewayContentDTO::getName).toArray(String[]::new);
+    }
+
+    /**
+     * @return the runtime artifacts of the snapshot of the tenant against the ids of their APIs, or null if
+     * snapshots are disabled or there is no valid snapshot for the given labels
+     */
+    private Map<String, String> readArtifactSnapshot(String labelString, String tenantDomain) {
+
+        if (!gatewayArtifactSynchronizerProperties.isSnapshotEnabled()) {
+            return null;
+        }
+        Map<String, String> artifacts = new LinkedHashMap<>();
+        try (GatewaySnapshot snapshot = GatewaySnapshot.read(getArtifactSnapshotPath(tenantDomain))) {
+            if (snapshot == null || !labelString.equals(snapshot.getTag())) {
+                return null;
+            }
+            CryptoUtil cryptoUtil = CryptoUtil.getDefaultCryptoUtil();
+            snapshot.forEach((apiId, runtimeArtifact) -> {
+                try {
+                    artifacts.put(apiId, decryptCredentials(cryptoUtil, runtimeArtifact));
+                } catch (CryptoException e) {
+                    // The API is deployed once the deployment is reconciled with the storage.
+                    log.warn("Error while decrypting the credentials of API " + apiId + " in the snapshot of "
+                            + "tenant " + tenantDomain, e);
+                }
+            });
+        }
+        return artifacts;
+    }
+
+    private void writeArtifactSnapshot(String labelString, String tenantDomain, Map<String, String> artifacts) {
+
+        if (!gatewayArtifactSynchronizerProperties.isSnapshotEnabled()) {
+            return;
+        }
+        Path snapshotPath = getArtifactSnapshotPath(tenantDomain);
+        try (GatewaySnapshot.Writer writer = GatewaySnapshot.write(snapshotPath, labelString)) {
+            CryptoUtil cryptoUtil = CryptoUtil.getDefaultCryptoUtil();
+            for (Map.Entry<String, String> artifact : artifacts.entrySet()) {
+                try {
+                    writer.add(artifact.getKey(), encryptCredentials(cryptoUtil, artifact.getValue()));
+                } catch (CryptoException e) {
+                    // The API is left out of the snapshot rather than storing its credentials in plain text.
+                    log.warn("Error while encrypting the credentials of API " + artifact.getKey() + " of tenant "
+                            + tenantDomain + ". The API is not added to the snapshot.", e);
+                }
+            }
+            writer.commit();
+        } catch (IOException e) {
+            log.warn("Error while writing the snapshot of the APIs of tenant " + tenantDomain, e);
+        }
+    }
+
+    /**
+     * @return the runtime artifact with the passwords of its endpoint credentials encrypted with the key store of
+     * the server, so that they are not stored in plain text in the snapshot
+     */
+    private static String encryptCredentials(CryptoUtil cryptoUtil, String runtimeArtifact) throws CryptoException {
+
+        GatewayAPIDTO gatewayAPIDTO = new Gson().fromJson(runtimeArtifact, GatewayAPIDTO.class);
+        if (gatewayAPIDTO.getCredentialsToBeAdd() != null) {
+            for (CredentialDto credential : gatewayAPIDTO.getCredentialsToBeAdd()) {
+                if (credential.getPassword() != null) {
+                    credential.setPassword(cryptoUtil.encryptAndBase64Encode(
+                            credential.getPassword().getBytes(StandardCharsets.UTF_8)));
+                }
+            }
+        }
+        return new Gson().toJson(gatewayAPIDTO);
+    }
+
+    /**
+     * @return the runtime artifact of a snapshot with the passwords of its endpoint credentials decrypted
+     */
+    private static String decryptCredentials(CryptoUtil cryptoUtil, String runtimeArtifact) throws CryptoException {
+
+        GatewayAPIDTO gatewayAPIDTO = new Gson().fromJson(runtimeArtifact, GatewayAPIDTO.class);
+        if (gatewayAPIDTO.getCredentialsToBeAdd() != null) {
+            for (CredentialDto credential : gatewayAPIDTO.getCredentialsToBeAdd()) {
+                if (credential.getPassword() != null) {
+                    credential.setPassword(new String(cryptoUtil.base64DecodeAndDecrypt(credential.getPassword()),
+                            StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return new Gson().toJson(gatewayAPIDTO);
+    }
+
+    private Path getArtifactSnapshotPath(String tenantDomain) {
+
+        return GatewaySnapshot.getPath(gatewayArtifactSynchronizerProperties.getSnapshotLocation(), tenantDomain,
+                APIConstants.GatewayArtifactSynchronizer.ARTIFACTS_SNAPSHOT);
+    }
+
     private void unDeployAPI(APIGatewayAdmin apiGatewayAdmin, DeployAPIInGatewayEvent gatewayEvent)
             throws AxisFault {
             if (gatewayArtifactSynchronizerProperties.isRetrieveFromStorageEnabled()) {
@@ -246,7 +666,11 @@ public class InMemoryAPIDeployer {
                                 org.wso2.carbon.apimgt.impl.utils.GatewayUtils
                                         .addStringToList(gatewayEvent.getUuid().concat(
                                                 "_graphQL"), gatewayAPIDTO.getLocalEntriesToBeRemove()));
-                        DataHolder.getInstance().getApiToGraphQLSchemaDTOMap().remove(gatewayEvent.getUuid());
+                        gatewayAPIDTO.setLocalEntriesToBeRemove(GatewayUtils.addStringToList(
+                                gatewayEvent.getUuid().concat(
+                                        APIConstants.GRAPHQL_PERSISTED_QUERIES_LOCAL_ENTRY_EXTENSION),
+                                gatewayAPIDTO.getLocalEntriesToBeRemove()));
+                        DataHolder.getInstance().removeGraphQLSchemaDTOForAPI(gatewayEvent.getUuid());
                     }
                     if (APIConstants.APITransportType.WS.toString().equalsIgnoreCase(gatewayEvent.getApiType())) {
                         org.wso2.carbon.apimgt.gateway.utils.GatewayUtils.setWebsocketEndpointsToBeRemoved(
@@ -262,8 +686,11 @@ public class InMemoryAPIDeployer {
                         GatewayUtils
                                 .addStringToList(gatewayEvent.getUuid(), gatewayAPIDTO.getLocalEntriesToBeRemove()));
                 apiGatewayAdmin.unDeployAPI(gatewayAPIDTO);
+                removeResourceMatchers(gatewayEvent.getTenantDomain(), gatewayEvent.getName(),
+                        gatewayEvent.getVersion());
                 DataHolder.getInstance().getApiToCertificatesMap().remove(gatewayEvent.getUuid());
                 DataHolder.getInstance().removeKeyManagerToAPIMapping(gatewayAPIDTO.getApiId());
+                DataHolder.getInstance().removeOpenAPIValidator(gatewayEvent.getUuid());
             }
     }
 
@@ -272,7 +699,10 @@ public class InMemoryAPIDeployer {
         try {
             APIGatewayAdmin apiGatewayAdmin = new APIGatewayAdmin();
             MessageContext.setCurrentMessageContext(org.wso2.carbon.apimgt.gateway.utils.GatewayUtils.createAxis2MessageContext());
-            unDeployAPI(apiGatewayAdmin, gatewayEvent);
+            synchronized (deploymentLock) {
+                recordEventDeployment(gatewayEvent);
+                unDeployAPI(apiGatewayAdmin, gatewayEvent);
+            }
         } catch (AxisFault axisFault) {
             throw new ArtifactSynchronizerException("Error while unDeploying api ", axisFault);
         } finally {
@@ -333,7 +763,8 @@ public class InMemoryAPIDeployer {
     }
 
     /**
-     * Add GraphQLSchemaDTO of deployed GraphQL API to Gateway internal data holder.
+     * Add GraphQLSchemaDTO of deployed GraphQL API to Gateway internal data holder, along with a persisted query
+     * store holding the operations of the persisted query manifest deployed with the API.
      *
      * @param gatewayAPIDTO GatewayAPIDTO
      */
@@ -345,10 +776,84 @@ public class InMemoryAPIDeployer {
             TypeDefinitionRegistry registry = schemaParser.parse(gatewayAPIDTO.getGraphQLSchema());
             GraphQLSchema schema = UnExecutableSchemaGenerator.makeUnExecutableSchema(registry);
             GraphQLSchemaDTO schemaDTO = new GraphQLSchemaDTO(schema, registry);
+            GraphQLPersistedQueryStore persistedQueryStore = new GraphQLPersistedQueryStore(schemaDTO);
+            addDeployedPersistedQueryManifest(gatewayAPIDTO, persistedQueryStore);
+            DataHolder.getInstance().addGraphQLPersistedQueryStore(apiId, persistedQueryStore);
             DataHolder.getInstance().addApiToGraphQLSchemaDTO(apiId, schemaDTO);
         }
     }
 
+    /**
+     * Registers the operations of the persisted query manifest deployed with a GraphQL API, if the API has one.
+     *
+     * @param gatewayAPIDTO       GatewayAPIDTO
+     * @param persistedQueryStore persisted query store of the deployment
+     */
+    private void addDeployedPersistedQueryManifest(GatewayAPIDTO gatewayAPIDTO,
+                                                   GraphQLPersistedQueryStore persistedQueryStore) {
+
+        if (gatewayAPIDTO.getLocalEntriesToBeAdd() == null) {
+            return;
+        }
+        String manifestEntry = gatewayAPIDTO.getApiId() + APIConstants.GRAPHQL_PERSISTED_QUERIES_LOCAL_ENTRY_EXTENSION;
+        for (GatewayContentDTO localEntry : gatewayAPIDTO.getLocalEntriesToBeAdd()) {
+            if (manifestEntry.equals(localEntry.getName())) {
+                try {
+                    int count = persistedQueryStore.registerManifest(
+                            AXIOMUtil.stringToOM(localEntry.getContent()).getText());
+                    log.info(count + " persisted queries registered for " + gatewayAPIDTO.getName());
+                } catch (XMLStreamException | IOException e) {
+                    log.error("Error while reading the persisted query manifest of " + gatewayAPIDTO.getName(), e);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Starts compiling the OpenAPI validator of a deployed API in the background, if the API validates its messages
+     * against its OpenAPI definition.
+     *
+     * @param gatewayAPIDTO GatewayAPIDTO
+     */
+    private void addDeployedOpenAPIValidatorToAPI(GatewayAPIDTO gatewayAPIDTO) {
+
+        if (gatewayAPIDTO == null || gatewayAPIDTO.getApiDefinition() == null
+                || !gatewayAPIDTO.getApiDefinition().contains(SchemaValidator.class.getName())
+                || gatewayAPIDTO.getLocalEntriesToBeAdd() == null) {
+            return;
+        }
+        String apiId = gatewayAPIDTO.getApiId();
+        for (GatewayContentDTO localEntry : gatewayAPIDTO.getLocalEntriesToBeAdd()) {
+            if (apiId.equals(localEntry.getName())) {
+                try {
+                    String definition = AXIOMUtil.stringToOM(localEntry.getContent()).getText();
+                    DataHolder.getInstance().addOpenAPIValidator(apiId, definition);
+                } catch (XMLStreamException e) {
+                    log.warn("Error while reading the OpenAPI definition of " + gatewayAPIDTO.getName()
+                            + ". Its validator is compiled on the first request.", e);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Discard the compiled resource routing tables of an API, so that they are compiled again from the newly
+     * deployed synapse API.
+     *
+     * @param tenantDomain tenant domain of the API
+     * @param apiName      API name
+     * @param version      API version
+     */
+    private void removeResourceMatchers(String tenantDomain, String apiName, String version) {
+
+        DataHolder.getInstance().removeResourceMatcher(tenantDomain,
+                org.wso2.carbon.apimgt.gateway.utils.GatewayUtils.getQualifiedApiName(apiName, version));
+        DataHolder.getInstance().removeResourceMatcher(tenantDomain,
+                org.wso2.carbon.apimgt.gateway.utils.GatewayUtils.getQualifiedDefaultApiName(apiName));
+    }
+
     private void setClientCertificatesToRemoveIntoGatewayDTO(GatewayAPIDTO gatewayDTO) {
 
         if (gatewayDTO != null) {
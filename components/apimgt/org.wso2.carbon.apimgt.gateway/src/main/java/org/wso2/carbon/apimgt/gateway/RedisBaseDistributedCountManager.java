@@ -23,25 +23,63 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.synapse.commons.throttle.core.DistributedCounterManager;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
 import redis.clients.jedis.Response;
 import redis.clients.jedis.Transaction;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Redis Base Distributed Counter Manager for Throttler.
+ * <p>
+ * By default each counter update is a Redis transaction. When a counter sync interval is given, the counters are
+ * updated locally and synced with Redis in a pipeline at that interval instead, trading the accuracy of the counters
+ * for a Redis round trip per request. See {@link BatchedDistributedCounter} for the error bound.
  */
 public class RedisBaseDistributedCountManager implements DistributedCounterManager {
 
     private static final Log log = LogFactory.getLog(RedisBaseDistributedCountManager.class);
     JedisPool redisPool;
+    private final BatchedDistributedCounter batchedCounter;
 
     public RedisBaseDistributedCountManager(JedisPool redisPool) {
 
+        this(redisPool, 0);
+    }
+
+    /**
+     * @param redisPool           Redis connection pool
+     * @param counterSyncInterval interval in milliseconds to sync the counters with Redis, or 0 to update Redis on
+     *                            each counter update
+     */
+    public RedisBaseDistributedCountManager(JedisPool redisPool, long counterSyncInterval) {
+
         this.redisPool = redisPool;
+        if (counterSyncInterval > 0) {
+            batchedCounter = new BatchedDistributedCounter(this::addAndGetCounters);
+            batchedCounter.start(counterSyncInterval);
+        } else {
+            batchedCounter = null;
+        }
+    }
+
+    /**
+     * Stops syncing the counters with Redis, after syncing the pending counter updates.
+     */
+    public void shutdown() {
+
+        if (batchedCounter != null) {
+            batchedCounter.stop();
+        }
     }
 
     @Override
     public long getCounter(String key) {
 
+        if (batchedCounter != null) {
+            return batchedCounter.get(key);
+        }
         long startTime = 0;
         try {
             String count;
@@ -84,6 +122,9 @@ public class RedisBaseDistributedCountManager implements DistributedCounterManag
     @Override
     public long addAndGetCounter(String key, long value) {
 
+        if (batchedCounter != null) {
+            return batchedCounter.addAndGet(key, value);
+        }
         long startTime = 0;
         try {
             startTime = System.currentTimeMillis();
@@ -120,6 +161,9 @@ public class RedisBaseDistributedCountManager implements DistributedCounterManag
                 Transaction transaction = jedis.multi();
                 transaction.del(key);
                 transaction.exec();
+                if (batchedCounter != null) {
+                    batchedCounter.remove(key);
+                }
                 if (log.isDebugEnabled()) {
                     log.debug(String.format("%s Key Removed", key));
                 }
@@ -134,6 +178,9 @@ public class RedisBaseDistributedCountManager implements DistributedCounterManag
     @Override
     public long asyncGetAndAddCounter(String key, long value) {
 
+        if (batchedCounter != null) {
+            return batchedCounter.getAndAdd(key, value);
+        }
         long startTime = 0;
         try {
             startTime = System.currentTimeMillis();
@@ -176,6 +223,9 @@ public class RedisBaseDistributedCountManager implements DistributedCounterManag
                 transaction.del(key);
                 Response<Long> incrementedValue = transaction.incrBy(key, value);
                 transaction.exec();
+                if (batchedCounter != null) {
+                    batchedCounter.reset(key, incrementedValue.get());
+                }
 
                 if (currentValue != null) {
                     current = Long.parseLong(currentValue.get());
@@ -192,6 +242,47 @@ public class RedisBaseDistributedCountManager implements DistributedCounterManag
         }
     }
 
+    /**
+     * Adds the deltas to the counters and reads back their values in a single pipeline. Counters with a zero delta
+     * are only read, so that they are not created without an expiry. The expiry of each incremented counter is set
+     * in the same pipeline, as the increment recreates a counter which was removed or expired since.
+     */
+    private Map<String, Long> addAndGetCounters(Map<String, Long> deltas, Map<String, Long> expiryTimes) {
+
+        long startTime = System.currentTimeMillis();
+        try (Jedis jedis = redisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            Map<String, Response<Long>> incrementedValues = new HashMap<>();
+            Map<String, Response<String>> currentValues = new HashMap<>();
+            for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+                if (delta.getValue() != 0) {
+                    incrementedValues.put(delta.getKey(), pipeline.incrBy(delta.getKey(), delta.getValue()));
+                    Long expiryTime = expiryTimes.get(delta.getKey());
+                    if (expiryTime != null) {
+                        pipeline.pexpireAt(delta.getKey(), expiryTime);
+                    }
+                } else {
+                    currentValues.put(delta.getKey(), pipeline.get(delta.getKey()));
+                }
+            }
+            pipeline.sync();
+            Map<String, Long> values = new HashMap<>(deltas.size());
+            for (Map.Entry<String, Response<Long>> incrementedValue : incrementedValues.entrySet()) {
+                values.put(incrementedValue.getKey(), incrementedValue.getValue().get());
+            }
+            for (Map.Entry<String, Response<String>> currentValue : currentValues.entrySet()) {
+                String count = currentValue.getValue().get();
+                values.put(currentValue.getKey(), count != null ? Long.parseLong(count) : 0L);
+            }
+            return values;
+        } finally {
+            if (log.isDebugEnabled()) {
+                log.debug("Time Taken to sync " + deltas.size() + " distributed counters :"
+                        + (System.currentTimeMillis() - startTime));
+            }
+        }
+    }
+
     @Override
     public long getTimestamp(String key) {
 
@@ -266,6 +357,9 @@ public class RedisBaseDistributedCountManager implements DistributedCounterManag
                 transaction.pexpireAt(key, expiryTimeStamp);
                 transaction.exec();
             }
+            if (batchedCounter != null) {
+                batchedCounter.setExpiry(key, expiryTimeStamp);
+            }
         } finally {
             if (log.isDebugEnabled()) {
                 log.debug("Time Taken to setExpiry :" + (System.currentTimeMillis() - startTime));
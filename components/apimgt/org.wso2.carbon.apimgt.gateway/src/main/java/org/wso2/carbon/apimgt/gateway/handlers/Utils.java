@@ -606,6 +606,29 @@ public class Utils {
         return jsonObMap;
     }
 
+    /**
+     * Sets the IP address of the client in the properties map of a throttle event, in the same form as
+     * {@link #setRemoteIp(JSONObject, String)}.
+     *
+     * @param propertiesMap properties of a throttle event
+     * @param remoteIP      IP address of the client
+     */
+    public static void setRemoteIp(Map<String, Object> propertiesMap, String remoteIP) {
+        if (remoteIP != null && remoteIP.length() > 0) {
+            try {
+                InetAddress address = APIUtil.getAddress(remoteIP);
+                if (address instanceof Inet4Address) {
+                    propertiesMap.put(APIThrottleConstants.IP, APIUtil.ipToLong(remoteIP));
+                } else if (address instanceof Inet6Address) {
+                    propertiesMap.put(APIThrottleConstants.IPv6, APIUtil.ipToBigInteger(remoteIP));
+                }
+            } catch (UnknownHostException e) {
+                //ignore the error and log it
+                log.error("Error while parsing host IP " + remoteIP, e);
+            }
+        }
+    }
+
     public static TreeMap<String, org.wso2.carbon.apimgt.keymgt.model.entity.API> getSelectedAPIList(String path,
                                                                                           String tenantDomain) {
         TreeMap<String, org.wso2.carbon.apimgt.keymgt.model.entity.API> selectedAPIMap =
@@ -57,16 +57,8 @@ public class WebsocketHandler extends CombinedChannelDuplexHandler<WebsocketInbo
     public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
 
         String channelId = ctx.channel().id().asLongText();
-        InboundMessageContext inboundMessageContext;
-        if (InboundMessageContextDataHolder.getInstance().getInboundMessageContextMap().containsKey(channelId)) {
-            inboundMessageContext = InboundMessageContextDataHolder.getInstance()
-                    .getInboundMessageContextForConnectionId(channelId);
-        } else {
-            inboundMessageContext = new InboundMessageContext();
-            inboundMessageContext.setCtx(ctx);
-            InboundMessageContextDataHolder.getInstance()
-                    .addInboundMessageContextForConnection(channelId, inboundMessageContext);
-        }
+        InboundMessageContext inboundMessageContext =
+                InboundMessageContextDataHolder.getInstance().getOrAddInboundMessageContext(ctx);
 
         if (APIUtil.isAnalyticsEnabled()) {
             WebSocketUtils.setApiPropertyToChannel(ctx,
@@ -76,10 +68,11 @@ public class WebsocketHandler extends CombinedChannelDuplexHandler<WebsocketInbo
 
         if ((msg instanceof CloseWebSocketFrame) || (msg instanceof PongWebSocketFrame)) {
             //remove inbound message context from data holder
-            InboundMessageContextDataHolder.getInstance().getInboundMessageContextMap().remove(channelId);
+            InboundMessageContextDataHolder.getInstance().removeInboundMessageContextForConnection(channelId);
             //if the inbound frame is a closed frame, throttling, analytics will not be published.
             outboundHandler().write(ctx, msg, promise);
         } else if (msg instanceof WebSocketFrame) {
+            InboundMessageContextDataHolder.getInstance().frameProcessed(inboundMessageContext);
             InboundProcessorResponseDTO responseDTO = inboundHandler().getWebSocketProcessor().handleResponse(
                     (WebSocketFrame) msg, inboundMessageContext);
             if (responseDTO.isError()) {
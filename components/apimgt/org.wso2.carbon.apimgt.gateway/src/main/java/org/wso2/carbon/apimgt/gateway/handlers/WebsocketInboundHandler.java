@@ -98,16 +98,8 @@ public class WebsocketInboundHandler extends ChannelInboundHandlerAdapter {
             return;
         }
 
-        InboundMessageContext inboundMessageContext;
-        if (InboundMessageContextDataHolder.getInstance().getInboundMessageContextMap().containsKey(channelId)) {
-            inboundMessageContext = InboundMessageContextDataHolder.getInstance()
-                    .getInboundMessageContextForConnectionId(channelId);
-        } else {
-            inboundMessageContext = new InboundMessageContext();
-            inboundMessageContext.setCtx(ctx);
-            InboundMessageContextDataHolder.getInstance()
-                    .addInboundMessageContextForConnection(channelId, inboundMessageContext);
-        }
+        InboundMessageContext inboundMessageContext =
+                InboundMessageContextDataHolder.getInstance().getOrAddInboundMessageContext(ctx);
         inboundMessageContext.setUserIP(getRemoteIP(ctx));
         if (APIUtil.isAnalyticsEnabled()) {
             WebSocketUtils.setApiPropertyToChannel(ctx,
@@ -123,9 +115,17 @@ public class WebsocketInboundHandler extends ChannelInboundHandlerAdapter {
             populateContextHeaders(req, inboundMessageContext);
             validateCorsHeaders(ctx, req);
 
-            InboundProcessorResponseDTO responseDTO =
-                    webSocketProcessor.handleHandshake(req, ctx, inboundMessageContext);
+            InboundProcessorResponseDTO responseDTO;
+            if (InboundMessageContextDataHolder.getInstance().isConnectionLimitExceeded()) {
+                responseDTO = new InboundProcessorResponseDTO();
+                responseDTO.setError(true);
+                responseDTO.setErrorCode(HttpResponseStatus.SERVICE_UNAVAILABLE.code());
+                responseDTO.setErrorMessage("Maximum number of connections reached");
+            } else {
+                responseDTO = webSocketProcessor.handleHandshake(req, ctx, inboundMessageContext);
+            }
             if (!responseDTO.isError()) {
+                InboundMessageContextDataHolder.getInstance().connectionEstablished(inboundMessageContext);
                 setApiAuthPropertiesToChannel(ctx, inboundMessageContext);
                 if (StringUtils.isNotEmpty(inboundMessageContext.getToken())) {
                     req.headers().set(APIMgtGatewayConstants.WS_JWT_TOKEN_HEADER, inboundMessageContext.getToken());
@@ -145,16 +145,17 @@ public class WebsocketInboundHandler extends ChannelInboundHandlerAdapter {
             }
         } else if ((msg instanceof CloseWebSocketFrame) || (msg instanceof PingWebSocketFrame)) {
             //remove inbound message context from data holder
-            InboundMessageContextDataHolder.getInstance().getInboundMessageContextMap().remove(channelId);
+            InboundMessageContextDataHolder.getInstance().removeInboundMessageContextForConnection(channelId);
             //if the inbound frame is a closed frame, throttling, analytics will not be published.
             ctx.fireChannelRead(msg);
         } else if (msg instanceof WebSocketFrame) {
+            InboundMessageContextDataHolder.getInstance().frameProcessed(inboundMessageContext);
             InboundProcessorResponseDTO responseDTO =
                     webSocketProcessor.handleRequest((WebSocketFrame) msg, inboundMessageContext);
             if (responseDTO.isError()) {
                 if (responseDTO.isCloseConnection()) {
                     //remove inbound message context from data holder
-                    InboundMessageContextDataHolder.getInstance().getInboundMessageContextMap().remove(channelId);
+                    InboundMessageContextDataHolder.getInstance().removeInboundMessageContextForConnection(channelId);
                     if (log.isDebugEnabled()) {
                         log.debug("Error while handling Outbound Websocket frame. Closing connection for "
                                 + ctx.channel().toString());
@@ -179,6 +180,15 @@ public class WebsocketInboundHandler extends ChannelInboundHandlerAdapter {
         }
     }
 
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+
+        //remove inbound message context of the closed connection from data holder
+        InboundMessageContextDataHolder.getInstance()
+                .removeInboundMessageContextForConnection(ctx.channel().id().asLongText());
+        super.channelInactive(ctx);
+    }
+
     private void handlePublishFrameErrorEvent(ChannelHandlerContext ctx, InboundProcessorResponseDTO responseDTO) {
         if (responseDTO.getErrorCode() == WebSocketApiConstants.FrameErrorConstants.THROTTLED_OUT_ERROR
                 || responseDTO.getErrorCode() == WebSocketApiConstants.FrameErrorConstants.GRAPHQL_QUERY_TOO_COMPLEX
@@ -27,18 +27,25 @@ import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLType;
 import graphql.validation.Validator;
 import org.apache.axiom.om.OMElement;
+import org.apache.axis2.Constants;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpStatus;
 import org.apache.synapse.Mediator;
 import org.apache.synapse.MessageContext;
 import org.apache.synapse.SynapseConstants;
+import org.apache.synapse.commons.json.JsonUtil;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
 import org.apache.synapse.rest.AbstractHandler;
+import org.apache.synapse.transport.nhttp.NhttpConstants;
 import org.apache.synapse.transport.passthru.util.RelayUtils;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
 import org.wso2.carbon.apimgt.api.gateway.GraphQLSchemaDTO;
 import org.wso2.carbon.apimgt.common.gateway.graphql.QueryValidator;
 import org.wso2.carbon.apimgt.gateway.handlers.Utils;
+import org.wso2.carbon.apimgt.gateway.handlers.graphQL.GraphQLConstants.PersistedQueryConstants;
 import org.wso2.carbon.apimgt.gateway.handlers.graphQL.utils.GraphQLProcessorUtil;
 import org.wso2.carbon.apimgt.gateway.internal.DataHolder;
 import org.wso2.carbon.apimgt.impl.APIConstants;
@@ -46,7 +53,9 @@ import org.wso2.carbon.apimgt.impl.APIConstants;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashMap;
@@ -58,6 +67,7 @@ public class GraphQLAPIHandler extends AbstractHandler {
 
     private static final String QUERY_PATH_STRING = "/?query=";
     private static final String QUERY_PAYLOAD_STRING = "query";
+    private static final String PERSISTED_QUERY_PATH_STRING = PersistedQueryConstants.EXTENSIONS + "=";
     private static final String REST_SUB_REQUEST_PATH = "REST_SUB_REQUEST_PATH";
     private static final String GRAPHQL_API = "GRAPHQL";
     private static final String HTTP_VERB = "HTTP_VERB";
@@ -66,6 +76,7 @@ public class GraphQLAPIHandler extends AbstractHandler {
     private GraphQLSchemaDTO graphQLSchemaDTO;
     private String apiUUID;
     private QueryValidator queryValidator;
+    private String persistedQueries;
 
     public GraphQLAPIHandler() {
 
@@ -90,8 +101,10 @@ public class GraphQLAPIHandler extends AbstractHandler {
                 }
                 return true;
             }
-            String payload;
-            Parser parser = new Parser();
+            String payload = null;
+            String persistedQueryHash = null;
+            GraphQLPersistedQueryStore.PersistedQuery persistedQuery = null;
+            boolean isPersistedQueryInRequestPath = false;
             org.apache.axis2.context.MessageContext axis2MC = ((Axis2MessageContext) messageContext).
                     getAxis2MessageContext();
             String requestPath = messageContext.getProperty(REST_SUB_REQUEST_PATH).toString();
@@ -100,18 +113,33 @@ public class GraphQLAPIHandler extends AbstractHandler {
                         get(REST_SUB_REQUEST_PATH).toString().split(QUERY_PATH_STRING);
                 if (queryParams.length > 1) {
                     payload = URLDecoder.decode(queryParams[1], UNICODE_TRANSFORMATION_FORMAT);
+                } else if (requestPath.contains(PERSISTED_QUERY_PATH_STRING)) {
+                    persistedQueryHash = getPersistedQueryHash(requestPath);
+                    isPersistedQueryInRequestPath = true;
                 } else {
                     RelayUtils.buildMessage(axis2MC);
                     OMElement body = axis2MC.getEnvelope().getBody().getFirstElement();
-                    if (body != null && body.getFirstChildWithName(QName.valueOf(QUERY_PAYLOAD_STRING)) != null){
-                        payload = body.getFirstChildWithName(QName.valueOf(QUERY_PAYLOAD_STRING)).getText();
-                    } else {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Invalid query parameter " + queryParams[0]);
+                    if (body != null) {
+                        if (body.getFirstChildWithName(QName.valueOf(QUERY_PAYLOAD_STRING)) != null) {
+                            payload = body.getFirstChildWithName(QName.valueOf(QUERY_PAYLOAD_STRING)).getText();
                         }
-                        handleFailure(messageContext, "Invalid query parameter");
+                        persistedQueryHash = getPersistedQueryHash(body);
+                    }
+                }
+                if (payload == null && persistedQueryHash == null) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Invalid query parameter " + queryParams[0]);
+                    }
+                    handleFailure(messageContext, "Invalid query parameter");
+                    return false;
+                }
+                if (persistedQueryHash != null || PersistedQueryConstants.MODE_ALLOW_LIST.equals(persistedQueries)) {
+                    persistedQuery = resolvePersistedQuery(messageContext, payload, persistedQueryHash,
+                            isPersistedQueryInRequestPath);
+                    if (persistedQuery == null) {
                         return false;
                     }
+                    payload = persistedQuery.getQuery();
                 }
                 messageContext.setProperty(APIConstants.GRAPHQL_PAYLOAD, payload);
             } else {
@@ -120,9 +148,15 @@ public class GraphQLAPIHandler extends AbstractHandler {
             }
 
             // Validate payload with graphQLSchema
-            Document document = parser.parseDocument(payload);
+            GraphQLQueryInfo queryInfo = getQueryInfo(payload, persistedQuery);
+            messageContext.setProperty(GraphQLConstants.GRAPHQL_QUERY_INFO, queryInfo);
+            Document document = queryInfo.getDocument();
 
-            if (validatePayloadWithSchema(messageContext, document)) {
+            if (validatePayloadWithSchema(messageContext, queryInfo)) {
+                if (persistedQueryHash != null && PersistedQueryConstants.MODE_AUTOMATIC.equals(persistedQueries)) {
+                    // Only valid queries are registered, so that invalid ones do not fill the persisted query store.
+                    getPersistedQueryStore().register(persistedQueryHash, persistedQuery);
+                }
                 supportForBasicAndAuthentication(messageContext);
 
                 // Extract the operation type and operations from the payload
@@ -135,8 +169,12 @@ public class GraphQLAPIHandler extends AbstractHandler {
                             messageContext.setProperty(HTTP_VERB, httpVerb);
                             ((Axis2MessageContext) messageContext).getAxis2MessageContext().setProperty(HTTP_METHOD,
                                     operation.getOperation().toString());
-                            String operationList = GraphQLProcessorUtil.getOperationList(operation,
-                                    graphQLSchemaDTO.getTypeDefinitionRegistry());
+                            String operationList = queryInfo.getOperationList();
+                            if (operationList == null) {
+                                operationList = GraphQLProcessorUtil.getOperationList(operation,
+                                        graphQLSchemaDTO.getTypeDefinitionRegistry());
+                                queryInfo.setOperationList(operationList);
+                            }
                             messageContext.setProperty(APIConstants.API_ELECTED_RESOURCE, operationList);
                             if (log.isDebugEnabled()) {
                                 log.debug("Operation list has been successfully added to elected property");
@@ -158,6 +196,187 @@ public class GraphQLAPIHandler extends AbstractHandler {
         return false;
     }
 
+    public String getPersistedQueries() {
+
+        return persistedQueries;
+    }
+
+    /**
+     * Sets the persisted query mode of the API. With "automatic", clients can send the SHA-256 hash of a query
+     * instead of the query once it is registered by sending both. With "allowList", only the queries of the
+     * persisted query manifest of the API are accepted. Persisted queries are not supported otherwise.
+     *
+     * @param persistedQueries persisted query mode
+     */
+    public void setPersistedQueries(String persistedQueries) {
+
+        this.persistedQueries = persistedQueries;
+    }
+
+    /**
+     * This method resolves the query of a request with a persisted query hash, and checks the query of a request in
+     * allow list mode. The query of a request with only a persisted query hash is added to the request, so that the
+     * backend receives the query.
+     *
+     * @param messageContext                message context of the request
+     * @param payload                       query of the request, or null if the request only has the hash
+     * @param persistedQueryHash            persisted query hash of the request, or null if it does not have one
+     * @param isPersistedQueryInRequestPath whether the persisted query hash is in the request path
+     * @return persisted query of the request, which is not registered yet if the query is not persisted, or null if
+     * the request is rejected
+     * @throws IOException if the query cannot be added to the request
+     */
+    private GraphQLPersistedQueryStore.PersistedQuery resolvePersistedQuery(MessageContext messageContext,
+                                                                            String payload, String persistedQueryHash,
+                                                                            boolean isPersistedQueryInRequestPath)
+            throws IOException {
+
+        boolean isAutomatic = PersistedQueryConstants.MODE_AUTOMATIC.equals(persistedQueries);
+        boolean isAllowList = PersistedQueryConstants.MODE_ALLOW_LIST.equals(persistedQueries);
+        if (payload == null) {
+            if (!isAutomatic && !isAllowList) {
+                sendPersistedQueryError(messageContext, PersistedQueryConstants.ERROR_NOT_SUPPORTED,
+                        PersistedQueryConstants.ERROR_CODE_NOT_SUPPORTED);
+                return null;
+            }
+            GraphQLPersistedQueryStore store = getPersistedQueryStore();
+            GraphQLPersistedQueryStore.PersistedQuery persistedQuery = isAllowList ?
+                    (store.isInManifest(persistedQueryHash) ? store.get(persistedQueryHash) : null) :
+                    store.get(persistedQueryHash);
+            if (persistedQuery == null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Persisted query " + persistedQueryHash + " not found for API " + apiUUID);
+                }
+                sendPersistedQueryError(messageContext, PersistedQueryConstants.ERROR_NOT_FOUND,
+                        PersistedQueryConstants.ERROR_CODE_NOT_FOUND);
+                return null;
+            }
+            addQueryToRequest(messageContext, persistedQuery.getQuery(), isPersistedQueryInRequestPath);
+            return persistedQuery;
+        }
+        if (!isAutomatic && !isAllowList) {
+            return new GraphQLPersistedQueryStore.PersistedQuery(payload);
+        }
+        String queryHash = GraphQLPersistedQueryStore.getHash(payload);
+        if (persistedQueryHash != null && !persistedQueryHash.equalsIgnoreCase(queryHash)) {
+            handleFailure(messageContext, "Persisted query hash does not match the query");
+            return null;
+        }
+        GraphQLPersistedQueryStore store = getPersistedQueryStore();
+        if (isAllowList && !store.isInManifest(queryHash)) {
+            handleFailure(messageContext, "Query is not in the persisted query allow list");
+            return null;
+        }
+        GraphQLPersistedQueryStore.PersistedQuery persistedQuery = store.get(queryHash);
+        return persistedQuery != null ? persistedQuery : new GraphQLPersistedQueryStore.PersistedQuery(payload);
+    }
+
+    /**
+     * This method returns the persisted query store of the current deployment of the API, which holds the
+     * operations of the persisted query manifest deployed with the API if there is one
+     *
+     * @return persisted query store of the API
+     */
+    private GraphQLPersistedQueryStore getPersistedQueryStore() {
+
+        return DataHolder.getInstance().getGraphQLPersistedQueryStore(apiUUID,
+                DataHolder.getInstance().getGraphQLSchemaDTOForAPI(apiUUID));
+    }
+
+    private String getPersistedQueryHash(OMElement body) {
+
+        OMElement extensions = body.getFirstChildWithName(QName.valueOf(PersistedQueryConstants.EXTENSIONS));
+        if (extensions == null) {
+            return null;
+        }
+        OMElement persistedQuery =
+                extensions.getFirstChildWithName(QName.valueOf(PersistedQueryConstants.PERSISTED_QUERY));
+        if (persistedQuery == null) {
+            return null;
+        }
+        OMElement sha256Hash = persistedQuery.getFirstChildWithName(QName.valueOf(PersistedQueryConstants.SHA256_HASH));
+        return sha256Hash != null ? sha256Hash.getText() : null;
+    }
+
+    private String getPersistedQueryHash(String requestPath) throws UnsupportedEncodingException {
+
+        String queryString = requestPath.substring(requestPath.indexOf('?') + 1);
+        for (String queryParam : queryString.split("&")) {
+            if (queryParam.startsWith(PersistedQueryConstants.EXTENSIONS + "=")) {
+                String extensions = URLDecoder.decode(
+                        queryParam.substring(PersistedQueryConstants.EXTENSIONS.length() + 1),
+                        UNICODE_TRANSFORMATION_FORMAT);
+                try {
+                    JSONObject persistedQuery = new JSONObject(extensions)
+                            .optJSONObject(PersistedQueryConstants.PERSISTED_QUERY);
+                    return persistedQuery != null ?
+                            persistedQuery.optString(PersistedQueryConstants.SHA256_HASH, null) : null;
+                } catch (JSONException e) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Invalid extensions query parameter " + extensions);
+                    }
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This method adds the resolved query of a persisted query request to the request
+     *
+     * @param messageContext                message context of the request
+     * @param query                         resolved query
+     * @param isPersistedQueryInRequestPath whether the persisted query hash is in the request path
+     * @throws IOException if the query cannot be added to the payload of the request
+     */
+    private void addQueryToRequest(MessageContext messageContext, String query, boolean isPersistedQueryInRequestPath)
+            throws IOException {
+
+        org.apache.axis2.context.MessageContext axis2MC = ((Axis2MessageContext) messageContext).
+                getAxis2MessageContext();
+        if (isPersistedQueryInRequestPath) {
+            String restUrlPostfix = (String) axis2MC.getProperty(NhttpConstants.REST_URL_POSTFIX);
+            String queryParam = QUERY_PAYLOAD_STRING + "=" + URLEncoder.encode(query, UNICODE_TRANSFORMATION_FORMAT);
+            if (restUrlPostfix == null) {
+                restUrlPostfix = "?" + queryParam;
+            } else {
+                restUrlPostfix = restUrlPostfix + (restUrlPostfix.contains("?") ? "&" : "?") + queryParam;
+            }
+            axis2MC.setProperty(NhttpConstants.REST_URL_POSTFIX, restUrlPostfix);
+        } else {
+            JSONObject payload = new JSONObject(JsonUtil.jsonPayloadToString(axis2MC));
+            payload.put(QUERY_PAYLOAD_STRING, query);
+            JsonUtil.getNewJsonPayload(axis2MC, payload.toString(), true, true);
+        }
+    }
+
+    /**
+     * This method responds to a persisted query request with a GraphQL error, in the format the clients of automatic
+     * persisted queries expect
+     *
+     * @param messageContext message context of the request
+     * @param message        error message
+     * @param code           error code
+     * @throws IOException if the error cannot be added to the response
+     */
+    private void sendPersistedQueryError(MessageContext messageContext, String message, String code)
+            throws IOException {
+
+        org.apache.axis2.context.MessageContext axis2MC = ((Axis2MessageContext) messageContext).
+                getAxis2MessageContext();
+        JSONObject error = new JSONObject();
+        error.put("message", message);
+        error.put("extensions", new JSONObject().put("code", code));
+        JSONObject response = new JSONObject();
+        response.put("errors", new JSONArray().put(error));
+        JsonUtil.removeJsonPayload(axis2MC);
+        JsonUtil.getNewJsonPayload(axis2MC, response.toString(), true, true);
+        axis2MC.setProperty(Constants.Configuration.MESSAGE_TYPE, APIConstants.APPLICATION_JSON_MEDIA_TYPE);
+        axis2MC.removeProperty(APIConstants.NO_ENTITY_BODY);
+        Utils.send(messageContext, HttpStatus.SC_OK);
+    }
+
     /**
      * Support GraphQL APIs for basic,JWT  authentication, this method extract the scopes and operations from
      * local Entry and set them to properties. If the operations have scopes, scopes operation mapping and scope
@@ -255,19 +474,57 @@ public class GraphQLAPIHandler extends AbstractHandler {
         }
     }
 
+    /**
+     * This method parses the payload and validates it with the graphQL schema, or returns the result of an earlier
+     * request with the same valid payload. The result is kept with the persisted query of the request, if it
+     * belongs to the current deployment of the schema.
+     *
+     * @param payload        payload of the request
+     * @param persistedQuery persisted query of the request, or null if persisted queries are not used
+     * @return parsed and validated payload
+     */
+    private GraphQLQueryInfo getQueryInfo(String payload, GraphQLPersistedQueryStore.PersistedQuery persistedQuery) {
+
+        // Get GraphQL schema data from gateway internal data holder
+        graphQLSchemaDTO = DataHolder.getInstance().getApiToGraphQLSchemaDTOMap().get(apiUUID);
+        boolean isCurrentDeployment = persistedQuery != null
+                && getPersistedQueryStore().getGraphQLSchemaDTO() == graphQLSchemaDTO;
+        if (isCurrentDeployment && persistedQuery.getQueryInfo() != null) {
+            return persistedQuery.getQueryInfo();
+        }
+        GraphQLQueryInfo queryInfo = getQueryInfo(payload);
+        if (isCurrentDeployment) {
+            persistedQuery.setQueryInfo(queryInfo);
+        }
+        return queryInfo;
+    }
+
+    private GraphQLQueryInfo getQueryInfo(String payload) {
+
+        GraphQLQueryCache queryCache = DataHolder.getInstance().getGraphQLQueryCache(apiUUID, graphQLSchemaDTO);
+        GraphQLQueryInfo queryInfo = queryCache.get(payload);
+        if (queryInfo == null) {
+            Document document = new Parser().parseDocument(payload);
+            String validationErrorMessage = queryValidator.validatePayload(graphQLSchemaDTO.getGraphQLSchema(),
+                    document);
+            queryInfo = new GraphQLQueryInfo(document, validationErrorMessage);
+            queryCache.put(payload, queryInfo);
+        } else if (log.isDebugEnabled()) {
+            log.debug("Parsed and validated payload found in the query cache of API " + apiUUID);
+        }
+        return queryInfo;
+    }
+
     /**
      * This method validate the payload
      *
      * @param messageContext message context of the request
-     * @param document       graphQL schema of the request
+     * @param queryInfo      parsed and validated payload of the request
      * @return true or false
      */
-    private boolean validatePayloadWithSchema(MessageContext messageContext, Document document) {
+    private boolean validatePayloadWithSchema(MessageContext messageContext, GraphQLQueryInfo queryInfo) {
 
-        String validationErrorMessage;
-        // Get GraphQL schema data from gateway internal data holder
-        graphQLSchemaDTO = DataHolder.getInstance().getApiToGraphQLSchemaDTOMap().get(apiUUID);
-        validationErrorMessage = queryValidator.validatePayload(graphQLSchemaDTO.getGraphQLSchema(), document);
+        String validationErrorMessage = queryInfo.getValidationErrorMessage();
         if (validationErrorMessage != null) {
             handleFailure(messageContext, validationErrorMessage);
             return false;
@@ -36,6 +36,7 @@ public class GraphQLConstants {
     public static final int GRAPHQL_INVALID_QUERY = 900422;
     public static final String GRAPHQL_API_FAILURE_HANDLER = "_graphql_failure_handler";
     public static final String GRAPHQL_INVALID_QUERY_MESSAGE = "INVALID QUERY";
+    public static final String GRAPHQL_QUERY_INFO = "GRAPHQL_QUERY_INFO";
 
     //GraphQL Constants related to GraphQL Subscription operations
     public static class SubscriptionConstants {
@@ -50,4 +51,20 @@ public class GraphQLConstants {
         public static final String PAYLOAD_FIELD_NAME_ID = "id";
         public static final String PAYLOAD_FIELD_TYPE_ERROR = "error";
     }
+
+    //GraphQL Constants related to persisted queries
+    public static class PersistedQueryConstants {
+        public static final String MODE_AUTOMATIC = "automatic";
+        public static final String MODE_ALLOW_LIST = "allowList";
+        public static final String EXTENSIONS = "extensions";
+        public static final String PERSISTED_QUERY = "persistedQuery";
+        public static final String SHA256_HASH = "sha256Hash";
+        public static final String MANIFEST_OPERATIONS = "operations";
+        public static final String MANIFEST_OPERATION_ID = "id";
+        public static final String MANIFEST_OPERATION_BODY = "body";
+        public static final String ERROR_NOT_FOUND = "PersistedQueryNotFound";
+        public static final String ERROR_CODE_NOT_FOUND = "PERSISTED_QUERY_NOT_FOUND";
+        public static final String ERROR_NOT_SUPPORTED = "PersistedQueryNotSupported";
+        public static final String ERROR_CODE_NOT_SUPPORTED = "PERSISTED_QUERY_NOT_SUPPORTED";
+    }
 }
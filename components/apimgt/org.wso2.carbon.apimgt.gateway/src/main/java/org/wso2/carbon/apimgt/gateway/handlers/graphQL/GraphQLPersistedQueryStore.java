@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.gateway.handlers.graphQL;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.wso2.carbon.apimgt.api.gateway.GraphQLSchemaDTO;
+import org.wso2.carbon.apimgt.gateway.utils.SegmentedLRUCache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Persisted queries of a GraphQL API, by the SHA-256 hash of the query. A store belongs to one deployment of the API,
+ * and holds the operations of the persisted query manifest deployed with the API as well as the queries registered
+ * by the clients with automatic persisted query requests.
+ * <p>
+ * The operations of the manifest are kept for the lifetime of the store, as they form the allow list of the API.
+ * Registered queries are bounded: queries longer than {@link #MAX_QUERY_BYTES} bytes are not registered, and the
+ * least recently used query is evicted once {@link #MAX_REGISTERED_QUERIES} queries are registered, as in
+ * {@link GraphQLQueryCache}.
+ * <p>
+ * Each persisted query carries the result of its parsing, validation and depth and complexity analysis against the
+ * schema of the store, so that a persisted query is analysed once per deployment even when it is evicted from the
+ * parsed query cache of the API.
+ */
+public class GraphQLPersistedQueryStore {
+
+    private static final Log log = LogFactory.getLog(GraphQLPersistedQueryStore.class);
+    static final int MAX_REGISTERED_QUERIES = 1024;
+    static final int MAX_QUERY_BYTES = 16384;
+
+    private final GraphQLSchemaDTO graphQLSchemaDTO;
+    private final int maxQueryBytes;
+    private final Map<String, PersistedQuery> manifestQueries = new HashMap<>();
+    private final SegmentedLRUCache<String, PersistedQuery> registeredQueries;
+
+    public GraphQLPersistedQueryStore(GraphQLSchemaDTO graphQLSchemaDTO) {
+
+        this(graphQLSchemaDTO, MAX_REGISTERED_QUERIES, MAX_QUERY_BYTES);
+    }
+
+    GraphQLPersistedQueryStore(GraphQLSchemaDTO graphQLSchemaDTO, int maxRegisteredQueries, int maxQueryBytes) {
+
+        this.graphQLSchemaDTO = graphQLSchemaDTO;
+        this.maxQueryBytes = maxQueryBytes;
+        this.registeredQueries = new SegmentedLRUCache<>(maxRegisteredQueries);
+    }
+
+    /**
+     * @return deployed schema of the API which the analysis of the persisted queries belongs to
+     */
+    public GraphQLSchemaDTO getGraphQLSchemaDTO() {
+
+        return graphQLSchemaDTO;
+    }
+
+    /**
+     * Returns the persisted query of the given hash.
+     *
+     * @param queryHash SHA-256 hash of the query, in hex
+     * @return persisted query, or null if no query is persisted with the hash
+     */
+    public PersistedQuery get(String queryHash) {
+
+        String key = queryHash.toLowerCase();
+        PersistedQuery persistedQuery = manifestQueries.get(key);
+        if (persistedQuery == null && !key.isEmpty()) {
+            persistedQuery = registeredQueries.get(key);
+        }
+        return persistedQuery;
+    }
+
+    /**
+     * Checks whether a query is an operation of the persisted query manifest of the API.
+     *
+     * @param queryHash SHA-256 hash of the query, in hex
+     * @return true if the query is in the manifest
+     */
+    public boolean isInManifest(String queryHash) {
+
+        return manifestQueries.containsKey(queryHash.toLowerCase());
+    }
+
+    /**
+     * Registers a query with its hash, evicting the least recently used registered query if the store is full.
+     * Queries longer than the maximum query size are not registered.
+     *
+     * @param queryHash      SHA-256 hash of the query, in hex
+     * @param persistedQuery query, with its analysis if it has been analysed
+     * @return true if the query is persisted
+     */
+    public boolean register(String queryHash, PersistedQuery persistedQuery) {
+
+        String key = queryHash.toLowerCase();
+        if (manifestQueries.containsKey(key)) {
+            return true;
+        }
+        if (key.isEmpty() || persistedQuery.getQuery().getBytes(StandardCharsets.UTF_8).length > maxQueryBytes) {
+            if (log.isDebugEnabled()) {
+                log.debug("Persisted query " + queryHash + " is not registered, as it exceeds " + maxQueryBytes
+                        + " bytes");
+            }
+            return false;
+        }
+        registeredQueries.putIfAbsent(key, persistedQuery);
+        return true;
+    }
+
+    /**
+     * Pre-registers the operations of a persisted query manifest, in the format
+     * {"operations": [{"id": "&lt;SHA-256 hash of the body&gt;", "body": "&lt;query&gt;"}]}. Operations whose id is not
+     * the hash of their body are skipped. The manifest is registered before the store is published to the request
+     * threads, as the operations of the manifest are not guarded by a lock.
+     *
+     * @param manifest persisted query manifest
+     * @return number of registered operations
+     * @throws IOException if the manifest cannot be parsed
+     */
+    public int registerManifest(String manifest) throws IOException {
+
+        JSONArray operations;
+        try {
+            operations = new JSONObject(manifest)
+                    .getJSONArray(GraphQLConstants.PersistedQueryConstants.MANIFEST_OPERATIONS);
+        } catch (JSONException e) {
+            throw new IOException("Invalid persisted query manifest", e);
+        }
+        int count = 0;
+        for (int i = 0; i < operations.length(); i++) {
+            JSONObject operation = operations.getJSONObject(i);
+            String queryHash = operation.optString(GraphQLConstants.PersistedQueryConstants.MANIFEST_OPERATION_ID);
+            String query = operation.optString(GraphQLConstants.PersistedQueryConstants.MANIFEST_OPERATION_BODY);
+            if (!getHash(query).equalsIgnoreCase(queryHash)) {
+                log.warn("Skipping persisted query " + queryHash + " as it is not the SHA-256 hash of the query");
+            } else if (manifestQueries.putIfAbsent(queryHash.toLowerCase(), new PersistedQuery(query)) == null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the SHA-256 hash of a query, in hex, as sent by the clients in persisted query requests.
+     *
+     * @param query query
+     * @return SHA-256 hash of the query
+     */
+    public static String getHash(String query) {
+
+        return DigestUtils.sha256Hex(query.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Persisted query, with the result of its parsing, validation and analysis once the query has been analysed.
+     */
+    public static class PersistedQuery {
+
+        private final String query;
+        private volatile GraphQLQueryInfo queryInfo;
+
+        public PersistedQuery(String query) {
+
+            this.query = query;
+        }
+
+        public String getQuery() {
+
+            return query;
+        }
+
+        /**
+         * @return parsed and validated query, with its depth and complexity once analysed, or null if the query has
+         * not been analysed yet
+         */
+        public GraphQLQueryInfo getQueryInfo() {
+
+            return queryInfo;
+        }
+
+        public void setQueryInfo(GraphQLQueryInfo queryInfo) {
+
+            this.queryInfo = queryInfo;
+        }
+    }
+}
@@ -51,7 +51,8 @@ public class GraphQLQueryAnalysisHandler extends AbstractHandler {
             queryMutationAnalyzer = new QueryMutationAnalyzer(schema);
         }
         String payload = messageContext.getProperty(APIConstants.GRAPHQL_PAYLOAD).toString();
-        if (!analyseQuery(messageContext, payload)) {
+        GraphQLQueryInfo queryInfo = (GraphQLQueryInfo) messageContext.getProperty(GraphQLConstants.GRAPHQL_QUERY_INFO);
+        if (!analyseQuery(messageContext, payload, queryInfo)) {
             if (log.isDebugEnabled()) {
                 log.debug("Query was blocked by the static query analyser");
             }
@@ -65,13 +66,14 @@ public class GraphQLQueryAnalysisHandler extends AbstractHandler {
      *
      * @param messageContext message context of the request
      * @param payload        payload of the request
+     * @param queryInfo      parsed query of the request, or null if it is not available
      * @return true, if the query is not blocked or false, if the query is blocked
      */
-    private boolean analyseQuery(MessageContext messageContext, String payload) {
+    private boolean analyseQuery(MessageContext messageContext, String payload, GraphQLQueryInfo queryInfo) {
 
         try {
-            return queryMutationAnalyzer.analyseQueryMutationDepth(messageContext, payload) &&
-                    queryMutationAnalyzer.analyseQueryMutationComplexity(messageContext, payload);
+            return queryMutationAnalyzer.analyseQueryMutationDepth(messageContext, payload, queryInfo) &&
+                    queryMutationAnalyzer.analyseQueryMutationComplexity(messageContext, payload, queryInfo);
         } catch (Exception e) {
             String errorMessage = "Policy definition parsing failed. ";
             log.error(errorMessage, e);
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.gateway.handlers.graphQL;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.wso2.carbon.apimgt.api.gateway.GraphQLSchemaDTO;
+import org.wso2.carbon.apimgt.gateway.utils.SegmentedLRUCache;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bounded cache of the parsed queries of a GraphQL API. A cache belongs to one deployment of the schema of the API,
+ * so that queries are validated and analysed again when the schema is redeployed.
+ * <p>
+ * Queries are keyed by their SHA-256 digest rather than by their text, and queries longer than
+ * {@link #MAX_QUERY_LENGTH} characters are not cached. Only queries which are valid against the schema are cached,
+ * so that clients sending distinct invalid queries do not evict the valid ones. The least recently used query is
+ * evicted when the cache is full.
+ */
+public class GraphQLQueryCache {
+
+    static final int MAX_QUERIES_PER_API = 1024;
+    static final int MAX_QUERY_LENGTH = 16384;
+
+    private final GraphQLSchemaDTO graphQLSchemaDTO;
+    private final SegmentedLRUCache<String, GraphQLQueryInfo> queries =
+            new SegmentedLRUCache<>(MAX_QUERIES_PER_API);
+
+    public GraphQLQueryCache(GraphQLSchemaDTO graphQLSchemaDTO) {
+
+        this.graphQLSchemaDTO = graphQLSchemaDTO;
+    }
+
+    public GraphQLSchemaDTO getGraphQLSchemaDTO() {
+
+        return graphQLSchemaDTO;
+    }
+
+    /**
+     * @param query query
+     * @return parsed and validated query, or null if the query is not cached
+     */
+    public GraphQLQueryInfo get(String query) {
+
+        if (query.length() > MAX_QUERY_LENGTH) {
+            return null;
+        }
+        return queries.get(digest(query));
+    }
+
+    /**
+     * Caches a parsed query, unless it is too long to be cached or it is not valid against the schema.
+     *
+     * @param query     query
+     * @param queryInfo parsed and validated query
+     */
+    public void put(String query, GraphQLQueryInfo queryInfo) {
+
+        if (query.length() > MAX_QUERY_LENGTH || queryInfo.getValidationErrorMessage() != null) {
+            return;
+        }
+        queries.put(digest(query), queryInfo);
+    }
+
+    private static String digest(String query) {
+
+        return DigestUtils.sha256Hex(query.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.gateway.handlers.graphQL;
+
+import graphql.language.Document;
+
+/**
+ * Parsed GraphQL query of an API, with the results of its validation and analysis against the schema of the API.
+ * The depth, complexity and operation list are filled in when they are first computed for the query.
+ */
+public class GraphQLQueryInfo {
+
+    private final Document document;
+    private final String validationErrorMessage;
+    private volatile String operationList;
+    private volatile Integer queryDepth;
+    private volatile Integer queryComplexity;
+
+    public GraphQLQueryInfo(Document document, String validationErrorMessage) {
+
+        this.document = document;
+        this.validationErrorMessage = validationErrorMessage;
+    }
+
+    public Document getDocument() {
+
+        return document;
+    }
+
+    /**
+     * @return schema validation error message of the query, or null if the query is valid
+     */
+    public String getValidationErrorMessage() {
+
+        return validationErrorMessage;
+    }
+
+    public String getOperationList() {
+
+        return operationList;
+    }
+
+    public void setOperationList(String operationList) {
+
+        this.operationList = operationList;
+    }
+
+    public Integer getQueryDepth() {
+
+        return queryDepth;
+    }
+
+    public void setQueryDepth(Integer queryDepth) {
+
+        this.queryDepth = queryDepth;
+    }
+
+    public Integer getQueryComplexity() {
+
+        return queryComplexity;
+    }
+
+    public void setQueryComplexity(Integer queryComplexity) {
+
+        this.queryComplexity = queryComplexity;
+    }
+}
@@ -17,6 +17,7 @@
  */
 package org.wso2.carbon.apimgt.gateway.handlers.graphQL.analyzer;
 
+import graphql.GraphQLException;
 import graphql.analysis.FieldComplexityCalculator;
 import graphql.schema.GraphQLSchema;
 import org.apache.commons.logging.Log;
@@ -31,6 +32,7 @@ import org.wso2.carbon.apimgt.common.gateway.graphql.FieldComplexityCalculatorIm
 import org.wso2.carbon.apimgt.common.gateway.graphql.QueryAnalyzer;
 import org.wso2.carbon.apimgt.gateway.handlers.Utils;
 import org.wso2.carbon.apimgt.gateway.handlers.graphQL.GraphQLConstants;
+import org.wso2.carbon.apimgt.gateway.handlers.graphQL.GraphQLQueryInfo;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 
 /**
@@ -53,8 +55,31 @@ public class QueryMutationAnalyzer extends QueryAnalyzer {
      */
     public boolean analyseQueryMutationDepth(MessageContext messageContext, String payload) {
 
+        return analyseQueryMutationDepth(messageContext, payload, null);
+    }
+
+    /**
+     * This method analyses the query depth, using the depth of the parsed query if it is available
+     *
+     * @param messageContext message context of the request
+     * @param payload        payload of the request
+     * @param queryInfo      parsed query of the request, or null if it is not available
+     * @return true, if the query depth does not exceed the maximum value or false, if query depth exceeds the maximum
+     */
+    public boolean analyseQueryMutationDepth(MessageContext messageContext, String payload,
+                                             GraphQLQueryInfo queryInfo) {
+
         int maxQueryDepth = getMaxQueryDepth(messageContext);
-        QueryAnalyzerResponseDTO responseDTO = analyseQueryDepth(maxQueryDepth, payload);
+        QueryAnalyzerResponseDTO responseDTO;
+        Integer queryDepth = null;
+        if (maxQueryDepth > 0 && queryInfo != null) {
+            queryDepth = getQueryDepth(queryInfo);
+        }
+        if (queryDepth != null) {
+            responseDTO = analyseQueryDepth(maxQueryDepth, queryDepth.intValue());
+        } else {
+            responseDTO = analyseQueryDepth(maxQueryDepth, payload);
+        }
         if (!responseDTO.isSuccess() && !responseDTO.getErrorList().isEmpty()) {
             handleFailure(GraphQLConstants.GRAPHQL_QUERY_TOO_DEEP, messageContext,
                     GraphQLConstants.GRAPHQL_QUERY_TOO_DEEP_MESSAGE, responseDTO.getErrorList().toString());
@@ -96,17 +121,46 @@ public class QueryMutationAnalyzer extends QueryAnalyzer {
      */
     public boolean analyseQueryMutationComplexity(MessageContext messageContext, String payload) {
 
-        FieldComplexityCalculator fieldComplexityCalculator = null;
-        try {
-            fieldComplexityCalculator = new FieldComplexityCalculatorImpl((String) messageContext
-                    .getProperty(APIConstants.GRAPHQL_ACCESS_CONTROL_POLICY));
-        } catch (ParseException e) {
-            String errorMessage = "Policy definition parsing failed. ";
-            handleFailure(GraphQLConstants.GRAPHQL_INVALID_QUERY, messageContext, errorMessage, errorMessage);
-        }
+        return analyseQueryMutationComplexity(messageContext, payload, null);
+    }
+
+    /**
+     * This method analyses the query complexity, using the complexity of the parsed query if it is available
+     *
+     * @param messageContext message context of the request
+     * @param payload        payload of the request
+     * @param queryInfo      parsed query of the request, or null if it is not available
+     * @return true, if query complexity does not exceed the maximum or false, if query complexity exceeds the maximum
+     */
+    public boolean analyseQueryMutationComplexity(MessageContext messageContext, String payload,
+                                                  GraphQLQueryInfo queryInfo) {
+
         int maxQueryComplexity = getMaxQueryComplexity(messageContext);
-        QueryAnalyzerResponseDTO responseDTO = analyseQueryComplexity(maxQueryComplexity, payload,
-                fieldComplexityCalculator);
+        QueryAnalyzerResponseDTO responseDTO;
+        Integer queryComplexity = null;
+        if (maxQueryComplexity > 0 && queryInfo != null) {
+            queryComplexity = queryInfo.getQueryComplexity();
+        }
+        if (queryComplexity != null) {
+            responseDTO = analyseQueryComplexity(maxQueryComplexity, queryComplexity.intValue());
+        } else {
+            FieldComplexityCalculator fieldComplexityCalculator = null;
+            try {
+                fieldComplexityCalculator = new FieldComplexityCalculatorImpl((String) messageContext
+                        .getProperty(APIConstants.GRAPHQL_ACCESS_CONTROL_POLICY));
+            } catch (ParseException e) {
+                String errorMessage = "Policy definition parsing failed. ";
+                handleFailure(GraphQLConstants.GRAPHQL_INVALID_QUERY, messageContext, errorMessage, errorMessage);
+            }
+            if (maxQueryComplexity > 0 && queryInfo != null && fieldComplexityCalculator != null) {
+                queryComplexity = getQueryComplexity(queryInfo, fieldComplexityCalculator);
+            }
+            if (queryComplexity != null) {
+                responseDTO = analyseQueryComplexity(maxQueryComplexity, queryComplexity.intValue());
+            } else {
+                responseDTO = analyseQueryComplexity(maxQueryComplexity, payload, fieldComplexityCalculator);
+            }
+        }
         if (!responseDTO.isSuccess() && !responseDTO.getErrorList().isEmpty()) {
             handleFailure(GraphQLConstants.GRAPHQL_QUERY_TOO_COMPLEX, messageContext,
                     GraphQLConstants.GRAPHQL_QUERY_TOO_COMPLEX_MESSAGE, responseDTO.getErrorList().toString());
@@ -139,6 +193,50 @@ public class QueryMutationAnalyzer extends QueryAnalyzer {
         }
     }
 
+    /**
+     * This method returns the depth of the parsed query, calculating it for the first request of the query
+     *
+     * @param queryInfo parsed query of the request
+     * @return depth of the query, or null if it cannot be calculated without executing the query
+     */
+    private Integer getQueryDepth(GraphQLQueryInfo queryInfo) {
+
+        Integer queryDepth = queryInfo.getQueryDepth();
+        if (queryDepth == null) {
+            try {
+                queryDepth = calculateQueryDepth(queryInfo.getDocument());
+            } catch (GraphQLException e) {
+                log.debug("Query depth cannot be calculated without executing the query", e);
+                return null;
+            }
+            queryInfo.setQueryDepth(queryDepth);
+        }
+        return queryDepth;
+    }
+
+    /**
+     * This method calculates the complexity of the parsed query for the first request of the query. The complexity
+     * policy comes from the schema of the API, and the parsed queries are cached for each deployment of the schema,
+     * so that the complexity of a parsed query does not change.
+     *
+     * @param queryInfo                 parsed query of the request
+     * @param fieldComplexityCalculator Field Complexity Calculator
+     * @return complexity of the query, or null if it cannot be calculated without executing the query
+     */
+    private Integer getQueryComplexity(GraphQLQueryInfo queryInfo,
+                                       FieldComplexityCalculator fieldComplexityCalculator) {
+
+        Integer queryComplexity;
+        try {
+            queryComplexity = calculateQueryComplexity(queryInfo.getDocument(), fieldComplexityCalculator);
+        } catch (GraphQLException e) {
+            log.debug("Query complexity cannot be calculated without executing the query", e);
+            return null;
+        }
+        queryInfo.setQueryComplexity(queryComplexity);
+        return queryComplexity;
+    }
+
     /**
      * This method handle the query mutation analysis failures.
      *
@@ -36,6 +36,7 @@ import org.wso2.carbon.apimgt.gateway.MethodStats;
 import org.wso2.carbon.apimgt.gateway.handlers.Utils;
 import org.wso2.carbon.apimgt.gateway.handlers.security.keys.APIKeyDataStore;
 import org.wso2.carbon.apimgt.gateway.handlers.security.keys.WSAPIKeyDataStore;
+import org.wso2.carbon.apimgt.gateway.internal.DataHolder;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
@@ -57,6 +58,7 @@ import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -380,15 +382,22 @@ public class APIKeyValidator {
             String resourceString;
 
             if (selectedApi != null) {
-                Resource[] selectedAPIResources = selectedApi.getResources();
-
-                Set<Resource> acceptableResources = new LinkedHashSet<Resource>();
-
-                for (Resource resource : selectedAPIResources) {
-                    //If the requesting method is OPTIONS or if the Resource contains the requesting method
-                    if (RESTConstants.METHOD_OPTIONS.equals(httpMethod) ||
-                            (resource.getMethods() != null && Arrays.asList(resource.getMethods()).contains(httpMethod))) {
-                        acceptableResources.add(resource);
+                Collection<Resource> acceptableResources = null;
+                if (!RESTConstants.METHOD_OPTIONS.equals(httpMethod)) {
+                    //Narrow down the resources using the compiled routing table of the API
+                    acceptableResources = DataHolder.getInstance().getResourceMatcher(getTenantDomain(), selectedApi)
+                            .getCandidateResources(httpMethod, requestPath);
+                }
+                if (acceptableResources == null) {
+                    Resource[] selectedAPIResources = selectedApi.getResources();
+                    acceptableResources = new LinkedHashSet<Resource>();
+                    for (Resource resource : selectedAPIResources) {
+                        //If the requesting method is OPTIONS or if the Resource contains the requesting method
+                        if (RESTConstants.METHOD_OPTIONS.equals(httpMethod) ||
+                                (resource.getMethods() != null &&
+                                        Arrays.asList(resource.getMethods()).contains(httpMethod))) {
+                            acceptableResources.add(resource);
+                        }
                     }
                 }
 
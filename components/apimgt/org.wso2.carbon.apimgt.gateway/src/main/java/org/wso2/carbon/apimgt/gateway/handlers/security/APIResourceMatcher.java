@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.handlers.security;
+
+import org.apache.synapse.api.API;
+import org.apache.synapse.api.Resource;
+import org.apache.synapse.api.dispatch.DispatcherHelper;
+import org.apache.synapse.api.dispatch.URITemplateHelper;
+import org.apache.synapse.api.dispatch.URLMappingHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, per API routing table compiled from the resources of a deployed synapse {@link API}.
+ * <p>
+ * For each HTTP method the resources are arranged in a segment trie with literal, URI template variable and
+ * wildcard nodes. A lookup walks the trie once over the request path segments and returns the resources that
+ * could possibly match the request, in the order they are declared in the API. The returned list is always a
+ * superset of the resources the synapse REST dispatchers would elect, so passing it to the dispatchers instead of
+ * the full resource list keeps the dispatching semantics (priority, uri.var population) unchanged while reducing
+ * the work done per request from O(resources) to O(path segments).
+ * <p>
+ * A matcher is bound to the {@link API} instance it was compiled from, so a redeployed API (which produces a new
+ * synapse API instance) is detected via {@link #isCompiledFrom(API)} and recompiled.
+ */
+public final class APIResourceMatcher {
+
+    private static final String PATH_SEPARATOR = "/";
+    private static final String WILDCARD = "*";
+    private static final char QUERY_SEPARATOR = '?';
+    private static final char TEMPLATE_START = '{';
+    private static final char TEMPLATE_END = '}';
+
+    private final API api;
+    private final Map<String, Node> methodToRootMap;
+
+    private APIResourceMatcher(API api, Map<String, Node> methodToRootMap) {
+
+        this.api = api;
+        this.methodToRootMap = methodToRootMap;
+    }
+
+    /**
+     * Compiles the resources of the given API into a routing table.
+     *
+     * @param api synapse API
+     * @return compiled routing table of the API
+     */
+    public static APIResourceMatcher compile(API api) {
+
+        Map<String, Node> methodToRootMap = new HashMap<>();
+        Resource[] resources = api.getResources();
+        if (resources != null) {
+            for (int index = 0; index < resources.length; index++) {
+                Resource resource = resources[index];
+                if (resource == null || resource.getMethods() == null) {
+                    continue;
+                }
+                for (String method : resource.getMethods()) {
+                    Node root = methodToRootMap.computeIfAbsent(method, k -> new Node());
+                    addResource(root, resource, index);
+                }
+            }
+        }
+        for (Node root : methodToRootMap.values()) {
+            root.seal();
+        }
+        return new APIResourceMatcher(api, methodToRootMap);
+    }
+
+    /**
+     * Checks whether this routing table was compiled from the given API instance.
+     *
+     * @param api synapse API
+     * @return true if the table is compiled from the given API instance
+     */
+    public boolean isCompiledFrom(API api) {
+
+        return this.api == api;
+    }
+
+    /**
+     * Returns the resources that could match the given request, in the order they are declared in the API.
+     *
+     * @param httpMethod     HTTP method of the request
+     * @param subRequestPath request path relative to the API context (and version)
+     * @return candidate resources, or null if the request can not be narrowed down using the routing table, in
+     * which case all the resources of the API should be considered
+     */
+    public List<Resource> getCandidateResources(String httpMethod, String subRequestPath) {
+
+        if (httpMethod == null || subRequestPath == null) {
+            return null;
+        }
+        Node root = methodToRootMap.get(httpMethod);
+        if (root == null) {
+            return Collections.emptyList();
+        }
+        int pathEnd = subRequestPath.indexOf(QUERY_SEPARATOR);
+        if (pathEnd < 0) {
+            pathEnd = subRequestPath.length();
+        }
+        int start = 0;
+        if (pathEnd > 0 && subRequestPath.charAt(0) == '/') {
+            start = 1;
+        }
+        Candidates candidates = new Candidates();
+        collect(root, subRequestPath, start, pathEnd, candidates);
+        if (candidates.unresolvable) {
+            return null;
+        }
+        return candidates.toSortedList();
+    }
+
+    private static void collect(Node node, String path, int start, int pathEnd, Candidates candidates) {
+
+        candidates.addAll(node.prefixEntries);
+        for (int i = 0; i < node.segmentPrefixes.length; i++) {
+            String segmentPrefix = node.segmentPrefixes[i];
+            if (pathEnd - start >= segmentPrefix.length() && path.startsWith(segmentPrefix, start)) {
+                candidates.add(node.segmentPrefixEntries[i]);
+            }
+        }
+        if (start >= pathEnd) {
+            // End of the request path. Variables can match an empty trailing segment, hence include them as well.
+            candidates.addAll(node.terminalEntries);
+            if (node.variableChild != null) {
+                candidates.addAll(node.variableChild.terminalEntries);
+                candidates.addAll(node.variableChild.prefixEntries);
+            }
+            return;
+        }
+        int end = path.indexOf('/', start);
+        if (end < 0 || end > pathEnd) {
+            end = pathEnd;
+        }
+        if (end == start) {
+            // Empty segment such as '//'. Let the dispatchers decide using all the resources.
+            candidates.unresolvable = true;
+            return;
+        }
+        int next = end + 1;
+        if (node.literalChildren != null) {
+            Node literalChild = node.literalChildren.get(path.substring(start, end));
+            if (literalChild != null) {
+                collect(literalChild, path, next, pathEnd, candidates);
+            }
+        }
+        if (node.variableChild != null) {
+            collect(node.variableChild, path, next, pathEnd, candidates);
+        }
+    }
+
+    private static void addResource(Node root, Resource resource, int index) {
+
+        Entry entry = new Entry(resource, index);
+        DispatcherHelper helper = resource.getDispatcherHelper();
+        if (helper instanceof URLMappingHelper) {
+            addURLMapping(root, helper.getString(), entry);
+        } else if (helper instanceof URITemplateHelper) {
+            addURITemplate(root, helper.getString(), entry);
+        } else {
+            // Default dispatched resources and unknown dispatcher helpers can match any request.
+            root.addPrefixEntry(entry);
+        }
+    }
+
+    private static void addURLMapping(Node root, String urlMapping, Entry entry) {
+
+        if (urlMapping == null || !urlMapping.startsWith(PATH_SEPARATOR)) {
+            // Extension mappings such as '*.jsp' can match any path.
+            root.addPrefixEntry(entry);
+            return;
+        }
+        String[] segments = splitPath(urlMapping);
+        if (segments.length > 0 && WILDCARD.equals(segments[segments.length - 1])) {
+            Node node = root;
+            if (segments.length == 1) {
+                node.addPrefixEntry(entry);
+                return;
+            }
+            // A path prefix mapping ('/a/b/*') is registered at the parent of its last literal segment, matched
+            // against the remaining path as a string so that partial segment matches ('/a/bc') are covered as well.
+            for (int i = 0; i < segments.length - 2; i++) {
+                node = node.literalChild(segments[i]);
+            }
+            node.addSegmentPrefixEntry(segments[segments.length - 2], entry);
+            return;
+        }
+        Node node = root;
+        for (String segment : segments) {
+            node = node.literalChild(segment);
+        }
+        node.addTerminalEntry(entry);
+    }
+
+    private static void addURITemplate(Node root, String uriTemplate, Entry entry) {
+
+        if (uriTemplate == null) {
+            root.addPrefixEntry(entry);
+            return;
+        }
+        String pathTemplate = uriTemplate;
+        int queryIndex = pathTemplate.indexOf(QUERY_SEPARATOR);
+        if (queryIndex >= 0) {
+            pathTemplate = pathTemplate.substring(0, queryIndex);
+            if (pathTemplate.endsWith(String.valueOf(TEMPLATE_START))) {
+                // Form style query expansion ('{?q}')
+                pathTemplate = pathTemplate.substring(0, pathTemplate.length() - 1);
+            }
+        }
+        Node node = root;
+        for (String segment : splitPath(pathTemplate)) {
+            if (isSimpleVariable(segment)) {
+                node = node.variableChild();
+            } else if (segment.indexOf(TEMPLATE_START) < 0 && !segment.contains(WILDCARD)) {
+                node = node.literalChild(segment);
+            } else {
+                // Reserved expansions, wildcards and composite segments may span several path segments.
+                node.addPrefixEntry(entry);
+                return;
+            }
+        }
+        node.addTerminalEntry(entry);
+    }
+
+    private static boolean isSimpleVariable(String segment) {
+
+        int length = segment.length();
+        if (length < 3 || segment.charAt(0) != TEMPLATE_START || segment.charAt(length - 1) != TEMPLATE_END) {
+            return false;
+        }
+        for (int i = 1; i < length - 1; i++) {
+            char c = segment.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '_' || c == '.')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] splitPath(String path) {
+
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split(PATH_SEPARATOR)) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments.toArray(new String[0]);
+    }
+
+    /**
+     * A resource along with its position in the API definition.
+     */
+    private static final class Entry {
+
+        private final Resource resource;
+        private final int index;
+
+        private Entry(Resource resource, int index) {
+
+            this.resource = resource;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Trie node. Nodes are mutated only while compiling and are effectively immutable once sealed.
+     */
+    private static final class Node {
+
+        private static final Entry[] NO_ENTRIES = new Entry[0];
+        private static final String[] NO_PREFIXES = new String[0];
+
+        private Map<String, Node> literalChildren;
+        private Node variableChild;
+        private List<Entry> terminalEntryList = new ArrayList<>();
+        private List<Entry> prefixEntryList = new ArrayList<>();
+        private List<Entry> segmentPrefixEntryList = new ArrayList<>();
+        private List<String> segmentPrefixList = new ArrayList<>();
+        private Entry[] terminalEntries = NO_ENTRIES;
+        private Entry[] prefixEntries = NO_ENTRIES;
+        private Entry[] segmentPrefixEntries = NO_ENTRIES;
+        private String[] segmentPrefixes = NO_PREFIXES;
+
+        private Node literalChild(String segment) {
+
+            if (literalChildren == null) {
+                literalChildren = new HashMap<>();
+            }
+            return literalChildren.computeIfAbsent(segment, k -> new Node());
+        }
+
+        private Node variableChild() {
+
+            if (variableChild == null) {
+                variableChild = new Node();
+            }
+            return variableChild;
+        }
+
+        private void addTerminalEntry(Entry entry) {
+
+            terminalEntryList.add(entry);
+        }
+
+        private void addPrefixEntry(Entry entry) {
+
+            prefixEntryList.add(entry);
+        }
+
+        private void addSegmentPrefixEntry(String segmentPrefix, Entry entry) {
+
+            segmentPrefixList.add(segmentPrefix);
+            segmentPrefixEntryList.add(entry);
+        }
+
+        private void seal() {
+
+            terminalEntries = terminalEntryList.toArray(NO_ENTRIES);
+            prefixEntries = prefixEntryList.toArray(NO_ENTRIES);
+            segmentPrefixEntries = segmentPrefixEntryList.toArray(NO_ENTRIES);
+            segmentPrefixes = segmentPrefixList.toArray(NO_PREFIXES);
+            terminalEntryList = null;
+            prefixEntryList = null;
+            segmentPrefixEntryList = null;
+            segmentPrefixList = null;
+            if (literalChildren != null) {
+                for (Node child : literalChildren.values()) {
+                    child.seal();
+                }
+            }
+            if (variableChild != null) {
+                variableChild.seal();
+            }
+        }
+    }
+
+    /**
+     * Collects candidate entries of a single lookup, removing duplicates.
+     */
+    private static final class Candidates {
+
+        private Entry[] entries = new Entry[8];
+        private int size;
+        private boolean unresolvable;
+
+        private void addAll(Entry[] toAdd) {
+
+            for (Entry entry : toAdd) {
+                add(entry);
+            }
+        }
+
+        private void add(Entry entry) {
+
+            for (int i = 0; i < size; i++) {
+                if (entries[i].index == entry.index) {
+                    return;
+                }
+            }
+            if (size == entries.length) {
+                Entry[] expanded = new Entry[size * 2];
+                System.arraycopy(entries, 0, expanded, 0, size);
+                entries = expanded;
+            }
+            entries[size++] = entry;
+        }
+
+        private List<Resource> toSortedList() {
+
+            if (size == 0) {
+                return Collections.emptyList();
+            }
+            // Insertion sort by declaration order, candidate sets are small.
+            for (int i = 1; i < size; i++) {
+                Entry current = entries[i];
+                int j = i - 1;
+                while (j >= 0 && entries[j].index > current.index) {
+                    entries[j + 1] = entries[j];
+                    j--;
+                }
+                entries[j + 1] = current;
+            }
+            List<Resource> resources = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                resources.add(entries[i].resource);
+            }
+            return resources;
+        }
+    }
+}
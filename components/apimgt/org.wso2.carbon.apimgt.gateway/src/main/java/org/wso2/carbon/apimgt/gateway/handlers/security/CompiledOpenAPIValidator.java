@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.handlers.security;
+
+import com.atlassian.oai.validator.OpenApiInteractionValidator;
+import com.atlassian.oai.validator.report.LevelResolver;
+import com.atlassian.oai.validator.report.ValidationReport;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.apache.synapse.SynapseException;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+/**
+ * OpenAPI request and response validator compiled from one deployed revision of an API definition.
+ * <p>
+ * The validator is compiled on a background thread when the API is deployed. A message arriving before that
+ * compiles the validator itself if the background thread has not started on it yet, and waits for it otherwise, so
+ * the definition of a revision is compiled only once.
+ */
+public class CompiledOpenAPIValidator {
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "OpenAPIValidatorCompiler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String definition;
+    private final FutureTask<OpenApiInteractionValidator> validator;
+
+    private CompiledOpenAPIValidator(String definition, FutureTask<OpenApiInteractionValidator> validator) {
+
+        this.definition = definition;
+        this.validator = validator;
+    }
+
+    /**
+     * Starts compiling the validator of an API definition in the background.
+     *
+     * @param definition OpenAPI definition of the API
+     * @return validator of the definition
+     */
+    public static CompiledOpenAPIValidator compile(String definition) {
+
+        FutureTask<OpenApiInteractionValidator> validator = new FutureTask<>(() -> build(definition));
+        executor.execute(validator);
+        return new CompiledOpenAPIValidator(definition, validator);
+    }
+
+    /**
+     * Returns a validator sharing the compiled validator of this one, for another instance of an equal definition.
+     *
+     * @param definition OpenAPI definition of the API, equal to the definition of this validator
+     * @return validator of the definition
+     */
+    CompiledOpenAPIValidator withDefinition(String definition) {
+
+        return new CompiledOpenAPIValidator(definition, validator);
+    }
+
+    /**
+     * Tells whether this validator was compiled from the given instance of the definition, which is the same for all
+     * the messages of a deployed revision of the API.
+     *
+     * @param definition OpenAPI definition of the API
+     * @return true if the validator was compiled from the given definition instance
+     */
+    public boolean isCompiledFrom(String definition) {
+
+        return this.definition == definition;
+    }
+
+    /**
+     * @param definition OpenAPI definition of the API
+     * @return true if the validator was compiled from a definition with the same content
+     */
+    public boolean hasDefinition(String definition) {
+
+        return this.definition.equals(definition);
+    }
+
+    /**
+     * Returns the compiled validator, compiling it in the calling thread if the background thread has not started
+     * compiling it yet.
+     *
+     * @return compiled validator
+     */
+    public OpenApiInteractionValidator getValidator() {
+
+        validator.run();
+        try {
+            return validator.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SynapseException("Interrupted while compiling the OpenAPI validator", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new SynapseException("Error while compiling the OpenAPI validator", e.getCause());
+        }
+    }
+
+    /**
+     * Method to generate OpenApiInteractionValidator when the swagger is provided.
+     *
+     * @param swagger Swagger definition.
+     * @return OpenApiInteractionValidator object for the provided swagger.
+     */
+    static OpenApiInteractionValidator build(String swagger) {
+
+        OpenAPIParser openAPIParser = new OpenAPIParser();
+        ParseOptions options = new ParseOptions();
+        options.setResolveFully(true);
+        SwaggerParseResult swaggerParseResult =
+                openAPIParser.readContents(swagger, new ArrayList<>(), options);
+        OpenAPI openAPI = swaggerParseResult.getOpenAPI();
+        return OpenApiInteractionValidator
+                .createFor(openAPI)
+                .withLevelResolver(
+                        LevelResolver.create()
+                                .withLevel("validation.schema.required", ValidationReport.Level.INFO)
+                                .withLevel("validation.response.body.missing", ValidationReport.Level.INFO)
+                                .build())
+                .build();
+    }
+}
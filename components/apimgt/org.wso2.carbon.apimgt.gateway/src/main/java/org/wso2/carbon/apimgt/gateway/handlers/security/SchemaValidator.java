@@ -17,12 +17,7 @@
 package org.wso2.carbon.apimgt.gateway.handlers.security;
 
 import com.atlassian.oai.validator.OpenApiInteractionValidator;
-import com.atlassian.oai.validator.report.LevelResolver;
 import com.atlassian.oai.validator.report.ValidationReport;
-import io.swagger.parser.OpenAPIParser;
-import io.swagger.v3.oas.models.OpenAPI;
-import io.swagger.v3.parser.core.models.ParseOptions;
-import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.synapse.MessageContext;
@@ -30,12 +25,12 @@ import org.apache.synapse.rest.AbstractHandler;
 import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
 import org.wso2.carbon.apimgt.gateway.handlers.security.model.OpenAPIRequest;
 import org.wso2.carbon.apimgt.gateway.handlers.security.model.OpenAPIResponse;
+import org.wso2.carbon.apimgt.gateway.internal.DataHolder;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 
-import java.util.ArrayList;
-
 /**
  * This SchemaValidator handler validates the request/response messages against schema defined in the swagger.
+ * The validator of an API is compiled once per deployed revision of its swagger and kept in the {@link DataHolder}.
  */
 public class SchemaValidator extends AbstractHandler {
 
@@ -44,38 +39,30 @@ public class SchemaValidator extends AbstractHandler {
     private static final String HTTP_SC_CODE = "400";
 
     /**
-     * Method to generate OpenApiInteractionValidator when the swagger is provided.
+     * Returns the OpenApiInteractionValidator of the API of the message, compiled from the provided swagger.
      *
-     * @param swagger Swagger definition.
+     * @param messageContext Synapse message context.
+     * @param swagger        Swagger definition.
      * @return OpenApiInteractionValidator object for the provided swagger.
      */
-    private static OpenApiInteractionValidator getOpenAPIValidator(String swagger) {
+    private static OpenApiInteractionValidator getOpenAPIValidator(MessageContext messageContext, String swagger) {
 
-        OpenAPIParser openAPIParser = new OpenAPIParser();
-        ParseOptions options = new ParseOptions();
-        options.setResolveFully(true);
-        SwaggerParseResult swaggerParseResult =
-                openAPIParser.readContents(swagger, new ArrayList<>(), options);
-        OpenAPI openAPI = swaggerParseResult.getOpenAPI();
-        return OpenApiInteractionValidator
-                .createFor(openAPI)
-                .withLevelResolver(
-                        LevelResolver.create()
-                                .withLevel("validation.schema.required", ValidationReport.Level.INFO)
-                                .withLevel("validation.response.body.missing", ValidationReport.Level.INFO)
-                                .build())
-                .build();
+        String apiId = (String) messageContext.getProperty(APIMgtGatewayConstants.API_UUID_PROPERTY);
+        if (apiId == null) {
+            return CompiledOpenAPIValidator.build(swagger);
+        }
+        return DataHolder.getInstance().getOpenAPIValidator(apiId, swagger);
     }
 
     @Override
     public boolean handleRequest(MessageContext messageContext) {
 
         logger.debug("Validating the API request Body content..");
-        String swagger = messageContext.getProperty(APIMgtGatewayConstants.OPEN_API_STRING).toString();
+        Object swagger = messageContext.getProperty(APIMgtGatewayConstants.OPEN_API_STRING);
         if (swagger == null) {
             return true;
         }
-        OpenApiInteractionValidator validator = getOpenAPIValidator(swagger);
+        OpenApiInteractionValidator validator = getOpenAPIValidator(messageContext, swagger.toString());
         OpenAPIRequest request = new OpenAPIRequest(messageContext);
 
         ValidationReport validationReport = validator.validateRequest(request);
@@ -95,7 +82,7 @@ public class SchemaValidator extends AbstractHandler {
     public boolean handleResponse(MessageContext messageContext) {
 
         String swagger = messageContext.getProperty("OPEN_API_STRING").toString();
-        OpenApiInteractionValidator validator = getOpenAPIValidator(swagger);
+        OpenApiInteractionValidator validator = getOpenAPIValidator(messageContext, swagger);
         OpenAPIResponse response = new OpenAPIResponse(messageContext);
 
         ValidationReport validationReport = validator.validateResponse(response.getPath(), response.getMethod(),
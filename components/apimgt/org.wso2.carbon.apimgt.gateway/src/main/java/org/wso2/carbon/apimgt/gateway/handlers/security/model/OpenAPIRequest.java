@@ -70,8 +70,11 @@ public class OpenAPIRequest implements Request {
         //Set Request path
         path = SchemaValidationUtils.getRestSubRequestPath(
                 messageContext.getProperty(REST_SUB_REQUEST_PATH).toString());
+        Object openAPIObject = messageContext.getProperty(APIMgtGatewayConstants.OPEN_API_OBJECT);
         String swagger = messageContext.getProperty(APIMgtGatewayConstants.OPEN_API_STRING).toString();
-        if (swagger != null) {
+        if (openAPIObject instanceof OpenAPI) {
+            validatePath((OpenAPI) openAPIObject);
+        } else if (swagger != null) {
             OpenAPIParser openAPIParser = new OpenAPIParser();
             SwaggerParseResult swaggerParseResult =
                     openAPIParser.readContents(swagger, new ArrayList<>(), new ParseOptions());
@@ -59,6 +59,8 @@ public class InboundMessageContext {
     private String userIP;
     private String matchingResource; //invoking API resource
     private ChannelHandlerContext ctx;
+    private volatile long lastAccessTime = System.currentTimeMillis();
+    private volatile InboundMessageContextDataHolder.APIConnectionStats apiConnectionStats;
 
     //Graphql Subscription specific connection context information
     private GraphQLSchemaDTO graphQLSchemaDTO;
@@ -243,4 +245,20 @@ public class InboundMessageContext {
     public void setCtx(ChannelHandlerContext ctx) {
         this.ctx = ctx;
     }
+
+    public long getLastAccessTime() {
+        return lastAccessTime;
+    }
+
+    public void setLastAccessTime(long lastAccessTime) {
+        this.lastAccessTime = lastAccessTime;
+    }
+
+    InboundMessageContextDataHolder.APIConnectionStats getApiConnectionStats() {
+        return apiConnectionStats;
+    }
+
+    void setApiConnectionStats(InboundMessageContextDataHolder.APIConnectionStats apiConnectionStats) {
+        this.apiConnectionStats = apiConnectionStats;
+    }
 }
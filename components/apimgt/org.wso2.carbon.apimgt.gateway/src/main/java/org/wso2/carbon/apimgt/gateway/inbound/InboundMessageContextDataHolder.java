@@ -17,36 +17,270 @@
  */
 package org.wso2.carbon.apimgt.gateway.inbound;
 
-import java.util.HashMap;
+import io.netty.channel.ChannelHandlerContext;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.management.ManagementFactory;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 /**
  * A gateway data holder to hold information of InboundMessageContext and connection which it associates with.
+ * <p>
+ * Contexts are added on the event loop threads of the connections and read on every frame, so they are held in a
+ * concurrent map. A context is removed when its channel becomes inactive. Once started, a sweeper also evicts the
+ * contexts of channels which are no longer active and closes the connections which were idle for longer than the
+ * idle timeout, and the number of connections can be limited.
  */
-public class InboundMessageContextDataHolder {
+public class InboundMessageContextDataHolder implements InboundMessageContextDataHolderMBean {
+
+    private static final Log log = LogFactory.getLog(InboundMessageContextDataHolder.class);
+    public static final String MBEAN_NAME = "org.wso2.carbon.apimgt:type=WebSocketConnections";
+    private static final long SWEEP_INTERVAL = 10000L;
 
     private static final InboundMessageContextDataHolder instance = new InboundMessageContextDataHolder();
-    private Map<String, InboundMessageContext> inboundMessageContextMap = new HashMap<>();
+    private final Map<String, InboundMessageContext> inboundMessageContextMap = new ConcurrentHashMap<>();
+    private final Map<String, APIConnectionStats> apiConnectionStatsMap = new ConcurrentHashMap<>();
+    private final LongAdder rejectedConnectionCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private volatile int maxConnections;
+    private volatile long idleTimeout;
+    private ScheduledExecutorService sweeper;
 
     public static InboundMessageContextDataHolder getInstance() {
         return instance;
     }
-    
+
     public Map<String, InboundMessageContext> getInboundMessageContextMap() {
         return inboundMessageContextMap;
     }
 
     public void addInboundMessageContextForConnection(String connectionId,
                                                       InboundMessageContext inboundMessageContext) {
-        inboundMessageContextMap.put(connectionId, inboundMessageContext);
+        InboundMessageContext previous = inboundMessageContextMap.put(connectionId, inboundMessageContext);
+        if (previous != null && previous != inboundMessageContext) {
+            releaseConnection(previous);
+        }
     }
 
     public InboundMessageContext getInboundMessageContextForConnectionId(String connectionId) {
         return inboundMessageContextMap.get(connectionId);
     }
 
+    /**
+     * Returns the context of the connection of the given channel, adding a new context if there is none.
+     *
+     * @param ctx channel context of the connection
+     * @return InboundMessageContext of the connection
+     */
+    public InboundMessageContext getOrAddInboundMessageContext(ChannelHandlerContext ctx) {
+        String connectionId = ctx.channel().id().asLongText();
+        InboundMessageContext inboundMessageContext = inboundMessageContextMap.get(connectionId);
+        if (inboundMessageContext == null) {
+            InboundMessageContext newInboundMessageContext = new InboundMessageContext();
+            newInboundMessageContext.setCtx(ctx);
+            inboundMessageContext = inboundMessageContextMap.putIfAbsent(connectionId, newInboundMessageContext);
+            if (inboundMessageContext == null) {
+                inboundMessageContext = newInboundMessageContext;
+            }
+        }
+        return inboundMessageContext;
+    }
+
     public void removeInboundMessageContextForConnection(String connectionId) {
-        inboundMessageContextMap.remove(connectionId);
+        InboundMessageContext inboundMessageContext = inboundMessageContextMap.remove(connectionId);
+        if (inboundMessageContext != null) {
+            releaseConnection(inboundMessageContext);
+        }
+    }
+
+    /**
+     * Checks whether the number of connections, including the connection being established, exceeds the maximum
+     * number of connections.
+     *
+     * @return true if the connection being established should be rejected
+     */
+    public boolean isConnectionLimitExceeded() {
+        int limit = maxConnections;
+        if (limit > 0 && inboundMessageContextMap.size() > limit) {
+            rejectedConnectionCount.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Counts an established connection against the API of its context.
+     *
+     * @param inboundMessageContext context of the connection, after a successful handshake
+     */
+    public void connectionEstablished(InboundMessageContext inboundMessageContext) {
+        String apiContext = inboundMessageContext.getApiContext();
+        if (apiContext == null || inboundMessageContext.getApiConnectionStats() != null) {
+            return;
+        }
+        APIConnectionStats apiConnectionStats =
+                apiConnectionStatsMap.computeIfAbsent(apiContext, key -> new APIConnectionStats());
+        apiConnectionStats.connections.incrementAndGet();
+        inboundMessageContext.setApiConnectionStats(apiConnectionStats);
+    }
+
+    /**
+     * Records a frame received or sent over the connection of the given context.
+     *
+     * @param inboundMessageContext context of the connection
+     */
+    public void frameProcessed(InboundMessageContext inboundMessageContext) {
+        inboundMessageContext.setLastAccessTime(System.currentTimeMillis());
+        APIConnectionStats apiConnectionStats = inboundMessageContext.getApiConnectionStats();
+        if (apiConnectionStats != null) {
+            apiConnectionStats.frames.increment();
+        }
+    }
+
+    private void releaseConnection(InboundMessageContext inboundMessageContext) {
+        APIConnectionStats apiConnectionStats = inboundMessageContext.getApiConnectionStats();
+        if (apiConnectionStats != null) {
+            inboundMessageContext.setApiConnectionStats(null);
+            apiConnectionStats.connections.decrementAndGet();
+        }
+    }
+
+    /**
+     * Starts evicting stale connections.
+     *
+     * @param maxConnections maximum number of connections, or 0 for no limit
+     * @param idleTimeout    time in milliseconds after which idle connections are closed, or 0 to keep them
+     */
+    public synchronized void start(int maxConnections, long idleTimeout) {
+        this.maxConnections = maxConnections;
+        this.idleTimeout = idleTimeout;
+        if (sweeper == null) {
+            sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "InboundConnectionSweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sweeper.scheduleWithFixedDelay(() -> sweep(System.currentTimeMillis()), SWEEP_INTERVAL, SWEEP_INTERVAL,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void stop() {
+        if (sweeper != null) {
+            sweeper.shutdown();
+            sweeper = null;
+        }
+    }
+
+    /**
+     * Evicts the contexts of inactive channels and closes idle connections, and updates the frame rates of the APIs.
+     *
+     * @param currentTime current time in milliseconds
+     */
+    void sweep(long currentTime) {
+        try {
+            long timeout = idleTimeout;
+            for (Map.Entry<String, InboundMessageContext> entry : inboundMessageContextMap.entrySet()) {
+                InboundMessageContext inboundMessageContext = entry.getValue();
+                ChannelHandlerContext ctx = inboundMessageContext.getCtx();
+                boolean inactive = ctx != null && !ctx.channel().isActive();
+                boolean idle = timeout > 0 && currentTime - inboundMessageContext.getLastAccessTime() > timeout;
+                if ((inactive || idle) && inboundMessageContextMap.remove(entry.getKey(), inboundMessageContext)) {
+                    releaseConnection(inboundMessageContext);
+                    evictionCount.increment();
+                    if (idle && ctx != null && !inactive) {
+                        if (log.isDebugEnabled()) {
+                            log.debug("Closing idle connection " + ctx.channel().toString());
+                        }
+                        ctx.close();
+                    }
+                }
+            }
+            for (APIConnectionStats apiConnectionStats : apiConnectionStatsMap.values()) {
+                apiConnectionStats.updateFrameRate(currentTime);
+            }
+        } catch (RuntimeException e) {
+            log.error("Error while evicting stale inbound connections", e);
+        }
+    }
+
+    /**
+     * Registers this data holder in the platform MBean server.
+     */
+    public void registerMBean() {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(MBEAN_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(this, objectName);
+        } catch (JMException e) {
+            log.warn("Error while registering inbound connections MBean", e);
+        }
+    }
+
+    @Override
+    public int getLiveConnectionCount() {
+        return inboundMessageContextMap.size();
     }
-}
 
+    @Override
+    public long getRejectedConnectionCount() {
+        return rejectedConnectionCount.sum();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    @Override
+    public String[] getAPIs() {
+        return apiConnectionStatsMap.keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public int getAPIConnectionCount(String apiContext) {
+        APIConnectionStats apiConnectionStats = apiConnectionStatsMap.get(apiContext);
+        return apiConnectionStats != null ? apiConnectionStats.connections.get() : 0;
+    }
+
+    @Override
+    public double getAPIFrameRate(String apiContext) {
+        APIConnectionStats apiConnectionStats = apiConnectionStatsMap.get(apiContext);
+        return apiConnectionStats != null ? apiConnectionStats.frameRate : 0;
+    }
+
+    /**
+     * Connection and frame counters of an API.
+     */
+    static final class APIConnectionStats {
+
+        private final AtomicInteger connections = new AtomicInteger();
+        private final LongAdder frames = new LongAdder();
+        private long lastFrameCount;
+        private long lastUpdateTime = System.currentTimeMillis();
+        private volatile double frameRate;
+
+        private void updateFrameRate(long currentTime) {
+            long frameCount = frames.sum();
+            long elapsedTime = currentTime - lastUpdateTime;
+            if (elapsedTime > 0) {
+                frameRate = (frameCount - lastFrameCount) * 1000.0 / elapsedTime;
+                lastFrameCount = frameCount;
+                lastUpdateTime = currentTime;
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.gateway.inbound;
+
+/**
+ * JMX view of the inbound WebSocket connections of the gateway.
+ */
+public interface InboundMessageContextDataHolderMBean {
+
+    /**
+     * @return number of live inbound connections
+     */
+    int getLiveConnectionCount();
+
+    /**
+     * @return number of connections rejected as the maximum number of connections was reached
+     */
+    long getRejectedConnectionCount();
+
+    /**
+     * @return number of connections evicted as their channel was closed or they were idle
+     */
+    long getEvictionCount();
+
+    /**
+     * @return contexts of the APIs which had connections
+     */
+    String[] getAPIs();
+
+    /**
+     * @param apiContext context of the API
+     * @return number of live connections of the API
+     */
+    int getAPIConnectionCount(String apiContext);
+
+    /**
+     * @param apiContext context of the API
+     * @return number of frames of the API per second, over the last sweep interval
+     */
+    double getAPIFrameRate(String apiContext);
+}
@@ -19,14 +19,12 @@ package org.wso2.carbon.apimgt.gateway.inbound.websocket.utils;
 
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
-import org.apache.axiom.util.UIDGenerator;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpHeaders;
 import org.apache.synapse.MessageContext;
 import org.apache.synapse.api.API;
-import org.json.JSONObject;
 import org.wso2.carbon.apimgt.api.APIManagementException;
 import org.wso2.carbon.apimgt.gateway.handlers.DataPublisherUtil;
 import org.wso2.carbon.apimgt.gateway.handlers.Utils;
@@ -40,12 +38,13 @@ import org.wso2.carbon.apimgt.gateway.handlers.security.AuthenticationContext;
 import org.wso2.carbon.apimgt.gateway.handlers.security.jwt.JWTValidator;
 import org.wso2.carbon.apimgt.gateway.handlers.streaming.websocket.WebSocketApiConstants;
 import org.wso2.carbon.apimgt.gateway.handlers.streaming.websocket.WebSocketApiException;
-import org.wso2.carbon.apimgt.gateway.handlers.throttling.APIThrottleConstants;
 import org.wso2.carbon.apimgt.gateway.inbound.InboundMessageContext;
 import org.wso2.carbon.apimgt.gateway.inbound.websocket.GraphQLProcessorResponseDTO;
 import org.wso2.carbon.apimgt.gateway.inbound.websocket.InboundProcessorResponseDTO;
 import org.wso2.carbon.apimgt.gateway.internal.DataHolder;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.throttling.publisher.FrameThrottleEventAggregator;
+import org.wso2.carbon.apimgt.gateway.throttling.publisher.ThrottleDataPublisher;
 import org.wso2.carbon.apimgt.gateway.utils.APIMgtGoogleAnalyticsUtils;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
@@ -279,7 +278,6 @@ public class InboundWebsocketProcessorUtil {
             resourceLevelTier = verbInfoDTO.getThrottling();
         }
         String subscriptionLevelThrottleKey = appId + ":" + inboundMessageContext.getApiContext() + ":" + apiVersion;
-        String messageId = UIDGenerator.generateURNString();
         String remoteIP = inboundMessageContext.getUserIP();
         if (log.isDebugEnabled()) {
             log.debug("Remote IP address : " + remoteIP);
@@ -287,9 +285,6 @@ public class InboundWebsocketProcessorUtil {
         if (remoteIP.indexOf(":") > 0) {
             remoteIP = remoteIP.substring(1, remoteIP.indexOf(":"));
         }
-        JSONObject jsonObMap = new JSONObject();
-        Utils.setRemoteIp(jsonObMap, remoteIP);
-        jsonObMap.put(APIThrottleConstants.MESSAGE_SIZE, msgSize);
         try {
             PrivilegedCarbonContext.startTenantFlow();
             PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(
@@ -304,18 +299,18 @@ public class InboundWebsocketProcessorUtil {
         } finally {
             PrivilegedCarbonContext.endTenantFlow();
         }
-        Object[] objects =
-                new Object[]{messageId, applicationLevelThrottleKey, applicationLevelTier, apiLevelThrottleKey,
+        Object[] throttleFields =
+                new Object[]{applicationLevelThrottleKey, applicationLevelTier, apiLevelThrottleKey,
                         apiLevelTier, subscriptionLevelThrottleKey, subscriptionLevelTier, resourceLevelThrottleKey,
                         resourceLevelTier, authorizedUser, inboundMessageContext.getApiContext(), apiVersion,
-                        appTenant, apiTenant, appId, apiName, jsonObMap.toString()};
-        org.wso2.carbon.databridge.commons.Event event = new org.wso2.carbon.databridge.commons.Event(
-                "org.wso2.throttle.request.stream:1.0.0", System.currentTimeMillis(), null, null, objects);
-        if (ServiceReferenceHolder.getInstance().getThrottleDataPublisher() == null) {
-            log.error("Cannot publish events to traffic manager because ThrottleDataPublisher "
-                    + "has not been initialised");
+                        appTenant, apiTenant, appId, apiName};
+        FrameThrottleEventAggregator frameThrottleEventAggregator =
+                ThrottleDataPublisher.getFrameThrottleEventAggregator();
+        if (frameThrottleEventAggregator != null) {
+            frameThrottleEventAggregator.add(throttleFields, remoteIP, msgSize);
+        } else {
+            ThrottleDataPublisher.publishFrameEvent(throttleFields, remoteIP, 1, msgSize);
         }
-        ServiceReferenceHolder.getInstance().getThrottleDataPublisher().getDataPublisher().tryPublish(event);
         return responseDTO;
     }
 
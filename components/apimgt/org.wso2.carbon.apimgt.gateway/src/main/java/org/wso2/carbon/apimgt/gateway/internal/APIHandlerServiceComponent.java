@@ -30,6 +30,7 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.wso2.carbon.apimgt.common.analytics.AnalyticsCommonConfiguration;
 import org.wso2.carbon.apimgt.common.analytics.AnalyticsServiceReferenceHolder;
+import org.wso2.carbon.apimgt.common.analytics.publishers.impl.AnalyticsDataPublisher;
 import org.wso2.carbon.apimgt.common.gateway.jwtgenerator.APIMgtGatewayJWTGeneratorImpl;
 import org.wso2.carbon.apimgt.common.gateway.jwtgenerator.APIMgtGatewayUrlSafeJWTGeneratorImpl;
 import org.wso2.carbon.apimgt.common.gateway.jwtgenerator.AbstractAPIMgtGatewayJWTGenerator;
@@ -78,6 +79,7 @@ public class APIHandlerServiceComponent {
 
     private APIKeyValidatorClientPool clientPool;
     private ServiceRegistration registration;
+    private RedisBaseDistributedCountManager redisBaseDistributedCountManager;
 
     @Activate
     protected void activate(ComponentContext context) {
@@ -127,11 +129,12 @@ public class APIHandlerServiceComponent {
         RedisConfig redisConfig =
                 ServiceReferenceHolder.getInstance().getAPIManagerConfiguration().getRedisConfig();
         if (redisConfig.isRedisEnabled()) {
-            RedisBaseDistributedCountManager redisBaseDistributedCountManager =
-                    new RedisBaseDistributedCountManager(ServiceReferenceHolder.getInstance().getRedisPool());
+            ServiceReferenceHolder.getInstance().setRedisPool(getJedisPool(redisConfig));
+            redisBaseDistributedCountManager =
+                    new RedisBaseDistributedCountManager(ServiceReferenceHolder.getInstance().getRedisPool(),
+                            redisConfig.getCounterSyncInterval());
             context.getBundleContext().registerService(DistributedCounterManager.class,
                     redisBaseDistributedCountManager, null);
-            ServiceReferenceHolder.getInstance().setRedisPool(getJedisPool(redisConfig));
         }
 
         // Create caches for the super tenant
@@ -163,10 +166,15 @@ public class APIHandlerServiceComponent {
             log.debug("Unregistering ThrottleDataService...");
             registration.unregister();
         }
+        if (redisBaseDistributedCountManager != null) {
+            redisBaseDistributedCountManager.shutdown();
+        }
         if (ServiceReferenceHolder.getInstance().getRedisPool() != null &&
                 !ServiceReferenceHolder.getInstance().getRedisPool().isClosed()) {
             ServiceReferenceHolder.getInstance().getRedisPool().destroy();
         }
+        AnalyticsServiceReferenceHolder.getInstance().stopRequestAggregation();
+        AnalyticsDataPublisher.getInstance().stopAsyncPublishing();
     }
 
     @Reference(
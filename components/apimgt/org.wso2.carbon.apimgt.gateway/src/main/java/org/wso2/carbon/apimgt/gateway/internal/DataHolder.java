@@ -18,12 +18,19 @@
 
 package org.wso2.carbon.apimgt.gateway.internal;
 
+import com.atlassian.oai.validator.OpenApiInteractionValidator;
+import org.apache.synapse.api.API;
 import org.wso2.carbon.apimgt.api.gateway.GraphQLSchemaDTO;
+import org.wso2.carbon.apimgt.gateway.handlers.graphQL.GraphQLPersistedQueryStore;
+import org.wso2.carbon.apimgt.gateway.handlers.graphQL.GraphQLQueryCache;
+import org.wso2.carbon.apimgt.gateway.handlers.security.APIResourceMatcher;
+import org.wso2.carbon.apimgt.gateway.handlers.security.CompiledOpenAPIValidator;
 
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DataHolder {
 
@@ -31,7 +38,11 @@ public class DataHolder {
     private Map<String, List<String>> apiToCertificatesMap = new HashMap();
     private Map<String, String> googleAnalyticsConfigMap = new HashMap<>();
     private Map<String, GraphQLSchemaDTO> apiToGraphQLSchemaDTOMap = new HashMap<>();
+    private Map<String, GraphQLQueryCache> apiToGraphQLQueryCacheMap = new ConcurrentHashMap<>();
+    private Map<String, GraphQLPersistedQueryStore> apiToGraphQLPersistedQueryStoreMap = new ConcurrentHashMap<>();
     private Map<String, List<String>> apiToKeyManagersMap = new HashMap<>();
+    private Map<String, APIResourceMatcher> apiToResourceMatcherMap = new ConcurrentHashMap<>();
+    private Map<String, CompiledOpenAPIValidator> apiToOpenAPIValidatorMap = new ConcurrentHashMap<>();
     private boolean isAllApisDeployed = false;
 
     private DataHolder() {
@@ -91,6 +102,57 @@ public class DataHolder {
     public void addApiToGraphQLSchemaDTO(String apiId, GraphQLSchemaDTO graphQLSchemaDTO) {
 
         apiToGraphQLSchemaDTOMap.put(apiId, graphQLSchemaDTO);
+        apiToGraphQLQueryCacheMap.remove(apiId);
+    }
+
+    public void removeGraphQLSchemaDTOForAPI(String apiId) {
+
+        apiToGraphQLSchemaDTOMap.remove(apiId);
+        apiToGraphQLQueryCacheMap.remove(apiId);
+        apiToGraphQLPersistedQueryStoreMap.remove(apiId);
+    }
+
+    /**
+     * Sets the persisted query store of a deployment of a GraphQL API, replacing the store of the previous
+     * deployment.
+     *
+     * @param apiId                      UUID of the API
+     * @param graphQLPersistedQueryStore persisted query store, with the operations of the manifest of the API
+     */
+    public void addGraphQLPersistedQueryStore(String apiId, GraphQLPersistedQueryStore graphQLPersistedQueryStore) {
+
+        apiToGraphQLPersistedQueryStoreMap.put(apiId, graphQLPersistedQueryStore);
+    }
+
+    /**
+     * Returns the persisted query store of a GraphQL API, or an empty store if none has been deployed with the API.
+     *
+     * @param apiId            UUID of the API
+     * @param graphQLSchemaDTO deployed schema of the API
+     * @return persisted query store of the API
+     */
+    public GraphQLPersistedQueryStore getGraphQLPersistedQueryStore(String apiId, GraphQLSchemaDTO graphQLSchemaDTO) {
+
+        return apiToGraphQLPersistedQueryStoreMap.computeIfAbsent(apiId,
+                key -> new GraphQLPersistedQueryStore(graphQLSchemaDTO));
+    }
+
+    /**
+     * Returns the parsed query cache of a GraphQL API for the given deployment of its schema. The cache is replaced
+     * when the schema of the API is redeployed.
+     *
+     * @param apiId            UUID of the API
+     * @param graphQLSchemaDTO deployed schema of the API
+     * @return parsed query cache of the API
+     */
+    public GraphQLQueryCache getGraphQLQueryCache(String apiId, GraphQLSchemaDTO graphQLSchemaDTO) {
+
+        GraphQLQueryCache queryCache = apiToGraphQLQueryCacheMap.get(apiId);
+        if (queryCache == null || queryCache.getGraphQLSchemaDTO() != graphQLSchemaDTO) {
+            queryCache = new GraphQLQueryCache(graphQLSchemaDTO);
+            apiToGraphQLQueryCacheMap.put(apiId, queryCache);
+        }
+        return queryCache;
     }
 
     public boolean isAllApisDeployed() {
@@ -115,4 +177,79 @@ public class DataHolder {
 
         return apiToKeyManagersMap.get(apiUUID);
     }
+
+    /**
+     * Returns the compiled resource routing table of the given synapse API. The table is compiled on first use and
+     * replaced atomically when the API has been redeployed since it was compiled.
+     *
+     * @param tenantDomain tenant domain of the API
+     * @param api          synapse API
+     * @return compiled resource routing table
+     */
+    public APIResourceMatcher getResourceMatcher(String tenantDomain, API api) {
+
+        String apiName = api.getName();
+        if (apiName == null) {
+            return APIResourceMatcher.compile(api);
+        }
+        String key = getResourceMatcherKey(tenantDomain, apiName);
+        APIResourceMatcher resourceMatcher = apiToResourceMatcherMap.get(key);
+        if (resourceMatcher != null && resourceMatcher.isCompiledFrom(api)) {
+            return resourceMatcher;
+        }
+        return apiToResourceMatcherMap.compute(key, (name, existing) ->
+                existing != null && existing.isCompiledFrom(api) ? existing : APIResourceMatcher.compile(api));
+    }
+
+    public void removeResourceMatcher(String tenantDomain, String apiName) {
+
+        apiToResourceMatcherMap.remove(getResourceMatcherKey(tenantDomain, apiName));
+    }
+
+    private static String getResourceMatcherKey(String tenantDomain, String apiName) {
+
+        return tenantDomain + ':' + apiName;
+    }
+
+    /**
+     * Starts compiling the OpenAPI validator of a deployed revision of an API in the background.
+     *
+     * @param apiId      UUID of the API
+     * @param definition deployed OpenAPI definition of the API
+     */
+    public void addOpenAPIValidator(String apiId, String definition) {
+
+        apiToOpenAPIValidatorMap.put(apiId, CompiledOpenAPIValidator.compile(definition));
+    }
+
+    public void removeOpenAPIValidator(String apiId) {
+
+        apiToOpenAPIValidatorMap.remove(apiId);
+    }
+
+    /**
+     * Returns the OpenAPI validator of an API compiled from the given definition. The validator is compiled again only
+     * when the definition of the API differs from the one it was compiled from.
+     *
+     * @param apiId      UUID of the API
+     * @param definition OpenAPI definition of the API
+     * @return compiled OpenAPI validator
+     */
+    public OpenApiInteractionValidator getOpenAPIValidator(String apiId, String definition) {
+
+        CompiledOpenAPIValidator validator = apiToOpenAPIValidatorMap.get(apiId);
+        if (validator == null || !validator.isCompiledFrom(definition)) {
+            validator = apiToOpenAPIValidatorMap.compute(apiId, (id, existing) -> {
+                if (existing == null) {
+                    return CompiledOpenAPIValidator.compile(definition);
+                }
+                if (existing.isCompiledFrom(definition)) {
+                    return existing;
+                }
+                return existing.hasDefinition(definition) ? existing.withDefinition(definition)
+                        : CompiledOpenAPIValidator.compile(definition);
+            });
+        }
+        return validator.getValidator();
+    }
 }
@@ -0,0 +1,443 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.gateway.jwt;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Store of revoked JWTs, which keeps a 128 bit digest of each revoked signature instead of the signature itself.
+ * <p>
+ * The digests are kept in shards of open addressing tables backed by primitive arrays, so that an entry takes a few
+ * tens of bytes regardless of the length of the signature. Lookups first consult a bloom filter, so that the common
+ * case of a token which is not revoked is answered without touching the tables, and read the tables optimistically
+ * without taking a lock. Entries are grouped into buckets by their expiry time, so that expired entries are removed
+ * by dropping whole buckets instead of scanning all the entries.
+ * <p>
+ * Two different signatures with the same digest are treated as the same revoked token. With 128 bit digests this
+ * only rejects a valid token by chance, it never accepts a revoked one.
+ */
+public class RevokedJWTStore {
+
+    private static final int SHARD_COUNT = 64;
+    private static final int INITIAL_SHARD_CAPACITY = 64;
+    private static final int MIN_BLOOM_FILTER_ENTRIES = 1 << 14;
+    private static final long EXPIRY_BUCKET_SIZE_IN_SECONDS = 60;
+    private static final long HIGH_SEED = 0x9E3779B97F4A7C15L;
+    private static final long LOW_SEED = 0xC2B2AE3D27D4EB4FL;
+
+    private final Shard[] shards = new Shard[SHARD_COUNT];
+    // Expiry buckets and the bloom filter are only modified while holding the lock of the store.
+    private final TreeMap<Long, ExpiryBucket> expiryBuckets = new TreeMap<>();
+    private volatile BloomFilter bloomFilter = new BloomFilter(MIN_BLOOM_FILTER_ENTRIES);
+    private volatile int size;
+
+    public RevokedJWTStore() {
+
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    /**
+     * Adds a revoked JWT to the store.
+     *
+     * @param key        signature or identifier of the revoked JWT
+     * @param expiryTime expiry time of the JWT in seconds
+     */
+    public synchronized void add(String key, long expiryTime) {
+
+        Digest digest = new Digest(key);
+        long high = digest.high;
+        long low = digest.low;
+        expiryTime = Math.max(expiryTime, 0);
+        long previousExpiryTime = shards[shardIndex(low)].put(high, low, expiryTime);
+        if (previousExpiryTime >= expiryTime) {
+            // The entry is already in the bucket of its later expiry time.
+            return;
+        }
+        if (previousExpiryTime < 0) {
+            size++;
+            if (size > bloomFilter.getExpectedEntries()) {
+                // Rebuild the bloom filter before it saturates, from the entries including the added one.
+                rebuildBloomFilter(size * 2);
+            } else {
+                bloomFilter.add(high, low);
+            }
+        }
+        expiryBuckets.computeIfAbsent(expiryTime / EXPIRY_BUCKET_SIZE_IN_SECONDS, bucket -> new ExpiryBucket())
+                .add(high, low);
+    }
+
+    /**
+     * Checks whether a JWT is revoked.
+     *
+     * @param key signature or identifier of the JWT
+     * @return true if the JWT is revoked
+     */
+    public boolean contains(String key) {
+
+        Digest digest = new Digest(key);
+        return bloomFilter.mightContain(digest.high, digest.low)
+                && shards[shardIndex(digest.low)].contains(digest.high, digest.low);
+    }
+
+    /**
+     * Removes the revoked JWTs which expired before the given time.
+     *
+     * @param currentTimeMillis current time in milliseconds
+     * @return number of removed JWTs
+     */
+    public synchronized int removeExpired(long currentTimeMillis) {
+
+        long currentTime = currentTimeMillis / 1000;
+        int removed = 0;
+        Iterator<Map.Entry<Long, ExpiryBucket>> iterator =
+                expiryBuckets.headMap(currentTime / EXPIRY_BUCKET_SIZE_IN_SECONDS).entrySet().iterator();
+        while (iterator.hasNext()) {
+            ExpiryBucket bucket = iterator.next().getValue();
+            for (int i = 0; i < bucket.size; i += 2) {
+                long high = bucket.digests[i];
+                long low = bucket.digests[i + 1];
+                if (shards[shardIndex(low)].removeIfExpired(high, low, currentTime)) {
+                    removed++;
+                }
+            }
+            iterator.remove();
+        }
+        size -= removed;
+        int expectedEntries = bloomFilter.getExpectedEntries();
+        if (expectedEntries > MIN_BLOOM_FILTER_ENTRIES && size < expectedEntries / 4) {
+            // Bloom filters can not remove entries, so shrink the filter to drop the bits of the removed entries.
+            rebuildBloomFilter(size * 2);
+        }
+        return removed;
+    }
+
+    /**
+     * @return number of revoked JWTs in the store
+     */
+    public int size() {
+
+        return size;
+    }
+
+    private void rebuildBloomFilter(int expectedEntries) {
+
+        BloomFilter rebuiltBloomFilter = new BloomFilter(Math.max(expectedEntries, MIN_BLOOM_FILTER_ENTRIES));
+        for (Shard shard : shards) {
+            shard.addTo(rebuiltBloomFilter);
+        }
+        bloomFilter = rebuiltBloomFilter;
+    }
+
+    private static int shardIndex(long low) {
+
+        return (int) (low >>> 58) & (SHARD_COUNT - 1);
+    }
+
+    /**
+     * 128 bit digest of the characters of a key. The characters are read eight at a time into two blocks, which are
+     * mixed into the two halves of the digest independently so that the processor can compute both at once, and the
+     * halves are combined at the end. The lowest bit of the low half is always set, so that a stored digest is never
+     * zero, which marks an empty slot.
+     */
+    private static final class Digest {
+
+        private static final long C1 = 0x87C37B91114253D5L;
+        private static final long C2 = 0x4CF5AD432745937FL;
+
+        final long high;
+        final long low;
+
+        Digest(String key) {
+
+            int length = key.length();
+            long high = HIGH_SEED ^ length;
+            long low = LOW_SEED ^ length;
+            int i = 0;
+            for (; i + 8 <= length; i += 8) {
+                high = Long.rotateLeft(high ^ block(key, i) * C1, 31) * C2;
+                low = Long.rotateLeft(low ^ block(key, i + 4) * C2, 33) * C1;
+            }
+            for (; i < length; i++) {
+                high = Long.rotateLeft(high ^ key.charAt(i) * C1, 31) * C2;
+            }
+            this.high = mix(high + low);
+            this.low = mix(low ^ this.high) | 1;
+        }
+
+        private static long block(String key, int index) {
+
+            return key.charAt(index) | (long) key.charAt(index + 1) << 16 | (long) key.charAt(index + 2) << 32
+                    | (long) key.charAt(index + 3) << 48;
+        }
+
+        private static long mix(long hash) {
+
+            hash ^= hash >>> 33;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            hash *= 0xC4CEB9FE1A85EC53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+
+    /**
+     * Open addressing table of digests with linear probing. Each slot takes three consecutive longs of the table for
+     * the two halves of the digest and the expiry time, and a slot whose low half is zero is empty. The table is only
+     * modified while holding the write lock, and is read optimistically.
+     */
+    private static final class Shard {
+
+        private static final int SLOT_LENGTH = 3;
+
+        private final StampedLock lock = new StampedLock();
+        private long[] table = new long[INITIAL_SHARD_CAPACITY * SLOT_LENGTH];
+        private int size;
+
+        boolean contains(long high, long low) {
+
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                boolean found = find(table, high, low) >= 0;
+                if (lock.validate(stamp)) {
+                    return found;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return find(table, high, low) >= 0;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * @return the previous expiry time of the digest, or -1 if the digest was not in the table
+         */
+        long put(long high, long low, long expiryTime) {
+
+            long stamp = lock.writeLock();
+            try {
+                int index = find(table, high, low);
+                if (index >= 0) {
+                    long previousExpiryTime = table[index + 2];
+                    table[index + 2] = Math.max(previousExpiryTime, expiryTime);
+                    return previousExpiryTime;
+                }
+                if ((size + 1) * 4 > capacity(table) * 3) {
+                    resize();
+                }
+                insert(table, high, low, expiryTime);
+                size++;
+                return -1;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean removeIfExpired(long high, long low, long currentTime) {
+
+            long stamp = lock.writeLock();
+            try {
+                int index = find(table, high, low);
+                if (index < 0 || table[index + 2] >= currentTime) {
+                    return false;
+                }
+                remove(index);
+                size--;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void addTo(BloomFilter bloomFilter) {
+
+            long stamp = lock.readLock();
+            try {
+                for (int index = 0; index < table.length; index += SLOT_LENGTH) {
+                    if (!isEmpty(table, index)) {
+                        bloomFilter.add(table[index], table[index + 1]);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private void resize() {
+
+            long[] resizedTable = new long[table.length * 2];
+            for (int index = 0; index < table.length; index += SLOT_LENGTH) {
+                if (!isEmpty(table, index)) {
+                    insert(resizedTable, table[index], table[index + 1], table[index + 2]);
+                }
+            }
+            table = resizedTable;
+        }
+
+        /**
+         * Removes the entry of a slot, moving the following entries of the probe sequence back so that no lookup
+         * stops at the emptied slot before reaching them.
+         */
+        private void remove(int index) {
+
+            int capacity = capacity(table);
+            int emptySlot = index / SLOT_LENGTH;
+            int slot = emptySlot;
+            while (true) {
+                slot = (slot + 1) & (capacity - 1);
+                int slotIndex = slot * SLOT_LENGTH;
+                if (isEmpty(table, slotIndex)) {
+                    break;
+                }
+                int homeSlot = homeSlot(table[slotIndex], capacity);
+                // Move the entry unless its home slot lies cyclically after the emptied slot, up to its slot.
+                boolean movable = emptySlot <= slot
+                        ? homeSlot <= emptySlot || homeSlot > slot
+                        : homeSlot <= emptySlot && homeSlot > slot;
+                if (movable) {
+                    System.arraycopy(table, slotIndex, table, emptySlot * SLOT_LENGTH, SLOT_LENGTH);
+                    emptySlot = slot;
+                }
+            }
+            Arrays.fill(table, emptySlot * SLOT_LENGTH, emptySlot * SLOT_LENGTH + SLOT_LENGTH, 0);
+        }
+
+        private static int find(long[] table, long high, long low) {
+
+            int capacity = capacity(table);
+            int slot = homeSlot(high, capacity);
+            // The probe count is bounded so that an optimistic read of a table under modification terminates.
+            for (int probes = 0; probes < capacity; probes++) {
+                int index = slot * SLOT_LENGTH;
+                if (table[index] == high && table[index + 1] == low) {
+                    return index;
+                }
+                if (isEmpty(table, index)) {
+                    return -1;
+                }
+                slot = (slot + 1) & (capacity - 1);
+            }
+            return -1;
+        }
+
+        private static void insert(long[] table, long high, long low, long expiryTime) {
+
+            int capacity = capacity(table);
+            int slot = homeSlot(high, capacity);
+            while (!isEmpty(table, slot * SLOT_LENGTH)) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            int index = slot * SLOT_LENGTH;
+            table[index] = high;
+            table[index + 1] = low;
+            table[index + 2] = expiryTime;
+        }
+
+        private static boolean isEmpty(long[] table, int index) {
+
+            return table[index + 1] == 0;
+        }
+
+        private static int capacity(long[] table) {
+
+            return table.length / SLOT_LENGTH;
+        }
+
+        private static int homeSlot(long high, int capacity) {
+
+            return (int) (high ^ (high >>> 32)) & (capacity - 1);
+        }
+    }
+
+    /**
+     * Digests of the entries expiring within the same period.
+     */
+    private static final class ExpiryBucket {
+
+        private long[] digests = new long[8];
+        private int size;
+
+        void add(long high, long low) {
+
+            if (size + 2 > digests.length) {
+                digests = Arrays.copyOf(digests, digests.length * 2);
+            }
+            digests[size++] = high;
+            digests[size++] = low;
+        }
+    }
+
+    /**
+     * Bloom filter sized for about one percent of false positives at the expected number of entries.
+     */
+    private static final class BloomFilter {
+
+        private static final int HASH_COUNT = 4;
+        private static final int BITS_PER_ENTRY = 10;
+
+        private final AtomicLongArray bits;
+        private final long mask;
+        private final int expectedEntries;
+
+        BloomFilter(int expectedEntries) {
+
+            long bitCount = Long.highestOneBit((long) expectedEntries * BITS_PER_ENTRY - 1) << 1;
+            this.bits = new AtomicLongArray((int) (bitCount >>> 6));
+            this.mask = bitCount - 1;
+            this.expectedEntries = expectedEntries;
+        }
+
+        int getExpectedEntries() {
+
+            return expectedEntries;
+        }
+
+        void add(long high, long low) {
+
+            for (int i = 0; i < HASH_COUNT; i++) {
+                long bit = (high + i * low) & mask;
+                int word = (int) (bit >>> 6);
+                long bitMask = 1L << bit;
+                long value;
+                do {
+                    value = bits.get(word);
+                } while ((value & bitMask) == 0 && !bits.compareAndSet(word, value, value | bitMask));
+            }
+        }
+
+        boolean mightContain(long high, long low) {
+
+            for (int i = 0; i < HASH_COUNT; i++) {
+                long bit = (high + i * low) & mask;
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
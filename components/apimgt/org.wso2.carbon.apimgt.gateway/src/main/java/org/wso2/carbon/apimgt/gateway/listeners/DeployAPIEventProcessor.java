@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.listeners;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.apimgt.gateway.InMemoryAPIDeployer;
+import org.wso2.carbon.apimgt.impl.APIConstants;
+import org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer.exception.ArtifactSynchronizerException;
+import org.wso2.carbon.apimgt.impl.notifier.events.DeployAPIInGatewayEvent;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Deploys and undeploys APIs for the gateway deployment events, off the thread which receives the events. The events
+ * are processed in the order they are received, and consecutive deployment events of a tenant which arrive while
+ * earlier events are processed are deployed together, so that their artifacts are retrieved from the storage at once.
+ */
+public class DeployAPIEventProcessor {
+
+    private static final Log log = LogFactory.getLog(DeployAPIEventProcessor.class);
+
+    private final InMemoryAPIDeployer inMemoryApiDeployer;
+    private final BlockingQueue<DeployAPIInGatewayEvent> events = new LinkedBlockingQueue<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new ArtifactsRetrieverThreadFactory());
+
+    public DeployAPIEventProcessor(InMemoryAPIDeployer inMemoryApiDeployer) {
+
+        this.inMemoryApiDeployer = inMemoryApiDeployer;
+    }
+
+    /**
+     * Queues a deployment or undeployment event.
+     *
+     * @param gatewayEvent Gateway Deployment event.
+     */
+    public void addEvent(DeployAPIInGatewayEvent gatewayEvent) {
+
+        events.add(gatewayEvent);
+        executor.execute(this::processEvents);
+    }
+
+    private void processEvents() {
+
+        List<DeployAPIInGatewayEvent> pendingEvents = new ArrayList<>();
+        events.drainTo(pendingEvents);
+        // Later deployments of an API replace the earlier ones of the same batch.
+        Map<String, DeployAPIInGatewayEvent> deployEvents = new LinkedHashMap<>();
+        DeployAPIInGatewayEvent firstDeployEvent = null;
+        for (DeployAPIInGatewayEvent gatewayEvent : pendingEvents) {
+            boolean deployEvent = APIConstants.EventType.DEPLOY_API_IN_GATEWAY.name().equals(gatewayEvent.getType());
+            if (firstDeployEvent != null && (!deployEvent || !isSameBatch(firstDeployEvent, gatewayEvent))) {
+                deployAPIs(new ArrayList<>(deployEvents.values()));
+                deployEvents.clear();
+                firstDeployEvent = null;
+            }
+            if (deployEvent) {
+                if (firstDeployEvent == null) {
+                    firstDeployEvent = gatewayEvent;
+                }
+                deployEvents.remove(gatewayEvent.getUuid());
+                deployEvents.put(gatewayEvent.getUuid(), gatewayEvent);
+            } else {
+                unDeployAPI(gatewayEvent);
+            }
+        }
+        if (!deployEvents.isEmpty()) {
+            deployAPIs(new ArrayList<>(deployEvents.values()));
+        }
+    }
+
+    private boolean isSameBatch(DeployAPIInGatewayEvent firstEvent, DeployAPIInGatewayEvent gatewayEvent) {
+
+        return Objects.equals(firstEvent.getTenantDomain(), gatewayEvent.getTenantDomain())
+                && Objects.equals(firstEvent.getGatewayLabels(), gatewayEvent.getGatewayLabels());
+    }
+
+    private void deployAPIs(List<DeployAPIInGatewayEvent> gatewayEvents) {
+
+        startTenantFlow(gatewayEvents.get(0).getTenantDomain());
+        try {
+            inMemoryApiDeployer.deployAPIs(gatewayEvents);
+        } catch (ArtifactSynchronizerException e) {
+            log.error("Error in deploying artifacts of " + gatewayEvents.size() + " APIs in the Gateway", e);
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    private void unDeployAPI(DeployAPIInGatewayEvent gatewayEvent) {
+
+        startTenantFlow(gatewayEvent.getTenantDomain());
+        try {
+            inMemoryApiDeployer.unDeployAPI(gatewayEvent);
+        } catch (ArtifactSynchronizerException e) {
+            log.error("Error in undeploying artifacts of " + gatewayEvent.getUuid() + " in the Gateway", e);
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    private void startTenantFlow(String tenantDomain) {
+
+        PrivilegedCarbonContext.startTenantFlow();
+        PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(tenantDomain, true);
+    }
+}
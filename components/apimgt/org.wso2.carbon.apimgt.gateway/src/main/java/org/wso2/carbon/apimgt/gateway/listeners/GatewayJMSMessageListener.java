@@ -38,7 +38,6 @@ import org.wso2.carbon.apimgt.impl.APIConstants.PolicyType;
 import org.wso2.carbon.apimgt.impl.certificatemgt.CertificateManagerImpl;
 import org.wso2.carbon.apimgt.impl.dto.GatewayArtifactSynchronizerProperties;
 import org.wso2.carbon.apimgt.impl.dto.WebhooksDTO;
-import org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer.exception.ArtifactSynchronizerException;
 import org.wso2.carbon.apimgt.impl.notifier.events.APIEvent;
 import org.wso2.carbon.apimgt.impl.notifier.events.APIPolicyEvent;
 import org.wso2.carbon.apimgt.impl.notifier.events.ApplicationEvent;
@@ -68,6 +67,7 @@ public class GatewayJMSMessageListener implements MessageListener {
     private static final Log log = LogFactory.getLog(GatewayJMSMessageListener.class);
     private boolean debugEnabled = log.isDebugEnabled();
     private InMemoryAPIDeployer inMemoryApiDeployer = new InMemoryAPIDeployer();
+    private DeployAPIEventProcessor deployAPIEventProcessor = new DeployAPIEventProcessor(inMemoryApiDeployer);
     private GatewayArtifactSynchronizerProperties gatewayArtifactSynchronizerProperties = ServiceReferenceHolder
             .getInstance().getAPIManagerConfiguration().getGatewayArtifactSynchronizerProperties();
 
@@ -145,40 +145,12 @@ public class GatewayJMSMessageListener implements MessageListener {
                 systemConfiguredGatewayLabels.retainAll(gatewayArtifactSynchronizerProperties.getGatewayLabels());
                 if (!systemConfiguredGatewayLabels.isEmpty()) {
                     ServiceReferenceHolder.getInstance().getKeyManagerDataService().updateDeployedAPIRevision(gatewayEvent);
-                    if (EventType.DEPLOY_API_IN_GATEWAY.name().equals(eventType)) {
-                        boolean tenantFlowStarted = false;
-                        try {
-                            startTenantFlow(tenantDomain);
-                            tenantFlowStarted = true;
-                            inMemoryApiDeployer.deployAPI(gatewayEvent);
-                        } catch (ArtifactSynchronizerException e) {
-                            log.error("Error in deploying artifacts for " + gatewayEvent.getUuid() +
-                                    "in the Gateway");
-                        } finally {
-                            if (tenantFlowStarted) {
-                                endTenantFlow();
-                            }
-                        }
-                    }
-                    if (APIConstants.EventType.REMOVE_API_FROM_GATEWAY.name().equals(eventType)) {
-                        boolean tenantFlowStarted = false;
-                        try {
-                            startTenantFlow(tenantDomain);
-                            tenantFlowStarted = true;
-                            inMemoryApiDeployer.unDeployAPI(gatewayEvent);
-                        } catch (ArtifactSynchronizerException e) {
-                            log.error("Error in undeploying artifacts");
-                        } finally {
-                            if (tenantFlowStarted) {
-                                endTenantFlow();
-                            }
-                        }
-                    }
+                    deployAPIEventProcessor.addEvent(gatewayEvent);
                 }
 
                 if (debugEnabled) {
                     log.debug("Event with ID " + gatewayEvent.getEventId() + " is received and " +
-                            gatewayEvent.getUuid() + " is successfully deployed/undeployed");
+                            gatewayEvent.getUuid() + " is queued to be deployed/undeployed");
                 }
             }
         }
@@ -299,18 +271,6 @@ public class GatewayJMSMessageListener implements MessageListener {
         }
     }
 
-    private void endTenantFlow() {
-
-        PrivilegedCarbonContext.endTenantFlow();
-    }
-
-    private void startTenantFlow(String tenantDomain) {
-
-        PrivilegedCarbonContext.startTenantFlow();
-        PrivilegedCarbonContext.getThreadLocalCarbonContext().
-                setTenantDomain(tenantDomain, true);
-    }
-
     private synchronized void handleAsyncWebhooksSubscriptionMessage(JsonNode payloadData) {
         if (log.isDebugEnabled()) {
             log.debug("Received event for -  Async Webhooks API subscription for : " + payloadData.
@@ -251,6 +251,7 @@ public class GatewayStartupListener extends AbstractAxis2ConfigurationContextObs
     public void invoke() {
 
         CertificateReLoaderUtil.shutDownCertificateReLoader();
+        InMemoryAPIDeployer.shutDownSnapshotReconciler();
         if (jmsTransportHandlerForTrafficManager != null) {
             // This method will make shutdown the Listener.
             log.debug("Unsubscribe from JMS Events...");
@@ -20,13 +20,17 @@ package org.wso2.carbon.apimgt.gateway.listeners;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.apimgt.gateway.inbound.InboundMessageContextDataHolder;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.mediators.oauth.TokenCache;
 import org.wso2.carbon.apimgt.gateway.service.APIThrottleDataServiceImpl;
 import org.wso2.carbon.apimgt.impl.caching.CacheInvalidationServiceImpl;
 import org.wso2.carbon.apimgt.gateway.service.RevokedTokenDataImpl;
 import org.wso2.carbon.apimgt.gateway.throttling.ThrottleDataHolder;
 import org.wso2.carbon.apimgt.gateway.throttling.publisher.ThrottleDataPublisher;
 import org.wso2.carbon.apimgt.gateway.webhooks.SubscriptionsDataServiceImpl;
+import org.wso2.carbon.apimgt.impl.APIConstants;
+import org.wso2.carbon.apimgt.impl.APIManagerConfiguration;
 import org.wso2.carbon.apimgt.impl.caching.CacheInvalidationService;
 import org.wso2.carbon.apimgt.impl.webhooks.SubscriptionsDataService;
 import org.wso2.carbon.core.ServerStartupObserver;
@@ -45,6 +49,9 @@ public class ServerStartupListener implements ServerStartupObserver {
         // event receiver, before the event receiver has been started on completion of server startup.
         ServiceReferenceHolder.getInstance().setThrottleDataPublisher(new ThrottleDataPublisher());
         ThrottleDataHolder throttleDataHolder = new ThrottleDataHolder();
+        throttleDataHolder.getThrottleDecisionStore().registerMBean();
+        throttleDataHolder.getThrottleDecisionStore().start();
+        TokenCache.getInstance().registerMBean();
         APIThrottleDataServiceImpl throttleDataServiceImpl =
                 new APIThrottleDataServiceImpl(throttleDataHolder);
         CacheInvalidationService cacheInvalidationService = new CacheInvalidationServiceImpl();
@@ -56,6 +63,33 @@ public class ServerStartupListener implements ServerStartupObserver {
         SubscriptionsDataService subscriptionsDataService = new SubscriptionsDataServiceImpl();
         ServiceReferenceHolder.getInstance().setSubscriptionsDataService(subscriptionsDataService);
         log.debug("APIThrottleDataService Registered...");
+        startInboundConnectionSweeper();
+    }
+
+    private void startInboundConnectionSweeper() {
+
+        APIManagerConfiguration config = ServiceReferenceHolder.getInstance().getAPIManagerConfiguration();
+        int maxConnections = 0;
+        long idleTimeout = 0;
+        if (config != null) {
+            try {
+                String maxConnectionsValue =
+                        config.getFirstProperty(APIConstants.API_GATEWAY_WEBSOCKET_MAX_CONNECTIONS);
+                if (maxConnectionsValue != null) {
+                    maxConnections = Integer.parseInt(maxConnectionsValue.trim());
+                }
+                String idleTimeoutValue = config.getFirstProperty(APIConstants.API_GATEWAY_WEBSOCKET_IDLE_TIMEOUT);
+                if (idleTimeoutValue != null) {
+                    idleTimeout = Long.parseLong(idleTimeoutValue.trim());
+                }
+            } catch (NumberFormatException e) {
+                log.warn("Invalid WebSocket connection limits are configured. Connections are not limited.", e);
+                maxConnections = 0;
+                idleTimeout = 0;
+            }
+        }
+        InboundMessageContextDataHolder.getInstance().registerMBean();
+        InboundMessageContextDataHolder.getInstance().start(maxConnections, idleTimeout);
     }
 }
 
@@ -35,7 +35,6 @@ import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 
 import javax.xml.stream.XMLStreamException;
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Map;
@@ -82,13 +81,8 @@ public class JsonSchemaValidator extends AbstractMediator {
             APIMThreatAnalyzer apimThreatAnalyzer = AnalyzerHolder.getAnalyzer(contentType);
             apimThreatAnalyzer.configure(jsonConfig);
             try {
-                inputStreams = GatewayUtils.cloneRequestMessage(messageContext);
-                if (inputStreams != null) {
-                    InputStream inputStreamJson = inputStreams.get(ThreatProtectorConstants.JSON);
-                    BufferedInputStream bufferedInputStream = new BufferedInputStream(inputStreamJson);
-                    apimThreatAnalyzer.analyze(bufferedInputStream, apiContext);
-                    isValid = true;
-                }
+                inputStreams = GatewayUtils.cloneRequestMessage(messageContext, apimThreatAnalyzer, apiContext);
+                isValid = true;
             } catch (APIMThreatAnalyzerException e) {
                 String message = "Request is failed due to a JSON schema validation failure: ";
                 logger.error(message, e);
@@ -20,8 +20,11 @@ package org.wso2.carbon.apimgt.gateway.mediators;
 
 import com.google.re2j.Pattern;
 import org.apache.axiom.om.OMElement;
+import org.apache.axiom.om.OMException;
 import org.apache.axiom.soap.SOAPBody;
 import org.apache.axiom.soap.SOAPEnvelope;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -32,28 +35,36 @@ import org.apache.synapse.mediators.AbstractMediator;
 import org.apache.synapse.rest.RESTUtils;
 import org.apache.synapse.transport.nhttp.NhttpConstants;
 import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
+import org.wso2.carbon.apimgt.gateway.threatprotection.utils.PatternMatchingWriter;
 import org.wso2.carbon.apimgt.gateway.threatprotection.utils.ThreatProtectorConstants;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
+import org.wso2.carbon.apimgt.gateway.utils.SegmentedLRUCache;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 import org.wso2.carbon.utils.multitenancy.MultitenantUtils;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
-import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import javax.xml.stream.XMLStreamException;
 
 /**
  * This mediator would protect the backend resources from the threat vulnerabilities by matching the
  * special key words in the request headers, query/path parameters and body.
+ * <p>
+ * The request body is serialized into a single buffer which the pattern is matched against once, so it is not
+ * converted to a string. The serialized body is held in memory as before, within the payload size limit of the
+ * mediator if one is set.
  */
 public class RegularExpressionProtector extends AbstractMediator {
 
     private static final Log logger = LogFactory.getLog(RegularExpressionProtector.class);
+    private static final int MAX_CACHED_PATTERNS = 1024;
+    private static final SegmentedLRUCache<String, Pattern> patternCache =
+            new SegmentedLRUCache<>(MAX_CACHED_PATTERNS);
     private Boolean enabledCheckBody = true;
     private String threatType = null;
-    private Pattern pattern = null;
     private Boolean enabledCheckHeaders;
     private Boolean enabledCheckPathParam;
 
@@ -80,11 +91,10 @@ public class RegularExpressionProtector extends AbstractMediator {
             return true;
         }
 
+        Pattern pattern;
         messageProperty = messageContext.getProperty(APIMgtGatewayConstants.REGEX_PATTERN);
         if (messageProperty != null) {
-            if (pattern == null) {
-                pattern = Pattern.compile(messageProperty.toString(), Pattern.CASE_INSENSITIVE);
-            }
+            pattern = getPattern(messageProperty.toString());
         } else {
             GatewayUtils.handleThreat(messageContext, APIMgtGatewayConstants.HTTP_SC_CODE,
                     "Threat detection key words are missing");
@@ -103,13 +113,28 @@ public class RegularExpressionProtector extends AbstractMediator {
         if (messageProperty != null) {
             threatType = String.valueOf(messageProperty);
         }
-        if (isRequestBodyVulnerable(messageContext) || isRequestHeadersVulnerable(messageContext) ||
-                isRequestPathVulnerable(messageContext)) {
+        if (isRequestBodyVulnerable(messageContext, pattern) || isRequestHeadersVulnerable(messageContext, pattern) ||
+                isRequestPathVulnerable(messageContext, pattern)) {
             return true;
         }
         return true;
     }
 
+    /**
+     * Returns the compiled pattern of a regex, compiling it once for all the requests of the APIs using the regex.
+     *
+     * @param regex regex of the threat detection key words
+     * @return case insensitive pattern of the regex
+     */
+    static Pattern getPattern(String regex) {
+        Pattern pattern = patternCache.get(regex);
+        if (pattern == null) {
+            pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+            patternCache.put(regex, pattern);
+        }
+        return pattern;
+    }
+
     /**
      * Using Regex Threat Protector mediator will be restricted to the tenants defined by the system property
      * 'regexThreatProtectorEnabledTenants' as a list of comma separated values and super tenant. If this system
@@ -167,8 +192,13 @@ public class RegularExpressionProtector extends AbstractMediator {
             if (env != null) {
                 SOAPBody soapbody = env.getBody();
                 if (soapbody != null) {
-                    byte[] size = soapbody.toString().getBytes(Charset.defaultCharset());
-                    requestPayloadSize = size.length;
+                    CountingOutputStream out = new CountingOutputStream(NullOutputStream.NULL_OUTPUT_STREAM);
+                    try {
+                        soapbody.serialize(out);
+                    } catch (XMLStreamException e) {
+                        logger.error("Error occurred while computing the request payload size", e);
+                    }
+                    requestPayloadSize = out.getByteCount();
                 }
             }
         }
@@ -186,8 +216,9 @@ public class RegularExpressionProtector extends AbstractMediator {
      *
      * @param messageContext contains the message properties of the relevant API request which was
      *                       enabled the regexValidator message mediation in flow.
+     * @param pattern        pattern of the vulnerable key words
      */
-    private boolean isRequestBodyVulnerable(MessageContext messageContext) {
+    private boolean isRequestBodyVulnerable(MessageContext messageContext, Pattern pattern) {
         SOAPEnvelope soapEnvelope;
         SOAPBody soapBody;
         OMElement omElement;
@@ -206,11 +237,21 @@ public class RegularExpressionProtector extends AbstractMediator {
             if (omElement == null) {
                 return false;
             }
-            String payload = omElement.toString();
-            if (pattern != null && payload != null && pattern.matcher(payload).find()) {
+            PatternMatchingWriter writer = new PatternMatchingWriter(pattern);
+            try {
+                omElement.serialize(writer);
+            } catch (XMLStreamException | OMException e) {
+                String message = "Error occurred while matching the request payload";
+                logger.error(message, e);
+                GatewayUtils.handleThreat(messageContext, ThreatProtectorConstants.HTTP_SC_CODE,
+                        message + e.getMessage());
+                return true;
+            }
+            writer.close();
+            if (writer.getMatch() != null) {
                 if (logger.isDebugEnabled()) {
                     logger.debug(String.format("Threat detected in request payload [ %s ] by regex [ %s ]))",
-                            payload, pattern));
+                            writer.getMatch(), pattern));
                 }
                 GatewayUtils.handleThreat(messageContext, APIMgtGatewayConstants.HTTP_SC_CODE,
                         threatType + " " + APIMgtGatewayConstants.PAYLOAD_THREAT_MSG);
@@ -225,9 +266,10 @@ public class RegularExpressionProtector extends AbstractMediator {
      *
      * @param messageContext contains the message properties of the relevant API request which was
      *                       enabled the regexValidator message mediation in flow.
+     * @param pattern        pattern of the vulnerable key words
      * @return true if request path contains matching vulnerable keywords.
      */
-    private boolean isRequestPathVulnerable(MessageContext messageContext) {
+    private boolean isRequestPathVulnerable(MessageContext messageContext, Pattern pattern) {
         org.apache.axis2.context.MessageContext axis2MC = ((Axis2MessageContext)
                 messageContext).getAxis2MessageContext();
         String parameter = null;
@@ -245,7 +287,7 @@ public class RegularExpressionProtector extends AbstractMediator {
                         message + e.getMessage());
                 return true;
             }
-            if (pattern != null && parameter != null && pattern.matcher(parameter).find()) {
+            if (parameter != null && pattern.matcher(parameter).find()) {
                 if (logger.isDebugEnabled()) {
                     logger.debug(String.format("Threat detected in query parameters [ %s ] by regex [ %s ]",
                             queryParams, pattern));
@@ -263,26 +305,37 @@ public class RegularExpressionProtector extends AbstractMediator {
      *
      * @param messageContext contains the message properties of the relevant API request which was
      *                       enabled the regexValidator message mediation in flow.
+     * @param pattern        pattern of the vulnerable key words
      * @return true if request Headers contain matching vulnerable keywords
      */
-    private boolean isRequestHeadersVulnerable(MessageContext messageContext) {
+    private boolean isRequestHeadersVulnerable(MessageContext messageContext, Pattern pattern) {
         org.apache.axis2.context.MessageContext axis2MC = ((Axis2MessageContext)
                 messageContext).getAxis2MessageContext();
         if (enabledCheckHeaders) {
-            Map transportHeaders = (Map) axis2MC.getProperty(org.apache.axis2.context.MessageContext.TRANSPORT_HEADERS);
-            if (pattern != null && transportHeaders != null && pattern.matcher(transportHeaders.toString()).find()) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug(String.format("Threat detected in Transport headers [ %s ] by regex [ %s ]",
-                            transportHeaders, pattern));
+            Map<?, ?> transportHeaders = (Map<?, ?>) axis2MC.getProperty(
+                    org.apache.axis2.context.MessageContext.TRANSPORT_HEADERS);
+            if (transportHeaders == null) {
+                return false;
+            }
+            for (Map.Entry<?, ?> header : transportHeaders.entrySet()) {
+                if (isVulnerable(pattern, header.getKey()) || isVulnerable(pattern, header.getValue())) {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(String.format("Threat detected in Transport header [ %s ] by regex [ %s ]",
+                                header, pattern));
+                    }
+                    GatewayUtils.handleThreat(messageContext, APIMgtGatewayConstants.HTTP_SC_CODE,
+                            threatType + " " + APIMgtGatewayConstants.HTTP_HEADER_THREAT_MSG);
+                    return true;
                 }
-                GatewayUtils.handleThreat(messageContext, APIMgtGatewayConstants.HTTP_SC_CODE,
-                        threatType + " " + APIMgtGatewayConstants.HTTP_HEADER_THREAT_MSG);
-                return true;
             }
         }
         return false;
     }
 
+    private boolean isVulnerable(Pattern pattern, Object value) {
+        return value != null && pattern.matcher(value.toString()).find();
+    }
+
     /**
      * This method checks the status of the {enabledCheckBody} property which comes from the custom sequence.
      * If a client ask to check the message body,Method returns true else It will return false.
@@ -297,4 +350,3 @@ public class RegularExpressionProtector extends AbstractMediator {
     }
 
 }
-
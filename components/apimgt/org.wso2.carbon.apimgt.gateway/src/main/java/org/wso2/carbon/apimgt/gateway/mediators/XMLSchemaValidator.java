@@ -31,29 +31,29 @@ import org.wso2.carbon.apimgt.gateway.threatprotection.analyzer.APIMThreatAnalyz
 import org.wso2.carbon.apimgt.gateway.threatprotection.configuration.XMLConfig;
 import org.wso2.carbon.apimgt.gateway.threatprotection.utils.ThreatExceptionHandler;
 import org.wso2.carbon.apimgt.gateway.threatprotection.utils.ThreatProtectorConstants;
+import org.wso2.carbon.apimgt.gateway.threatprotection.utils.XMLSchemaCache;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.xml.sax.SAXException;
 
-import javax.xml.XMLConstants;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
-import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
-import javax.xml.validation.Validator;
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URL;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This mediator would protect the backend resources from the XML threat vulnerabilities by validating the
- * XML schema.
+ * XML schema. The XSDs are compiled once and cached, and downloaded again at the interval given by the system
+ * property 'xmlSchemaValidatorRefreshInterval' (in milliseconds, 5 minutes by default).
  */
 public class XMLSchemaValidator extends AbstractMediator {
     private static final Log logger = LogFactory.getLog(XMLSchemaValidator.class);
+    private static final XMLSchemaCache schemaCache = new XMLSchemaCache(
+            Long.getLong(APIMgtGatewayConstants.XML_SCHEMA_REFRESH_INTERVAL, TimeUnit.MINUTES.toMillis(5)),
+            Integer.getInteger(APIMgtGatewayConstants.XML_SCHEMA_DOWNLOAD_TIMEOUT,
+                    (int) TimeUnit.SECONDS.toMillis(10)));
 
     /**
      * This mediate method validates the xml request message.
@@ -67,7 +67,6 @@ public class XMLSchemaValidator extends AbstractMediator {
             logger.debug("XML validation mediator is activated...");
         }
         InputStream inputStreamSchema;
-        InputStream inputStreamXml;
         Map<String, InputStream> inputStreams = null;
         Boolean xmlValidationStatus;
         Boolean schemaValidationStatus;
@@ -90,26 +89,23 @@ public class XMLSchemaValidator extends AbstractMediator {
                 (ThreatProtectorConstants.APPLICATION_XML.equals(contentType) ||
                         ThreatProtectorConstants.TEXT_XML.equals(contentType))) {
             try {
-                inputStreams = GatewayUtils.cloneRequestMessage(messageContext);
-                if (inputStreams != null) {
-                    Object messageProperty = messageContext.getProperty(APIMgtGatewayConstants.XML_VALIDATION);
-                    if (messageProperty != null) {
-                        xmlValidationStatus = Boolean.valueOf(messageProperty.toString());
-                        if (xmlValidationStatus.equals(true)) {
-                            XMLConfig xmlConfig = configureSchemaProperties(messageContext);
-                            apimThreatAnalyzer = AnalyzerHolder.getAnalyzer(contentType);
-                            apimThreatAnalyzer.configure(xmlConfig);
-                            inputStreamXml = inputStreams.get(ThreatProtectorConstants.XML);
-                            apimThreatAnalyzer.analyze(inputStreamXml, apiContext);
-                        }
+                Object messageProperty = messageContext.getProperty(APIMgtGatewayConstants.XML_VALIDATION);
+                if (messageProperty != null) {
+                    xmlValidationStatus = Boolean.valueOf(messageProperty.toString());
+                    if (xmlValidationStatus.equals(true)) {
+                        XMLConfig xmlConfig = configureSchemaProperties(messageContext);
+                        apimThreatAnalyzer = AnalyzerHolder.getAnalyzer(contentType);
+                        apimThreatAnalyzer.configure(xmlConfig);
                     }
+                }
+                inputStreams = GatewayUtils.cloneRequestMessage(messageContext, apimThreatAnalyzer, apiContext);
+                if (inputStreams != null) {
                     messageProperty = messageContext.getProperty(APIMgtGatewayConstants.SCHEMA_VALIDATION);
                     if (messageProperty != null) {
                         schemaValidationStatus = Boolean.valueOf(messageProperty.toString());
                         if (schemaValidationStatus.equals(true)) {
                             inputStreamSchema = inputStreams.get(ThreatProtectorConstants.SCHEMA);
-                            BufferedInputStream bufferedInputStream = new BufferedInputStream(inputStreamSchema);
-                            validateSchema(messageContext, bufferedInputStream);
+                            validateSchema(messageContext, inputStreamSchema);
                         }
                     }
                 }
@@ -123,7 +119,9 @@ public class XMLSchemaValidator extends AbstractMediator {
                 GatewayUtils.handleThreat(messageContext, ThreatProtectorConstants.HTTP_SC_CODE, e.getMessage());
             }finally {
                 //return analyzer to the pool
-                AnalyzerHolder.returnObject(apimThreatAnalyzer);
+                if (apimThreatAnalyzer != null) {
+                    AnalyzerHolder.returnObject(apimThreatAnalyzer);
+                }
             }
         } else {
             if (log.isDebugEnabled()) {
@@ -256,16 +254,14 @@ public class XMLSchemaValidator extends AbstractMediator {
     /**
      * This method validates the request payload xml with the relevant xsd.
      *
-     * @param messageContext      This message context contains the request message properties of the relevant
-     *                            API which was enabled the XML_Validator message mediation in flow.
-     * @param bufferedInputStream Buffered input stream to be validated.
+     * @param messageContext This message context contains the request message properties of the relevant
+     *                       API which was enabled the XML_Validator message mediation in flow.
+     * @param inputStream    Input stream of the buffered payload to be validated.
      * @throws APIMThreatAnalyzerException Exception might be occurred while parsing the xml payload.
      */
-    private boolean validateSchema(MessageContext messageContext, BufferedInputStream bufferedInputStream)
+    private boolean validateSchema(MessageContext messageContext, InputStream inputStream)
             throws APIMThreatAnalyzerException {
         String xsdURL;
-        Schema schema;
-        SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
         try {
             Object messageProperty = messageContext.getProperty(APIMgtGatewayConstants.XSD_URL);
             if (messageProperty == null) {
@@ -275,11 +271,7 @@ public class XMLSchemaValidator extends AbstractMediator {
                     return true;
                 } else {
                     xsdURL = String.valueOf(messageProperty);
-                    URL schemaFile = new URL(xsdURL);
-                    schema = schemaFactory.newSchema(schemaFile);
-                    Source xmlFile = new StreamSource(bufferedInputStream);
-                    Validator validator = schema.newValidator();
-                    validator.validate(xmlFile);
+                    schemaCache.validate(xsdURL, new StreamSource(inputStream));
                 }
             }
         } catch (SAXException | IOException e) {
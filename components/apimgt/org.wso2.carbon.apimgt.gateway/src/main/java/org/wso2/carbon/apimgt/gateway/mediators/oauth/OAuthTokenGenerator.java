@@ -35,7 +35,7 @@ import java.util.concurrent.CountDownLatch;
 
 /**
  * OAuthTokenGenerator class to check validity of tokens, request for tokens
- * and add tokens to in-memory cache or redis cache
+ * and add tokens to redis cache. Tokens are kept in the {@link TokenCache} when redis is not enabled.
  */
 public class OAuthTokenGenerator {
 
@@ -53,16 +53,15 @@ public class OAuthTokenGenerator {
             throws APISecurityException {
 
         try {
+            if (!ServiceReferenceHolder.getInstance().isRedisEnabled()) {
+                return TokenCache.getInstance().getToken(oAuthEndpoint);
+            }
             TokenResponse tokenResponse = null;
-            if (ServiceReferenceHolder.getInstance().isRedisEnabled()) {
-                Object previousResponseObject =
-                        new RedisCacheUtils(ServiceReferenceHolder.getInstance().getRedisPool())
-                                .getObject(oAuthEndpoint.getId(), TokenResponse.class);
-                if (previousResponseObject != null) {
-                    tokenResponse = (TokenResponse) previousResponseObject;
-                }
-            } else {
-                tokenResponse = TokenCache.getInstance().getTokenMap().get(oAuthEndpoint.getId());
+            Object previousResponseObject =
+                    new RedisCacheUtils(ServiceReferenceHolder.getInstance().getRedisPool())
+                            .getObject(oAuthEndpoint.getId(), TokenResponse.class);
+            if (previousResponseObject != null) {
+                tokenResponse = (TokenResponse) previousResponseObject;
             }
             if (tokenResponse != null) {
                 long validTill = tokenResponse.getValidTill();
@@ -101,7 +100,7 @@ public class OAuthTokenGenerator {
 
     /**
      * Method to request for access token and add the generated token into
-     * in-memory cache or redis cache
+     * redis cache
      *
      * @param oAuthEndpoint OAuthEndpoint object for token endpoint properties
      * @param refreshToken  Refresh token if exists
@@ -119,12 +118,8 @@ public class OAuthTokenGenerator {
 
         assert tokenResponse != null;
         if (tokenResponse.getExpiresIn() != null) {
-            if (ServiceReferenceHolder.getInstance().isRedisEnabled()) {
-                new RedisCacheUtils(ServiceReferenceHolder.getInstance().getRedisPool())
-                        .addObject(oAuthEndpoint.getId(), tokenResponse);
-            } else {
-                TokenCache.getInstance().getTokenMap().put(oAuthEndpoint.getId(), tokenResponse);
-            }
+            new RedisCacheUtils(ServiceReferenceHolder.getInstance().getRedisPool())
+                    .addObject(oAuthEndpoint.getId(), tokenResponse);
         }
         return tokenResponse;
     }
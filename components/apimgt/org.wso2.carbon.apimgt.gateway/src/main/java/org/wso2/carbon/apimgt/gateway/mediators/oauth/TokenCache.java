@@ -18,23 +18,80 @@
 
 package org.wso2.carbon.apimgt.gateway.mediators.oauth;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.json.simple.parser.ParseException;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
+import org.wso2.carbon.apimgt.gateway.mediators.oauth.client.OAuthClient;
 import org.wso2.carbon.apimgt.gateway.mediators.oauth.client.TokenResponse;
+import org.wso2.carbon.apimgt.gateway.mediators.oauth.conf.OAuthEndpoint;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.management.ManagementFactory;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 /**
  * Token Cache Singleton Implementation
+ * <p>
+ * Holds the access token of each backend OAuth endpoint, shared by all the requests to the endpoint. Only one token
+ * request is sent to an endpoint at a time: the requests which find no valid token wait for the token request in
+ * progress instead of sending their own. Once a token is within the refresh skew of its expiry, a new token is
+ * fetched in the background while the requests keep using the current one. When the cache is full, the endpoint
+ * used least recently is removed.
  */
-public class TokenCache {
-    private static final TokenCache instance = new TokenCache();
+public class TokenCache implements TokenCacheMBean {
 
-    private final Map<String, TokenResponse> tokenMap = new HashMap<>();
+    private static final Log log = LogFactory.getLog(TokenCache.class);
+    public static final String MBEAN_NAME = "org.wso2.carbon.apimgt:type=BackendTokenCache";
+    private static final int DEFAULT_MAX_SIZE = 1000;
+    private static final long DEFAULT_REFRESH_SKEW = 60L;
+    private static final long REFRESH_RETRY_INTERVAL = TimeUnit.SECONDS.toMillis(5);
+
+    private static final TokenCache instance = new TokenCache(TokenCache::fetchToken,
+            Integer.getInteger(APIMgtGatewayConstants.BACKEND_TOKEN_CACHE_SIZE, DEFAULT_MAX_SIZE),
+            Long.getLong(APIMgtGatewayConstants.BACKEND_TOKEN_REFRESH_SKEW, DEFAULT_REFRESH_SKEW));
+
+    private final Map<String, Entry> tokens = new ConcurrentHashMap<>();
+    private final TokenFetcher fetcher;
+    private final int maxSize;
+    private final long refreshSkew;
+    private final ExecutorService executor;
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder refreshFailureCount = new LongAdder();
+    private final LongAdder backgroundRefreshCount = new LongAdder();
+    private final LongAdder refreshLatencyTotal = new LongAdder();
+    private final AtomicLong maxRefreshLatency = new AtomicLong();
+    private final LongAdder evictionCount = new LongAdder();
 
     /**
-     * Private Constructor
+     * @param fetcher     requests tokens from the token endpoints
+     * @param maxSize     maximum number of OAuth endpoints to hold tokens of
+     * @param refreshSkew time in seconds before the expiry of a token to fetch a new token
      */
-    private TokenCache() {
+    TokenCache(TokenFetcher fetcher, int maxSize, long refreshSkew) {
+
+        this.fetcher = fetcher;
+        this.maxSize = Math.max(maxSize, 1);
+        this.refreshSkew = Math.max(refreshSkew, 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "BackendTokenRefresher");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
@@ -46,10 +103,284 @@ public class TokenCache {
     }
 
     /**
-     * Get token map
-     * @return
+     * Returns a valid access token of an OAuth endpoint, requesting a new token from the endpoint if there is no
+     * valid token cached. A token which does not have an expiry time is not cached.
+     *
+     * @param oAuthEndpoint OAuthEndpoint object for token endpoint properties
+     * @return TokenResponse object
+     * @throws IOException            In the event of errors with HttpClient connections
+     * @throws APIManagementException In the event of errors when accessing the token endpoint url
+     * @throws ParseException         In the event of errors when parsing the token endpoint response
+     */
+    public TokenResponse getToken(OAuthEndpoint oAuthEndpoint)
+            throws IOException, APIManagementException, ParseException {
+
+        long now = System.currentTimeMillis();
+        Entry entry = tokens.get(oAuthEndpoint.getId());
+        if (entry == null) {
+            entry = tokens.computeIfAbsent(oAuthEndpoint.getId(), id -> new Entry(now));
+            if (tokens.size() > maxSize) {
+                evict();
+            }
+        }
+        entry.lastAccessTime = now;
+        TokenResponse tokenResponse = entry.tokenResponse;
+        if (tokenResponse != null && tokenResponse.getValidTill() != null) {
+            long timeDifference = tokenResponse.getValidTill() - now / 1000;
+            if (timeDifference > 1) {
+                if (timeDifference <= refreshSkew && now >= entry.nextRefreshTime) {
+                    refreshInBackground(oAuthEndpoint, entry);
+                }
+                return tokenResponse;
+            }
+        }
+        CompletableFuture<TokenResponse> future;
+        boolean fetch;
+        synchronized (entry) {
+            future = entry.refresh;
+            fetch = future == null;
+            if (fetch) {
+                future = new CompletableFuture<>();
+                entry.refresh = future;
+            }
+        }
+        if (fetch) {
+            fetch(oAuthEndpoint, entry, future);
+        }
+        return await(future);
+    }
+
+    /**
+     * Returns the access token cached for an OAuth endpoint.
+     *
+     * @param endpointId id of the OAuth endpoint
+     * @return TokenResponse object, or null if no token is cached
+     */
+    public TokenResponse getCachedToken(String endpointId) {
+
+        Entry entry = tokens.get(endpointId);
+        return entry != null ? entry.tokenResponse : null;
+    }
+
+    /**
+     * Removes the access token of an OAuth endpoint.
+     *
+     * @param endpointId id of the OAuth endpoint
+     */
+    public void removeToken(String endpointId) {
+
+        tokens.remove(endpointId);
+    }
+
+    private void refreshInBackground(OAuthEndpoint oAuthEndpoint, Entry entry) {
+
+        CompletableFuture<TokenResponse> future;
+        synchronized (entry) {
+            if (entry.refresh != null) {
+                return;
+            }
+            future = new CompletableFuture<>();
+            entry.refresh = future;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Refreshing OAuth token in the background: [token-endpoint] " + oAuthEndpoint.getTokenApiUrl());
+        }
+        try {
+            executor.execute(() -> {
+                if (fetch(oAuthEndpoint, entry, future)) {
+                    backgroundRefreshCount.increment();
+                } else {
+                    log.warn("Error while refreshing OAuth Token [url] " + oAuthEndpoint.getTokenApiUrl()
+                            + ". The current token is used until it expires.");
+                    entry.nextRefreshTime = System.currentTimeMillis() + REFRESH_RETRY_INTERVAL;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            synchronized (entry) {
+                entry.refresh = null;
+            }
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Requests a token from the endpoint, using the refresh token of the cached token if there is one, and completes
+     * the refresh of the entry with it.
+     *
+     * @return true if a token was received
+     */
+    private boolean fetch(OAuthEndpoint oAuthEndpoint, Entry entry, CompletableFuture<TokenResponse> future) {
+
+        TokenResponse previous = entry.tokenResponse;
+        String refreshToken = previous != null ? previous.getRefreshToken() : null;
+        long start = System.nanoTime();
+        TokenResponse tokenResponse = null;
+        Throwable error = null;
+        try {
+            tokenResponse = fetcher.fetch(oAuthEndpoint, refreshToken);
+            if (tokenResponse == null) {
+                throw new APIManagementException("No token received from the token endpoint");
+            }
+            if (tokenResponse.getExpiresIn() != null) {
+                entry.tokenResponse = tokenResponse;
+            }
+            refreshCount.increment();
+        } catch (IOException | APIManagementException | ParseException | RuntimeException e) {
+            refreshFailureCount.increment();
+            error = e;
+        } finally {
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            refreshLatencyTotal.add(latency);
+            maxRefreshLatency.accumulateAndGet(latency, Math::max);
+            // Cleared before completing, so that a request woken up by the completion starts a new refresh if needed
+            synchronized (entry) {
+                entry.refresh = null;
+            }
+        }
+        if (error != null) {
+            future.completeExceptionally(error);
+            return false;
+        }
+        future.complete(tokenResponse);
+        return true;
+    }
+
+    private static TokenResponse await(CompletableFuture<TokenResponse> future)
+            throws IOException, APIManagementException, ParseException {
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting for OAuth token");
+            exception.initCause(e);
+            throw exception;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof APIManagementException) {
+                throw (APIManagementException) cause;
+            } else if (cause instanceof ParseException) {
+                throw (ParseException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new APIManagementException("Error while generating OAuth Token", cause);
+        }
+    }
+
+    /**
+     * Removes the endpoints used least recently until the cache is within its size.
+     */
+    private void evict() {
+
+        while (tokens.size() > maxSize) {
+            String leastRecentlyUsed = null;
+            long leastRecentAccessTime = Long.MAX_VALUE;
+            for (Map.Entry<String, Entry> token : tokens.entrySet()) {
+                if (token.getValue().lastAccessTime < leastRecentAccessTime) {
+                    leastRecentAccessTime = token.getValue().lastAccessTime;
+                    leastRecentlyUsed = token.getKey();
+                }
+            }
+            if (leastRecentlyUsed == null || tokens.remove(leastRecentlyUsed) == null) {
+                return;
+            }
+            evictionCount.increment();
+        }
+    }
+
+    private static TokenResponse fetchToken(OAuthEndpoint oAuthEndpoint, String refreshToken)
+            throws IOException, APIManagementException, ParseException {
+
+        return OAuthClient.generateToken(oAuthEndpoint.getTokenApiUrl(), oAuthEndpoint.getClientId(),
+                oAuthEndpoint.getClientSecret(), oAuthEndpoint.getUsername(), oAuthEndpoint.getPassword(),
+                oAuthEndpoint.getGrantType(), oAuthEndpoint.getCustomParameters(), refreshToken);
+    }
+
+    /**
+     * Registers this cache in the platform MBean server.
+     */
+    public void registerMBean() {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(MBEAN_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(this, objectName);
+        } catch (JMException e) {
+            log.warn("Error while registering backend token cache MBean", e);
+        }
+    }
+
+    @Override
+    public int getSize() {
+
+        return tokens.size();
+    }
+
+    @Override
+    public long getRefreshCount() {
+
+        return refreshCount.sum();
+    }
+
+    @Override
+    public long getRefreshFailureCount() {
+
+        return refreshFailureCount.sum();
+    }
+
+    @Override
+    public long getBackgroundRefreshCount() {
+
+        return backgroundRefreshCount.sum();
+    }
+
+    @Override
+    public double getAverageRefreshLatency() {
+
+        long count = refreshCount.sum() + refreshFailureCount.sum();
+        return count > 0 ? (double) refreshLatencyTotal.sum() / count : 0;
+    }
+
+    @Override
+    public long getMaxRefreshLatency() {
+
+        return maxRefreshLatency.get();
+    }
+
+    @Override
+    public long getEvictionCount() {
+
+        return evictionCount.sum();
+    }
+
+    /**
+     * Requests a token from a token endpoint.
      */
-    public Map<String, TokenResponse> getTokenMap() {
-        return tokenMap;
+    interface TokenFetcher {
+
+        TokenResponse fetch(OAuthEndpoint oAuthEndpoint, String refreshToken)
+                throws IOException, APIManagementException, ParseException;
+    }
+
+    /**
+     * Token of an OAuth endpoint. The refresh in progress is guarded by the lock of the entry.
+     */
+    private static final class Entry {
+
+        private volatile TokenResponse tokenResponse;
+        private volatile long lastAccessTime;
+        private volatile long nextRefreshTime;
+        private CompletableFuture<TokenResponse> refresh;
+
+        private Entry(long lastAccessTime) {
+
+            this.lastAccessTime = lastAccessTime;
+        }
     }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.mediators.oauth;
+
+/**
+ * JMX view of the cache of the access tokens of the backend OAuth endpoints.
+ */
+public interface TokenCacheMBean {
+
+    /**
+     * @return number of OAuth endpoints currently held
+     */
+    int getSize();
+
+    /**
+     * @return number of tokens fetched from the token endpoints
+     */
+    long getRefreshCount();
+
+    /**
+     * @return number of token requests which failed
+     */
+    long getRefreshFailureCount();
+
+    /**
+     * @return number of tokens fetched in the background before the cached token expired
+     */
+    long getBackgroundRefreshCount();
+
+    /**
+     * @return average time in milliseconds taken by a token request
+     */
+    double getAverageRefreshLatency();
+
+    /**
+     * @return longest time in milliseconds taken by a token request
+     */
+    long getMaxRefreshLatency();
+
+    /**
+     * @return number of OAuth endpoints removed to keep the cache within its size
+     */
+    long getEvictionCount();
+}
@@ -28,7 +28,6 @@ import org.wso2.carbon.apimgt.gateway.threatprotection.configuration.XMLConfig;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 
 /**
  * Implementation of APIMThreatAnalyzer for JSON Payloads
@@ -80,14 +79,15 @@ public class JSONAnalyzer implements APIMThreatAnalyzer {
         throw new UnsupportedOperationException("This method is not supported on this instance");
     }
 
-    /** Analyze the JSON payload against limitations.
+    /** Analyze the JSON payload against limitations. The payload is parsed as bytes, detecting the encoding, and the
+     * limits are checked as the tokens are read, so parsing stops at the first violation.
      * @param in input stream of the request payload.
      * @param apiContext request api context.
      * @throws APIMThreatAnalyzerException if defined limits for json payload exceeds
      */
     @Override
     public void analyze(InputStream in, String apiContext) throws APIMThreatAnalyzerException {
-        try (JsonParser parser = factory.createParser(new InputStreamReader(in))) {
+        try (JsonParser parser = factory.createParser(in)) {
             int currentDepth = 0;
             int currentFieldCount = 0;
             JsonToken token;
@@ -109,8 +109,7 @@ public class JSONAnalyzer implements APIMThreatAnalyzer {
                         break;
 
                     case VALUE_STRING:
-                        String value = parser.getText();
-                        analyzeString(value, maxStringLength);
+                        analyzeString(parser.getTextLength(), maxStringLength);
                         break;
 
                     case START_ARRAY:
@@ -163,15 +162,12 @@ public class JSONAnalyzer implements APIMThreatAnalyzer {
     /**
      * Analyzes json string values using defined limits
      *
-     * @param value      value of the string
+     * @param length     length of the string
      * @param maxLength  maximum string length allowed
      * @throws APIMThreatAnalyzerException if string length is greater than maximum length provided
      */
-    private void analyzeString(String value, int maxLength) throws APIMThreatAnalyzerException {
-        if (value == null) {
-            return;
-        }
-        if (value.length() > maxLength) {
+    private void analyzeString(int length, int maxLength) throws APIMThreatAnalyzerException {
+        if (length > maxLength) {
             throw new APIMThreatAnalyzerException("Max String Length [" + maxLength + "] Reached");
         }
     }
@@ -192,8 +188,7 @@ public class JSONAnalyzer implements APIMThreatAnalyzer {
             while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
                 //analyzing string values inside the array
                 if (token == JsonToken.VALUE_STRING) {
-                    String value = parser.getText();
-                    analyzeString(value, maxStringLength);
+                    analyzeString(parser.getTextLength(), maxStringLength);
                 }
                 arrayElementCount += 1;
                 if (arrayElementCount > maxArrayElementCount) {
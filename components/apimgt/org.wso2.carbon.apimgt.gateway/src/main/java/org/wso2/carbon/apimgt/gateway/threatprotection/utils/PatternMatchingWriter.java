@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.threatprotection.utils;
+
+import com.google.re2j.Matcher;
+import com.google.re2j.Pattern;
+
+import java.io.Writer;
+
+/**
+ * Writer which keeps the characters written to it in a single buffer and matches a pattern against them when it is
+ * closed, so that a payload can be serialized and matched without copying it into a string. The result is the same
+ * as matching the pattern against the payload as a string, and each character is scanned once.
+ * <p>
+ * The pattern is not matched while the payload is written: re2j cannot tell whether a match attempt is still in
+ * progress at the last written character, so a match attempt over the characters written so far cannot show that
+ * they contain no match, and the whole payload would have to be matched again on close.
+ */
+public class PatternMatchingWriter extends Writer {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Pattern pattern;
+    private final StringBuilder buffer = new StringBuilder(INITIAL_CAPACITY);
+    private boolean closed;
+    private String match;
+
+    /**
+     * @param pattern pattern to find
+     */
+    public PatternMatchingWriter(Pattern pattern) {
+
+        this.pattern = pattern;
+    }
+
+    @Override
+    public void write(char[] chars, int off, int len) {
+
+        buffer.append(chars, off, len);
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+
+        buffer.append(str, off, off + len);
+    }
+
+    @Override
+    public void write(int c) {
+
+        buffer.append((char) c);
+    }
+
+    @Override
+    public void flush() {
+        // The characters are matched on close
+    }
+
+    /**
+     * Matches the pattern against all the written characters, once.
+     */
+    @Override
+    public void close() {
+
+        if (!closed) {
+            closed = true;
+            Matcher matcher = pattern.matcher(buffer);
+            if (matcher.find()) {
+                match = matcher.group();
+            }
+        }
+    }
+
+    /**
+     * @return the text matching the pattern, or null if the pattern has not been found in the characters written
+     * before the writer was closed
+     */
+    public String getMatch() {
+
+        return match;
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.threatprotection.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Input stream over a request payload which keeps the bytes read from the payload in a buffer, so that the payload
+ * can be analyzed while it is read and then read again from the buffer without further copies.
+ * <p>
+ * Closing this stream does not close the payload stream, so that a parser closing its source does not discard the
+ * rest of the payload.
+ */
+public class PayloadBufferingInputStream extends InputStream {
+
+    private final InputStream in;
+    private final int readSize;
+    private byte[] buffer;
+    private int count;
+
+    /**
+     * @param in       payload stream
+     * @param readSize number of bytes to read from the payload stream at a time
+     */
+    public PayloadBufferingInputStream(InputStream in, int readSize) {
+
+        this.in = in;
+        this.readSize = Math.max(readSize, 1);
+        this.buffer = new byte[Math.max(this.readSize, 1024)];
+    }
+
+    @Override
+    public int read() throws IOException {
+
+        int b = in.read();
+        if (b != -1) {
+            ensureCapacity(1);
+            buffer[count++] = (byte) b;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+
+        int length = in.read(b, off, len);
+        if (length > 0) {
+            ensureCapacity(length);
+            System.arraycopy(b, off, buffer, count, length);
+            count += length;
+        }
+        return length;
+    }
+
+    @Override
+    public int available() throws IOException {
+
+        return in.available();
+    }
+
+    @Override
+    public void close() {
+        // The payload stream is read to the end by readRemaining
+    }
+
+    /**
+     * Reads the rest of the payload into the buffer.
+     *
+     * @throws IOException if the payload cannot be read
+     */
+    public void readRemaining() throws IOException {
+
+        int length;
+        do {
+            ensureCapacity(readSize);
+            length = in.read(buffer, count, buffer.length - count);
+            if (length > 0) {
+                count += length;
+            }
+        } while (length != -1);
+    }
+
+    /**
+     * @return number of bytes of the payload read so far
+     */
+    public int getSize() {
+
+        return count;
+    }
+
+    /**
+     * Returns a new stream over the bytes of the payload read so far, sharing the buffer of this stream.
+     *
+     * @return stream over the payload
+     */
+    public InputStream newInputStream() {
+
+        return new ByteArrayInputStream(buffer, 0, count);
+    }
+
+    private void ensureCapacity(int length) {
+
+        if (buffer.length - count < length) {
+            int capacity = Math.max(buffer.length << 1, count + length);
+            if (capacity < 0) {
+                throw new OutOfMemoryError("Request payload is too large to be buffered");
+            }
+            buffer = Arrays.copyOf(buffer, capacity);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.threatprotection.utils;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.apimgt.gateway.utils.SegmentedLRUCache;
+import org.xml.sax.SAXException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.xml.XMLConstants;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+
+/**
+ * Cache of the compiled XML schemas which request payloads are validated against, keyed by the URL of the XSD.
+ * <p>
+ * A compiled schema is thread safe and is shared by all the requests, while the validators of a schema are kept in a
+ * bounded pool and reused.
+ * <p>
+ * The first request using an XSD downloads and compiles it, while the other requests using it wait for that schema
+ * instead of downloading it as well. Once the refresh interval of a schema has passed, the XSD is downloaded again in
+ * the background while the requests keep using the compiled schema, and it is compiled again only if its content has
+ * changed. The XSD is downloaded with the given connect and read timeout, so a slow server does not hold the requests
+ * waiting for the schema indefinitely. Once {@link #MAX_SCHEMAS} schemas are cached, the least recently used schema
+ * is evicted.
+ */
+public class XMLSchemaCache {
+
+    private static final Log log = LogFactory.getLog(XMLSchemaCache.class);
+    static final int MAX_SCHEMAS = 1000;
+    private static final int MAX_POOLED_VALIDATORS = 64;
+
+    private final SegmentedLRUCache<String, CompletableFuture<CachedSchema>> schemas =
+            new SegmentedLRUCache<>(MAX_SCHEMAS);
+    private final long refreshInterval;
+    private final int downloadTimeout;
+    private final ExecutorService refresher;
+
+    /**
+     * @param refreshInterval time in milliseconds after which an XSD is downloaded again
+     * @param downloadTimeout connect and read timeout in milliseconds of the download of an XSD
+     */
+    public XMLSchemaCache(long refreshInterval, int downloadTimeout) {
+
+        this.refreshInterval = refreshInterval;
+        this.downloadTimeout = downloadTimeout;
+        this.refresher = new ThreadPoolExecutor(0, 1, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "XMLSchemaCacheRefresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Validates a payload against the schema of the given XSD.
+     *
+     * @param xsdURL URL of the XSD
+     * @param source payload to be validated
+     * @throws SAXException if the payload is not valid or the XSD cannot be compiled
+     * @throws IOException  if the payload or the XSD cannot be read
+     */
+    public void validate(String xsdURL, Source source) throws SAXException, IOException {
+
+        CachedSchema schema = getSchema(xsdURL);
+        Validator validator = schema.validators.poll();
+        if (validator == null) {
+            validator = schema.schema.newValidator();
+        }
+        try {
+            validator.validate(source);
+        } finally {
+            validator.reset();
+            schema.validators.offer(validator);
+        }
+    }
+
+    private CachedSchema getSchema(String xsdURL) throws SAXException, IOException {
+
+        CompletableFuture<CachedSchema> future = schemas.get(xsdURL);
+        if (future == null) {
+            CompletableFuture<CachedSchema> loading = new CompletableFuture<>();
+            future = schemas.putIfAbsent(xsdURL, loading);
+            if (future == null) {
+                future = loading;
+                try {
+                    loading.complete(load(xsdURL, null));
+                } catch (SAXException | IOException | RuntimeException e) {
+                    // The next request downloads the XSD again
+                    schemas.remove(xsdURL, loading);
+                    loading.completeExceptionally(e);
+                }
+            }
+        }
+        CachedSchema schema = await(xsdURL, future);
+        if (System.currentTimeMillis() >= schema.refreshTime && schema.refreshing.compareAndSet(false, true)) {
+            CompletableFuture<CachedSchema> current = future;
+            refresher.execute(() -> refresh(xsdURL, current, schema));
+        }
+        return schema;
+    }
+
+    private void refresh(String xsdURL, CompletableFuture<CachedSchema> current, CachedSchema schema) {
+
+        try {
+            // A schema removed from the cache meanwhile is not added back
+            schemas.replace(xsdURL, current, CompletableFuture.completedFuture(load(xsdURL, schema)));
+        } catch (SAXException | IOException | RuntimeException e) {
+            log.warn("Error while refreshing the XML schema " + xsdURL + ". The schema compiled earlier is used.", e);
+            schema.refreshTime = System.currentTimeMillis() + refreshInterval;
+            schema.refreshing.set(false);
+        }
+    }
+
+    private static CachedSchema await(String xsdURL, CompletableFuture<CachedSchema> future)
+            throws SAXException, IOException {
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the XML schema " + xsdURL, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SAXException) {
+                throw (SAXException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Error while loading the XML schema " + xsdURL, cause);
+        }
+    }
+
+    /**
+     * Downloads an XSD and compiles it, unless it has the same content as the given schema compiled earlier.
+     */
+    private CachedSchema load(String xsdURL, CachedSchema previous) throws SAXException, IOException {
+
+        byte[] xsd;
+        URLConnection connection = new URL(xsdURL).openConnection();
+        connection.setConnectTimeout(downloadTimeout);
+        connection.setReadTimeout(downloadTimeout);
+        try (InputStream in = connection.getInputStream()) {
+            xsd = IOUtils.toByteArray(in);
+        }
+        byte[] digest = digest(xsd);
+        long refreshTime = System.currentTimeMillis() + refreshInterval;
+        if (previous != null && Arrays.equals(previous.digest, digest)) {
+            return new CachedSchema(previous.schema, previous.validators, digest, refreshTime);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Compiling the XML schema " + xsdURL);
+        }
+        SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+        Schema schema = schemaFactory.newSchema(new StreamSource(new ByteArrayInputStream(xsd), xsdURL));
+        return new CachedSchema(schema, new ArrayBlockingQueue<>(MAX_POOLED_VALIDATORS), digest, refreshTime);
+    }
+
+    private static byte[] digest(byte[] content) {
+
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Compiled schema of an XSD with its pooled validators.
+     */
+    private static final class CachedSchema {
+
+        private final Schema schema;
+        private final BlockingQueue<Validator> validators;
+        private final byte[] digest;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile long refreshTime;
+
+        private CachedSchema(Schema schema, BlockingQueue<Validator> validators, byte[] digest, long refreshTime) {
+
+            this.schema = schema;
+            this.validators = validators;
+            this.digest = digest;
+            this.refreshTime = refreshTime;
+        }
+    }
+}
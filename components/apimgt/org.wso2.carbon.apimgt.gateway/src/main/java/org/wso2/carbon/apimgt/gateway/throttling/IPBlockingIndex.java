@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.throttling;
+
+import org.wso2.carbon.apimgt.gateway.dto.IPRange;
+import org.wso2.carbon.apimgt.impl.APIConstants;
+import org.wso2.carbon.apimgt.impl.utils.APIUtil;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable index over the IP blocking conditions of a tenant.
+ * <p>
+ * Addresses are handled as unsigned 128 bit numbers split into two longs, where IPv4 addresses occupy the low 32
+ * bits, the same number space {@link APIUtil#ipToBigInteger(String)} uses. Non inverted IP ranges are merged into
+ * disjoint, sorted intervals and looked up with a binary search. Inverted conditions block any address outside of
+ * them, so they are reduced to the intersection of all inverted ranges and the set of inverted fixed IPs. The
+ * client IP is parsed once per lookup without going through {@link java.net.InetAddress}.
+ */
+public final class IPBlockingIndex {
+
+    private static final long IPV4_MAPPED_PREFIX = 0xFFFFL;
+    private static final long IPV4_MASK = 0xFFFFFFFFL;
+
+    private final Set<String> blockedFixedIps;
+    private final boolean blockAllFixedIps;
+    private final boolean hasInvertedFixedIp;
+    private final String invertedFixedIp;
+    private final long[] rangeStarts;
+    private final long[] rangeEnds;
+    private final int rangeCount;
+    private final boolean hasInvertedRange;
+    private final long invertedStartHigh;
+    private final long invertedStartLow;
+    private final long invertedEndHigh;
+    private final long invertedEndLow;
+
+    private IPBlockingIndex(Builder builder) {
+
+        this.blockedFixedIps = builder.blockedFixedIps;
+        this.blockAllFixedIps = builder.invertedFixedIps.size() > 1;
+        this.hasInvertedFixedIp = !builder.invertedFixedIps.isEmpty();
+        this.invertedFixedIp = hasInvertedFixedIp ? builder.invertedFixedIps.iterator().next() : null;
+        this.hasInvertedRange = builder.hasInvertedRange;
+        this.invertedStartHigh = builder.invertedStartHigh;
+        this.invertedStartLow = builder.invertedStartLow;
+        this.invertedEndHigh = builder.invertedEndHigh;
+        this.invertedEndLow = builder.invertedEndLow;
+        List<long[]> merged = builder.mergeRanges();
+        this.rangeCount = merged.size();
+        this.rangeStarts = new long[rangeCount * 2];
+        this.rangeEnds = new long[rangeCount * 2];
+        for (int i = 0; i < rangeCount; i++) {
+            long[] range = merged.get(i);
+            rangeStarts[2 * i] = range[0];
+            rangeStarts[2 * i + 1] = range[1];
+            rangeEnds[2 * i] = range[2];
+            rangeEnds[2 * i + 1] = range[3];
+        }
+    }
+
+    /**
+     * Builds the index of the given IP blocking conditions.
+     *
+     * @param ipRanges IP blocking conditions of a tenant
+     * @return index of the conditions
+     */
+    public static IPBlockingIndex build(Collection<IPRange> ipRanges) {
+
+        Builder builder = new Builder();
+        for (IPRange ipRange : ipRanges) {
+            builder.add(ipRange);
+        }
+        return new IPBlockingIndex(builder);
+    }
+
+    public boolean isEmpty() {
+
+        return blockedFixedIps.isEmpty() && !hasInvertedFixedIp && rangeCount == 0 && !hasInvertedRange;
+    }
+
+    /**
+     * Checks whether the given client IP is blocked by any of the indexed conditions.
+     *
+     * @param ip client IP
+     * @return true if the IP is blocked
+     */
+    public boolean isBlocked(String ip) {
+
+        if (blockedFixedIps.contains(ip)) {
+            return true;
+        }
+        if (hasInvertedFixedIp && (blockAllFixedIps || !ip.equals(invertedFixedIp))) {
+            return true;
+        }
+        if (rangeCount == 0 && !hasInvertedRange) {
+            return false;
+        }
+        long high;
+        long low;
+        long ipv4 = APIUtil.parseIPv4(ip);
+        if (ipv4 >= 0) {
+            high = 0;
+            low = ipv4;
+        } else {
+            long[] address = parseIPv6(ip);
+            if (address == null) {
+                BigInteger value = APIUtil.ipToBigInteger(ip);
+                address = new long[]{value.shiftRight(64).longValue(), value.longValue()};
+            }
+            high = address[0];
+            low = address[1];
+        }
+        if (hasInvertedRange && !(compare(invertedStartHigh, invertedStartLow, high, low) < 0
+                && compare(high, low, invertedEndHigh, invertedEndLow) < 0)) {
+            return true;
+        }
+        return isInBlockedRange(high, low);
+    }
+
+    private boolean isInBlockedRange(long high, long low) {
+
+        // Find the last range starting before the address. Ranges are disjoint, so it is the only candidate.
+        int lowIndex = 0;
+        int highIndex = rangeCount - 1;
+        int candidate = -1;
+        while (lowIndex <= highIndex) {
+            int mid = (lowIndex + highIndex) >>> 1;
+            if (compare(rangeStarts[2 * mid], rangeStarts[2 * mid + 1], high, low) < 0) {
+                candidate = mid;
+                lowIndex = mid + 1;
+            } else {
+                highIndex = mid - 1;
+            }
+        }
+        return candidate >= 0 && compare(high, low, rangeEnds[2 * candidate], rangeEnds[2 * candidate + 1]) < 0;
+    }
+
+    private static int compare(long high1, long low1, long high2, long low2) {
+
+        int result = Long.compareUnsigned(high1, high2);
+        return result != 0 ? result : Long.compareUnsigned(low1, low2);
+    }
+
+    /**
+     * Parses a textual IPv6 address, including compressed and IPv4 suffixed forms. IPv4 mapped addresses are
+     * converted to their IPv4 value, as {@link java.net.InetAddress} does.
+     *
+     * @param ip IP address
+     * @return high and low 64 bits of the address, or null if it can not be parsed here
+     */
+    static long[] parseIPv6(String ip) {
+
+        int length = ip.length();
+        int start = 0;
+        int end = length;
+        if (length > 2 && ip.charAt(0) == '[' && ip.charAt(length - 1) == ']') {
+            start = 1;
+            end = length - 1;
+        }
+        if (end - start < 2 || ip.indexOf(':', start) < 0) {
+            return null;
+        }
+        int[] groups = new int[8];
+        int groupCount = 0;
+        int compressAt = -1;
+        int i = start;
+        if (ip.charAt(i) == ':') {
+            if (ip.charAt(i + 1) != ':') {
+                return null;
+            }
+            compressAt = 0;
+            i += 2;
+        }
+        while (i < end) {
+            if (groupCount == 8) {
+                return null;
+            }
+            int groupStart = i;
+            int group = 0;
+            while (i < end && Character.digit(ip.charAt(i), 16) >= 0 && i - groupStart < 4) {
+                group = (group << 4) | Character.digit(ip.charAt(i), 16);
+                i++;
+            }
+            if (i < end && ip.charAt(i) == '.') {
+                // Trailing dotted decimal IPv4 part
+                long ipv4 = APIUtil.parseIPv4(ip.substring(groupStart, end));
+                if (ipv4 < 0 || groupCount > 6) {
+                    return null;
+                }
+                groups[groupCount++] = (int) (ipv4 >>> 16);
+                groups[groupCount++] = (int) (ipv4 & 0xFFFF);
+                i = end;
+                break;
+            }
+            if (i == groupStart) {
+                return null;
+            }
+            groups[groupCount++] = group;
+            if (i == end) {
+                break;
+            }
+            if (ip.charAt(i) != ':') {
+                return null;
+            }
+            i++;
+            if (i < end && ip.charAt(i) == ':') {
+                if (compressAt >= 0) {
+                    return null;
+                }
+                compressAt = groupCount;
+                i++;
+            } else if (i == end) {
+                return null;
+            }
+        }
+        if (compressAt < 0 && groupCount != 8 || compressAt >= 0 && groupCount > 7) {
+            return null;
+        }
+        int[] expanded = new int[8];
+        if (compressAt >= 0) {
+            int tail = groupCount - compressAt;
+            System.arraycopy(groups, 0, expanded, 0, compressAt);
+            System.arraycopy(groups, compressAt, expanded, 8 - tail, tail);
+        } else {
+            expanded = groups;
+        }
+        long high = 0;
+        long low = 0;
+        for (int g = 0; g < 4; g++) {
+            high = (high << 16) | expanded[g];
+            low = (low << 16) | expanded[g + 4];
+        }
+        if (high == 0 && (low >>> 32) == IPV4_MAPPED_PREFIX) {
+            low &= IPV4_MASK;
+        }
+        return new long[]{high, low};
+    }
+
+    /**
+     * Collects the conditions while building an index.
+     */
+    private static final class Builder {
+
+        private final Set<String> blockedFixedIps = new HashSet<>();
+        private final Set<String> invertedFixedIps = new HashSet<>();
+        private final List<long[]> ranges = new ArrayList<>();
+        private boolean hasInvertedRange;
+        private long invertedStartHigh;
+        private long invertedStartLow;
+        private long invertedEndHigh = -1L;
+        private long invertedEndLow = -1L;
+
+        private void add(IPRange ipRange) {
+
+            if (APIConstants.BLOCKING_CONDITIONS_IP.equals(ipRange.getType())) {
+                if (ipRange.isInvert()) {
+                    invertedFixedIps.add(ipRange.getFixedIp());
+                } else if (ipRange.getFixedIp() != null) {
+                    blockedFixedIps.add(ipRange.getFixedIp());
+                }
+            } else if (APIConstants.BLOCK_CONDITION_IP_RANGE.equals(ipRange.getType())
+                    && ipRange.getStartingIpBigIntValue() != null && ipRange.getEndingIpBigIntValue() != null) {
+                BigInteger start = ipRange.getStartingIpBigIntValue();
+                BigInteger end = ipRange.getEndingIpBigIntValue();
+                long startHigh = start.shiftRight(64).longValue();
+                long startLow = start.longValue();
+                long endHigh = end.shiftRight(64).longValue();
+                long endLow = end.longValue();
+                if (ipRange.isInvert()) {
+                    // Addresses outside of any inverted range are blocked, keep the intersection of them.
+                    if (!hasInvertedRange || compare(startHigh, startLow, invertedStartHigh, invertedStartLow) > 0) {
+                        invertedStartHigh = startHigh;
+                        invertedStartLow = startLow;
+                    }
+                    if (!hasInvertedRange || compare(endHigh, endLow, invertedEndHigh, invertedEndLow) < 0) {
+                        invertedEndHigh = endHigh;
+                        invertedEndLow = endLow;
+                    }
+                    hasInvertedRange = true;
+                } else if (compare(startHigh, startLow, endHigh, endLow) < 0) {
+                    ranges.add(new long[]{startHigh, startLow, endHigh, endLow});
+                }
+            }
+        }
+
+        /**
+         * Merges the exclusive ranges into disjoint ranges sorted by their start.
+         */
+        private List<long[]> mergeRanges() {
+
+            ranges.sort((range1, range2) -> compare(range1[0], range1[1], range2[0], range2[1]));
+            List<long[]> merged = new ArrayList<>();
+            long[] current = null;
+            for (long[] range : ranges) {
+                // Bounds are exclusive, so ranges only overlap when one starts strictly before the other ends.
+                if (current != null && compare(range[0], range[1], current[2], current[3]) < 0) {
+                    if (compare(range[2], range[3], current[2], current[3]) > 0) {
+                        current[2] = range[2];
+                        current[3] = range[3];
+                    }
+                } else {
+                    current = range.clone();
+                    merged.add(current);
+                }
+            }
+            return merged;
+        }
+    }
+}
@@ -29,7 +29,6 @@ import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.dto.ConditionDto;
 import org.wso2.carbon.apimgt.impl.utils.APIUtil;
 
-import java.math.BigInteger;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -50,19 +49,20 @@ public class ThrottleDataHolder {
     private Map<String, String> blockedApplicationConditionsMap = new ConcurrentHashMap<String, String>();
     private Map<String, String> blockedUserConditionsMap = new ConcurrentHashMap<String, String>();
     private Map<String, Set<IPRange>> blockedIpConditionsMap = new ConcurrentHashMap<>();
+    private Map<String, IPBlockingIndex> ipBlockingIndexMap = new ConcurrentHashMap<>();
     private Map<String, String> keyTemplateMap = new ConcurrentHashMap<String, String>();
     private boolean isBlockingConditionsPresent = true;
     private boolean isKeyTemplatesPresent = false;
-    private Map<String, Long> throttleDataMap = new ConcurrentHashMap<String, Long>();
+    private ThrottleDecisionStore throttleDecisionStore = new ThrottleDecisionStore();
     private Map<String,Long> throttledAPIKeysMap = new ConcurrentHashMap<String, Long>();
     private Map<String, Map<String, List<ConditionDto>>> conditionDtoMap = new ConcurrentHashMap<>();
     public void addThrottleData(String key, Long value) {
-        throttleDataMap.put(key, value);
+        throttleDecisionStore.put(key, value);
     }
     private Map<String, String> blockedSubscriptionConditionsMap = new ConcurrentHashMap<String, String>();
 
     public void addThrottleDataFromMap(Map<String, Long> data) {
-        throttleDataMap.putAll(data);
+        throttleDecisionStore.putAll(data);
     }
 
     public void addThrottledAPIKey(String key, Long value){
@@ -137,7 +137,7 @@ public class ThrottleDataHolder {
     }
 
     public void removeThrottleData(String key) {
-        throttleDataMap.remove(key);
+        throttleDecisionStore.remove(key);
     }
 
     public void addAPIBlockingCondition(String name, String value) {
@@ -153,7 +153,8 @@ public class ThrottleDataHolder {
         blockedUserConditionsMap.put(name, value);
     }
 
-    public void addIpBlockingCondition(String tenantDomain, int conditionId, String value, String type) {
+    public synchronized void addIpBlockingCondition(String tenantDomain, int conditionId, String value,
+                                                    String type) {
 
         Set<IPRange> ipRanges = blockedIpConditionsMap.get(tenantDomain);
         if (ipRanges == null){
@@ -162,6 +163,17 @@ public class ThrottleDataHolder {
 
         ipRanges.add(convertValueToIPRange(tenantDomain, conditionId, value, type));
         blockedIpConditionsMap.put(tenantDomain, ipRanges);
+        rebuildIpBlockingIndex(tenantDomain);
+    }
+
+    private void rebuildIpBlockingIndex(String tenantDomain) {
+
+        Set<IPRange> ipRanges = blockedIpConditionsMap.get(tenantDomain);
+        if (ipRanges == null || ipRanges.isEmpty()) {
+            ipBlockingIndexMap.remove(tenantDomain);
+        } else {
+            ipBlockingIndexMap.put(tenantDomain, IPBlockingIndex.build(ipRanges));
+        }
     }
 
     private IPRange convertValueToIPRange(String tenantDomain, int conditionId, String value, String type) {
@@ -200,9 +212,12 @@ public class ThrottleDataHolder {
         }
     }
 
-    public void addIplockingConditionsFromMap(Map<String, Set<IPRange>> data) {
+    public synchronized void addIplockingConditionsFromMap(Map<String, Set<IPRange>> data) {
         if(data.size() > 0) {
             blockedIpConditionsMap.putAll(data);
+            for (String tenantDomain : data.keySet()) {
+                rebuildIpBlockingIndex(tenantDomain);
+            }
         }
     }
 
@@ -231,7 +246,7 @@ public class ThrottleDataHolder {
         blockedUserConditionsMap.remove(name);
     }
 
-    public void removeIpBlockingCondition(String tenantDomain, int conditionId) {
+    public synchronized void removeIpBlockingCondition(String tenantDomain, int conditionId) {
 
         Set<IPRange> ipRanges = blockedIpConditionsMap.get(tenantDomain);
         if (ipRanges != null) {
@@ -243,6 +258,7 @@ public class ThrottleDataHolder {
                     break;
                 }
             }
+            rebuildIpBlockingIndex(tenantDomain);
         }
     }
 
@@ -282,38 +298,14 @@ public class ThrottleDataHolder {
 
     private boolean isIpLevelBlocked(String apiTenantDomain, String ip) {
 
-        Set<IPRange> ipRanges = blockedIpConditionsMap.get(apiTenantDomain);
-        if (ipRanges != null && ipRanges.size() > 0) {
-            log.debug("Tenant " + apiTenantDomain + " contains block conditions");
-            for (IPRange ipRange : ipRanges) {
-                if (APIConstants.BLOCKING_CONDITIONS_IP.equals(ipRange.getType())) {
-                    if (ip.equals(ipRange.getFixedIp())) {
-                        if (!ipRange.isInvert()) {
-                            log.debug("Block IP selected for Blocked");
-                            return true;
-                        }
-                    } else {
-                        if (ipRange.isInvert()) {
-                            log.debug("Block IP selected for Blocked");
-                            return true;
-                        }
-                    }
-                } else if (APIConstants.BLOCK_CONDITION_IP_RANGE.equals(ipRange.getType())) {
-                    BigInteger ipBigIntegerValue = APIUtil.ipToBigInteger(ip);
-
-                    if (((ipBigIntegerValue.compareTo(ipRange.getStartingIpBigIntValue()) > 0) &&
-                            (ipBigIntegerValue.compareTo(ipRange.getEndingIpBigIntValue()) < 0))) {
-                        if (!ipRange.isInvert()) {
-                            log.debug("Block IPRange selected for Blocked");
-                            return true;
-                        }
-                    } else {
-                        if (ipRange.isInvert()) {
-                            log.debug("Block IPRange selected for Blocked");
-                            return true;
-                        }
-                    }
-                }
+        IPBlockingIndex ipBlockingIndex = ipBlockingIndexMap.get(apiTenantDomain);
+        if (ipBlockingIndex != null && !ipBlockingIndex.isEmpty()) {
+            if (log.isDebugEnabled()) {
+                log.debug("Tenant " + apiTenantDomain + " contains block conditions");
+            }
+            if (ipBlockingIndex.isBlocked(ip)) {
+                log.debug("Block IP selected for Blocked");
+                return true;
             }
         }
         return false;
@@ -329,29 +321,21 @@ public class ThrottleDataHolder {
      * false if key is not there in throttle map(that means its not throttled).
      */
     public boolean isThrottled(String key) {
-        boolean isThrottled = this.throttleDataMap.containsKey(key);
-        if(isThrottled) {
-            long currentTime = System.currentTimeMillis();
-            long timestamp = this.throttleDataMap.get(key);
-            if(timestamp >= currentTime) {
-                return isThrottled;
-            } else {
-                this.throttleDataMap.remove(key);
-                return false;
-            }
-        } else {
-            return isThrottled;
-        }
+        return throttleDecisionStore.isThrottled(key);
     }
 
     /**
      * This method used to get the next access timestamp of a given key
      *
      * @param key String unique key of throttle event.
-     * @return throttle next access timestamp
+     * @return throttle next access timestamp, or 0 if the key is not throttled
      */
     public long getThrottleNextAccessTimestamp(String key) {
-        return this.throttleDataMap.get(key);
+        return throttleDecisionStore.getNextAccessTimestamp(key);
+    }
+
+    public ThrottleDecisionStore getThrottleDecisionStore() {
+        return throttleDecisionStore;
     }
 
     public boolean isBlockingConditionsPresent() {
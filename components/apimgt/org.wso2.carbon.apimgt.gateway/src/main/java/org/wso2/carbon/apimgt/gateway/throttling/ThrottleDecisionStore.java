@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.throttling;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Holds the throttle decisions received from the traffic manager, keyed by throttle key, along with the timestamp
+ * until which each key is throttled.
+ * <p>
+ * A lookup is a single map access on an unboxed timestamp. In addition to removing expired decisions lazily when
+ * they are looked up, decisions are scheduled on a hashed timing wheel when they are added, and once
+ * {@link #start()} is called the wheel is advanced every tick by a background thread, so expired keys are evicted
+ * even if the key is never added or looked up again. Each slot of the wheel is guarded by its own lock, so a
+ * decision added while its slot is being expired is either expired with the slot or kept for the next round of the
+ * wheel.
+ * <p>
+ * The wheel has a single level. A decision which expires more than one revolution of the wheel ahead is kept in its
+ * slot and skipped on every revolution until it expires, instead of cascading down from a coarser wheel. Throttle
+ * decisions rarely outlive a revolution of the default wheel, which covers {@value #DEFAULT_WHEEL_SIZE} seconds.
+ */
+public class ThrottleDecisionStore implements ThrottleDecisionStoreMBean {
+
+    private static final Log log = LogFactory.getLog(ThrottleDecisionStore.class);
+    public static final String MBEAN_NAME = "org.wso2.carbon.apimgt:type=ThrottleDecisionStore";
+    private static final long DEFAULT_TICK_DURATION = 1000L;
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final Map<String, Decision> decisions = new ConcurrentHashMap<>();
+    private final List<Queue<Decision>> wheel;
+    private final int wheelMask;
+    private final long tickDuration;
+    private final AtomicBoolean advancing = new AtomicBoolean(false);
+    private volatile long lastExpiredTick;
+    private ScheduledExecutorService ticker;
+    private final LongAdder lookupCount = new LongAdder();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public ThrottleDecisionStore() {
+
+        this(DEFAULT_TICK_DURATION, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * @param tickDuration duration of a timing wheel slot in milliseconds
+     * @param wheelSize    number of timing wheel slots, rounded up to a power of two
+     */
+    ThrottleDecisionStore(long tickDuration, int wheelSize) {
+
+        int size = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+        this.wheel = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            wheel.add(new ArrayDeque<>());
+        }
+        this.wheelMask = size - 1;
+        this.tickDuration = tickDuration;
+        this.lastExpiredTick = System.currentTimeMillis() / tickDuration - 1;
+    }
+
+    /**
+     * Adds or replaces the throttle decision of a key.
+     *
+     * @param key                 throttle key
+     * @param nextAccessTimestamp timestamp until which the key is throttled
+     */
+    public void put(String key, long nextAccessTimestamp) {
+
+        Decision decision = new Decision(key, nextAccessTimestamp);
+        decisions.put(key, decision);
+        schedule(decision);
+    }
+
+    public void putAll(Map<String, Long> data) {
+
+        for (Map.Entry<String, Long> entry : data.entrySet()) {
+            if (entry.getValue() != null) {
+                put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    public void remove(String key) {
+
+        decisions.remove(key);
+    }
+
+    /**
+     * Checks whether the given key is throttled at the moment.
+     *
+     * @param key throttle key
+     * @return true if there is a throttle decision for the key which has not expired yet
+     */
+    public boolean isThrottled(String key) {
+
+        lookupCount.increment();
+        Decision decision = decisions.get(key);
+        if (decision == null) {
+            return false;
+        }
+        long currentTime = System.currentTimeMillis();
+        if (decision.nextAccessTimestamp >= currentTime) {
+            hitCount.increment();
+            return true;
+        }
+        if (decisions.remove(key, decision)) {
+            evictionCount.increment();
+        }
+        return false;
+    }
+
+    /**
+     * Returns the timestamp until which the given key is throttled.
+     *
+     * @param key throttle key
+     * @return next access timestamp of the key, or 0 if there is no throttle decision for the key
+     */
+    public long getNextAccessTimestamp(String key) {
+
+        Decision decision = decisions.get(key);
+        return decision != null ? decision.nextAccessTimestamp : 0L;
+    }
+
+    /**
+     * Starts evicting the expired throttle decisions on every tick of the timing wheel.
+     */
+    public synchronized void start() {
+
+        if (ticker == null) {
+            ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ThrottleDecisionStoreTicker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleAtFixedRate(this::tick, tickDuration, tickDuration, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops evicting the expired throttle decisions in the background, after waiting for a running tick to complete.
+     */
+    public synchronized void stop() {
+
+        if (ticker != null) {
+            ticker.shutdown();
+            try {
+                if (!ticker.awaitTermination(10, TimeUnit.SECONDS)) {
+                    log.warn("Timed out while waiting for the throttle decision store ticker to stop");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ticker = null;
+        }
+    }
+
+    private void tick() {
+
+        try {
+            expire(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.error("Error while evicting expired throttle decisions", e);
+        }
+    }
+
+    /**
+     * Evicts the throttle decisions which expired in the timing wheel slots elapsed before the given time.
+     *
+     * @param currentTime current time in milliseconds
+     */
+    void expire(long currentTime) {
+
+        long currentTick = currentTime / tickDuration;
+        // Only fully elapsed ticks are processed, so that every decision in a processed slot has expired.
+        long lastElapsedTick = currentTick - 1;
+        if (lastElapsedTick <= lastExpiredTick || !advancing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long fromTick = lastExpiredTick + 1;
+            if (lastElapsedTick - fromTick > wheelMask) {
+                fromTick = lastElapsedTick - wheelMask;
+            }
+            for (long tick = fromTick; tick <= lastElapsedTick; tick++) {
+                expireSlot((int) (tick & wheelMask), lastElapsedTick, currentTime);
+            }
+            lastExpiredTick = lastElapsedTick;
+        } finally {
+            advancing.set(false);
+        }
+    }
+
+    private void expireSlot(int slot, long lastElapsedTick, long currentTime) {
+
+        Queue<Decision> expiring = wheel.get(slot);
+        synchronized (expiring) {
+            Iterator<Decision> iterator = expiring.iterator();
+            while (iterator.hasNext()) {
+                Decision decision = iterator.next();
+                if (decisions.get(decision.key) != decision) {
+                    // Removed or replaced by a newer decision which has its own slot.
+                    iterator.remove();
+                } else if (decision.nextAccessTimestamp / tickDuration <= lastElapsedTick
+                        && decision.nextAccessTimestamp < currentTime) {
+                    iterator.remove();
+                    if (decisions.remove(decision.key, decision)) {
+                        evictionCount.increment();
+                    }
+                }
+                // Otherwise the decision is kept for a later round of the wheel.
+            }
+        }
+    }
+
+    private void schedule(Decision decision) {
+
+        long tick = Math.max(decision.nextAccessTimestamp / tickDuration, lastExpiredTick + 1);
+        Queue<Decision> slot = wheel.get((int) (tick & wheelMask));
+        synchronized (slot) {
+            slot.add(decision);
+        }
+    }
+
+    /**
+     * Registers this store in the platform MBean server.
+     */
+    public void registerMBean() {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(MBEAN_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(this, objectName);
+        } catch (JMException e) {
+            log.warn("Error while registering throttle decision store MBean", e);
+        }
+    }
+
+    @Override
+    public int getSize() {
+
+        return decisions.size();
+    }
+
+    @Override
+    public long getEvictionCount() {
+
+        return evictionCount.sum();
+    }
+
+    @Override
+    public long getLookupCount() {
+
+        return lookupCount.sum();
+    }
+
+    @Override
+    public long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    @Override
+    public double getHitRate() {
+
+        long lookups = lookupCount.sum();
+        return lookups == 0 ? 0 : (double) hitCount.sum() / lookups;
+    }
+
+    /**
+     * Throttle decision of a single key.
+     */
+    private static final class Decision {
+
+        private final String key;
+        private final long nextAccessTimestamp;
+
+        private Decision(String key, long nextAccessTimestamp) {
+
+            this.key = key;
+            this.nextAccessTimestamp = nextAccessTimestamp;
+        }
+    }
+}
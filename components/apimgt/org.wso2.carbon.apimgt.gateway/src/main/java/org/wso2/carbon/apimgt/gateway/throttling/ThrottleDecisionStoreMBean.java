@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.throttling;
+
+/**
+ * JMX view of the throttle decision store of the gateway.
+ */
+public interface ThrottleDecisionStoreMBean {
+
+    /**
+     * @return number of throttle decisions currently held
+     */
+    int getSize();
+
+    /**
+     * @return number of expired throttle decisions removed so far
+     */
+    long getEvictionCount();
+
+    /**
+     * @return number of throttle decision lookups
+     */
+    long getLookupCount();
+
+    /**
+     * @return number of lookups which found an active throttle decision
+     */
+    long getHitCount();
+
+    /**
+     * @return ratio of lookups which found an active throttle decision
+     */
+    double getHitRate();
+}
@@ -12,6 +12,7 @@ import org.apache.synapse.rest.RESTConstants;
 import org.apache.synapse.transport.passthru.util.RelayUtils;
 import org.json.simple.JSONObject;
 import org.wso2.carbon.apimgt.common.gateway.util.JWTUtil;
+import org.wso2.carbon.apimgt.common.gateway.util.ThrottleEventPropertiesCodec;
 import org.wso2.carbon.apimgt.gateway.handlers.security.AuthenticationContext;
 import org.wso2.carbon.apimgt.gateway.handlers.throttling.APIThrottleConstants;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
@@ -32,6 +33,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import javax.xml.stream.XMLStreamException;
 
 /**
@@ -192,7 +194,18 @@ public class DataProcessAndPublishingAgent implements Runnable {
     }
 
     public void run() {
-        JSONObject jsonObMap = new JSONObject();
+        // The properties are written straight from their source maps into the binary encoder, and only copied into
+        // a JSON object when they are published as JSON.
+        ThrottleEventPropertiesCodec.Encoder encoder = null;
+        JSONObject jsonObMap = null;
+        BiConsumer<String, Object> property;
+        if (getThrottleProperties().isEnableBinaryPropertiesEncoding()) {
+            encoder = new ThrottleEventPropertiesCodec.Encoder();
+            property = encoder::put;
+        } else {
+            jsonObMap = new JSONObject();
+            property = jsonObMap::put;
+        }
         org.apache.axis2.context.MessageContext axis2MessageContext = ((Axis2MessageContext) messageContext)
                 .getAxis2MessageContext();
 
@@ -201,39 +214,46 @@ public class DataProcessAndPublishingAgent implements Runnable {
                 log.warn("Client port will be ignored and only the IP address (IPV4) will concern from " + ipAddress);
                 ipAddress = ipAddress.split(":")[0];
             }
-            try {
-                InetAddress address = APIUtil.getAddress(ipAddress);
-                if (address instanceof Inet4Address) {
-                    jsonObMap.put(APIThrottleConstants.IP, APIUtil.ipToLong(ipAddress));
-                    jsonObMap.put(APIThrottleConstants.IPv6, 0);
-                } else if (address instanceof Inet6Address) {
-                    jsonObMap.put(APIThrottleConstants.IPv6, APIUtil.ipToBigInteger(ipAddress));
-                    jsonObMap.put(APIThrottleConstants.IP, 0);
+            // Plain dotted decimal IPv4 addresses are parsed directly, without going through InetAddress
+            long ipv4 = APIUtil.parseIPv4(ipAddress);
+            if (ipv4 >= 0) {
+                property.accept(APIThrottleConstants.IP, ipv4);
+                property.accept(APIThrottleConstants.IPv6, 0);
+            } else {
+                try {
+                    InetAddress address = APIUtil.getAddress(ipAddress);
+                    if (address instanceof Inet4Address) {
+                        property.accept(APIThrottleConstants.IP, APIUtil.ipToLong(ipAddress));
+                        property.accept(APIThrottleConstants.IPv6, 0);
+                    } else if (address instanceof Inet6Address) {
+                        property.accept(APIThrottleConstants.IPv6, APIUtil.ipToBigInteger(ipAddress));
+                        property.accept(APIThrottleConstants.IP, 0);
+                    }
+                } catch (UnknownHostException e) {
+                    //send empty value as ip
+                    log.error("Error while parsing host IP " + ipAddress, e);
+                    property.accept(APIThrottleConstants.IPv6, 0);
+                    property.accept(APIThrottleConstants.IP, 0);
                 }
-            } catch (UnknownHostException e) {
-                //send empty value as ip
-                log.error("Error while parsing host IP " + ipAddress, e);
-                jsonObMap.put(APIThrottleConstants.IPv6, 0);
-                jsonObMap.put(APIThrottleConstants.IP, 0);
             }
         }
 
         //HeaderMap will only be set if the Header Publishing has been enabled.
         if (getThrottleProperties().isEnableHeaderConditions()) {
             if (this.headersMap != null) {
-                jsonObMap.putAll(this.headersMap);
+                this.headersMap.forEach(property);
             }
         }
         //adding any custom property if available to stream's property map
         if (this.customPropertyMap != null) {
-            jsonObMap.putAll(this.customPropertyMap);
+            this.customPropertyMap.forEach(property);
         }
 
         //Setting query parameters
         if (getThrottleProperties().isEnableQueryParamConditions()) {
             Map<String, String> queryParams = GatewayUtils.getQueryParams(axis2MessageContext);
             if (queryParams != null) {
-                jsonObMap.putAll(queryParams);
+                queryParams.forEach(property);
             }
 
         }
@@ -243,7 +263,7 @@ public class DataProcessAndPublishingAgent implements Runnable {
             if (authenticationContext.getCallerToken() != null) {
                 Map<String, String> assertions = JWTUtil.getJWTClaims(authenticationContext.getCallerToken());
                 if (assertions != null) {
-                    jsonObMap.putAll(assertions);
+                    assertions.forEach(property);
                 }
             }
         }
@@ -261,26 +281,27 @@ public class DataProcessAndPublishingAgent implements Runnable {
             if (log.isDebugEnabled()) {
                 log.debug("Message size: " + messageSizeInBytes + "B");
             }
-            jsonObMap.put(APIThrottleConstants.MESSAGE_SIZE, messageSizeInBytes);
+            property.accept(APIThrottleConstants.MESSAGE_SIZE, messageSizeInBytes);
             if (!StringUtils.isEmpty(authenticationContext.getApplicationName())) {
-                jsonObMap.put(APIThrottleConstants.APPLICATION_NAME, authenticationContext.getApplicationName());
+                property.accept(APIThrottleConstants.APPLICATION_NAME, authenticationContext.getApplicationName());
             }
             if (!StringUtils.isEmpty(authenticationContext.getProductName()) && !StringUtils
                     .isEmpty(authenticationContext.getProductProvider())) {
-                jsonObMap.put(APIThrottleConstants.SUBSCRIPTION_TYPE, APIConstants.API_PRODUCT_SUBSCRIPTION_TYPE);
+                property.accept(APIThrottleConstants.SUBSCRIPTION_TYPE, APIConstants.API_PRODUCT_SUBSCRIPTION_TYPE);
             } else {
-                jsonObMap.put(APIThrottleConstants.SUBSCRIPTION_TYPE, APIConstants.API_SUBSCRIPTION_TYPE);
+                property.accept(APIThrottleConstants.SUBSCRIPTION_TYPE, APIConstants.API_SUBSCRIPTION_TYPE);
             }
 
         }
 
+        String properties = encoder != null ? encoder.encode() : jsonObMap.toString();
         Object[] objects = new Object[]{messageContext.getMessageID(),
                                         this.applicationLevelThrottleKey, this.applicationLevelTier,
                                         this.apiLevelThrottleKey, this.apiLevelTier,
                                         this.subscriptionLevelThrottleKey, this.subscriptionLevelTier,
                                         this.resourceLevelThrottleKey, this.resourceLevelTier,
                                         this.authorizedUser, this.apiContext, this.apiVersion,
-                                        this.appTenant, this.apiTenant, this.appId, this.apiName, jsonObMap.toString()};
+                                        this.appTenant, this.apiTenant, this.appId, this.apiName, properties};
         org.wso2.carbon.databridge.commons.Event event = new org.wso2.carbon.databridge.commons.Event(streamID,
                                                                                                       System.currentTimeMillis(), null, null, objects);
         dataPublisher.tryPublish(event);
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.gateway.throttling.publisher;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates the throttle events of the frames of streaming APIs, so that one event is published to the traffic
+ * manager per throttle key combination per window, with the number of frames and their total size, instead of one
+ * event per frame.
+ * <p>
+ * Frames are merged into the aggregate of their key under the lock of the map bin holding the key, so frames of
+ * different keys do not contend, and an aggregate is removed from the map as it is published, so no frame is lost or
+ * published twice. The traffic manager sees the frames of a window when the window is published, so a throttle
+ * decision can lag by up to one window.
+ */
+public class FrameThrottleEventAggregator {
+
+    private static final Log log = LogFactory.getLog(FrameThrottleEventAggregator.class);
+
+    private final EventPublisher eventPublisher;
+    private final Map<Key, Aggregate> aggregates = new ConcurrentHashMap<>();
+    private ScheduledExecutorService executor;
+
+    public FrameThrottleEventAggregator(EventPublisher eventPublisher) {
+
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Starts publishing the aggregated events at the given interval.
+     *
+     * @param window aggregation window in milliseconds
+     */
+    public synchronized void start(long window) {
+
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "FrameThrottleEventAggregator");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::publish, window, window, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops publishing, after publishing the pending aggregates.
+     */
+    public synchronized void stop() {
+
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+            publish();
+        }
+    }
+
+    /**
+     * Adds a frame to the aggregate of its throttle keys.
+     *
+     * @param throttleFields throttle event fields of the frame, excluding the message id and the properties
+     * @param remoteIP       IP address of the client
+     * @param messageSize    size of the frame
+     */
+    public void add(Object[] throttleFields, String remoteIP, long messageSize) {
+
+        aggregates.compute(new Key(throttleFields, remoteIP), (key, aggregate) -> {
+            if (aggregate == null) {
+                aggregate = new Aggregate();
+            }
+            aggregate.frameCount++;
+            aggregate.messageSize += messageSize;
+            return aggregate;
+        });
+    }
+
+    /**
+     * Publishes one event for each throttle key combination which had frames since the last call.
+     */
+    void publish() {
+
+        for (Key key : aggregates.keySet()) {
+            Aggregate[] published = new Aggregate[1];
+            aggregates.computeIfPresent(key, (k, aggregate) -> {
+                published[0] = aggregate;
+                return null;
+            });
+            if (published[0] != null) {
+                try {
+                    eventPublisher.publish(key.throttleFields, key.remoteIP, published[0].frameCount,
+                            published[0].messageSize);
+                } catch (RuntimeException e) {
+                    log.error("Error while publishing aggregated frame throttle event", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Publishes a throttle event for a number of frames.
+     */
+    public interface EventPublisher {
+
+        /**
+         * @param throttleFields throttle event fields of the frames, excluding the message id and the properties
+         * @param remoteIP       IP address of the client
+         * @param frameCount     number of frames
+         * @param messageSize    total size of the frames
+         */
+        void publish(Object[] throttleFields, String remoteIP, long frameCount, long messageSize);
+    }
+
+    /**
+     * Throttle key combination of a frame.
+     */
+    private static final class Key {
+
+        private final Object[] throttleFields;
+        private final String remoteIP;
+        private final int hashCode;
+
+        private Key(Object[] throttleFields, String remoteIP) {
+
+            this.throttleFields = throttleFields;
+            this.remoteIP = remoteIP;
+            this.hashCode = 31 * Arrays.hashCode(throttleFields) + (remoteIP != null ? remoteIP.hashCode() : 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hashCode == key.hashCode && Arrays.equals(throttleFields, key.throttleFields)
+                    && (remoteIP != null ? remoteIP.equals(key.remoteIP) : key.remoteIP == null);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hashCode;
+        }
+    }
+
+    /**
+     * Frames of a throttle key combination since the last publish, only accessed under the lock of its map bin.
+     */
+    private static final class Aggregate {
+
+        private long frameCount;
+        private long messageSize;
+    }
+}
@@ -19,10 +19,15 @@
 package org.wso2.carbon.apimgt.gateway.throttling.publisher;
 
 
+import org.apache.axiom.util.UIDGenerator;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.synapse.MessageContext;
+import org.json.simple.JSONObject;
+import org.wso2.carbon.apimgt.common.gateway.util.ThrottleEventPropertiesCodec;
+import org.wso2.carbon.apimgt.gateway.handlers.Utils;
 import org.wso2.carbon.apimgt.gateway.handlers.security.AuthenticationContext;
+import org.wso2.carbon.apimgt.gateway.handlers.throttling.APIThrottleConstants;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
 import org.wso2.carbon.apimgt.impl.dto.ThrottleProperties;
 import org.wso2.carbon.databridge.agent.DataPublisher;
@@ -30,6 +35,7 @@ import org.wso2.carbon.databridge.agent.exception.DataEndpointAgentConfiguration
 import org.wso2.carbon.databridge.agent.exception.DataEndpointAuthenticationException;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointConfigurationException;
 import org.wso2.carbon.databridge.agent.exception.DataEndpointException;
+import org.wso2.carbon.databridge.commons.Event;
 import org.wso2.carbon.databridge.commons.exception.TransportException;
 
 import java.text.SimpleDateFormat;
@@ -55,6 +61,17 @@ public class ThrottleDataPublisher {
 
     private static volatile DataPublisher dataPublisher = null;
 
+    /**
+     * Returns the aggregator of the throttle events of streaming API frames.
+     *
+     * @return aggregator, or null if an event is published per frame
+     */
+    public static FrameThrottleEventAggregator getFrameThrottleEventAggregator() {
+        return frameThrottleEventAggregator;
+    }
+
+    private static volatile FrameThrottleEventAggregator frameThrottleEventAggregator = null;
+
     Executor executor;
 
     /**
@@ -83,6 +100,7 @@ public class ThrottleDataPublisher {
                             .getReceiverUrlGroup(), dataPublisherConfiguration.getAuthUrlGroup(), dataPublisherConfiguration
                             .getUsername(),
                             dataPublisherConfiguration.getPassword());
+                    initFrameThrottleEventAggregator(throttleProperties.getFrameEventAggregationWindow());
 
                 } catch (DataEndpointAgentConfigurationException e) {
                     log.error("Error in initializing binary data-publisher to send requests to global throttling engine " +
@@ -145,6 +163,57 @@ public class ThrottleDataPublisher {
         }
     }
 
+    private static synchronized void initFrameThrottleEventAggregator(long window) {
+        if (frameThrottleEventAggregator != null) {
+            frameThrottleEventAggregator.stop();
+            frameThrottleEventAggregator = null;
+        }
+        if (window > 0) {
+            FrameThrottleEventAggregator aggregator =
+                    new FrameThrottleEventAggregator(ThrottleDataPublisher::publishFrameEvent);
+            aggregator.start(window);
+            frameThrottleEventAggregator = aggregator;
+        }
+    }
+
+    /**
+     * Publishes a throttle event for frames of a streaming API to the global policy engine.
+     *
+     * @param throttleFields throttle event fields of the frames, from the application level throttle key to the API
+     *                       name
+     * @param remoteIP       IP address of the client
+     * @param frameCount     number of frames the event stands for
+     * @param messageSize    total size of the frames
+     */
+    public static void publishFrameEvent(Object[] throttleFields, String remoteIP, long frameCount,
+                                         long messageSize) {
+        if (dataPublisher == null) {
+            log.error("Cannot publish events to traffic manager because ThrottleDataPublisher "
+                    + "has not been initialised");
+            return;
+        }
+        JSONObject jsonObMap = new JSONObject();
+        Utils.setRemoteIp(jsonObMap, remoteIP);
+        jsonObMap.put(APIThrottleConstants.MESSAGE_SIZE, messageSize);
+        if (frameCount > 1) {
+            jsonObMap.put(APIThrottleConstants.EVENT_COUNT, frameCount);
+        }
+        String properties;
+        ThrottleProperties throttleProperties = ServiceReferenceHolder.getInstance().getThrottleProperties();
+        if (throttleProperties != null && throttleProperties.isEnableBinaryPropertiesEncoding()) {
+            properties = ThrottleEventPropertiesCodec.encode(jsonObMap);
+        } else {
+            properties = jsonObMap.toString();
+        }
+        Object[] objects = new Object[throttleFields.length + 2];
+        objects[0] = UIDGenerator.generateURNString();
+        System.arraycopy(throttleFields, 0, objects, 1, throttleFields.length);
+        objects[objects.length - 1] = properties;
+        Event event = new Event("org.wso2.throttle.request.stream:1.0.0", System.currentTimeMillis(), null, null,
+                objects);
+        dataPublisher.tryPublish(event);
+    }
+
     /**
      * This class will act as thread pool executor and after executing each thread it will return runnable
      * object back to pool. This implementation specifically used to minimize number of objectes created during
@@ -61,6 +61,9 @@ import org.wso2.carbon.apimgt.gateway.handlers.security.APISecurityException;
 import org.wso2.carbon.apimgt.gateway.handlers.security.AuthenticationContext;
 import org.wso2.carbon.apimgt.gateway.internal.DataHolder;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.threatprotection.APIMThreatAnalyzerException;
+import org.wso2.carbon.apimgt.gateway.threatprotection.analyzer.APIMThreatAnalyzer;
+import org.wso2.carbon.apimgt.gateway.threatprotection.utils.PayloadBufferingInputStream;
 import org.wso2.carbon.apimgt.gateway.threatprotection.utils.ThreatProtectorConstants;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.APIManagerConfiguration;
@@ -86,7 +89,6 @@ import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
@@ -423,6 +425,31 @@ public class GatewayUtils {
     public static Map<String, InputStream> cloneRequestMessage(org.apache.synapse.MessageContext messageContext)
             throws IOException {
 
+        try {
+            return cloneRequestMessage(messageContext, null, null);
+        } catch (APIMThreatAnalyzerException e) {
+            // Not thrown without an analyzer
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * This method use to clone the InputStream from the the message context, analyzing the request body with the
+     * given analyzer while it is read. The body is read from the pass-through pipe once, into a buffer which all the
+     * cloned InputStreams share. Even if the analyzer finds a threat, the rest of the body is read and set back to the
+     * message context, as the mediators still build the message from it after handling the threat.
+     *
+     * @param messageContext contains the message properties of the relevant API request.
+     * @param analyzer       analyzer of the request body, or null to only clone the body.
+     * @param apiContext     context of the API.
+     * @return cloned InputStreams.
+     * @throws IOException                 this exception might occurred while cloning the inputStream.
+     * @throws APIMThreatAnalyzerException if the analyzer finds a threat in the request body.
+     */
+    public static Map<String, InputStream> cloneRequestMessage(org.apache.synapse.MessageContext messageContext,
+                                                               APIMThreatAnalyzer analyzer, String apiContext)
+            throws IOException, APIMThreatAnalyzerException {
+
         BufferedInputStream bufferedInputStream = null;
         Map<String, InputStream> inputStreamMap;
         InputStream inputStreamSchema = null;
@@ -450,24 +477,34 @@ public class GatewayUtils {
             bufferedInputStream.mark(0);
             if (bufferedInputStream.read() != -1) {
                 bufferedInputStream.reset();
-                ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-                byte[] buffer = new byte[requestBufferSize];
-                int length;
-                while ((length = bufferedInputStream.read(buffer)) > -1) {
-                    byteArrayOutputStream.write(buffer, 0, length);
+                PayloadBufferingInputStream payload =
+                        new PayloadBufferingInputStream(bufferedInputStream, requestBufferSize);
+                try {
+                    if (analyzer != null) {
+                        analyzer.analyze(payload, apiContext);
+                    }
+                } finally {
+                    payload.readRemaining();
+                    axis2MC.setProperty(PassThroughConstants.BUFFERED_INPUT_STREAM,
+                            new BufferedInputStream(payload.newInputStream()));
                 }
-                byteArrayOutputStream.flush();
-                inputStreamSchema = new ByteArrayInputStream(byteArrayOutputStream.toByteArray());
-                inputStreamXml = new ByteArrayInputStream(byteArrayOutputStream.toByteArray());
-                inputStreamOriginal = new ByteArrayInputStream(byteArrayOutputStream.toByteArray());
-                inputStreamJSON = new ByteArrayInputStream(byteArrayOutputStream.toByteArray());
+                inputStreamSchema = payload.newInputStream();
+                inputStreamXml = payload.newInputStream();
+                inputStreamOriginal = payload.newInputStream();
+                inputStreamJSON = payload.newInputStream();
             } else {
                 String payload;
                 if (ThreatProtectorConstants.APPLICATION_JSON.equals(contentType)) {
                     inputStreamJSON = JsonUtil.getJsonPayload(axis2MC);
+                    if (analyzer != null && inputStreamJSON != null) {
+                        analyzer.analyze(inputStreamJSON, apiContext);
+                    }
                 } else {
                     payload = axis2MC.getEnvelope().getBody().getFirstElement().toString();
                     inputStreamXml = new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8));
+                    if (analyzer != null) {
+                        analyzer.analyze(inputStreamXml, apiContext);
+                    }
                 }
             }
         }
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded in-memory cache which evicts the least recently used entry when it is full. The cache is split into
+ * segments, each an access ordered map guarded by its own lock, so that lookups of different keys do not contend on a
+ * single lock. Each segment holds an equal share of the maximum number of entries, so an entry may be evicted before
+ * the cache as a whole is full.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+public class SegmentedLRUCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+
+    /**
+     * @param maxEntries maximum number of entries of the cache
+     */
+    @SuppressWarnings("unchecked")
+    public SegmentedLRUCache(int maxEntries) {
+
+        segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(Math.max(1, maxEntries / SEGMENTS));
+        }
+    }
+
+    /**
+     * @param key key
+     * @return value of the key, or null if the key is not cached
+     */
+    public V get(K key) {
+
+        Segment<K, V> segment = segmentOf(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    /**
+     * Caches a value, evicting the least recently used entry of its segment if the segment is full.
+     *
+     * @param key   key
+     * @param value value
+     */
+    public void put(K key, V value) {
+
+        Segment<K, V> segment = segmentOf(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    /**
+     * Caches a value unless the key is already cached, evicting the least recently used entry of its segment if the
+     * segment is full.
+     *
+     * @param key   key
+     * @param value value
+     * @return value already cached with the key, or null if the given value is cached
+     */
+    public V putIfAbsent(K key, V value) {
+
+        Segment<K, V> segment = segmentOf(key);
+        synchronized (segment) {
+            return segment.putIfAbsent(key, value);
+        }
+    }
+
+    /**
+     * Replaces the cached value of a key only if it is the given value.
+     *
+     * @param key      key
+     * @param oldValue value expected to be cached with the key
+     * @param newValue value to be cached
+     * @return true if the value was replaced
+     */
+    public boolean replace(K key, V oldValue, V newValue) {
+
+        Segment<K, V> segment = segmentOf(key);
+        synchronized (segment) {
+            return segment.replace(key, oldValue, newValue);
+        }
+    }
+
+    /**
+     * Removes a key only if it is cached with the given value.
+     *
+     * @param key   key
+     * @param value value expected to be cached with the key
+     * @return true if the key was removed
+     */
+    public boolean remove(K key, V value) {
+
+        Segment<K, V> segment = segmentOf(key);
+        synchronized (segment) {
+            return segment.remove(key, value);
+        }
+    }
+
+    private Segment<K, V> segmentOf(K key) {
+
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    /**
+     * Access ordered map of the entries of a segment, which evicts the least recently used entry when it is full.
+     */
+    private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxEntries;
+
+        private Segment(int maxEntries) {
+
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+
+            return size() > maxEntries;
+        }
+    }
+}
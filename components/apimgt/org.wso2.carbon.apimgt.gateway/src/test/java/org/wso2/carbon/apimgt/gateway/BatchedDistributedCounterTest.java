@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+public class BatchedDistributedCounterTest {
+
+    @Test
+    public void testCountersOfNodesAreMergedAtSync() {
+
+        FakeCounterStore store = new FakeCounterStore();
+        BatchedDistributedCounter node1 = new BatchedDistributedCounter(store);
+        BatchedDistributedCounter node2 = new BatchedDistributedCounter(store);
+        for (int i = 0; i < 5; i++) {
+            node1.addAndGet("key", 1);
+        }
+        Assert.assertEquals(5, node1.get("key"));
+        Assert.assertEquals(0, node2.getAndAdd("key", 2));
+        Assert.assertEquals(0, store.get("key"));
+
+        node1.sync();
+        node2.sync();
+        Assert.assertEquals(7, store.get("key"));
+        Assert.assertEquals(7, node2.get("key"));
+        Assert.assertEquals(5, node1.get("key"));
+        node1.sync();
+        Assert.assertEquals(7, node1.get("key"));
+        Assert.assertEquals(7, store.get("key"));
+    }
+
+    @Test
+    public void testCountersAreSyncedInOneRoundTrip() {
+
+        FakeCounterStore store = new FakeCounterStore();
+        BatchedDistributedCounter counter = new BatchedDistributedCounter(store);
+        for (int i = 0; i < 100; i++) {
+            counter.addAndGet("key" + i, i);
+        }
+        int roundTrips = store.roundTrips.get();
+        counter.sync();
+        Assert.assertEquals(roundTrips + 1, store.roundTrips.get());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i, store.get("key" + i));
+        }
+    }
+
+    @Test
+    public void testCounterIsLoadedFromStoreOnFirstUse() {
+
+        FakeCounterStore store = new FakeCounterStore();
+        store.addAndGet(singleDelta("key", 40), new HashMap<>());
+        BatchedDistributedCounter counter = new BatchedDistributedCounter(store);
+        Assert.assertEquals(41, counter.addAndGet("key", 1));
+    }
+
+    @Test
+    public void testIncrementsAreKeptWhenSyncFails() {
+
+        FakeCounterStore store = new FakeCounterStore();
+        BatchedDistributedCounter counter = new BatchedDistributedCounter(store);
+        counter.addAndGet("key", 3);
+        store.available = false;
+        counter.sync();
+        Assert.assertEquals(3, counter.get("key"));
+        store.available = true;
+        counter.sync();
+        counter.sync();
+        Assert.assertEquals(3, store.get("key"));
+        Assert.assertEquals(3, counter.get("key"));
+    }
+
+    @Test
+    public void testResetCounter() {
+
+        FakeCounterStore store = new FakeCounterStore();
+        BatchedDistributedCounter counter = new BatchedDistributedCounter(store);
+        counter.addAndGet("key", 3);
+        counter.reset("key", 10);
+        Assert.assertEquals(11, counter.addAndGet("key", 1));
+        counter.remove("key");
+        Assert.assertEquals(1, counter.addAndGet("key", 1));
+    }
+
+    @Test
+    public void testExpiryIsSetWithIncrements() {
+
+        FakeCounterStore store = new FakeCounterStore();
+        BatchedDistributedCounter counter = new BatchedDistributedCounter(store);
+        long expiryTime = System.currentTimeMillis() + 60000;
+        counter.addAndGet("key", 1);
+        counter.setExpiry("key", expiryTime);
+        counter.sync();
+        Assert.assertEquals(Long.valueOf(expiryTime), store.expiryTimes.get("key"));
+
+        // The counter of the store expires, and is recreated by the next increment along with its expiry.
+        store.remove("key");
+        counter.addAndGet("key", 1);
+        counter.sync();
+        Assert.assertEquals(1, store.get("key"));
+        Assert.assertEquals(Long.valueOf(expiryTime), store.expiryTimes.get("key"));
+    }
+
+    @Test
+    public void testIncrementsAreNotLostWhileEvicting() throws Exception {
+
+        FakeCounterStore store = new FakeCounterStore();
+        BatchedDistributedCounter counter = new BatchedDistributedCounter(store);
+        int threads = 4;
+        int increments = 20000;
+        Thread[] writers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            writers[i] = new Thread(() -> {
+                for (int j = 0; j < increments; j++) {
+                    counter.addAndGet("key", 1);
+                    if (j % 100 == 0) {
+                        // Let the counter become idle, so that it is evicted while it is updated.
+                        LockSupport.parkNanos(100000);
+                    }
+                }
+            });
+            writers[i].start();
+        }
+        boolean running = true;
+        while (running) {
+            counter.sync();
+            running = false;
+            for (Thread writer : writers) {
+                running |= writer.isAlive();
+            }
+        }
+        counter.sync();
+        Assert.assertEquals((long) threads * increments, store.get("key"));
+    }
+
+    private static Map<String, Long> singleDelta(String key, long delta) {
+
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put(key, delta);
+        return deltas;
+    }
+
+    /**
+     * In-process stand-in for the Redis counters shared by the gateway nodes.
+     */
+    private static class FakeCounterStore implements BatchedDistributedCounter.CounterStore {
+
+        private final Map<String, Long> counters = new ConcurrentHashMap<>();
+        private final Map<String, Long> expiryTimes = new ConcurrentHashMap<>();
+        private final AtomicInteger roundTrips = new AtomicInteger();
+        private volatile boolean available = true;
+
+        @Override
+        public synchronized Map<String, Long> addAndGet(Map<String, Long> deltas, Map<String, Long> expiryTimes) {
+
+            if (!available) {
+                throw new IllegalStateException("Store is not available");
+            }
+            roundTrips.incrementAndGet();
+            Map<String, Long> values = new HashMap<>();
+            for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+                values.put(delta.getKey(), counters.merge(delta.getKey(), delta.getValue(), Long::sum));
+            }
+            this.expiryTimes.putAll(expiryTimes);
+            return values;
+        }
+
+        private synchronized void remove(String key) {
+
+            counters.remove(key);
+            expiryTimes.remove(key);
+        }
+
+        private long get(String key) {
+
+            return counters.getOrDefault(key, 0L);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway;
+
+import org.wso2.carbon.apimgt.api.gateway.GatewayAPIDTO;
+import org.wso2.carbon.apimgt.impl.notifier.events.DeployAPIInGatewayEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to deploy 500 revisions deployed at once, between retrieving each artifact after the fixed event waiting
+ * time as the gateway did before, and {@link InMemoryAPIDeployer#retrieveArtifacts} on the batches of events which
+ * arrive while the earlier ones are retrieved, as done by the deploy API event processor. The events arrive 1ms
+ * apart, each artifact is visible in the storage 50ms after its event, and each request to the storage takes 2ms.
+ * Retrieving each of the 500 artifacts after the fixed wait would take 500 times the waiting time, so the previous
+ * behaviour is run for the first 10 events and extrapolated.
+ * <p>
+ * This is not run as a unit test. Run it with the test classpath of this module, e.g.
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.wso2.carbon.apimgt.gateway.InMemoryAPIDeployerBenchmark}, optionally passing the event
+ * waiting time in milliseconds, which defaults to 5000 as in the default configuration.
+ */
+public class InMemoryAPIDeployerBenchmark {
+
+    private static final int DEPLOYMENTS = 500;
+    private static final int SAMPLED_DEPLOYMENTS = 10;
+    private static final long EVENT_INTERVAL = 1;
+    private static final long PUBLISH_DELAY = 50;
+    private static final long STORAGE_LATENCY = 2;
+
+    public static void main(String[] args) throws Exception {
+
+        long eventWaitingTime = args.length > 0 ? Long.parseLong(args[0]) : 5000;
+
+        long start = System.currentTimeMillis();
+        SlowArtifactRetriever artifactRetriever = new SlowArtifactRetriever();
+        for (int i = 0; i < SAMPLED_DEPLOYMENTS; i++) {
+            DeployAPIInGatewayEvent gatewayEvent = publish(artifactRetriever, i);
+            Thread.sleep(eventWaitingTime);
+            if (artifactRetriever.retrieveArtifact(gatewayEvent.getUuid(), "Default") == null) {
+                throw new IllegalStateException("Artifact of " + gatewayEvent.getUuid() + " is not available");
+            }
+        }
+        long sampledTime = System.currentTimeMillis() - start;
+        System.out.printf("fixed wait: %d ms for %d deployments, about %d ms for %d deployments%n", sampledTime,
+                SAMPLED_DEPLOYMENTS, sampledTime * DEPLOYMENTS / SAMPLED_DEPLOYMENTS, DEPLOYMENTS);
+
+        artifactRetriever = new SlowArtifactRetriever();
+        InMemoryAPIDeployer inMemoryAPIDeployer = new InMemoryAPIDeployer(artifactRetriever,
+                InMemoryAPIDeployerTest.getProperties(eventWaitingTime));
+        BlockingQueue<DeployAPIInGatewayEvent> events = new LinkedBlockingQueue<>();
+        SlowArtifactRetriever publisher = artifactRetriever;
+        Thread eventSender = new Thread(() -> {
+            try {
+                for (int i = 0; i < DEPLOYMENTS; i++) {
+                    events.add(publish(publisher, i));
+                    Thread.sleep(EVENT_INTERVAL);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        start = System.currentTimeMillis();
+        eventSender.start();
+        int deployed = 0;
+        int batches = 0;
+        int received = 0;
+        while (received < DEPLOYMENTS) {
+            List<DeployAPIInGatewayEvent> batch = new ArrayList<>();
+            batch.add(events.take());
+            events.drainTo(batch);
+            received += batch.size();
+            Map<String, GatewayAPIDTO> gatewayAPIDTOs = inMemoryAPIDeployer.retrieveArtifacts(batch,
+                    Collections.singleton("Default"));
+            deployed += gatewayAPIDTOs.size();
+            batches++;
+        }
+        System.out.printf("retrieval with backoff: %d ms for %d deployments (%d deployed, %d batches, %d storage "
+                        + "requests)%n", System.currentTimeMillis() - start, DEPLOYMENTS, deployed, batches,
+                artifactRetriever.retrievals.get());
+        eventSender.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private static DeployAPIInGatewayEvent publish(SlowArtifactRetriever artifactRetriever, int deployment) {
+
+        DeployAPIInGatewayEvent gatewayEvent = InMemoryAPIDeployerTest.createEvent("rev-" + deployment);
+        artifactRetriever.addArtifact(gatewayEvent.getUuid(), gatewayEvent.getRevision(), PUBLISH_DELAY);
+        return gatewayEvent;
+    }
+
+    private static class SlowArtifactRetriever extends InMemoryAPIDeployerTest.FakeArtifactRetriever {
+
+        @Override
+        public List<String> retrieveArtifacts(List<String> apiIds, String gatewayLabel) {
+
+            sleep();
+            return super.retrieveArtifacts(apiIds, gatewayLabel);
+        }
+
+        @Override
+        public String retrieveArtifact(String apiId, String gatewayLabel) {
+
+            sleep();
+            return super.retrieveArtifact(apiId, gatewayLabel);
+        }
+
+        private void sleep() {
+
+            try {
+                Thread.sleep(STORAGE_LATENCY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway;
+
+import com.google.gson.Gson;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.carbon.apimgt.api.gateway.GatewayAPIDTO;
+import org.wso2.carbon.apimgt.impl.APIConstants;
+import org.wso2.carbon.apimgt.impl.dto.GatewayArtifactSynchronizerProperties;
+import org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer.ArtifactRetriever;
+import org.wso2.carbon.apimgt.impl.notifier.events.DeployAPIInGatewayEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class InMemoryAPIDeployerTest {
+
+    private static final Set<String> GATEWAY_LABELS = Collections.singleton("Default");
+
+    @Test
+    public void testArtifactsOfDeployedRevisionsAreRetrievedAtOnce() throws Exception {
+
+        FakeArtifactRetriever artifactRetriever = new FakeArtifactRetriever();
+        List<DeployAPIInGatewayEvent> gatewayEvents = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            DeployAPIInGatewayEvent gatewayEvent = createEvent("rev-1");
+            artifactRetriever.addArtifact(gatewayEvent.getUuid(), "rev-1", 0);
+            gatewayEvents.add(gatewayEvent);
+        }
+        InMemoryAPIDeployer inMemoryAPIDeployer = new InMemoryAPIDeployer(artifactRetriever, getProperties(5000));
+
+        long start = System.currentTimeMillis();
+        Map<String, GatewayAPIDTO> gatewayAPIDTOs = inMemoryAPIDeployer.retrieveArtifacts(gatewayEvents,
+                GATEWAY_LABELS);
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+        Assert.assertEquals(50, gatewayAPIDTOs.size());
+        Assert.assertEquals(1, artifactRetriever.retrievals.get());
+        for (DeployAPIInGatewayEvent gatewayEvent : gatewayEvents) {
+            Assert.assertEquals("rev-1", gatewayAPIDTOs.get(gatewayEvent.getUuid()).getRevision());
+        }
+    }
+
+    @Test
+    public void testRetrievalIsRetriedUntilDeployedRevisionIsAvailable() throws Exception {
+
+        FakeArtifactRetriever artifactRetriever = new FakeArtifactRetriever();
+        DeployAPIInGatewayEvent gatewayEvent = createEvent("rev-2");
+        artifactRetriever.addArtifact(gatewayEvent.getUuid(), "rev-1", 0);
+        artifactRetriever.addArtifact(gatewayEvent.getUuid(), "rev-2", 250);
+        InMemoryAPIDeployer inMemoryAPIDeployer = new InMemoryAPIDeployer(artifactRetriever, getProperties(5000));
+
+        Map<String, GatewayAPIDTO> gatewayAPIDTOs = inMemoryAPIDeployer.retrieveArtifacts(
+                Collections.singletonList(gatewayEvent), GATEWAY_LABELS);
+        Assert.assertEquals("rev-2", gatewayAPIDTOs.get(gatewayEvent.getUuid()).getRevision());
+        Assert.assertTrue(artifactRetriever.retrievals.get() > 1);
+    }
+
+    @Test
+    public void testArtifactsOfOtherRevisionsAreNotReturnedAtDeadline() throws Exception {
+
+        FakeArtifactRetriever artifactRetriever = new FakeArtifactRetriever();
+        DeployAPIInGatewayEvent deployedEvent = createEvent("rev-1");
+        DeployAPIInGatewayEvent staleEvent = createEvent("rev-2");
+        DeployAPIInGatewayEvent missingEvent = createEvent("rev-1");
+        artifactRetriever.addArtifact(deployedEvent.getUuid(), "rev-1", 0);
+        artifactRetriever.addArtifact(staleEvent.getUuid(), "rev-1", 0);
+        InMemoryAPIDeployer inMemoryAPIDeployer = new InMemoryAPIDeployer(artifactRetriever, getProperties(300));
+
+        long start = System.currentTimeMillis();
+        List<DeployAPIInGatewayEvent> gatewayEvents = new ArrayList<>();
+        gatewayEvents.add(deployedEvent);
+        gatewayEvents.add(staleEvent);
+        gatewayEvents.add(missingEvent);
+        Map<String, GatewayAPIDTO> gatewayAPIDTOs = inMemoryAPIDeployer.retrieveArtifacts(gatewayEvents,
+                GATEWAY_LABELS);
+        Assert.assertTrue(System.currentTimeMillis() - start >= 300);
+        Assert.assertEquals(1, gatewayAPIDTOs.size());
+        Assert.assertEquals("rev-1", gatewayAPIDTOs.get(deployedEvent.getUuid()).getRevision());
+        Assert.assertFalse(gatewayAPIDTOs.containsKey(staleEvent.getUuid()));
+        Assert.assertFalse(gatewayAPIDTOs.containsKey(missingEvent.getUuid()));
+    }
+
+    @Test
+    public void testArtifactsWithoutRevisionAreDeployed() throws Exception {
+
+        FakeArtifactRetriever artifactRetriever = new FakeArtifactRetriever();
+        DeployAPIInGatewayEvent gatewayEvent = createEvent(null);
+        artifactRetriever.addArtifact(gatewayEvent.getUuid(), "rev-1", 0);
+        InMemoryAPIDeployer inMemoryAPIDeployer = new InMemoryAPIDeployer(artifactRetriever, getProperties(5000));
+
+        Map<String, GatewayAPIDTO> gatewayAPIDTOs = inMemoryAPIDeployer.retrieveArtifacts(
+                Collections.singletonList(gatewayEvent), GATEWAY_LABELS);
+        Assert.assertEquals(1, gatewayAPIDTOs.size());
+        Assert.assertEquals(1, artifactRetriever.retrievals.get());
+    }
+
+    static DeployAPIInGatewayEvent createEvent(String revision) {
+
+        String uuid = UUID.randomUUID().toString();
+        DeployAPIInGatewayEvent gatewayEvent = new DeployAPIInGatewayEvent(UUID.randomUUID().toString(),
+                System.currentTimeMillis(), APIConstants.EventType.DEPLOY_API_IN_GATEWAY.name(), "carbon.super", 1,
+                uuid, GATEWAY_LABELS, "PizzaShackAPI-" + uuid, "1.0.0", "admin", "HTTP", "/pizzashack-" + uuid);
+        gatewayEvent.setRevision(revision);
+        return gatewayEvent;
+    }
+
+    static GatewayArtifactSynchronizerProperties getProperties(long eventWaitingTime) {
+
+        GatewayArtifactSynchronizerProperties properties = new GatewayArtifactSynchronizerProperties();
+        properties.setEventWaitingTime(eventWaitingTime);
+        return properties;
+    }
+
+    /**
+     * Storage of artifacts which are published a given time after they are added, the latest published revision of
+     * an API replacing the earlier ones.
+     */
+    static class FakeArtifactRetriever implements ArtifactRetriever {
+
+        private final Map<String, List<Object[]>> artifacts = new ConcurrentHashMap<>();
+        final AtomicInteger retrievals = new AtomicInteger();
+
+        void addArtifact(String apiId, String revision, long publishDelay) {
+
+            GatewayAPIDTO gatewayAPIDTO = new GatewayAPIDTO();
+            gatewayAPIDTO.setApiId(apiId);
+            gatewayAPIDTO.setRevision(revision);
+            artifacts.computeIfAbsent(apiId, key -> new CopyOnWriteArrayList<>()).add(new Object[]{
+                    System.currentTimeMillis() + publishDelay, new Gson().toJson(gatewayAPIDTO)});
+        }
+
+        @Override
+        public List<String> retrieveArtifacts(List<String> apiIds, String gatewayLabel) {
+
+            retrievals.incrementAndGet();
+            List<String> retrievedArtifacts = new ArrayList<>();
+            for (String apiId : apiIds) {
+                String artifact = getPublishedArtifact(apiId);
+                if (artifact != null) {
+                    retrievedArtifacts.add(artifact);
+                }
+            }
+            return retrievedArtifacts;
+        }
+
+        @Override
+        public String retrieveArtifact(String apiId, String gatewayLabel) {
+
+            return getPublishedArtifact(apiId);
+        }
+
+        private String getPublishedArtifact(String apiId) {
+
+            String artifact = null;
+            long now = System.currentTimeMillis();
+            for (Object[] publishedArtifact : artifacts.getOrDefault(apiId, Collections.emptyList())) {
+                if ((Long) publishedArtifact[0] <= now) {
+                    artifact = (String) publishedArtifact[1];
+                }
+            }
+            return artifact;
+        }
+
+        @Override
+        public void init() {
+
+        }
+
+        @Override
+        public Map<String, String> retrieveAttributes(String apiName, String version, String tenantDomain) {
+
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public List<String> retrieveAllArtifacts(String gatewayLabel, String tenantDomain) {
+
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void disconnect() {
+
+        }
+
+        @Override
+        public String getName() {
+
+            return "fake";
+        }
+    }
+}
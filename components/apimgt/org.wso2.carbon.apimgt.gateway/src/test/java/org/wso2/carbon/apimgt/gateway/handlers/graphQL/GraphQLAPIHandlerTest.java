@@ -26,7 +26,11 @@ import org.apache.axiom.om.OMElement;
 import org.apache.axiom.soap.SOAPBody;
 import org.apache.axiom.soap.SOAPEnvelope;
 import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpStatus;
+import org.apache.synapse.commons.json.JsonUtil;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
+import org.apache.synapse.transport.nhttp.NhttpConstants;
+import org.apache.synapse.transport.passthru.util.RelayUtils;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -36,12 +40,15 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.wso2.carbon.apimgt.api.gateway.GraphQLSchemaDTO;
+import org.wso2.carbon.apimgt.gateway.handlers.Utils;
+import org.wso2.carbon.apimgt.gateway.handlers.graphQL.GraphQLConstants.PersistedQueryConstants;
 import org.wso2.carbon.apimgt.gateway.internal.DataHolder;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 
 import javax.xml.namespace.QName;
 import java.io.File;
 import java.io.IOException;
+import java.net.URLEncoder;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -52,14 +59,16 @@ import static org.apache.synapse.rest.RESTConstants.REST_SUB_REQUEST_PATH;
  * Unit test cases related GraphQLAPIHandler.
  */
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({ DataHolder.class })
+@PrepareForTest({ DataHolder.class, Utils.class, JsonUtil.class, RelayUtils.class })
 public class GraphQLAPIHandlerTest {
 
     Axis2MessageContext messageContext;
     org.apache.axis2.context.MessageContext axis2MessageContext;
     Map<String, GraphQLSchemaDTO> schemaDTOMap;
     OMElement omElement;
+    OMElement body;
     DataHolder dataHolder;
+    GraphQLSchemaDTO schemaDTO;
 
     @Before
     public void setup() throws IOException {
@@ -71,7 +80,7 @@ public class GraphQLAPIHandlerTest {
         SOAPEnvelope soapEnvelope = Mockito.mock(SOAPEnvelope.class);
         SOAPBody soapBody = Mockito.mock(SOAPBody.class);
         PowerMockito.mockStatic(DataHolder.class);
-        OMElement body = Mockito.mock(OMElement.class);
+        body = Mockito.mock(OMElement.class);
         Map propertyList = Mockito.mock(Map.class);
 
         Mockito.when(messageContext.getAxis2MessageContext()).thenReturn(axis2MessageContext);
@@ -98,10 +107,11 @@ public class GraphQLAPIHandlerTest {
         SchemaParser schemaParser = new SchemaParser();
         TypeDefinitionRegistry registry = schemaParser.parse(schemaString);
         GraphQLSchema schema = UnExecutableSchemaGenerator.makeUnExecutableSchema(registry);
-        GraphQLSchemaDTO schemaDTO = new GraphQLSchemaDTO(schema, registry);
+        schemaDTO = new GraphQLSchemaDTO(schema, registry);
         schemaDTOMap.put("12345", schemaDTO);
 
         Mockito.when(dataHolder.getApiToGraphQLSchemaDTOMap()).thenReturn(schemaDTOMap);
+        Mockito.when(dataHolder.getGraphQLQueryCache("12345", schemaDTO)).thenReturn(new GraphQLQueryCache(schemaDTO));
     }
 
     /**
@@ -128,4 +138,153 @@ public class GraphQLAPIHandlerTest {
         graphQLAPIHandler.setApiUUID("12345");
         Assert.assertTrue(graphQLAPIHandler.handleRequest(messageContext));
     }
+
+    /**
+     * This method will test that the query of a persisted query hash is added to the request.
+     */
+    @Test
+    public void testHandleRequestForPersistedQueryHit() throws Exception {
+
+        GraphQLPersistedQueryStore persistedQueryStore = mockPersistedQueryStore();
+        String query = "{allLifts{name}}";
+        persistedQueryStore.register(GraphQLPersistedQueryStore.getHash(query),
+                new GraphQLPersistedQueryStore.PersistedQuery(query));
+        mockPersistedQueryRequestPath(GraphQLPersistedQueryStore.getHash(query));
+        GraphQLAPIHandler graphQLAPIHandler = getPersistedQueryHandler(PersistedQueryConstants.MODE_AUTOMATIC);
+
+        Assert.assertTrue(graphQLAPIHandler.handleRequest(messageContext));
+        Mockito.verify(messageContext).setProperty(APIConstants.GRAPHQL_PAYLOAD, query);
+        Mockito.verify(axis2MessageContext).setProperty(NhttpConstants.REST_URL_POSTFIX,
+                "?query=" + URLEncoder.encode(query, "UTF-8"));
+    }
+
+    /**
+     * This method will test that an unknown persisted query hash is answered with the PersistedQueryNotFound error.
+     */
+    @Test
+    public void testHandleRequestForPersistedQueryMiss() throws Exception {
+
+        mockPersistedQueryStore();
+        mockPersistedQueryRequestPath(GraphQLPersistedQueryStore.getHash("{allLifts{name}}"));
+        GraphQLAPIHandler graphQLAPIHandler = getPersistedQueryHandler(PersistedQueryConstants.MODE_AUTOMATIC);
+
+        Assert.assertFalse(graphQLAPIHandler.handleRequest(messageContext));
+        PowerMockito.verifyStatic();
+        JsonUtil.getNewJsonPayload(Mockito.eq(axis2MessageContext),
+                Mockito.contains(PersistedQueryConstants.ERROR_NOT_FOUND), Mockito.eq(true), Mockito.eq(true));
+        PowerMockito.verifyStatic();
+        Utils.send(messageContext, HttpStatus.SC_OK);
+        Mockito.verify(messageContext, Mockito.never()).setProperty(Mockito.eq(APIConstants.GRAPHQL_PAYLOAD),
+                Mockito.any());
+    }
+
+    /**
+     * This method will test that a valid query sent with its hash is registered, and an invalid one is not.
+     */
+    @Test
+    public void testHandleRequestForPersistedQueryRegistration() throws Exception {
+
+        GraphQLPersistedQueryStore persistedQueryStore = mockPersistedQueryStore();
+        String query = "{allLifts{name}}";
+        mockPersistedQueryRequestBody(query, GraphQLPersistedQueryStore.getHash(query));
+        GraphQLAPIHandler graphQLAPIHandler = getPersistedQueryHandler(PersistedQueryConstants.MODE_AUTOMATIC);
+
+        Assert.assertTrue(graphQLAPIHandler.handleRequest(messageContext));
+        Assert.assertEquals(query, persistedQueryStore.get(GraphQLPersistedQueryStore.getHash(query)).getQuery());
+
+        String invalidQuery = "{allLifts{unknownField}}";
+        mockPersistedQueryRequestBody(invalidQuery, GraphQLPersistedQueryStore.getHash(invalidQuery));
+        Assert.assertFalse(graphQLAPIHandler.handleRequest(messageContext));
+        Assert.assertNull(persistedQueryStore.get(GraphQLPersistedQueryStore.getHash(invalidQuery)));
+
+        mockPersistedQueryRequestBody(query, GraphQLPersistedQueryStore.getHash(invalidQuery));
+        Assert.assertFalse(graphQLAPIHandler.handleRequest(messageContext));
+        Assert.assertNull(persistedQueryStore.get(GraphQLPersistedQueryStore.getHash(invalidQuery)));
+    }
+
+    /**
+     * This method will test that only the operations of the persisted query manifest are accepted in allow list
+     * mode, and that queries sent with their hash are not registered in allow list mode.
+     */
+    @Test
+    public void testHandleRequestForPersistedQueryAllowList() throws Exception {
+
+        GraphQLPersistedQueryStore persistedQueryStore = mockPersistedQueryStore();
+        String allowedQuery = "{allLifts{name}}";
+        String otherQuery = "{allLifts{name id}}";
+        persistedQueryStore.registerManifest("{\"operations\": [{\"id\": \""
+                + GraphQLPersistedQueryStore.getHash(allowedQuery) + "\", \"body\": \"" + allowedQuery + "\"}]}");
+        GraphQLAPIHandler graphQLAPIHandler = getPersistedQueryHandler(PersistedQueryConstants.MODE_ALLOW_LIST);
+
+        mockPersistedQueryRequestBody(allowedQuery, null);
+        Assert.assertTrue(graphQLAPIHandler.handleRequest(messageContext));
+        mockPersistedQueryRequestPath(GraphQLPersistedQueryStore.getHash(allowedQuery));
+        Assert.assertTrue(graphQLAPIHandler.handleRequest(messageContext));
+
+        mockPersistedQueryRequestBody(otherQuery, null);
+        Assert.assertFalse(graphQLAPIHandler.handleRequest(messageContext));
+        PowerMockito.verifyStatic();
+        Utils.sendFault(messageContext, HttpStatus.SC_UNPROCESSABLE_ENTITY);
+
+        mockPersistedQueryRequestBody(otherQuery, GraphQLPersistedQueryStore.getHash(otherQuery));
+        Assert.assertFalse(graphQLAPIHandler.handleRequest(messageContext));
+        Assert.assertNull(persistedQueryStore.get(GraphQLPersistedQueryStore.getHash(otherQuery)));
+        mockPersistedQueryRequestPath(GraphQLPersistedQueryStore.getHash(otherQuery));
+        Assert.assertFalse(graphQLAPIHandler.handleRequest(messageContext));
+        PowerMockito.verifyStatic();
+        Utils.send(messageContext, HttpStatus.SC_OK);
+    }
+
+    private GraphQLAPIHandler getPersistedQueryHandler(String persistedQueries) {
+
+        GraphQLAPIHandler graphQLAPIHandler = new GraphQLAPIHandler();
+        graphQLAPIHandler.setApiUUID("12345");
+        graphQLAPIHandler.setPersistedQueries(persistedQueries);
+        return graphQLAPIHandler;
+    }
+
+    private GraphQLPersistedQueryStore mockPersistedQueryStore() {
+
+        PowerMockito.mockStatic(Utils.class);
+        PowerMockito.mockStatic(JsonUtil.class);
+        PowerMockito.mockStatic(RelayUtils.class);
+        GraphQLPersistedQueryStore persistedQueryStore = new GraphQLPersistedQueryStore(schemaDTO);
+        Mockito.when(dataHolder.getGraphQLSchemaDTOForAPI("12345")).thenReturn(schemaDTO);
+        Mockito.when(dataHolder.getGraphQLPersistedQueryStore("12345", schemaDTO)).thenReturn(persistedQueryStore);
+        Mockito.when(messageContext.getProperty(APIConstants.GRAPHQL_SUBSCRIPTION_REQUEST)).thenReturn(false);
+        Mockito.when(axis2MessageContext.getProperty(HTTP_METHOD)).thenReturn("POST");
+        return persistedQueryStore;
+    }
+
+    private void mockPersistedQueryRequestPath(String persistedQueryHash) throws IOException {
+
+        String requestPath = "/?extensions=" + URLEncoder.encode("{\"persistedQuery\":{\"version\":1,"
+                + "\"sha256Hash\":\"" + persistedQueryHash + "\"}}", "UTF-8");
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(REST_SUB_REQUEST_PATH, requestPath);
+        Mockito.when(messageContext.getProperties()).thenReturn(properties);
+        Mockito.when(messageContext.getProperty(REST_SUB_REQUEST_PATH)).thenReturn(requestPath);
+    }
+
+    private void mockPersistedQueryRequestBody(String query, String persistedQueryHash) {
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(REST_SUB_REQUEST_PATH, "/");
+        Mockito.when(messageContext.getProperties()).thenReturn(properties);
+        Mockito.when(messageContext.getProperty(REST_SUB_REQUEST_PATH)).thenReturn("/");
+        Mockito.when(omElement.getText()).thenReturn(query);
+        OMElement extensions = null;
+        if (persistedQueryHash != null) {
+            extensions = Mockito.mock(OMElement.class);
+            OMElement persistedQuery = Mockito.mock(OMElement.class);
+            OMElement sha256Hash = Mockito.mock(OMElement.class);
+            Mockito.when(extensions.getFirstChildWithName(QName.valueOf(PersistedQueryConstants.PERSISTED_QUERY)))
+                    .thenReturn(persistedQuery);
+            Mockito.when(persistedQuery.getFirstChildWithName(QName.valueOf(PersistedQueryConstants.SHA256_HASH)))
+                    .thenReturn(sha256Hash);
+            Mockito.when(sha256Hash.getText()).thenReturn(persistedQueryHash);
+        }
+        Mockito.when(body.getFirstChildWithName(QName.valueOf(PersistedQueryConstants.EXTENSIONS)))
+                .thenReturn(extensions);
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.gateway.handlers.graphQL;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+/**
+ * Unit test cases related GraphQLPersistedQueryStore.
+ */
+public class GraphQLPersistedQueryStoreTest {
+
+    private static final String QUERY = "{allLifts{name}}";
+
+    @Test
+    public void testGetHash() {
+
+        Assert.assertEquals("9dd7ff987fac8d0d1979084ebde5ce8bd855cd066d1a34e98432275cc6bc264c",
+                GraphQLPersistedQueryStore.getHash("{hello}"));
+    }
+
+    @Test
+    public void testRegisterQuery() {
+
+        GraphQLPersistedQueryStore store = new GraphQLPersistedQueryStore(null);
+        String queryHash = GraphQLPersistedQueryStore.getHash(QUERY);
+        Assert.assertNull(store.get(queryHash));
+        Assert.assertTrue(store.register(queryHash, new GraphQLPersistedQueryStore.PersistedQuery(QUERY)));
+        Assert.assertEquals(QUERY, store.get(queryHash).getQuery());
+        Assert.assertEquals(QUERY, store.get(queryHash.toUpperCase()).getQuery());
+        Assert.assertFalse(store.isInManifest(queryHash));
+    }
+
+    @Test
+    public void testRegisteredQueriesAreBounded() {
+
+        GraphQLPersistedQueryStore store = new GraphQLPersistedQueryStore(null, 256, 64);
+        int queries = 10000;
+        for (int i = 0; i < queries; i++) {
+            String query = "{lift(id:" + i + "){name}}";
+            Assert.assertTrue(store.register(GraphQLPersistedQueryStore.getHash(query),
+                    new GraphQLPersistedQueryStore.PersistedQuery(query)));
+        }
+        int registered = 0;
+        for (int i = 0; i < queries; i++) {
+            if (store.get(GraphQLPersistedQueryStore.getHash("{lift(id:" + i + "){name}}")) != null) {
+                registered++;
+            }
+        }
+        Assert.assertTrue(registered > 0 && registered <= 256);
+        Assert.assertNotNull(store.get(GraphQLPersistedQueryStore.getHash("{lift(id:" + (queries - 1) + "){name}}")));
+    }
+
+    @Test
+    public void testLongQueryIsNotRegistered() {
+
+        GraphQLPersistedQueryStore store = new GraphQLPersistedQueryStore(null, 256, 64);
+        StringBuilder query = new StringBuilder("{");
+        while (query.length() < 64) {
+            query.append("name ");
+        }
+        query.append('}');
+        String queryHash = GraphQLPersistedQueryStore.getHash(query.toString());
+        Assert.assertFalse(store.register(queryHash, new GraphQLPersistedQueryStore.PersistedQuery(query.toString())));
+        Assert.assertNull(store.get(queryHash));
+    }
+
+    @Test
+    public void testQueryInfoIsKeptWithQuery() {
+
+        GraphQLPersistedQueryStore store = new GraphQLPersistedQueryStore(null);
+        String queryHash = GraphQLPersistedQueryStore.getHash(QUERY);
+        GraphQLPersistedQueryStore.PersistedQuery persistedQuery = new GraphQLPersistedQueryStore.PersistedQuery(QUERY);
+        GraphQLQueryInfo queryInfo = new GraphQLQueryInfo(null, null);
+        queryInfo.setQueryDepth(2);
+        queryInfo.setQueryComplexity(3);
+        persistedQuery.setQueryInfo(queryInfo);
+        store.register(queryHash, persistedQuery);
+        Assert.assertEquals(Integer.valueOf(2), store.get(queryHash).getQueryInfo().getQueryDepth());
+        Assert.assertEquals(Integer.valueOf(3), store.get(queryHash).getQueryInfo().getQueryComplexity());
+    }
+
+    @Test
+    public void testRegisterManifest() throws IOException {
+
+        String queryHash = GraphQLPersistedQueryStore.getHash(QUERY);
+        String manifest = "{\"format\":\"apollo-persisted-query-manifest\",\"version\":1,\"operations\":["
+                + "{\"id\":\"" + queryHash + "\",\"name\":\"AllLifts\",\"type\":\"query\",\"body\":\"" + QUERY + "\"},"
+                + "{\"id\":\"" + queryHash + "\",\"name\":\"Other\",\"type\":\"query\",\"body\":\"{other}\"}]}";
+        GraphQLPersistedQueryStore store = new GraphQLPersistedQueryStore(null, 16, 8);
+        int count = store.registerManifest(manifest);
+        Assert.assertEquals(1, count);
+        Assert.assertEquals(QUERY, store.get(queryHash).getQuery());
+        Assert.assertTrue(store.isInManifest(queryHash));
+        Assert.assertNull(store.get(GraphQLPersistedQueryStore.getHash("{other}")));
+        // Operations of the manifest are not evicted by registered queries, nor limited in size
+        for (int i = 0; i < 1000; i++) {
+            store.register(GraphQLPersistedQueryStore.getHash("{a" + i + "}"),
+                    new GraphQLPersistedQueryStore.PersistedQuery("{a" + i + "}"));
+        }
+        Assert.assertEquals(QUERY, store.get(queryHash).getQuery());
+    }
+
+    @Test(expected = IOException.class)
+    public void testRegisterInvalidManifest() throws IOException {
+
+        new GraphQLPersistedQueryStore(null).registerManifest("[]");
+    }
+}
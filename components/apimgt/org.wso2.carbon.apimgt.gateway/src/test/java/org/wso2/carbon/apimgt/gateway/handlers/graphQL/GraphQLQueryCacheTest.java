@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.gateway.handlers.graphQL;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test cases related GraphQLQueryCache.
+ */
+public class GraphQLQueryCacheTest {
+
+    @Test
+    public void testValidQueriesAreCached() {
+
+        GraphQLQueryCache cache = new GraphQLQueryCache(null);
+        GraphQLQueryInfo queryInfo = new GraphQLQueryInfo(null, null);
+        Assert.assertNull(cache.get("{hello}"));
+        cache.put("{hello}", queryInfo);
+        Assert.assertSame(queryInfo, cache.get("{hello}"));
+        Assert.assertNull(cache.get("{hello }"));
+    }
+
+    @Test
+    public void testInvalidQueriesAreNotCached() {
+
+        GraphQLQueryCache cache = new GraphQLQueryCache(null);
+        cache.put("{unknown}", new GraphQLQueryInfo(null, "Validation error of type FieldUndefined"));
+        Assert.assertNull(cache.get("{unknown}"));
+    }
+
+    @Test
+    public void testLongQueriesAreNotCached() {
+
+        GraphQLQueryCache cache = new GraphQLQueryCache(null);
+        StringBuilder query = new StringBuilder("{");
+        while (query.length() <= GraphQLQueryCache.MAX_QUERY_LENGTH) {
+            query.append("hello ");
+        }
+        query.append('}');
+        cache.put(query.toString(), new GraphQLQueryInfo(null, null));
+        Assert.assertNull(cache.get(query.toString()));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedQueriesAreEvicted() {
+
+        GraphQLQueryCache cache = new GraphQLQueryCache(null);
+        GraphQLQueryInfo hotQuery = new GraphQLQueryInfo(null, null);
+        cache.put("{hot}", hotQuery);
+        for (int i = 0; i < GraphQLQueryCache.MAX_QUERIES_PER_API * 4; i++) {
+            cache.put("{query" + i + "}", new GraphQLQueryInfo(null, null));
+            // A query which is looked up on every request stays in the cache.
+            Assert.assertSame(hotQuery, cache.get("{hot}"));
+        }
+        int cached = 0;
+        for (int i = 0; i < GraphQLQueryCache.MAX_QUERIES_PER_API * 4; i++) {
+            if (cache.get("{query" + i + "}") != null) {
+                cached++;
+            }
+        }
+        Assert.assertTrue(cached < GraphQLQueryCache.MAX_QUERIES_PER_API);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.handlers.security;
+
+import org.apache.synapse.api.API;
+import org.apache.synapse.api.Resource;
+import org.apache.synapse.api.dispatch.DispatcherHelper;
+import org.apache.synapse.api.dispatch.URITemplateHelper;
+import org.apache.synapse.api.dispatch.URLMappingHelper;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test class for APIResourceMatcher
+ */
+public class APIResourceMatcherTestCase {
+
+    private Resource petsResource;
+    private Resource petByIdResource;
+    private Resource minePetResource;
+    private Resource petOwnerResource;
+    private Resource wildcardResource;
+    private Resource postPetsResource;
+    private APIResourceMatcher resourceMatcher;
+
+    @Before
+    public void setup() {
+
+        petsResource = createResource(URLMappingHelper.class, "/pets", "GET");
+        petByIdResource = createResource(URITemplateHelper.class, "/pets/{petId}", "GET");
+        minePetResource = createResource(URLMappingHelper.class, "/pets/mine", "GET");
+        petOwnerResource = createResource(URITemplateHelper.class, "/pets/{petId}/owner?fields={fields}", "GET");
+        wildcardResource = createResource(URLMappingHelper.class, "/store/*", "GET", "PUT");
+        postPetsResource = createResource(URLMappingHelper.class, "/pets", "POST");
+        API api = Mockito.mock(API.class);
+        Mockito.when(api.getResources()).thenReturn(new Resource[]{petsResource, petByIdResource, minePetResource,
+                petOwnerResource, wildcardResource, postPetsResource});
+        resourceMatcher = APIResourceMatcher.compile(api);
+        Assert.assertTrue(resourceMatcher.isCompiledFrom(api));
+        Assert.assertFalse(resourceMatcher.isCompiledFrom(Mockito.mock(API.class)));
+    }
+
+    @Test
+    public void testLiteralMatch() {
+
+        Assert.assertEquals(Arrays.asList(petsResource, petByIdResource),
+                resourceMatcher.getCandidateResources("GET", "/pets"));
+        Assert.assertEquals(Arrays.asList(petsResource, petByIdResource),
+                resourceMatcher.getCandidateResources("GET", "/pets/?limit=10"));
+        Assert.assertEquals(Collections.singletonList(postPetsResource),
+                resourceMatcher.getCandidateResources("POST", "/pets"));
+    }
+
+    @Test
+    public void testTemplateMatchKeepsDeclarationOrder() {
+
+        Assert.assertEquals(Collections.singletonList(petByIdResource),
+                resourceMatcher.getCandidateResources("GET", "/pets/1"));
+        Assert.assertEquals(Arrays.asList(petByIdResource, minePetResource),
+                resourceMatcher.getCandidateResources("GET", "/pets/mine"));
+        Assert.assertEquals(Collections.singletonList(petOwnerResource),
+                resourceMatcher.getCandidateResources("GET", "/pets/1/owner?fields=name"));
+    }
+
+    @Test
+    public void testWildcardMatch() {
+
+        Assert.assertEquals(Collections.singletonList(wildcardResource),
+                resourceMatcher.getCandidateResources("PUT", "/store/orders/1"));
+        Assert.assertEquals(Collections.singletonList(wildcardResource),
+                resourceMatcher.getCandidateResources("PUT", "/store"));
+        Assert.assertTrue(resourceMatcher.getCandidateResources("PUT", "/pets").isEmpty());
+    }
+
+    @Test
+    public void testNoMatch() {
+
+        Assert.assertTrue(resourceMatcher.getCandidateResources("GET", "/pets/1/owner/2").isEmpty());
+        Assert.assertTrue(resourceMatcher.getCandidateResources("DELETE", "/pets").isEmpty());
+        Assert.assertNull(resourceMatcher.getCandidateResources("GET", "/pets//1"));
+    }
+
+    @Test
+    public void testUnknownDispatcherHelperMatchesAnyPath() {
+
+        Resource defaultResource = createResource(DispatcherHelper.class, "/test", "GET");
+        API api = Mockito.mock(API.class);
+        Mockito.when(api.getResources()).thenReturn(new Resource[]{defaultResource});
+        List<Resource> candidates = APIResourceMatcher.compile(api).getCandidateResources("GET", "/menu");
+        Assert.assertEquals(Collections.singletonList(defaultResource), candidates);
+    }
+
+    private Resource createResource(Class<? extends DispatcherHelper> helperClass, String mapping,
+                                    String... methods) {
+
+        DispatcherHelper helper = Mockito.mock(helperClass);
+        Mockito.when(helper.getString()).thenReturn(mapping);
+        Resource resource = Mockito.mock(Resource.class);
+        Mockito.when(resource.getDispatcherHelper()).thenReturn(helper);
+        Mockito.when(resource.getMethods()).thenReturn(methods);
+        return resource;
+    }
+}
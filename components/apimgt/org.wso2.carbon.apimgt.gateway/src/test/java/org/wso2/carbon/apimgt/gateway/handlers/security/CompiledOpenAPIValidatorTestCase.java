@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.handlers.security;
+
+import com.atlassian.oai.validator.OpenApiInteractionValidator;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.carbon.apimgt.gateway.internal.DataHolder;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Test class for CompiledOpenAPIValidator.
+ */
+public class CompiledOpenAPIValidatorTestCase {
+
+    private static final String API_ID = "0a6a4a8c-2b3c-4d8f-9e1a-6b2f1c3d4e5f";
+
+    @After
+    public void cleanUp() {
+
+        DataHolder.getInstance().removeOpenAPIValidator(API_ID);
+    }
+
+    @Test
+    public void testValidatorIsCompiledOncePerDefinition() throws IOException {
+
+        String definition = readDefinition("swaggerEntry/swagger.json");
+        DataHolder.getInstance().addOpenAPIValidator(API_ID, definition);
+        OpenApiInteractionValidator validator = DataHolder.getInstance().getOpenAPIValidator(API_ID, definition);
+        Assert.assertNotNull(validator);
+        Assert.assertSame(validator, DataHolder.getInstance().getOpenAPIValidator(API_ID, definition));
+        Assert.assertSame(validator, DataHolder.getInstance().getOpenAPIValidator(API_ID, new String(definition)));
+
+        String redeployedDefinition = readDefinition("swaggerEntry/openapi.json");
+        OpenApiInteractionValidator redeployedValidator =
+                DataHolder.getInstance().getOpenAPIValidator(API_ID, redeployedDefinition);
+        Assert.assertNotSame(validator, redeployedValidator);
+        Assert.assertSame(redeployedValidator,
+                DataHolder.getInstance().getOpenAPIValidator(API_ID, redeployedDefinition));
+    }
+
+    @Test
+    public void testValidatorIsCompiledOnFirstUse() throws IOException {
+
+        String definition = readDefinition("swaggerEntry/swagger.json");
+        CompiledOpenAPIValidator compiledValidator = CompiledOpenAPIValidator.compile(definition);
+        Assert.assertTrue(compiledValidator.isCompiledFrom(definition));
+        Assert.assertFalse(compiledValidator.isCompiledFrom(new String(definition)));
+        Assert.assertTrue(compiledValidator.hasDefinition(new String(definition)));
+        Assert.assertSame(compiledValidator.getValidator(), compiledValidator.getValidator());
+    }
+
+    private String readDefinition(String resource) throws IOException {
+
+        return FileUtils.readFileToString(new File(Thread.currentThread().getContextClassLoader()
+                .getResource(resource).getFile()));
+    }
+}
@@ -98,7 +98,7 @@ public class OAuthTokenGeneratorTest {
         // First token generation operation. Token endpoint will be called and the token response will be cached.
         TokenResponse tokenResponse = OAuthTokenGenerator.generateToken(oAuthEndpoint, latch);
         Assert.assertNotNull(tokenResponse);
-        Assert.assertNotNull(tokenCache.getTokenMap().get(oAuthEndpoint.getId()));
+        Assert.assertNotNull(tokenCache.getCachedToken(oAuthEndpoint.getId()));
         // Second token generation operation. Since the token response was cached, the token endpoint will not be
         // called during this operation.
         tokenResponse = OAuthTokenGenerator.generateToken(oAuthEndpoint, latch);
@@ -128,7 +128,7 @@ public class OAuthTokenGeneratorTest {
         // First token generation operation. Token endpoint will be called and the token response will be cached.
         TokenResponse tokenResponse = OAuthTokenGenerator.generateToken(oAuthEndpoint, latch);
         Assert.assertNotNull(tokenResponse);
-        Assert.assertNotNull(tokenCache.getTokenMap().get(oAuthEndpoint.getId()));
+        Assert.assertNotNull(tokenCache.getCachedToken(oAuthEndpoint.getId()));
         // Second token generation operation. Since the token is expired, the token endpoint will be called during
         // this operation.
         tokenResponse = OAuthTokenGenerator.generateToken(oAuthEndpoint, latch);
@@ -161,7 +161,7 @@ public class OAuthTokenGeneratorTest {
         // First token generation operation. Token endpoint will be called and the token response will not be cached.
         TokenResponse tokenResponse = OAuthTokenGenerator.generateToken(oAuthEndpoint, latch);
         Assert.assertNotNull(tokenResponse);
-        Assert.assertNull(tokenCache.getTokenMap().get(oAuthEndpoint.getId()));
+        Assert.assertNull(tokenCache.getCachedToken(oAuthEndpoint.getId()));
         // Second token generation operation. Since the token response was not cached, the token endpoint will be
         // called during this operation.
         tokenResponse = OAuthTokenGenerator.generateToken(oAuthEndpoint, latch);
@@ -192,7 +192,7 @@ public class OAuthTokenGeneratorTest {
         // First token generation operation. Token endpoint will be called and the token response will be cached.
         TokenResponse tokenResponse = OAuthTokenGenerator.generateToken(oAuthEndpoint, latch);
         Assert.assertNotNull(tokenResponse);
-        Assert.assertNotNull(tokenCache.getTokenMap().get(oAuthEndpoint.getId()));
+        Assert.assertNotNull(tokenCache.getCachedToken(oAuthEndpoint.getId()));
         // Second token generation operation. Since the token response was cached, the token endpoint will not be
         // called during this operation.
         tokenResponse = OAuthTokenGenerator.generateToken(oAuthEndpoint, latch);
@@ -201,7 +201,7 @@ public class OAuthTokenGeneratorTest {
         PowerMockito.verifyStatic(OAuthClient.class, Mockito.times(1));
         OAuthClient.generateToken(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(),
                 Mockito.any(), Mockito.anyString(), Mockito.any(), Mockito.anyString());
-        Assert.assertNotNull(tokenCache.getTokenMap().get(oAuthEndpoint.getId()));
+        Assert.assertNotNull(tokenCache.getCachedToken(oAuthEndpoint.getId()));
     }
 
     /**
@@ -225,7 +225,7 @@ public class OAuthTokenGeneratorTest {
         // First token generation operation. Token endpoint will be called and the token response will be cached.
         TokenResponse tokenResponse = OAuthTokenGenerator.generateToken(oAuthEndpoint, latch);
         Assert.assertNotNull(tokenResponse);
-        Assert.assertNotNull(tokenCache.getTokenMap().get(oAuthEndpoint.getId()));
+        Assert.assertNotNull(tokenCache.getCachedToken(oAuthEndpoint.getId()));
         // Second token generation operation. Since the token is expired, the token endpoint will be called during
         // this operation.
         tokenResponse = OAuthTokenGenerator.generateToken(oAuthEndpoint, latch);
@@ -259,7 +259,7 @@ public class OAuthTokenGeneratorTest {
         // First token generation operation. Token endpoint will be called and the token response will not be cached.
         TokenResponse tokenResponse = OAuthTokenGenerator.generateToken(oAuthEndpoint, latch);
         Assert.assertNotNull(tokenResponse);
-        Assert.assertNull(tokenCache.getTokenMap().get(oAuthEndpoint.getId()));
+        Assert.assertNull(tokenCache.getCachedToken(oAuthEndpoint.getId()));
         // Second token generation operation. Since the token response was not cached, the token endpoint will be
         // called during this operation.
         tokenResponse = OAuthTokenGenerator.generateToken(oAuthEndpoint, latch);
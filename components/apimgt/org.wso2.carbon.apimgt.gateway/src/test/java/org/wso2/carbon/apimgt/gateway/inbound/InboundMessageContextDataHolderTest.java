@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.gateway.inbound;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelId;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class InboundMessageContextDataHolderTest {
+
+    private static final String API_CONTEXT = "/wscontext/1.0.0";
+
+    private final InboundMessageContextDataHolder dataHolder = new InboundMessageContextDataHolder();
+
+    @After
+    public void tearDown() {
+
+        dataHolder.stop();
+    }
+
+    @Test
+    public void testConnectionsAreCountedPerAPI() {
+
+        InboundMessageContext first = addEstablishedConnection("1", API_CONTEXT);
+        addEstablishedConnection("2", API_CONTEXT);
+        addEstablishedConnection("3", "/other/1.0.0");
+        dataHolder.connectionEstablished(first);
+        Assert.assertEquals(3, dataHolder.getLiveConnectionCount());
+        Assert.assertEquals(2, dataHolder.getAPIConnectionCount(API_CONTEXT));
+        Assert.assertEquals(1, dataHolder.getAPIConnectionCount("/other/1.0.0"));
+
+        dataHolder.removeInboundMessageContextForConnection("1");
+        dataHolder.removeInboundMessageContextForConnection("1");
+        Assert.assertEquals(2, dataHolder.getLiveConnectionCount());
+        Assert.assertEquals(1, dataHolder.getAPIConnectionCount(API_CONTEXT));
+        Assert.assertEquals(0, dataHolder.getAPIConnectionCount("/unknown"));
+    }
+
+    @Test
+    public void testFrameRate() {
+
+        InboundMessageContext inboundMessageContext = addEstablishedConnection("1", API_CONTEXT);
+        long currentTime = System.currentTimeMillis();
+        dataHolder.sweep(currentTime);
+        for (int i = 0; i < 50; i++) {
+            dataHolder.frameProcessed(inboundMessageContext);
+        }
+        dataHolder.sweep(currentTime + 10000);
+        Assert.assertEquals(5.0, dataHolder.getAPIFrameRate(API_CONTEXT), 0.001);
+    }
+
+    @Test
+    public void testSweepEvictsInactiveAndIdleConnections() {
+
+        dataHolder.start(0, 60000);
+        ChannelHandlerContext inactiveCtx = mockChannelHandlerContext("1", false);
+        ChannelHandlerContext idleCtx = mockChannelHandlerContext("2", true);
+        ChannelHandlerContext activeCtx = mockChannelHandlerContext("3", true);
+        dataHolder.getOrAddInboundMessageContext(inactiveCtx).setApiContext(API_CONTEXT);
+        dataHolder.connectionEstablished(dataHolder.getInboundMessageContextForConnectionId("1"));
+        InboundMessageContext idle = dataHolder.getOrAddInboundMessageContext(idleCtx);
+        InboundMessageContext active = dataHolder.getOrAddInboundMessageContext(activeCtx);
+        long currentTime = System.currentTimeMillis();
+        idle.setLastAccessTime(currentTime - 120000);
+        active.setLastAccessTime(currentTime);
+
+        dataHolder.sweep(currentTime);
+        Assert.assertNull(dataHolder.getInboundMessageContextForConnectionId("1"));
+        Assert.assertNull(dataHolder.getInboundMessageContextForConnectionId("2"));
+        Assert.assertSame(active, dataHolder.getInboundMessageContextForConnectionId("3"));
+        Assert.assertEquals(0, dataHolder.getAPIConnectionCount(API_CONTEXT));
+        Assert.assertEquals(2, dataHolder.getEvictionCount());
+        Mockito.verify(inactiveCtx, Mockito.never()).close();
+        Mockito.verify(idleCtx).close();
+        Mockito.verify(activeCtx, Mockito.never()).close();
+    }
+
+    @Test
+    public void testConnectionLimit() {
+
+        dataHolder.start(2, 0);
+        dataHolder.addInboundMessageContextForConnection("1", new InboundMessageContext());
+        dataHolder.addInboundMessageContextForConnection("2", new InboundMessageContext());
+        Assert.assertFalse(dataHolder.isConnectionLimitExceeded());
+        dataHolder.addInboundMessageContextForConnection("3", new InboundMessageContext());
+        Assert.assertTrue(dataHolder.isConnectionLimitExceeded());
+        Assert.assertEquals(1, dataHolder.getRejectedConnectionCount());
+    }
+
+    @Test
+    public void testConcurrentConnections() throws Exception {
+
+        int threads = 8;
+        int connectionsPerThread = 5000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < connectionsPerThread; i++) {
+                        String connectionId = thread + "-" + i;
+                        InboundMessageContext inboundMessageContext = addEstablishedConnection(connectionId,
+                                API_CONTEXT);
+                        dataHolder.frameProcessed(inboundMessageContext);
+                        if (i % 2 == 0) {
+                            dataHolder.removeInboundMessageContextForConnection(connectionId);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        Assert.assertEquals(threads * connectionsPerThread / 2, dataHolder.getLiveConnectionCount());
+        Assert.assertEquals(threads * connectionsPerThread / 2, dataHolder.getAPIConnectionCount(API_CONTEXT));
+    }
+
+    private InboundMessageContext addEstablishedConnection(String connectionId, String apiContext) {
+
+        InboundMessageContext inboundMessageContext = new InboundMessageContext();
+        inboundMessageContext.setApiContext(apiContext);
+        dataHolder.addInboundMessageContextForConnection(connectionId, inboundMessageContext);
+        dataHolder.connectionEstablished(inboundMessageContext);
+        return inboundMessageContext;
+    }
+
+    private ChannelHandlerContext mockChannelHandlerContext(String connectionId, boolean active) {
+
+        ChannelHandlerContext ctx = Mockito.mock(ChannelHandlerContext.class);
+        Channel channel = Mockito.mock(Channel.class);
+        ChannelId channelId = Mockito.mock(ChannelId.class);
+        Mockito.when(ctx.channel()).thenReturn(channel);
+        Mockito.when(channel.id()).thenReturn(channelId);
+        Mockito.when(channel.isActive()).thenReturn(active);
+        Mockito.when(channelId.asLongText()).thenReturn(connectionId);
+        return ctx;
+    }
+}
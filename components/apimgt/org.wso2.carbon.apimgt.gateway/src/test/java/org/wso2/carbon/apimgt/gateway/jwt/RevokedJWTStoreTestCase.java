@@ -0,0 +1,88 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.gateway.jwt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link RevokedJWTStore}
+ */
+public class RevokedJWTStoreTestCase {
+
+    private static final long NOW = 1_600_000_000L;
+
+    @Test
+    public void testContains() {
+
+        RevokedJWTStore revokedJWTStore = new RevokedJWTStore();
+        revokedJWTStore.add("signature-1", NOW + 3600);
+        revokedJWTStore.add("signature-1", NOW + 3600);
+
+        Assert.assertTrue(revokedJWTStore.contains("signature-1"));
+        Assert.assertFalse(revokedJWTStore.contains("signature-2"));
+        Assert.assertFalse(revokedJWTStore.contains(""));
+        Assert.assertEquals(1, revokedJWTStore.size());
+    }
+
+    @Test
+    public void testRemoveExpired() {
+
+        RevokedJWTStore revokedJWTStore = new RevokedJWTStore();
+        revokedJWTStore.add("expired", NOW - 600);
+        revokedJWTStore.add("active", NOW + 600);
+        revokedJWTStore.add("extended", NOW - 600);
+        revokedJWTStore.add("extended", NOW + 600);
+
+        Assert.assertEquals(1, revokedJWTStore.removeExpired(NOW * 1000));
+        Assert.assertFalse(revokedJWTStore.contains("expired"));
+        Assert.assertTrue(revokedJWTStore.contains("active"));
+        Assert.assertTrue(revokedJWTStore.contains("extended"));
+
+        Assert.assertEquals(2, revokedJWTStore.removeExpired((NOW + 3600) * 1000));
+        Assert.assertEquals(0, revokedJWTStore.size());
+        Assert.assertFalse(revokedJWTStore.contains("active"));
+    }
+
+    @Test
+    public void testManyEntries() {
+
+        RevokedJWTStore revokedJWTStore = new RevokedJWTStore();
+        int count = 100_000;
+        for (int i = 0; i < count; i++) {
+            // Every other token expires in an earlier bucket.
+            revokedJWTStore.add("signature-" + i, i % 2 == 0 ? NOW - 600 : NOW + 600);
+        }
+        Assert.assertEquals(count, revokedJWTStore.size());
+        for (int i = 0; i < count; i++) {
+            Assert.assertTrue(revokedJWTStore.contains("signature-" + i));
+        }
+
+        Assert.assertEquals(count / 2, revokedJWTStore.removeExpired(NOW * 1000));
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals(i % 2 != 0, revokedJWTStore.contains("signature-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = count; i < count * 2; i++) {
+            if (revokedJWTStore.contains("signature-" + i)) {
+                falsePositives++;
+            }
+        }
+        Assert.assertEquals(0, falsePositives);
+    }
+}
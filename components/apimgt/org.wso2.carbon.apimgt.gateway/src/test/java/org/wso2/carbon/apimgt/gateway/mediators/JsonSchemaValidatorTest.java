@@ -22,20 +22,36 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.synapse.MessageContext;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
+import org.apache.synapse.transport.passthru.PassThroughConstants;
+import org.apache.synapse.transport.passthru.Pipe;
+import org.apache.synapse.transport.passthru.util.RelayUtils;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
 import org.wso2.carbon.apimgt.gateway.threatprotection.configuration.JSONConfig;
 import org.wso2.carbon.apimgt.gateway.threatprotection.utils.ThreatProtectorConstants;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
 
 /**
  * This is the test case for {@link JsonSchemaValidator}
  */
 @RunWith(PowerMockRunner.class)
+@PrepareForTest({RelayUtils.class})
 public class JsonSchemaValidatorTest {
     private static final Log log = LogFactory.getLog(JsonSchemaValidatorTest.class);
     private MessageContext messageContext;
@@ -73,4 +89,82 @@ public class JsonSchemaValidatorTest {
         log.info("Successfully completed testConfigureSchemaProperties test case.");
     }
 
+    /**
+     * Test that a payload within the limits is analyzed from the pass-through pipe, and the message is built from the
+     * whole payload.
+     */
+    @Test
+    public void testMediateWithPayloadWithinLimits() throws Exception {
+        byte[] body = createPayload("pizza");
+        org.apache.axis2.context.MessageContext axis2MC = mockRequest(body);
+        PowerMockito.mockStatic(RelayUtils.class);
+
+        Assert.assertTrue(new JsonSchemaValidator().mediate(messageContext));
+        Mockito.verify(messageContext, Mockito.never()).setProperty(APIMgtGatewayConstants.THREAT_FOUND, true);
+        Assert.assertArrayEquals(body, getBufferedPayload(axis2MC));
+        PowerMockito.verifyStatic();
+        RelayUtils.buildMessage(axis2MC);
+    }
+
+    /**
+     * Test that a payload exceeding a limit is reported as a threat, and the rest of the payload after the violation
+     * is still read from the pass-through pipe and set back to the message context.
+     */
+    @Test
+    public void testMediateWithPayloadExceedingLimits() throws Exception {
+        byte[] body = createPayload("pizza with extra cheese");
+        org.apache.axis2.context.MessageContext axis2MC = mockRequest(body);
+        PowerMockito.mockStatic(RelayUtils.class);
+
+        new JsonSchemaValidator().mediate(messageContext);
+        Mockito.verify(messageContext).setProperty(APIMgtGatewayConstants.THREAT_FOUND, true);
+        Mockito.verify(messageContext).setProperty(APIMgtGatewayConstants.THREAT_CODE,
+                ThreatProtectorConstants.HTTP_SC_CODE);
+        Assert.assertArrayEquals(body, getBufferedPayload(axis2MC));
+    }
+
+    private org.apache.axis2.context.MessageContext mockRequest(byte[] body) {
+        org.apache.axis2.context.MessageContext axis2MC = Mockito.mock(org.apache.axis2.context.MessageContext.class);
+        Pipe pipe = Mockito.mock(Pipe.class);
+        Mockito.when(((Axis2MessageContext) messageContext).getAxis2MessageContext()).thenReturn(axis2MC);
+        Mockito.when(pipe.getInputStream()).thenReturn(new ByteArrayInputStream(body));
+        Mockito.when(axis2MC.getProperty(PassThroughConstants.PASS_THROUGH_PIPE)).thenReturn(pipe);
+        Mockito.when(axis2MC.getProperty(ThreatProtectorConstants.CONTENT_TYPE))
+                .thenReturn(ThreatProtectorConstants.APPLICATION_JSON);
+        Mockito.when(axis2MC.getProperty(ThreatProtectorConstants.HTTP_REQUEST_METHOD)).thenReturn("POST");
+        Mockito.when(messageContext.getProperty(ThreatProtectorConstants.API_CONTEXT)).thenReturn("/pizzashack");
+        Mockito.when(messageContext.getProperty(ThreatProtectorConstants.MAX_PROPERTY_COUNT)).thenReturn("10");
+        Mockito.when(messageContext.getProperty(ThreatProtectorConstants.MAX_STRING_LENGTH)).thenReturn("10");
+        Mockito.when(messageContext.getProperty(ThreatProtectorConstants.MAX_ARRAY_ELEMENT_COUNT))
+                .thenReturn("100000");
+        Mockito.when(messageContext.getProperty(ThreatProtectorConstants.MAX_KEY_LENGTH)).thenReturn("10");
+        Mockito.when(messageContext.getProperty(ThreatProtectorConstants.MAX_JSON_DEPTH)).thenReturn("5");
+        return axis2MC;
+    }
+
+    /**
+     * Creates a payload larger than the request buffer, whose first order has the given item.
+     */
+    private static byte[] createPayload(String firstItem) {
+        StringBuilder payload = new StringBuilder("{\"orders\":[{\"item\":\"").append(firstItem).append("\"}");
+        for (int i = 0; i < 5000; i++) {
+            payload.append(",{\"item\":\"pizza\",\"quantity\":").append(i).append('}');
+        }
+        return payload.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] getBufferedPayload(org.apache.axis2.context.MessageContext axis2MC) throws IOException {
+        ArgumentCaptor<Object> bufferedInputStream = ArgumentCaptor.forClass(Object.class);
+        Mockito.verify(axis2MC, Mockito.atLeastOnce()).setProperty(
+                Mockito.eq(PassThroughConstants.BUFFERED_INPUT_STREAM), bufferedInputStream.capture());
+        List<Object> values = bufferedInputStream.getAllValues();
+        InputStream inputStream = (InputStream) values.get(values.size() - 1);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int length;
+        while ((length = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, length);
+        }
+        return outputStream.toByteArray();
+    }
 }
@@ -19,6 +19,7 @@
 
 package org.wso2.carbon.apimgt.gateway.mediators;
 
+import com.google.re2j.Pattern;
 import org.apache.axiom.om.OMAbstractFactory;
 import org.apache.axiom.soap.SOAPEnvelope;
 import org.apache.axiom.soap.SOAPFactory;
@@ -155,4 +156,12 @@ public class RegularExpressionProtectorTest {
         Assert.assertEquals(enabledStatus, enabledBuild);
         log.info("Successfully completed testIsContentAware test case.");
     }
+
+    @Test
+    public void testPatternsAreCached() {
+        Pattern pattern = RegularExpressionProtector.getPattern(".*DROP.*");
+        Assert.assertSame(pattern, RegularExpressionProtector.getPattern(".*DROP.*"));
+        Assert.assertTrue(pattern.matcher("drop table").find());
+        Assert.assertNotSame(pattern, RegularExpressionProtector.getPattern(".*ALTER.*"));
+    }
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.mediators.oauth;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.carbon.apimgt.gateway.mediators.oauth.client.TokenResponse;
+import org.wso2.carbon.apimgt.gateway.mediators.oauth.conf.OAuthEndpoint;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit test cases related TokenCache.
+ */
+public class TokenCacheTest {
+
+    @Test
+    public void testConcurrentRequestsShareOneTokenRequest() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        StubTokenEndpoint tokenEndpoint = new StubTokenEndpoint(1800, release);
+        TokenCache tokenCache = new TokenCache(tokenEndpoint, 10, 60);
+        OAuthEndpoint oAuthEndpoint = createEndpoint("endpoint1");
+        int threads = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<TokenResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executorService.submit(() -> tokenCache.getToken(oAuthEndpoint)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            TokenResponse first = futures.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<TokenResponse> future : futures) {
+                Assert.assertSame(first, future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        Assert.assertEquals(1, tokenEndpoint.requests.get());
+        Assert.assertEquals(1, tokenCache.getRefreshCount());
+        Assert.assertSame(tokenCache.getToken(oAuthEndpoint), tokenCache.getCachedToken("endpoint1"));
+        Assert.assertEquals(1, tokenEndpoint.requests.get());
+    }
+
+    @Test
+    public void testTokenIsRefreshedInBackgroundBeforeExpiry() throws Exception {
+
+        StubTokenEndpoint tokenEndpoint = new StubTokenEndpoint(30, null);
+        TokenCache tokenCache = new TokenCache(tokenEndpoint, 10, 60);
+        OAuthEndpoint oAuthEndpoint = createEndpoint("endpoint1");
+
+        TokenResponse first = tokenCache.getToken(oAuthEndpoint);
+        // The token expires within the refresh skew, so it is returned while a new token is fetched
+        Assert.assertSame(first, tokenCache.getToken(oAuthEndpoint));
+        long deadline = System.currentTimeMillis() + 10000;
+        while (tokenCache.getBackgroundRefreshCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(1, tokenCache.getBackgroundRefreshCount());
+        TokenResponse refreshed = tokenCache.getCachedToken("endpoint1");
+        Assert.assertNotSame(first, refreshed);
+        Assert.assertEquals(first.getRefreshToken(), tokenEndpoint.refreshTokens.poll());
+        Assert.assertEquals(2, tokenCache.getRefreshCount());
+    }
+
+    @Test
+    public void testExpiredTokenIsFetchedAgain() throws Exception {
+
+        StubTokenEndpoint tokenEndpoint = new StubTokenEndpoint(-10, null);
+        TokenCache tokenCache = new TokenCache(tokenEndpoint, 10, 60);
+        OAuthEndpoint oAuthEndpoint = createEndpoint("endpoint1");
+
+        TokenResponse first = tokenCache.getToken(oAuthEndpoint);
+        TokenResponse second = tokenCache.getToken(oAuthEndpoint);
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(2, tokenEndpoint.requests.get());
+        Assert.assertEquals(0, tokenCache.getBackgroundRefreshCount());
+    }
+
+    @Test
+    public void testFailedTokenRequest() throws Exception {
+
+        StubTokenEndpoint tokenEndpoint = new StubTokenEndpoint(1800, null);
+        tokenEndpoint.failing = true;
+        TokenCache tokenCache = new TokenCache(tokenEndpoint, 10, 60);
+        OAuthEndpoint oAuthEndpoint = createEndpoint("endpoint1");
+        try {
+            tokenCache.getToken(oAuthEndpoint);
+            Assert.fail("Token request should have failed");
+        } catch (IOException e) {
+            Assert.assertEquals("Token endpoint unavailable", e.getMessage());
+        }
+        Assert.assertEquals(1, tokenCache.getRefreshFailureCount());
+        Assert.assertNull(tokenCache.getCachedToken("endpoint1"));
+
+        tokenEndpoint.failing = false;
+        Assert.assertNotNull(tokenCache.getToken(oAuthEndpoint));
+        Assert.assertEquals(1, tokenCache.getRefreshCount());
+        Assert.assertEquals(2, tokenEndpoint.requests.get());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEndpointIsEvicted() throws Exception {
+
+        StubTokenEndpoint tokenEndpoint = new StubTokenEndpoint(1800, null);
+        TokenCache tokenCache = new TokenCache(tokenEndpoint, 2, 60);
+        tokenCache.getToken(createEndpoint("endpoint1"));
+        Thread.sleep(5);
+        tokenCache.getToken(createEndpoint("endpoint2"));
+        Thread.sleep(5);
+        tokenCache.getToken(createEndpoint("endpoint1"));
+        Thread.sleep(5);
+        tokenCache.getToken(createEndpoint("endpoint3"));
+
+        Assert.assertEquals(2, tokenCache.getSize());
+        Assert.assertEquals(1, tokenCache.getEvictionCount());
+        Assert.assertNotNull(tokenCache.getCachedToken("endpoint1"));
+        Assert.assertNull(tokenCache.getCachedToken("endpoint2"));
+        Assert.assertNotNull(tokenCache.getCachedToken("endpoint3"));
+    }
+
+    private OAuthEndpoint createEndpoint(String id) {
+
+        OAuthEndpoint oAuthEndpoint = new OAuthEndpoint();
+        oAuthEndpoint.setId(id);
+        oAuthEndpoint.setTokenApiUrl("https://localhost:9443/oauth2/token");
+        oAuthEndpoint.setClientId("testClientID");
+        oAuthEndpoint.setClientSecret("testClientSecret");
+        oAuthEndpoint.setGrantType("CLIENT_CREDENTIALS");
+        return oAuthEndpoint;
+    }
+
+    /**
+     * Token endpoint which issues tokens with the given lifetime, optionally waiting for a latch before responding.
+     */
+    private static class StubTokenEndpoint implements TokenCache.TokenFetcher {
+
+        private final long expiresIn;
+        private final CountDownLatch release;
+        private final AtomicInteger requests = new AtomicInteger();
+        private final Queue<String> refreshTokens = new ConcurrentLinkedQueue<>();
+        private volatile boolean failing;
+
+        private StubTokenEndpoint(long expiresIn, CountDownLatch release) {
+
+            this.expiresIn = expiresIn;
+            this.release = release;
+        }
+
+        @Override
+        public TokenResponse fetch(OAuthEndpoint oAuthEndpoint, String refreshToken) throws IOException {
+
+            int request = requests.incrementAndGet();
+            if (refreshToken != null) {
+                refreshTokens.add(refreshToken);
+            }
+            if (release != null) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failing) {
+                throw new IOException("Token endpoint unavailable");
+            }
+            TokenResponse tokenResponse = new TokenResponse();
+            tokenResponse.setAccessToken("accessToken" + request);
+            tokenResponse.setRefreshToken("refreshToken" + request);
+            tokenResponse.setTokenType("Bearer");
+            tokenResponse.setExpiresIn(String.valueOf(expiresIn));
+            tokenResponse.setValidTill(System.currentTimeMillis() / 1000 + expiresIn);
+            return tokenResponse;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.threatprotection.utils;
+
+import com.google.re2j.Pattern;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Single threaded comparison of matching the regex threat protection pattern against a clean request body of 16KB,
+ * 256KB and 1MB, between serializing the body into a string and matching the string, as the regular expression
+ * protector did with {@code OMElement#toString()}, and serializing it into {@link PatternMatchingWriter}. The body is
+ * written to both in pieces of a few characters, as an XML serializer writes the names and the text of the elements.
+ * The bytes allocated per request are read from the HotSpot thread allocation counter.
+ * <p>
+ * This is not run as a unit test. Run it with the test classpath of this module, e.g.
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.wso2.carbon.apimgt.gateway.threatprotection.utils.PatternMatchingWriterBenchmark}.
+ */
+public class PatternMatchingWriterBenchmark {
+
+    private static final int ROUNDS = 3;
+    private static final int[] BODY_SIZES = {16 * 1024, 256 * 1024, 1024 * 1024};
+    private static final int[] REQUESTS = {100, 10, 3};
+    private static final Pattern PATTERN = Pattern.compile(".*'.*|.*ALTER TABLE.*|.*CREATE DATABASE.*|.*DELETE.*"
+            + "|.*DROP DATABASE.*|.*DROP TABLE.*|.*EXEC.*|.*INSERT INTO.*|.*SHUTDOWN.*|.*UNION.*SELECT.*",
+            Pattern.CASE_INSENSITIVE);
+
+    public static void main(String[] args) throws Exception {
+
+        for (int i = 0; i < BODY_SIZES.length; i++) {
+            String[] pieces = createBody(BODY_SIZES[i]);
+            int requests = REQUESTS[i];
+            // The last round is reported, after the earlier rounds warm up the JIT
+            for (int round = 1; round <= ROUNDS; round++) {
+                long allocated = allocatedBytes();
+                long start = System.nanoTime();
+                for (int request = 0; request < requests; request++) {
+                    StringWriter writer = new StringWriter();
+                    write(pieces, writer);
+                    if (PATTERN.matcher(writer.toString()).find()) {
+                        throw new IllegalStateException("Threat found in a clean body");
+                    }
+                }
+                long stringTime = System.nanoTime() - start;
+                long stringAllocated = allocatedBytes() - allocated;
+
+                allocated = allocatedBytes();
+                start = System.nanoTime();
+                for (int request = 0; request < requests; request++) {
+                    PatternMatchingWriter writer = new PatternMatchingWriter(PATTERN);
+                    write(pieces, writer);
+                    writer.close();
+                    if (writer.getMatch() != null) {
+                        throw new IllegalStateException("Threat found in a clean body");
+                    }
+                }
+                long writerTime = System.nanoTime() - start;
+                long writerAllocated = allocatedBytes() - allocated;
+
+                if (round == ROUNDS) {
+                    System.out.printf("%d KB body: string %.2f ms, %.0f KB allocated; PatternMatchingWriter %.2f ms, "
+                                    + "%.0f KB allocated%n", BODY_SIZES[i] / 1024,
+                            stringTime / 1e6 / requests, stringAllocated / 1024.0 / requests,
+                            writerTime / 1e6 / requests, writerAllocated / 1024.0 / requests);
+                }
+            }
+        }
+    }
+
+    private static String[] createBody(int size) {
+
+        int orders = size / 64;
+        String[] pieces = new String[orders * 5 + 2];
+        int piece = 0;
+        pieces[piece++] = "<orders>";
+        for (int i = 0; i < orders; i++) {
+            pieces[piece++] = "<order id=\"" + i + "\">";
+            pieces[piece++] = "<item>";
+            pieces[piece++] = "pizza with cheese " + (i % 97);
+            pieces[piece++] = "</item>";
+            pieces[piece++] = "</order>\n";
+        }
+        pieces[piece] = "</orders>";
+        return pieces;
+    }
+
+    private static void write(String[] pieces, Writer writer) throws Exception {
+
+        for (String piece : pieces) {
+            writer.write(piece);
+        }
+    }
+
+    private static long allocatedBytes() {
+
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.gateway.threatprotection.utils;
+
+import com.google.re2j.Matcher;
+import com.google.re2j.Pattern;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class PatternMatchingWriterTest {
+
+    private static final Pattern PATTERN = Pattern.compile("DROP TABLE", Pattern.CASE_INSENSITIVE);
+
+    @Test
+    public void testMatch() throws IOException {
+
+        PatternMatchingWriter writer = new PatternMatchingWriter(PATTERN);
+        writer.write(repeat('a', 100));
+        writer.write("DROP");
+        writer.write(' ');
+        writer.write("TABLE".toCharArray(), 0, 5);
+        writer.write(repeat('a', 100));
+        writer.flush();
+        Assert.assertNull(writer.getMatch());
+        writer.close();
+        Assert.assertEquals("DROP TABLE", writer.getMatch());
+    }
+
+    @Test
+    public void testNoMatch() throws IOException {
+
+        PatternMatchingWriter writer = new PatternMatchingWriter(PATTERN);
+        writer.write(repeat('a', 1000));
+        writer.write("drop");
+        writer.close();
+        Assert.assertNull(writer.getMatch());
+    }
+
+    @Test
+    public void testLongMatch() throws IOException {
+
+        Pattern pattern = Pattern.compile("<script>[^<]*</script>", Pattern.CASE_INSENSITIVE);
+        PatternMatchingWriter writer = new PatternMatchingWriter(pattern);
+        String script = "<script>" + repeat('x', 100000) + "</script>";
+        writer.write(repeat('a', 20));
+        writer.write(script);
+        writer.write(repeat('a', 100));
+        writer.close();
+        Assert.assertEquals(script, writer.getMatch());
+    }
+
+    @Test
+    public void testAnchorsOnlyMatchAtPayloadEdges() throws IOException {
+
+        Pattern pattern = Pattern.compile("^drop|table$", Pattern.CASE_INSENSITIVE);
+        PatternMatchingWriter writer = new PatternMatchingWriter(pattern);
+        for (int i = 0; i < 10; i++) {
+            writer.write(repeat('a', 14));
+            writer.write("drop table");
+            writer.flush();
+            writer.write("s");
+        }
+        writer.close();
+        Assert.assertNull(writer.getMatch());
+
+        writer = new PatternMatchingWriter(pattern);
+        writer.write(repeat('a', 100));
+        writer.write("drop table");
+        writer.close();
+        Assert.assertEquals("table", writer.getMatch());
+    }
+
+    @Test
+    public void testMatchIsSameAsMatchOfString() throws IOException {
+
+        Pattern pattern = Pattern.compile(".*'.*|.*ALTER.*|.*DROP TABLE.*", Pattern.CASE_INSENSITIVE);
+        String payload = "<order><item>pizza</item>\n<note>alter the toppings</note>\n</order>";
+        PatternMatchingWriter writer = new PatternMatchingWriter(pattern);
+        for (int i = 0; i < payload.length(); i += 7) {
+            writer.write(payload, i, Math.min(7, payload.length() - i));
+        }
+        writer.close();
+        Matcher matcher = pattern.matcher(payload);
+        Assert.assertTrue(matcher.find());
+        Assert.assertEquals(matcher.group(), writer.getMatch());
+    }
+
+    private String repeat(char c, int count) {
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.threatprotection.utils;
+
+import org.wso2.carbon.apimgt.gateway.threatprotection.analyzer.JSONAnalyzer;
+import org.wso2.carbon.apimgt.gateway.threatprotection.configuration.JSONConfig;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Single threaded comparison of cloning and analyzing a JSON request payload of 1KB, 1MB and 50MB, between copying
+ * the payload into a ByteArrayOutputStream and four byte arrays before analyzing one of the copies, as
+ * {@code GatewayUtils#cloneRequestMessage} did before, and analyzing the payload while it is buffered by
+ * {@link PayloadBufferingInputStream}. Both read the payload from a {@link BufferedInputStream} over the bytes in
+ * place of the pass-through pipe, and both use the current {@link JSONAnalyzer}, so the comparison covers the
+ * buffering and not the changes of the analyzer. Both still hold the whole payload in memory before it is sent to
+ * the backend. The bytes allocated per request are read from the HotSpot thread allocation counter.
+ * <p>
+ * This is not run as a unit test. Run it with the test classpath of this module and a heap of at least 1GB, e.g.
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.wso2.carbon.apimgt.gateway.threatprotection.utils.PayloadBufferingInputStreamBenchmark}.
+ */
+public class PayloadBufferingInputStreamBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static final int REQUEST_BUFFER_SIZE = 1024;
+    private static final int[] PAYLOAD_SIZES = {1024, 1024 * 1024, 50 * 1024 * 1024};
+    private static final int[] REQUESTS = {100000, 200, 5};
+
+    public static void main(String[] args) throws Exception {
+
+        JSONConfig jsonConfig = new JSONConfig();
+        jsonConfig.setMaxPropertyCount(Integer.MAX_VALUE);
+        jsonConfig.setMaxStringLength(Integer.MAX_VALUE);
+        jsonConfig.setMaxArrayElementCount(Integer.MAX_VALUE);
+        jsonConfig.setMaxKeyLength(Integer.MAX_VALUE);
+        jsonConfig.setMaxJsonDepth(Integer.MAX_VALUE);
+        JSONAnalyzer analyzer = new JSONAnalyzer();
+        analyzer.configure(jsonConfig);
+
+        for (int i = 0; i < PAYLOAD_SIZES.length; i++) {
+            byte[] payload = createPayload(PAYLOAD_SIZES[i]);
+            int requests = REQUESTS[i];
+            // The last round is reported, after the earlier rounds warm up the JIT
+            for (int round = 1; round <= ROUNDS; round++) {
+                long allocated = allocatedBytes();
+                long start = System.nanoTime();
+                for (int request = 0; request < requests; request++) {
+                    InputStream in = new BufferedInputStream(new ByteArrayInputStream(payload));
+                    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[REQUEST_BUFFER_SIZE];
+                    int length;
+                    while ((length = in.read(buffer)) > -1) {
+                        byteArrayOutputStream.write(buffer, 0, length);
+                    }
+                    InputStream inputStreamSchema = new ByteArrayInputStream(byteArrayOutputStream.toByteArray());
+                    new ByteArrayInputStream(byteArrayOutputStream.toByteArray());
+                    new ByteArrayInputStream(byteArrayOutputStream.toByteArray());
+                    new ByteArrayInputStream(byteArrayOutputStream.toByteArray());
+                    analyzer.analyze(inputStreamSchema, "/benchmark");
+                }
+                long copyTime = System.nanoTime() - start;
+                long copyAllocated = allocatedBytes() - allocated;
+
+                allocated = allocatedBytes();
+                start = System.nanoTime();
+                for (int request = 0; request < requests; request++) {
+                    InputStream in = new BufferedInputStream(new ByteArrayInputStream(payload));
+                    PayloadBufferingInputStream bufferingInputStream =
+                            new PayloadBufferingInputStream(in, REQUEST_BUFFER_SIZE);
+                    analyzer.analyze(bufferingInputStream, "/benchmark");
+                    bufferingInputStream.readRemaining();
+                    for (int copy = 0; copy < 4; copy++) {
+                        bufferingInputStream.newInputStream();
+                    }
+                }
+                long bufferingTime = System.nanoTime() - start;
+                long bufferingAllocated = allocatedBytes() - allocated;
+
+                if (round == ROUNDS) {
+                    System.out.printf("%d bytes: copy then analyze %.1f us, %.1f KB allocated; analyze while "
+                                    + "buffering %.1f us, %.1f KB allocated%n", payload.length,
+                            copyTime / 1e3 / requests, copyAllocated / 1024.0 / requests,
+                            bufferingTime / 1e3 / requests, bufferingAllocated / 1024.0 / requests);
+                }
+            }
+        }
+    }
+
+    private static byte[] createPayload(int size) {
+
+        StringBuilder payload = new StringBuilder(size + 128).append("{\"orders\":[");
+        for (int i = 0; payload.length() < size - 64; i++) {
+            if (i > 0) {
+                payload.append(',');
+            }
+            payload.append("{\"id\":").append(i).append(",\"item\":\"pizza-").append(i % 97)
+                    .append("\",\"quantity\":").append(i % 7 + 1).append('}');
+        }
+        return payload.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long allocatedBytes() {
+
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
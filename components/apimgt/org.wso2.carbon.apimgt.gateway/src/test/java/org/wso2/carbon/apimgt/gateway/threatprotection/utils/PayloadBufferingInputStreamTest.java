@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.gateway.threatprotection.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+public class PayloadBufferingInputStreamTest {
+
+    @Test
+    public void testPartlyReadPayloadIsBufferedInFull() throws IOException {
+
+        byte[] payload = new byte[10000];
+        new Random(1).nextBytes(payload);
+        PayloadBufferingInputStream in = new PayloadBufferingInputStream(new ByteArrayInputStream(payload), 512);
+        Assert.assertEquals(payload[0] & 0xff, in.read());
+        Assert.assertEquals(100, in.read(new byte[100], 0, 100));
+        in.close();
+        Assert.assertEquals(101, in.getSize());
+
+        in.readRemaining();
+        Assert.assertEquals(payload.length, in.getSize());
+        Assert.assertArrayEquals(payload, readAll(in.newInputStream()));
+        Assert.assertArrayEquals(payload, readAll(in.newInputStream()));
+    }
+
+    @Test
+    public void testEmptyPayload() throws IOException {
+
+        PayloadBufferingInputStream in = new PayloadBufferingInputStream(new ByteArrayInputStream(new byte[0]), 512);
+        in.readRemaining();
+        Assert.assertEquals(0, in.getSize());
+        Assert.assertEquals(-1, in.newInputStream().read());
+    }
+
+    private byte[] readAll(InputStream in) throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[256];
+        int length;
+        while ((length = in.read(buffer)) != -1) {
+            out.write(buffer, 0, length);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.threatprotection.utils;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+/**
+ * Single threaded comparison of validating a payload against an XSD compiled for each request, as the XML schema
+ * validator did before, and against the schema of {@link XMLSchemaCache}. The XSD and the payload are the
+ * xmlSchema/benchmark-order fixtures of the test resources, and the XSD is read from the local file.
+ * <p>
+ * This is not run as a unit test. Run it with the test classpath of this module, e.g.
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.wso2.carbon.apimgt.gateway.threatprotection.utils.XMLSchemaCacheBenchmark}.
+ */
+public class XMLSchemaCacheBenchmark {
+
+    private static final int ROUNDS = 3;
+    private static final int UNCACHED_REQUESTS = 5000;
+    private static final int CACHED_REQUESTS = 50000;
+
+    public static void main(String[] args) throws Exception {
+
+        URL xsd = XMLSchemaCacheBenchmark.class.getResource("/xmlSchema/benchmark-order.xsd");
+        byte[] payload;
+        try (InputStream in = XMLSchemaCacheBenchmark.class.getResourceAsStream("/xmlSchema/benchmark-order.xml")) {
+            payload = IOUtils.toByteArray(in);
+        }
+        XMLSchemaCache schemaCache = new XMLSchemaCache(TimeUnit.MINUTES.toMillis(5),
+                (int) TimeUnit.SECONDS.toMillis(10));
+        // The last round is reported, after the earlier rounds warm up the JIT
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < UNCACHED_REQUESTS; i++) {
+                Schema schema = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(xsd);
+                schema.newValidator().validate(new StreamSource(new ByteArrayInputStream(payload)));
+            }
+            long uncached = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < CACHED_REQUESTS; i++) {
+                schemaCache.validate(xsd.toString(), new StreamSource(new ByteArrayInputStream(payload)));
+            }
+            long cached = System.nanoTime() - start;
+            if (round == ROUNDS) {
+                System.out.printf("compile per request: %.0f req/s%n", UNCACHED_REQUESTS / (uncached / 1e9));
+                System.out.printf("cached schema, pooled validator: %.0f req/s%n", CACHED_REQUESTS / (cached / 1e9));
+            }
+        }
+    }
+}
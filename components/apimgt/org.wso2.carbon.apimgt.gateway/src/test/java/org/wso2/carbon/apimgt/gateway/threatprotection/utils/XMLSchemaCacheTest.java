@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.gateway.threatprotection.utils;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.xml.sax.SAXException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.xml.transform.stream.StreamSource;
+
+public class XMLSchemaCacheTest {
+
+    private static final String XSD = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">"
+            + "<xs:element name=\"order\"><xs:complexType><xs:sequence>"
+            + "<xs:element name=\"quantity\" type=\"xs:%s\"/>"
+            + "</xs:sequence></xs:complexType></xs:element></xs:schema>";
+    private static final String ORDER = "<order><quantity>%s</quantity></order>";
+    private static final int TIMEOUT = 10000;
+
+    @Test
+    public void testValidation() throws Exception {
+
+        File xsd = writeXsd("int");
+        XMLSchemaCache schemaCache = new XMLSchemaCache(60000, TIMEOUT);
+        String xsdURL = xsd.toURI().toString();
+        schemaCache.validate(xsdURL, order("10"));
+        schemaCache.validate(xsdURL, order("20"));
+        Assert.assertFalse(isValid(schemaCache, xsdURL, "ten"));
+        schemaCache.validate(xsdURL, order("30"));
+    }
+
+    @Test
+    public void testChangedSchemaIsCompiledOnRefresh() throws Exception {
+
+        File xsd = writeXsd("int");
+        XMLSchemaCache schemaCache = new XMLSchemaCache(0, TIMEOUT);
+        String xsdURL = xsd.toURI().toString();
+        Assert.assertFalse(isValid(schemaCache, xsdURL, "ten"));
+        writeXsd(xsd, "string");
+        // The schema is refreshed in the background, while the schema compiled earlier is used
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!isValid(schemaCache, xsdURL, "ten") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(isValid(schemaCache, xsdURL, "ten"));
+    }
+
+    @Test
+    public void testSchemaIsUsedWhenRefreshFails() throws Exception {
+
+        File xsd = writeXsd("int");
+        XMLSchemaCache schemaCache = new XMLSchemaCache(0, TIMEOUT);
+        String xsdURL = xsd.toURI().toString();
+        Assert.assertTrue(isValid(schemaCache, xsdURL, "10"));
+        Assert.assertTrue(xsd.delete());
+        Assert.assertTrue(isValid(schemaCache, xsdURL, "10"));
+        Assert.assertFalse(isValid(schemaCache, xsdURL, "ten"));
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneDownload() throws Exception {
+
+        AtomicInteger downloads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServer server = startServer(exchange -> {
+            downloads.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] xsd = String.format(XSD, "int").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, xsd.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(xsd);
+            }
+        });
+        int threads = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            XMLSchemaCache schemaCache = new XMLSchemaCache(60000, TIMEOUT);
+            String xsdURL = xsdURL(server);
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executorService.submit(() -> isValid(schemaCache, xsdURL, "10")));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<Boolean> future : futures) {
+                Assert.assertTrue(future.get(10, TimeUnit.SECONDS));
+            }
+            Assert.assertEquals(1, downloads.get());
+        } finally {
+            executorService.shutdown();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testSchemaInUseIsKeptWhenCacheIsFull() throws Exception {
+
+        File xsd = writeXsd("int");
+        XMLSchemaCache schemaCache = new XMLSchemaCache(3600000, TIMEOUT);
+        String xsdURL = xsd.toURI().toString();
+        Assert.assertTrue(isValid(schemaCache, xsdURL, "10"));
+        // The schema would fail to load again, so it is validated against only if it is still cached
+        Assert.assertTrue(xsd.delete());
+        for (int i = 0; i < XMLSchemaCache.MAX_SCHEMAS * 2; i++) {
+            File otherXsd = writeXsd("string");
+            Assert.assertTrue(isValid(schemaCache, otherXsd.toURI().toString(), "ten"));
+            Assert.assertTrue(otherXsd.delete());
+            Assert.assertFalse(isValid(schemaCache, xsdURL, "ten"));
+        }
+    }
+
+    @Test
+    public void testDownloadTimesOut() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServer server = startServer(exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(500, -1);
+        });
+        try {
+            XMLSchemaCache schemaCache = new XMLSchemaCache(60000, 200);
+            String xsdURL = xsdURL(server);
+            long start = System.currentTimeMillis();
+            try {
+                schemaCache.validate(xsdURL, order("10"));
+                Assert.fail("Download of the XSD does not time out");
+            } catch (IOException e) {
+                Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+            }
+        } finally {
+            release.countDown();
+            server.stop(0);
+        }
+    }
+
+    private HttpServer startServer(HttpHandler handler) throws IOException {
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", handler);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        return server;
+    }
+
+    private String xsdURL(HttpServer server) {
+
+        return "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getAddress().getPort()
+                + "/order.xsd";
+    }
+
+    private boolean isValid(XMLSchemaCache schemaCache, String xsdURL, String quantity) throws IOException {
+
+        try {
+            schemaCache.validate(xsdURL, order(quantity));
+            return true;
+        } catch (SAXException e) {
+            return false;
+        }
+    }
+
+    private StreamSource order(String quantity) {
+
+        return new StreamSource(new StringReader(String.format(ORDER, quantity)));
+    }
+
+    private File writeXsd(String type) throws IOException {
+
+        File xsd = File.createTempFile("order", ".xsd");
+        xsd.deleteOnExit();
+        writeXsd(xsd, type);
+        return xsd;
+    }
+
+    private void writeXsd(File xsd, String type) throws IOException {
+
+        FileUtils.writeStringToFile(xsd, String.format(XSD, type), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.throttling;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.carbon.apimgt.gateway.dto.IPRange;
+import org.wso2.carbon.apimgt.impl.APIConstants;
+import org.wso2.carbon.apimgt.impl.utils.APIUtil;
+
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class IPBlockingIndexTest {
+
+    @Test
+    public void testFixedIpConditions() {
+
+        IPBlockingIndex index = IPBlockingIndex.build(Collections.singletonList(fixedIp(1, "10.0.0.1", false)));
+        Assert.assertTrue(index.isBlocked("10.0.0.1"));
+        Assert.assertFalse(index.isBlocked("10.0.0.2"));
+
+        index = IPBlockingIndex.build(Collections.singletonList(fixedIp(1, "10.0.0.1", true)));
+        Assert.assertFalse(index.isBlocked("10.0.0.1"));
+        Assert.assertTrue(index.isBlocked("10.0.0.2"));
+
+        index = IPBlockingIndex.build(Arrays.asList(fixedIp(1, "10.0.0.1", true), fixedIp(2, "10.0.0.2", true)));
+        Assert.assertTrue(index.isBlocked("10.0.0.1"));
+    }
+
+    @Test
+    public void testIpRangeConditions() throws Exception {
+
+        IPBlockingIndex index = IPBlockingIndex.build(Arrays.asList(
+                ipRange(1, "10.0.0.0", "10.0.0.100", false),
+                ipRange(2, "10.0.0.50", "10.0.1.0", false),
+                ipRange(3, "2001:db8::", "2001:db8::ff", false)));
+        Assert.assertFalse(index.isBlocked("10.0.0.0"));
+        Assert.assertTrue(index.isBlocked("10.0.0.1"));
+        Assert.assertTrue(index.isBlocked("10.0.0.200"));
+        Assert.assertFalse(index.isBlocked("10.0.1.0"));
+        Assert.assertFalse(index.isBlocked("192.168.1.1"));
+        Assert.assertTrue(index.isBlocked("2001:db8::1"));
+        Assert.assertTrue(index.isBlocked("[2001:0db8:0:0:0:0:0:10]"));
+        Assert.assertFalse(index.isBlocked("2001:db8::1:0"));
+    }
+
+    @Test
+    public void testInvertedIpRangeConditions() throws Exception {
+
+        IPBlockingIndex index = IPBlockingIndex.build(Arrays.asList(
+                ipRange(1, "10.0.0.0", "10.0.0.100", true),
+                ipRange(2, "10.0.0.50", "10.0.1.0", true)));
+        Assert.assertTrue(index.isBlocked("10.0.0.10"));
+        Assert.assertFalse(index.isBlocked("10.0.0.60"));
+        Assert.assertTrue(index.isBlocked("10.0.0.150"));
+    }
+
+    @Test
+    public void testAddressParsing() throws Exception {
+
+        String[] addresses = {"0.0.0.0", "127.0.0.1", "255.255.255.255", "::", "::1", "2001:db8::ff00:42:8329",
+                "fe80:0:0:0:200:f8ff:fe21:67cf", "::ffff:192.168.1.1", "::ffff:c0a8:101", "1::", "::192.0.2.33"};
+        for (String address : addresses) {
+            BigInteger expected = new BigInteger(1, InetAddress.getByName(address).getAddress());
+            long ipv4 = APIUtil.parseIPv4(address);
+            long[] parsed = ipv4 >= 0 ? new long[]{0, ipv4} : IPBlockingIndex.parseIPv6(address);
+            Assert.assertNotNull(address, parsed);
+            BigInteger actual = new BigInteger(1, toBytes(parsed));
+            Assert.assertEquals(address, expected, actual);
+        }
+        Assert.assertNull(IPBlockingIndex.parseIPv6("fe80::1%eth0"));
+        Assert.assertNull(IPBlockingIndex.parseIPv6("1:2:3:4:5:6:7:8:9"));
+        Assert.assertNull(IPBlockingIndex.parseIPv6("1::2::3"));
+        Assert.assertNull(IPBlockingIndex.parseIPv6("localhost"));
+    }
+
+    private static byte[] toBytes(long[] address) {
+
+        byte[] bytes = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (address[0] >>> (56 - 8 * i));
+            bytes[i + 8] = (byte) (address[1] >>> (56 - 8 * i));
+        }
+        return bytes;
+    }
+
+    private static IPRange fixedIp(int id, String ip, boolean invert) {
+
+        IPRange ipRange = new IPRange();
+        ipRange.setId(id);
+        ipRange.setType(APIConstants.BLOCKING_CONDITIONS_IP);
+        ipRange.setFixedIp(ip);
+        ipRange.setInvert(invert);
+        return ipRange;
+    }
+
+    private static IPRange ipRange(int id, String startingIp, String endingIp, boolean invert) throws Exception {
+
+        IPRange ipRange = new IPRange();
+        ipRange.setId(id);
+        ipRange.setType(APIConstants.BLOCK_CONDITION_IP_RANGE);
+        ipRange.setStartingIP(startingIp);
+        ipRange.setStartingIpBigIntValue(new BigInteger(1, InetAddress.getByName(startingIp).getAddress()));
+        ipRange.setEndingIp(endingIp);
+        ipRange.setEndingIpBigIntValue(new BigInteger(1, InetAddress.getByName(endingIp).getAddress()));
+        ipRange.setInvert(invert);
+        return ipRange;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.throttling;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single threaded comparison of throttle decision lookups on 1M keys, between the map of boxed timestamps the
+ * throttle data holder used before and {@link ThrottleDecisionStore}, followed by the time the background ticker
+ * takes to evict the 1M keys once they expire without being looked up again.
+ * <p>
+ * This is not run as a unit test. Run it with the test classpath of this module, e.g.
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.wso2.carbon.apimgt.gateway.throttling.ThrottleDecisionStoreBenchmark}.
+ */
+public class ThrottleDecisionStoreBenchmark {
+
+    private static final int KEYS = 1000000;
+    private static final int LOOKUPS = 5000000;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+
+        String[] keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "carbon.super:/api/" + i + "/1.0.0:GET:admin";
+        }
+        long nextAccessTimestamp = System.currentTimeMillis() + 60000;
+        Map<String, Long> map = new ConcurrentHashMap<>();
+        ThrottleDecisionStore store = new ThrottleDecisionStore();
+        for (String key : keys) {
+            map.put(key, nextAccessTimestamp);
+            store.put(key, nextAccessTimestamp);
+        }
+        // The last round is reported, after the earlier rounds warm up the JIT
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            int mapThrottled = lookUp(keys, map);
+            long mapTime = System.nanoTime() - start;
+            start = System.nanoTime();
+            int storeThrottled = lookUp(keys, store);
+            long storeTime = System.nanoTime() - start;
+            if (round == ROUNDS) {
+                System.out.printf("map of boxed timestamps: %.1f ns/lookup (%d throttled)%n",
+                        (double) mapTime / LOOKUPS, mapThrottled);
+                System.out.printf("throttle decision store: %.1f ns/lookup (%d throttled)%n",
+                        (double) storeTime / LOOKUPS, storeThrottled);
+            }
+        }
+
+        ThrottleDecisionStore expiring = new ThrottleDecisionStore();
+        long expiryTimestamp = System.currentTimeMillis() + 2000;
+        for (String key : keys) {
+            expiring.put(key, expiryTimestamp);
+        }
+        expiring.start();
+        try {
+            while (expiring.getSize() > 0) {
+                Thread.sleep(10);
+            }
+            System.out.printf("1M keys evicted %d ms after they expired%n",
+                    System.currentTimeMillis() - expiryTimestamp);
+        } finally {
+            expiring.stop();
+        }
+    }
+
+    private static int lookUp(String[] keys, Map<String, Long> map) {
+
+        int throttled = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            Long timestamp = map.get(keys[(int) ((i * 2654435761L) % KEYS)]);
+            if (timestamp != null && timestamp >= System.currentTimeMillis()) {
+                throttled++;
+            }
+        }
+        return throttled;
+    }
+
+    private static int lookUp(String[] keys, ThrottleDecisionStore store) {
+
+        int throttled = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (store.isThrottled(keys[(int) ((i * 2654435761L) % KEYS)])) {
+                throttled++;
+            }
+        }
+        return throttled;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.gateway.throttling;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class ThrottleDecisionStoreTest {
+
+    @Test
+    public void testIsThrottled() {
+
+        ThrottleDecisionStore store = new ThrottleDecisionStore();
+        long nextAccessTimestamp = System.currentTimeMillis() + 60000;
+        store.put("/api/1.0.0", nextAccessTimestamp);
+        Assert.assertTrue(store.isThrottled("/api/1.0.0"));
+        Assert.assertFalse(store.isThrottled("/api/2.0.0"));
+        Assert.assertEquals(nextAccessTimestamp, store.getNextAccessTimestamp("/api/1.0.0"));
+        Assert.assertEquals(0L, store.getNextAccessTimestamp("/api/2.0.0"));
+        Assert.assertEquals(2, store.getLookupCount());
+        Assert.assertEquals(1, store.getHitCount());
+        Assert.assertEquals(0.5, store.getHitRate(), 0.0001);
+        store.remove("/api/1.0.0");
+        Assert.assertFalse(store.isThrottled("/api/1.0.0"));
+    }
+
+    @Test
+    public void testExpiredDecisionIsRemovedOnLookup() {
+
+        ThrottleDecisionStore store = new ThrottleDecisionStore();
+        store.put("/api/1.0.0", System.currentTimeMillis() - 1000);
+        Assert.assertFalse(store.isThrottled("/api/1.0.0"));
+        Assert.assertEquals(0, store.getSize());
+        Assert.assertEquals(1, store.getEvictionCount());
+    }
+
+    @Test
+    public void testExpiredDecisionsAreEvictedWithoutLookup() {
+
+        ThrottleDecisionStore store = new ThrottleDecisionStore(10, 8);
+        long currentTime = System.currentTimeMillis();
+        Map<String, Long> data = new HashMap<>();
+        data.put("expiring", currentTime + 20);
+        data.put("expiringLater", currentTime + 200);
+        data.put("active", currentTime + 600000);
+        store.putAll(data);
+        Assert.assertEquals(3, store.getSize());
+
+        store.expire(currentTime + 100);
+        Assert.assertEquals(2, store.getSize());
+        Assert.assertEquals(1, store.getEvictionCount());
+
+        store.expire(currentTime + 1000);
+        Assert.assertEquals(1, store.getSize());
+        Assert.assertEquals(2, store.getEvictionCount());
+        Assert.assertTrue(store.isThrottled("active"));
+    }
+
+    @Test
+    public void testReplacedDecisionIsNotEvicted() {
+
+        ThrottleDecisionStore store = new ThrottleDecisionStore(10, 8);
+        long currentTime = System.currentTimeMillis();
+        store.put("/api/1.0.0", currentTime + 20);
+        store.put("/api/1.0.0", currentTime + 600000);
+        store.expire(currentTime + 1000);
+        Assert.assertEquals(1, store.getSize());
+        Assert.assertEquals(0, store.getEvictionCount());
+    }
+
+    @Test
+    public void testDecisionsAddedWhileExpiringAreEvicted() throws Exception {
+
+        ThrottleDecisionStore store = new ThrottleDecisionStore(1, 4);
+        store.start();
+        int threads = 4;
+        int keysPerThread = 5000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            executorService.execute(() -> {
+                for (int i = 0; i < keysPerThread; i++) {
+                    store.put(thread + "-" + i, System.currentTimeMillis() + i % 5);
+                }
+            });
+        }
+        executorService.shutdown();
+        Assert.assertTrue(executorService.awaitTermination(30, TimeUnit.SECONDS));
+        store.stop();
+
+        long currentTime = System.currentTimeMillis() + 1000;
+        for (int i = 0; i < 8; i++) {
+            store.expire(currentTime + i);
+        }
+        Assert.assertEquals(0, store.getSize());
+    }
+
+    @Test
+    public void testExpiredDecisionsAreEvictedByTicker() throws Exception {
+
+        ThrottleDecisionStore store = new ThrottleDecisionStore(10, 8);
+        store.start();
+        try {
+            long currentTime = System.currentTimeMillis();
+            for (int i = 0; i < 100; i++) {
+                store.put("expiring-" + i, currentTime + 20);
+            }
+            store.put("active", currentTime + 600000);
+            long deadline = System.currentTimeMillis() + 10000;
+            while (store.getSize() > 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(1, store.getSize());
+            Assert.assertEquals(100, store.getEvictionCount());
+            Assert.assertEquals(0, store.getLookupCount());
+        } finally {
+            store.stop();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.gateway.throttling.publisher;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class FrameThrottleEventAggregatorTest {
+
+    @Test
+    public void testFramesAreAggregatedPerKey() {
+
+        List<PublishedEvent> events = new ArrayList<>();
+        FrameThrottleEventAggregator aggregator = new FrameThrottleEventAggregator(
+                (throttleFields, remoteIP, frameCount, messageSize) ->
+                        events.add(new PublishedEvent(throttleFields, remoteIP, frameCount, messageSize)));
+        for (int i = 0; i < 10; i++) {
+            aggregator.add(throttleFields("app1"), "10.0.0.1", 100);
+        }
+        aggregator.add(throttleFields("app1"), "10.0.0.2", 50);
+        aggregator.add(throttleFields("app2"), "10.0.0.1", 20);
+        aggregator.publish();
+
+        Assert.assertEquals(3, events.size());
+        for (PublishedEvent event : events) {
+            if ("app1".equals(event.throttleFields[0]) && "10.0.0.1".equals(event.remoteIP)) {
+                Assert.assertEquals(10, event.frameCount);
+                Assert.assertEquals(1000, event.messageSize);
+            } else if ("app1".equals(event.throttleFields[0])) {
+                Assert.assertEquals(1, event.frameCount);
+                Assert.assertEquals(50, event.messageSize);
+            } else {
+                Assert.assertEquals("app2", event.throttleFields[0]);
+                Assert.assertEquals(1, event.frameCount);
+                Assert.assertEquals(20, event.messageSize);
+            }
+        }
+
+        events.clear();
+        aggregator.publish();
+        Assert.assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testNoFramesAreLostWhilePublishing() throws Exception {
+
+        long[] totals = new long[2];
+        FrameThrottleEventAggregator aggregator = new FrameThrottleEventAggregator(
+                (throttleFields, remoteIP, frameCount, messageSize) -> {
+                    totals[0] += frameCount;
+                    totals[1] += messageSize;
+                });
+        int threads = 4;
+        int framesPerThread = 100000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < framesPerThread; i++) {
+                        aggregator.add(throttleFields("app" + (i % 8)), "10.0.0." + thread, 2);
+                    }
+                }));
+            }
+            boolean done = false;
+            while (!done) {
+                aggregator.publish();
+                done = true;
+                for (Future<?> future : futures) {
+                    done &= future.isDone();
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        aggregator.publish();
+        Assert.assertEquals((long) threads * framesPerThread, totals[0]);
+        Assert.assertEquals(2L * threads * framesPerThread, totals[1]);
+    }
+
+    private static Object[] throttleFields(String appKey) {
+
+        return new Object[]{appKey, "Unlimited", "/ws:1.0.0", "Unlimited", "1:/ws:1.0.0", "AsyncUnlimited",
+                "/ws:1.0.0", "Unlimited", "admin@carbon.super", "/ws", "1.0.0", "carbon.super", "carbon.super", "1",
+                "WSAPI"};
+    }
+
+    private static final class PublishedEvent {
+
+        private final Object[] throttleFields;
+        private final String remoteIP;
+        private final long frameCount;
+        private final long messageSize;
+
+        private PublishedEvent(Object[] throttleFields, String remoteIP, long frameCount, long messageSize) {
+
+            this.throttleFields = throttleFields;
+            this.remoteIP = remoteIP;
+            this.frameCount = frameCount;
+            this.messageSize = messageSize;
+        }
+    }
+}
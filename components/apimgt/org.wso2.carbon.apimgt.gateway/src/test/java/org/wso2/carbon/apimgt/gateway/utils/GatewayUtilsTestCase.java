@@ -24,11 +24,15 @@ import org.apache.axis2.context.ConfigurationContext;
 import org.apache.axis2.engine.AxisConfiguration;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.synapse.MessageContext;
+import org.apache.synapse.core.axis2.Axis2MessageContext;
 import org.apache.synapse.rest.RESTConstants;
+import org.apache.synapse.transport.passthru.PassThroughConstants;
+import org.apache.synapse.transport.passthru.Pipe;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -37,6 +41,9 @@ import org.wso2.carbon.apimgt.api.APIManagementException;
 import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
 import org.wso2.carbon.apimgt.gateway.handlers.security.AuthenticationContext;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.threatprotection.APIMThreatAnalyzerException;
+import org.wso2.carbon.apimgt.gateway.threatprotection.analyzer.APIMThreatAnalyzer;
+import org.wso2.carbon.apimgt.gateway.threatprotection.utils.ThreatProtectorConstants;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.keymgt.SubscriptionDataHolder;
 import org.wso2.carbon.apimgt.keymgt.model.SubscriptionDataStore;
@@ -48,6 +55,10 @@ import org.wso2.carbon.registry.core.exceptions.RegistryException;
 import org.wso2.carbon.registry.core.service.RegistryService;
 import org.wso2.carbon.registry.core.session.UserRegistry;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -309,4 +320,47 @@ public class GatewayUtilsTestCase {
         Assert.assertFalse(GatewayUtils.isInternalKey(jwtClaimsSet));
     }
 
+    @Test
+    public void testCloneRequestMessageRestoresPayloadOnThreat() throws Exception {
+        byte[] body = new byte[64 * 1024];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) ('a' + i % 26);
+        }
+        Axis2MessageContext messageContext = Mockito.mock(Axis2MessageContext.class);
+        org.apache.axis2.context.MessageContext axis2MC = Mockito.mock(org.apache.axis2.context.MessageContext.class);
+        Pipe pipe = Mockito.mock(Pipe.class);
+        Mockito.when(messageContext.getAxis2MessageContext()).thenReturn(axis2MC);
+        Mockito.when(pipe.getInputStream()).thenReturn(new ByteArrayInputStream(body));
+        Mockito.when(axis2MC.getProperty(PassThroughConstants.PASS_THROUGH_PIPE)).thenReturn(pipe);
+        Mockito.when(axis2MC.getProperty(ThreatProtectorConstants.CONTENT_TYPE))
+                .thenReturn(ThreatProtectorConstants.APPLICATION_JSON);
+        // The analyzer rejects the payload after reading a part of it
+        APIMThreatAnalyzer analyzer = Mockito.mock(APIMThreatAnalyzer.class);
+        Mockito.doAnswer(invocation -> {
+            ((InputStream) invocation.getArguments()[0]).read(new byte[100]);
+            throw new APIMThreatAnalyzerException("Max string length exceeded");
+        }).when(analyzer).analyze(Mockito.any(InputStream.class), Mockito.anyString());
+
+        try {
+            GatewayUtils.cloneRequestMessage(messageContext, analyzer, "/api");
+            fail("Threat is not reported");
+        } catch (APIMThreatAnalyzerException e) {
+            // The payload is set back to the message context, so that the message can still be built from it
+            ArgumentCaptor<Object> restored = ArgumentCaptor.forClass(Object.class);
+            Mockito.verify(axis2MC).setProperty(Mockito.eq(PassThroughConstants.BUFFERED_INPUT_STREAM),
+                    restored.capture());
+            Assert.assertArrayEquals(body, readFully((InputStream) restored.getValue()));
+        }
+    }
+
+    private static byte[] readFully(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int length;
+        while ((length = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, length);
+        }
+        return outputStream.toByteArray();
+    }
+
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.gateway.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test cases related SegmentedLRUCache.
+ */
+public class SegmentedLRUCacheTest {
+
+    private static final int MAX_ENTRIES = 1024;
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() {
+
+        SegmentedLRUCache<String, String> cache = new SegmentedLRUCache<>(MAX_ENTRIES);
+        cache.put("hot", "hot-value");
+        for (int i = 0; i < MAX_ENTRIES * 4; i++) {
+            cache.put("key" + i, "value" + i);
+            // An entry which is looked up on every request stays in the cache
+            Assert.assertEquals("hot-value", cache.get("hot"));
+        }
+        int cached = 0;
+        for (int i = 0; i < MAX_ENTRIES * 4; i++) {
+            if (cache.get("key" + i) != null) {
+                cached++;
+            }
+        }
+        Assert.assertTrue(cached > 0 && cached < MAX_ENTRIES);
+        // The most recently added entry is kept
+        Assert.assertEquals("value" + (MAX_ENTRIES * 4 - 1), cache.get("key" + (MAX_ENTRIES * 4 - 1)));
+    }
+
+    @Test
+    public void testPutIfAbsent() {
+
+        SegmentedLRUCache<String, String> cache = new SegmentedLRUCache<>(MAX_ENTRIES);
+        Assert.assertNull(cache.putIfAbsent("key", "first"));
+        Assert.assertEquals("first", cache.putIfAbsent("key", "second"));
+        Assert.assertEquals("first", cache.get("key"));
+        cache.put("key", "third");
+        Assert.assertEquals("third", cache.get("key"));
+    }
+
+    @Test
+    public void testReplaceAndRemoveOnlyTheGivenValue() {
+
+        SegmentedLRUCache<String, String> cache = new SegmentedLRUCache<>(MAX_ENTRIES);
+        cache.put("key", "first");
+        Assert.assertFalse(cache.replace("key", "other", "second"));
+        Assert.assertTrue(cache.replace("key", "first", "second"));
+        Assert.assertEquals("second", cache.get("key"));
+        Assert.assertFalse(cache.remove("key", "first"));
+        Assert.assertTrue(cache.remove("key", "second"));
+        Assert.assertNull(cache.get("key"));
+        Assert.assertFalse(cache.replace("key", "second", "third"));
+        Assert.assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void testCacheSmallerThanSegments() {
+
+        SegmentedLRUCache<Integer, Integer> cache = new SegmentedLRUCache<>(1);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+            Assert.assertEquals(Integer.valueOf(i), cache.get(i));
+        }
+    }
+}
@@ -572,6 +572,10 @@ public final class APIConstants {
     public static final String PASSWORD_RESOLVER_IMPL_CLASS = "PasswordResolverImpl";
     public static final String CACHE_INVALIDATION_TYPE = "type";
     public static final String GATEWAY_JWKS_CACHE = "JWKS_CACHE";
+    public static final String JWKS_REFRESH_INTERVAL = "jwksRefreshInterval";
+    public static final String JWKS_MIN_FETCH_INTERVAL = "jwksMinFetchInterval";
+    public static final String VERIFIED_SIGNATURE_CACHE_SIZE = "verifiedSignatureCacheSize";
+    public static final String VERIFIED_SIGNATURE_CACHE_EXPIRY = "verifiedSignatureCacheExpiry";
     public static final String BLOCKING_CONDITION_ID = "id";
     public static final String API_OVERVIEW_KEY_MANAGERS = "overview_keyManagers";
     public static final String KEY_MANAGER_CONSUMER_KEY = "consumer_key";
@@ -704,6 +708,8 @@ public final class APIConstants {
     public static final String API_GATEWAY_PROVIDER = "Provider";
     public static final String API_GATEWAY_ADDITIONAL_PROPERTIES = "Properties";
     public static final String API_GATEWAY_ADDITIONAL_PROPERTY = "Property";
+    public static final String API_GATEWAY_WEBSOCKET_MAX_CONNECTIONS = API_GATEWAY + "WebSocket.MaxConnections";
+    public static final String API_GATEWAY_WEBSOCKET_IDLE_TIMEOUT = API_GATEWAY + "WebSocket.IdleTimeout";
 
 
     public static final String CACHE_CONFIGS = "CacheConfigurations.";
@@ -1168,6 +1174,7 @@ public final class APIConstants {
         public static final String APIS = "/apis";
         public static final String APPLICATIONS = "/applications";
         public static final String SUBSCRIPTIONS = "/subscriptions";
+        public static final String SUBSCRIPTION_DATA_CHANGES = "/subscription-data-changes";
         public static final String SUBSCRIBERS = "/subscribers";
         public static final String APPLICATION_KEY_MAPPINGS = "/application-key-mappings";
         public static final String APPLICATION_POLICIES = "/application-policies";
@@ -1272,6 +1279,8 @@ public final class APIConstants {
     public static final String API_GRAPHQL_SCHEMA_RESOURCE_LOCATION = API_APPLICATION_DATA_LOCATION + "/graphql/";
     public static final String GRAPHQL_SCHEMA_FILE_EXTENSION = ".graphql";
     public static final String GRAPHQL_LOCAL_ENTRY_EXTENSION = "_graphQL";
+    // Local entry with the persisted query manifest of a GraphQL API
+    public static final String GRAPHQL_PERSISTED_QUERIES_LOCAL_ENTRY_EXTENSION = "_graphQLPersistedQueries";
     public static final String GRAPHQL_SCHEMA_PROVIDER_SEPERATOR = "--";
     public static final String GRAPHQL_RESOURCE_PATH = "/*";
     public static final String GRAPHQL_SCHEMA_DEFINITION_SEPARATOR = "schemaDefinition=";
@@ -1288,6 +1297,9 @@ public final class APIConstants {
     public static final String GRAPHQL_PAYLOAD = "GRAPHQL_PAYLOAD";
     public static final String GRAPHQL_SCHEMA = "GRAPHQL_SCHEMA";
     public static final String GRAPHQL_ACCESS_CONTROL_POLICY = "WSO2GraphQLAccessControlPolicy";
+    // API property to enable persisted queries of a GraphQL API, with the value "automatic" or "allowList"
+    public static final String GRAPHQL_PERSISTED_QUERIES_PROPERTY = "graphqlPersistedQueries";
+    public static final String GRAPHQL_PERSISTED_QUERIES_HANDLER_PROPERTY = "persistedQueries";
     public static final String QUERY_ANALYSIS_COMPLEXITY = "complexity";
     public static final String MAXIMUM_QUERY_COMPLEXITY = "max_query_complexity";
     public static final String MAXIMUM_QUERY_DEPTH = "max_query_depth";
@@ -1402,6 +1414,7 @@ public final class APIConstants {
     public static final String CONFIG_REDIS_DATABASE_ID =  "RedisDatabaseId";
     public static final String CONFIG_REDIS_CONNECTION_TIMEOUT =  "RedisConnectionTimeout";
     public static final String CONFIG_REDIS_IS_SSL_ENABLED =  "RedisIsSslEnabled";
+    public static final String CONFIG_REDIS_COUNTER_SYNC_INTERVAL = "CounterSyncInterval";
     public static final String CONFIG_REDIS_PROPERTIES = "Properties";
     public static final String CONFIG_REDIS_MAX_TOTAL = "maxTotal";
     public static final String CONFIG_REDIS_MAX_IDLE = "maxIdle";
@@ -1931,6 +1944,8 @@ public final class APIConstants {
         public static final String ENABLE_HEADER_CONDITIONS = "EnableHeaderConditions";
         public static final String ENABLE_JWT_CLAIM_CONDITIONS = "EnableJWTClaimConditions";
         public static final String ENABLE_QUERY_PARAM_CONDITIONS = "EnableQueryParamConditions";
+        public static final String ENABLE_BINARY_PROPERTIES_ENCODING = "EnableBinaryPropertiesEncoding";
+        public static final String FRAME_EVENT_AGGREGATION_WINDOW = "FrameEventAggregationWindow";
         public static final String SKIP_REDEPLOYING_POLICIES = "SkipRedeployingPolicies";
         public static final String ENABLED = "Enabled";
         public static final String IS_THROTTLED = "isThrottled";
@@ -2618,6 +2633,9 @@ public final class APIConstants {
         public static final String PUBLISH_DIRECTLY_TO_GW_CONFIG = "PublishDirectlyToGW";
         public static final String GATEWAY_LABELS_CONFIG = "GatewayLabels";
         public static final String EVENT_WAITING_TIME_CONFIG = "EventWaitingTime";
+        public static final String ENABLE_SNAPSHOT_CONFIG = "EnableSnapshot";
+        public static final String SNAPSHOT_LOCATION_CONFIG = "SnapshotLocation";
+        public static final String ARTIFACTS_SNAPSHOT = "artifacts";
         public static final String LABEL_CONFIG = "Label";
         public static final String DB_SAVER_NAME = "DBSaver";
         public static final String DB_RETRIEVER_NAME = "DBRetriever";
@@ -72,6 +72,7 @@ public class APIGatewayManager {
                 System.currentTimeMillis(), APIConstants.EventType.DEPLOY_API_IN_GATEWAY.name(), api.getOrganization(),
                 api.getId().getId(), api.getUuid(), publishedGateways, apiIdentifier.getName(), apiIdentifier.getVersion(),
                 apiIdentifier.getProviderName(),api.getType(),api.getContext());
+        deployAPIInGatewayEvent.setRevision(api.getRevisionedApiId());
         APIUtil.sendNotification(deployAPIInGatewayEvent, APIConstants.NotifierType.GATEWAY_PUBLISHED_API.name());
         if (debugEnabled) {
             log.debug("Event sent to Gateway with eventID " + deployAPIInGatewayEvent.getEventId() + " for api "
@@ -79,7 +80,8 @@ public class APIGatewayManager {
         }
     }
 
-    private void sendDeploymentEvent(APIProduct api, String tenantDomain, Set<String> publishedGateways) {
+    private void sendDeploymentEvent(APIProduct api, String tenantDomain, Set<String> publishedGateways,
+                                     String revisionUUID) {
 
         APIProductIdentifier apiIdentifier = api.getId();
         DeployAPIInGatewayEvent
@@ -87,6 +89,7 @@ public class APIGatewayManager {
                 System.currentTimeMillis(), APIConstants.EventType.DEPLOY_API_IN_GATEWAY.name(), api.getOrganization(),
                 api.getProductId(),api.getUuid(), publishedGateways, apiIdentifier.getName(), apiIdentifier.getVersion(),
                 PRODUCT_PREFIX, api.getType(),api.getContext());
+        deployAPIInGatewayEvent.setRevision(revisionUUID);
         APIUtil.sendNotification(deployAPIInGatewayEvent, APIConstants.NotifierType.GATEWAY_PUBLISHED_API.name());
         if (debugEnabled) {
             log.debug("Event sent to Gateway with eventID " + deployAPIInGatewayEvent.getEventId() + " for api "
@@ -129,10 +132,24 @@ public class APIGatewayManager {
     }
 
     public void deployToGateway(APIProduct api, String tenantDomain, Set<String> gatewaysToPublish) {
+
+        deployToGateway(api, tenantDomain, gatewaysToPublish, null);
+    }
+
+    /**
+     * Notifies the gateways to deploy a revision of an API Product.
+     *
+     * @param api               API Product
+     * @param tenantDomain      tenant domain of the API Product
+     * @param gatewaysToPublish gateways the revision is deployed to
+     * @param revisionUUID      UUID of the deployed revision
+     */
+    public void deployToGateway(APIProduct api, String tenantDomain, Set<String> gatewaysToPublish,
+                                String revisionUUID) {
         if (debugEnabled) {
             log.debug("Status of " + api.getId() + " has been updated to DB");
         }
-        sendDeploymentEvent(api, tenantDomain, gatewaysToPublish);
+        sendDeploymentEvent(api, tenantDomain, gatewaysToPublish, revisionUUID);
     }
 
     public void unDeployFromGateway(API api, String tenantDomain, Set<String> gatewaysToRemove) {
@@ -377,6 +377,8 @@ public class APIManagerConfiguration {
                 OMElement redisDatabaseId = element.getFirstChildWithName(new QName(APIConstants.CONFIG_REDIS_DATABASE_ID));
                 OMElement redisConnectionTimeout = element.getFirstChildWithName(new QName(APIConstants.CONFIG_REDIS_CONNECTION_TIMEOUT));
                 OMElement redisIsSslEnabled = element.getFirstChildWithName(new QName(APIConstants.CONFIG_REDIS_IS_SSL_ENABLED));
+                OMElement redisCounterSyncInterval =
+                        element.getFirstChildWithName(new QName(APIConstants.CONFIG_REDIS_COUNTER_SYNC_INTERVAL));
                 OMElement propertiesElement = element.getFirstChildWithName(new QName(APIConstants.CONFIG_REDIS_PROPERTIES));
                 redisConfig.setRedisEnabled(true);
                 redisConfig.setHost(redisHost.getText());
@@ -389,6 +391,9 @@ public class APIManagerConfiguration {
                     redisConfig.setConnectionTimeout(Integer.parseInt(redisConnectionTimeout.getText()));
                     redisConfig.setSslEnabled(Boolean.parseBoolean(redisIsSslEnabled.getText()));
                 }
+                if (redisCounterSyncInterval != null) {
+                    redisConfig.setCounterSyncInterval(Long.parseLong(redisCounterSyncInterval.getText()));
+                }
                 if (propertiesElement !=null){
                     Iterator<OMElement> properties = propertiesElement.getChildElements();
                     if (properties != null) {
@@ -1047,6 +1052,27 @@ public class APIManagerConfiguration {
                 throttleProperties.setEnableQueryParamConditions(JavaUtils.isTrueExplicitly(enableQueryParamElement
                         .getText()));
             }
+            // Check binary encoding of throttle event properties enable
+            OMElement enableBinaryPropertiesEncodingElement = throttleConfigurationElement
+                    .getFirstChildWithName(new QName(APIConstants.AdvancedThrottleConstants
+                            .ENABLE_BINARY_PROPERTIES_ENCODING));
+            if (enableBinaryPropertiesEncodingElement != null) {
+                throttleProperties.setEnableBinaryPropertiesEncoding(JavaUtils.isTrueExplicitly(
+                        enableBinaryPropertiesEncodingElement.getText()));
+            }
+            // Check aggregation window of streaming API frame throttle events
+            OMElement frameEventAggregationWindowElement = throttleConfigurationElement
+                    .getFirstChildWithName(new QName(APIConstants.AdvancedThrottleConstants
+                            .FRAME_EVENT_AGGREGATION_WINDOW));
+            if (frameEventAggregationWindowElement != null) {
+                try {
+                    throttleProperties.setFrameEventAggregationWindow(Long.parseLong(
+                            frameEventAggregationWindowElement.getText().trim()));
+                } catch (NumberFormatException e) {
+                    log.warn("Invalid frame event aggregation window "
+                            + frameEventAggregationWindowElement.getText() + ". Frame events are not aggregated.");
+                }
+            }
             // Check skip redeploy throttle policies
             OMElement skipRedeployingPoliciesElement = throttleConfigurationElement
                     .getFirstChildWithName(new QName(APIConstants.AdvancedThrottleConstants
@@ -2033,6 +2059,25 @@ public class APIManagerConfiguration {
         } else {
             log.debug("Gateway Startup mode is not set. Set to Sync Mode");
         }
+
+        OMElement enableSnapshotElement = omElement
+                .getFirstChildWithName(new QName(APIConstants.GatewayArtifactSynchronizer.ENABLE_SNAPSHOT_CONFIG));
+        if (enableSnapshotElement != null) {
+            gatewayArtifactSynchronizerProperties.setSnapshotEnabled(
+                    JavaUtils.isTrueExplicitly(enableSnapshotElement.getText()));
+        } else {
+            log.debug("Gateway snapshot is not set. Set to default false");
+        }
+
+        OMElement snapshotLocationElement = omElement
+                .getFirstChildWithName(new QName(APIConstants.GatewayArtifactSynchronizer.SNAPSHOT_LOCATION_CONFIG));
+        if (snapshotLocationElement != null) {
+            gatewayArtifactSynchronizerProperties.setSnapshotLocation(
+                    APIUtil.replaceSystemProperty(snapshotLocationElement.getText()));
+        } else if (gatewayArtifactSynchronizerProperties.isSnapshotEnabled()) {
+            log.warn("Gateway snapshot location is not set. Gateway snapshots are disabled");
+            gatewayArtifactSynchronizerProperties.setSnapshotEnabled(false);
+        }
     }
 
     public GatewayArtifactSynchronizerProperties getGatewayArtifactSynchronizerProperties() {
@@ -5131,6 +5131,21 @@ class APIProviderImpl extends AbstractAPIManager implements APIProvider {
         }
     }
 
+    @Override
+    public void saveGraphQLPersistedQueryManifest(String apiId, String manifest, String organization)
+            throws APIManagementException {
+
+        try {
+            apiPersistenceInstance.saveGraphQLPersistedQueryManifest(new Organization(organization), apiId, manifest);
+        } catch (GraphQLPersistenceException e) {
+            if (e.getErrorHandler() == ExceptionCodes.API_NOT_FOUND) {
+                throw new APIMgtResourceNotFoundException(e);
+            } else {
+                throw new APIManagementException("Error while saving the persisted query manifest ", e);
+            }
+        }
+    }
+
     /**
      * Returns APIProduct Search result based on the provided query.
      *
@@ -5737,7 +5752,7 @@ class APIProviderImpl extends AbstractAPIManager implements APIProvider {
                         environmentsToRemove);
         apiMgtDAO.addAPIRevisionDeployment(apiRevisionId, apiRevisionDeployments);
         if (environmentsToAdd.size() > 0) {
-            gatewayManager.deployToGateway(product, tenantDomain, environmentsToAdd);
+            gatewayManager.deployToGateway(product, tenantDomain, environmentsToAdd, apiRevisionId);
         }
 
     }
@@ -264,6 +264,17 @@ public abstract class AbstractAPIManager implements APIManager {
         return definition;
     }
 
+    @Override
+    public String getGraphQLPersistedQueryManifest(String apiId, String organization) throws APIManagementException {
+
+        try {
+            return apiPersistenceInstance.getGraphQLPersistedQueryManifest(new Organization(organization), apiId);
+        } catch (GraphQLPersistenceException e) {
+            throw new APIManagementException("Error while retrieving the persisted query manifest from the "
+                    + "persistance location", e);
+        }
+    }
+
     @Override
     public String getOpenAPIDefinition(String apiId, String organization) throws APIManagementException {
 
@@ -165,6 +165,7 @@ public class ApiMgtDAO {
     private final Object scopeMutex = new Object();
     private boolean forceCaseInsensitiveComparisons = false;
     private boolean multiGroupAppSharingEnabled = false;
+    private final SubscriptionValidationDAO subscriptionValidationDAO = new SubscriptionValidationDAO();
 
     private ApiMgtDAO() {
 
@@ -259,6 +260,7 @@ public class ApiMgtDAO {
             ps.setString(5, UUID.randomUUID().toString());
             ps.setString(6, APIConstants.OAuthAppMode.CREATED.name());
             ps.execute();
+            subscriptionValidationDAO.recordSubscriptionDataChanges(conn, Collections.singleton(application.getId()));
 
             conn.commit();
         } catch (SQLException e) {
@@ -669,6 +671,8 @@ public class ApiMgtDAO {
             preparedStForUpdate.setString(2, status);
             preparedStForUpdate.setString(3, inputSubscriptionUUId);
             preparedStForUpdate.executeUpdate();
+            subscriptionValidationDAO.recordSubscriptionDataChanges(conn,
+                    subscriptionValidationDAO.getApplicationIdsBySubscription(conn, inputSubscriptionUUId));
 
             // finally commit transaction
             conn.commit();
@@ -778,6 +782,8 @@ public class ApiMgtDAO {
             String updateQuery = SQLConstants.UPDATE_SUBSCRIPTION_SQL;
             String deleteQuery = SQLConstants.REMOVE_SUBSCRIPTION_SQL;
 
+            Map<Integer, Set<Integer>> changedApplications = subscriptionValidationDAO.getApplicationsByTenant(conn,
+                    subscriptionValidationDAO.getApplicationIdsBySubscription(conn, subscription.getUUID()));
             if (APIConstants.SubscriptionStatus.BLOCKED.equals(subStatus) || APIConstants.SubscriptionStatus
                     .PROD_ONLY_BLOCKED.equals(subStatus)) {
                 preparedStForUpdateOrDelete = conn.prepareStatement(updateQuery);
@@ -787,6 +793,7 @@ public class ApiMgtDAO {
                 preparedStForUpdateOrDelete.setString(1, subscription.getUUID());
             }
             preparedStForUpdateOrDelete.executeUpdate();
+            subscriptionValidationDAO.recordSubscriptionDataChanges(conn, changedApplications);
         } catch (SQLException e) {
             log.error("Failed to add subscriber data ", e);
             handleException("Failed to add subscriber data ", e);
@@ -812,10 +819,13 @@ public class ApiMgtDAO {
             conn.setAutoCommit(false);
 
             String sqlQuery = SQLConstants.REMOVE_SUBSCRIPTION_BY_ID_SQL;
+            Map<Integer, Set<Integer>> changedApplications = subscriptionValidationDAO.getApplicationsByTenant(conn,
+                    subscriptionValidationDAO.getApplicationIdsBySubscription(conn, subscription_id));
 
             ps = conn.prepareStatement(sqlQuery);
             ps.setInt(1, subscription_id);
             ps.executeUpdate();
+            subscriptionValidationDAO.recordSubscriptionDataChanges(conn, changedApplications);
 
             conn.commit();
         } catch (SQLException e) {
@@ -844,10 +854,13 @@ public class ApiMgtDAO {
             apiId = getAPIID(uuid, conn);
 
             String sqlQuery = SQLConstants.REMOVE_ALL_SUBSCRIPTIONS_SQL;
+            Map<Integer, Set<Integer>> changedApplications = subscriptionValidationDAO.getApplicationsByTenant(conn,
+                    subscriptionValidationDAO.getApplicationIdsByAPI(conn, uuid));
 
             ps = conn.prepareStatement(sqlQuery);
             ps.setInt(1, apiId);
             ps.executeUpdate();
+            subscriptionValidationDAO.recordSubscriptionDataChanges(conn, changedApplications);
 
             conn.commit();
         } catch (SQLException e) {
@@ -2138,6 +2151,7 @@ public class ApiMgtDAO {
             updatePs.setInt(4, apiId);
             updatePs.setInt(5, applicationId);
             updatePs.execute();
+            subscriptionValidationDAO.recordSubscriptionDataChanges(conn, Collections.singleton(applicationId));
 
             // finally commit transaction
             conn.commit();
@@ -2182,6 +2196,8 @@ public class ApiMgtDAO {
             ps.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
             ps.setString(4, subscribedAPI.getUUID());
             ps.execute();
+            subscriptionValidationDAO.recordSubscriptionDataChanges(conn,
+                    subscriptionValidationDAO.getApplicationIdsBySubscription(conn, subscribedAPI.getUUID()));
 
             // finally commit transaction
             conn.commit();
@@ -2215,6 +2231,8 @@ public class ApiMgtDAO {
             ps.setString(1, status);
             ps.setInt(2, subscriptionId);
             ps.execute();
+            subscriptionValidationDAO.recordSubscriptionDataChanges(conn,
+                    subscriptionValidationDAO.getApplicationIdsBySubscription(conn, subscriptionId));
 
             //Commit transaction
             conn.commit();
@@ -2254,6 +2272,8 @@ public class ApiMgtDAO {
             ps.setString(3, status);
             ps.setInt(4, subscriptionId);
             ps.execute();
+            subscriptionValidationDAO.recordSubscriptionDataChanges(conn,
+                    subscriptionValidationDAO.getApplicationIdsBySubscription(conn, subscriptionId));
 
             //Commit transaction
             conn.commit();
@@ -2333,6 +2353,8 @@ public class ApiMgtDAO {
                 ps.setString(4, keyType);
                 ps.setString(5, keyManagerId);
                 ps.executeUpdate();
+                subscriptionValidationDAO.recordSubscriptionDataChanges(connection,
+                        Collections.singleton(application.getId()));
                 connection.commit();
             } catch (SQLException e) {
                 handleException("Error updating the CONSUMER KEY of the AM_APPLICATION_KEY_MAPPING table where " +
@@ -2379,6 +2401,8 @@ public class ApiMgtDAO {
                 ps.setString(6, keyManagerId);
                 ps.setString(7, keyMappingId);
                 ps.execute();
+                subscriptionValidationDAO.recordSubscriptionDataChanges(connection,
+                        Collections.singleton(applicationId));
                 connection.commit();
 
             } catch (SQLException e) {
@@ -2415,6 +2439,7 @@ public class ApiMgtDAO {
             ps.setString(3, keyType);
             ps.setString(4, keyManager);
             ps.execute();
+            subscriptionValidationDAO.recordSubscriptionDataChanges(conn, Collections.singleton(appId));
 
             conn.commit();
         } catch (SQLException e) {
@@ -3424,6 +3449,7 @@ public class ApiMgtDAO {
             if (application.getApplicationAttributes() != null) {
                 addApplicationAttributes(conn, application.getApplicationAttributes(), applicationId, tenantId);
             }
+            subscriptionValidationDAO.recordSubscriptionDataChanges(conn, Collections.singleton(applicationId));
         } catch (SQLException e) {
             handleException("Failed to add Application", e);
         } finally {
@@ -3478,6 +3504,7 @@ public class ApiMgtDAO {
             if (application.getApplicationAttributes() != null && !application.getApplicationAttributes().isEmpty()) {
                 addApplicationAttributes(conn, application.getApplicationAttributes(), application.getId(), tenantId);
             }
+            subscriptionValidationDAO.recordSubscriptionDataChanges(conn, Collections.singleton(application.getId()));
             conn.commit();
         } catch (SQLException e) {
             if (conn != null) {
@@ -3517,6 +3544,7 @@ public class ApiMgtDAO {
             ps.setInt(2, applicationId);
 
             ps.executeUpdate();
+            subscriptionValidationDAO.recordSubscriptionDataChanges(conn, Collections.singleton(applicationId));
 
             conn.commit();
         } catch (SQLException e) {
@@ -4005,6 +4033,8 @@ public class ApiMgtDAO {
                 prepStmt.setInt(2, subscriberId);
                 prepStmt.setString(3, application.getUUID());
                 prepStmt.executeUpdate();
+                subscriptionValidationDAO.recordSubscriptionDataChanges(connection,
+                        Collections.singleton(application.getId()));
                 connection.commit();
                 isAppUpdated = true;
             } else {
@@ -4507,6 +4537,8 @@ public class ApiMgtDAO {
         try {
             connection = APIMgtDBUtil.getConnection();
             connection.setAutoCommit(false);
+            Map<Integer, Set<Integer>> changedApplications = subscriptionValidationDAO.getApplicationsByTenant(
+                    connection, Collections.singleton(application.getId()));
             prepStmt = connection.prepareStatement(getSubscriptionsQuery);
             prepStmt.setInt(1, application.getId());
             rs = prepStmt.executeQuery();
@@ -4603,6 +4635,7 @@ public class ApiMgtDAO {
             if (log.isDebugEnabled()) {
                 log.debug("Application " + application.getName() + " is deleted successfully.");
             }
+            subscriptionValidationDAO.recordSubscriptionDataChanges(connection, changedApplications);
 
             if (transactionCompleted) {
                 connection.commit();
@@ -4729,9 +4762,12 @@ public class ApiMgtDAO {
             if (log.isDebugEnabled()) {
                 log.debug("trying to delete key mapping for consumer id " + consumerKey);
             }
+            Map<Integer, Set<Integer>> changedApplications = subscriptionValidationDAO.getApplicationsByTenant(
+                    connection, subscriptionValidationDAO.getApplicationIdsByConsumerKey(connection, consumerKey));
             ps = connection.prepareStatement(deleteKeyMappingQuery);
             ps.setString(1, consumerKey);
             ps.executeUpdate();
+            subscriptionValidationDAO.recordSubscriptionDataChanges(connection, changedApplications);
             connection.commit();
         } catch (SQLException e) {
             handleException("Error while removing application mapping table", e);
@@ -4764,6 +4800,7 @@ public class ApiMgtDAO {
             ps.setInt(1, applicationId);
             ps.setString(2, tokenType);
             ps.executeUpdate();
+            subscriptionValidationDAO.recordSubscriptionDataChanges(connection, Collections.singleton(applicationId));
             connection.commit();
         } catch (SQLException e) {
             handleException("Error while removing AM_APPLICATION_KEY_MAPPING table", e);
@@ -5197,6 +5234,8 @@ public class ApiMgtDAO {
                     }
                 }
             }
+            subscriptionValidationDAO.recordSubscriptionDataChanges(connection,
+                    Collections.singleton(application.getId()));
 
         return subscriptionId;
     }
@@ -6897,9 +6936,12 @@ public class ApiMgtDAO {
         try {
             connection = APIMgtDBUtil.getConnection();
             connection.setAutoCommit(false);
+            Map<Integer, Set<Integer>> changedApplications = subscriptionValidationDAO.getApplicationsByTenant(
+                    connection, subscriptionValidationDAO.getApplicationIdsByConsumerKey(connection, consumerKey));
             prepStmt = connection.prepareStatement(deleteApplicationKeyQuery);
             prepStmt.setString(1, consumerKey);
             prepStmt.execute();
+            subscriptionValidationDAO.recordSubscriptionDataChanges(connection, changedApplications);
             connection.commit();
         } catch (SQLException e) {
             handleException("Error while deleting mapping: consumer key " + consumerKey + " from the database", e);
@@ -6928,6 +6970,8 @@ public class ApiMgtDAO {
             connection.setAutoCommit(false);
             APIIdentifier identifier = ApiMgtDAO.getInstance().getAPIIdentifierFromUUID(uuid);
             id = getAPIID(uuid, connection);
+            Map<Integer, Set<Integer>> changedApplications = subscriptionValidationDAO.getApplicationsByTenant(
+                    connection, subscriptionValidationDAO.getApplicationIdsByAPI(connection, uuid));
 
             prepStmt = connection.prepareStatement(deleteAuditAPIMapping);
             prepStmt.setInt(1, id);
@@ -6943,6 +6987,7 @@ public class ApiMgtDAO {
             prepStmt.setInt(1, id);
             prepStmt.execute();
             prepStmt.close();//If exception occurs at execute, this statement will close in finally else here
+            subscriptionValidationDAO.recordSubscriptionDataChanges(connection, changedApplications);
 
             //Delete all comments associated with given API
             deleteAPIComments(id, uuid, connection);
@@ -9242,9 +9287,12 @@ public class ApiMgtDAO {
             if (log.isDebugEnabled()) {
                 log.debug("trying to delete key mapping for UUID " + keyMappingId);
             }
+            Map<Integer, Set<Integer>> changedApplications = subscriptionValidationDAO.getApplicationsByTenant(
+                    connection, subscriptionValidationDAO.getApplicationIdsByKeyMapping(connection, keyMappingId));
             ps = connection.prepareStatement(deleteKeyMappingQuery);
             ps.setString(1, keyMappingId);
             ps.executeUpdate();
+            subscriptionValidationDAO.recordSubscriptionDataChanges(connection, changedApplications);
             connection.commit();
         } catch (SQLException e) {
             handleException("Error while removing application mapping table", e);
@@ -9300,6 +9348,8 @@ public class ApiMgtDAO {
                         ps.setString(4, keyManagerName);
                         ps.executeUpdate();
                     }
+                    subscriptionValidationDAO.recordSubscriptionDataChanges(connection,
+                            Collections.singleton(applicationId));
                     connection.commit();
                 } catch (SQLException e) {
                     connection.rollback();
@@ -13973,6 +14023,7 @@ public class ApiMgtDAO {
             ps.setString(1, attributeKey);
             ps.setInt(2, applicationId);
             ps.execute();
+            subscriptionValidationDAO.recordSubscriptionDataChanges(connection, Collections.singleton(applicationId));
             connection.commit();
         } catch (SQLException e) {
             handleException("Error in establishing SQL connection ", e);
@@ -13997,6 +14048,7 @@ public class ApiMgtDAO {
             connection = APIMgtDBUtil.getConnection();
             connection.setAutoCommit(false);
             addApplicationAttributes(connection, applicationAttributes, applicationId, tenantId);
+            subscriptionValidationDAO.recordSubscriptionDataChanges(connection, Collections.singleton(applicationId));
             connection.commit();
         } catch (SQLException sqlException) {
             if (connection != null) {
@@ -38,6 +38,7 @@ import org.wso2.carbon.apimgt.api.model.subscription.ApplicationPolicy;
 import org.wso2.carbon.apimgt.api.model.subscription.GlobalPolicy;
 import org.wso2.carbon.apimgt.api.model.subscription.Policy;
 import org.wso2.carbon.apimgt.api.model.subscription.Subscription;
+import org.wso2.carbon.apimgt.api.model.subscription.SubscriptionDataChanges;
 import org.wso2.carbon.apimgt.api.model.subscription.SubscriptionPolicy;
 import org.wso2.carbon.apimgt.api.model.subscription.URLMapping;
 import org.wso2.carbon.apimgt.impl.APIConstants;
@@ -56,9 +57,14 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -67,6 +73,12 @@ import java.util.concurrent.ConcurrentHashMap;
 public class SubscriptionValidationDAO {
 
     private static Log log = LogFactory.getLog(SubscriptionValidationDAO.class);
+    // The change log of a tenant is pruned every this many revisions, keeping the changes of the last
+    // SUBSCRIPTION_DATA_CHANGE_RETENTION revisions. Gateways which loaded an older revision load all the data again.
+    private static final int SUBSCRIPTION_DATA_CHANGE_PRUNING_INTERVAL = 1000;
+    private static final int SUBSCRIPTION_DATA_CHANGE_RETENTION = 10000;
+    private static final Set<Integer> tenantsWithSubscriptionDataRevision = ConcurrentHashMap.newKeySet();
+    private static volatile Boolean subscriptionDataChangeLogAvailable;
 
     /*
      * This method can be used to retrieve all the Subscriptions in the database
@@ -1309,4 +1321,396 @@ public class SubscriptionValidationDAO {
         }
         return null;
     }
+
+    /**
+     * Returns the revision of the subscription data of a tenant, which is incremented each time a change of the
+     * applications of the tenant, their subscriptions or their key mappings is recorded.
+     *
+     * @param tenantDomain tenant domain, or null for the sum of the revisions of all the tenants
+     * @return revision of the subscription data, or 0 if it has not changed since the revisions were introduced
+     * @throws APIManagementException if the revision could not be read
+     */
+    public long getSubscriptionDataRevision(String tenantDomain) throws APIManagementException {
+
+        int tenantId = 0;
+        if (tenantDomain != null) {
+            tenantId = APIUtil.getTenantIdFromTenantDomain(tenantDomain);
+            if (tenantId == MultitenantConstants.INVALID_TENANT_ID) {
+                throw new APIManagementException("Invalid tenant domain " + tenantDomain);
+            }
+        }
+        String sql = tenantDomain != null ? SubscriptionValidationSQLConstants.GET_SUBSCRIPTION_DATA_REVISION_SQL :
+                SubscriptionValidationSQLConstants.GET_ALL_SUBSCRIPTION_DATA_REVISIONS_SQL;
+        try (Connection conn = APIMgtDBUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            if (tenantDomain != null) {
+                ps.setInt(1, tenantId);
+            }
+            try (ResultSet resultSet = ps.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong("REVISION") : 0;
+            }
+        } catch (SQLException e) {
+            throw new APIManagementException("Error in loading the subscription data revision of " + tenantDomain,
+                    e);
+        }
+    }
+
+    /**
+     * Returns the changes of the subscription data of a tenant since the given revision, along with the current
+     * applications, subscriptions and key mappings of the changed applications. The changes are not complete if the
+     * change log no longer holds the changes since the given revision, e.g. because they were pruned or the given
+     * revision is not a revision of this database, or if more applications than the given limit changed.
+     *
+     * @param tenantId             tenant id
+     * @param since                revision of the subscription data previously loaded
+     * @param maxApplicationCount  maximum number of changed applications to return
+     * @return changes since the given revision
+     * @throws APIManagementException if the changes could not be read
+     */
+    public SubscriptionDataChanges getSubscriptionDataChanges(int tenantId, long since, int maxApplicationCount)
+            throws APIManagementException {
+
+        SubscriptionDataChanges changes = new SubscriptionDataChanges();
+        try (Connection conn = APIMgtDBUtil.getConnection()) {
+            // The revision is read first, so that the changes up to it are committed, as the revision of a tenant is
+            // incremented in the transaction recording the changes of the tenant.
+            long revision = 0;
+            try (PreparedStatement ps =
+                         conn.prepareStatement(SubscriptionValidationSQLConstants.GET_SUBSCRIPTION_DATA_REVISION_SQL)) {
+                ps.setInt(1, tenantId);
+                try (ResultSet resultSet = ps.executeQuery()) {
+                    if (resultSet.next()) {
+                        revision = resultSet.getLong("REVISION");
+                    }
+                }
+            }
+            changes.setRevision(revision);
+            if (since == revision) {
+                changes.setComplete(true);
+                return changes;
+            }
+            if (since > revision) {
+                return changes;
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    SubscriptionValidationSQLConstants.GET_OLDEST_SUBSCRIPTION_DATA_CHANGE_SQL)) {
+                ps.setInt(1, tenantId);
+                try (ResultSet resultSet = ps.executeQuery()) {
+                    // Each revision records at least one change, so the changes are complete if the change of the
+                    // revision following the given one was not pruned.
+                    if (!resultSet.next() || resultSet.getLong("REVISION") > since + 1) {
+                        return changes;
+                    }
+                }
+            }
+            try (PreparedStatement ps =
+                         conn.prepareStatement(SubscriptionValidationSQLConstants.GET_SUBSCRIPTION_DATA_CHANGES_SQL)) {
+                ps.setInt(1, tenantId);
+                ps.setLong(2, since);
+                ps.setLong(3, revision);
+                try (ResultSet resultSet = ps.executeQuery()) {
+                    while (resultSet.next()) {
+                        if (changes.getApplicationIds().size() == maxApplicationCount) {
+                            changes.getApplicationIds().clear();
+                            return changes;
+                        }
+                        changes.getApplicationIds().add(resultSet.getInt("APPLICATION_ID"));
+                    }
+                }
+            }
+            for (Integer applicationId : changes.getApplicationIds()) {
+                try (PreparedStatement ps =
+                             conn.prepareStatement(SubscriptionValidationSQLConstants.GET_APPLICATION_BY_ID_SQL)) {
+                    ps.setInt(1, applicationId);
+                    try (ResultSet resultSet = ps.executeQuery()) {
+                        addToApplicationList(changes.getApplications(), resultSet);
+                    }
+                }
+                try (PreparedStatement ps = conn.prepareStatement(
+                        SubscriptionValidationSQLConstants.GET_APPLICATION_SUBSCRIPTIONS_SQL)) {
+                    ps.setInt(1, applicationId);
+                    try (ResultSet resultSet = ps.executeQuery()) {
+                        populateSubscriptionsList(changes.getSubscriptions(), resultSet);
+                    }
+                }
+                try (PreparedStatement ps = conn.prepareStatement(
+                        SubscriptionValidationSQLConstants.GET_APPLICATION_AM_KEY_MAPPING_SQL)) {
+                    ps.setInt(1, applicationId);
+                    try (ResultSet resultSet = ps.executeQuery()) {
+                        populateApplicationKeyMappingsList(changes.getApplicationKeyMappings(), resultSet);
+                    }
+                }
+            }
+            changes.setComplete(true);
+        } catch (SQLException e) {
+            throw new APIManagementException("Error in loading the subscription data changes of tenant " + tenantId +
+                    " since revision " + since, e);
+        }
+        return changes;
+    }
+
+    /**
+     * @return ids of the applications subscribed to an API
+     */
+    public Set<Integer> getApplicationIdsByAPI(Connection conn, String apiUUID) throws SQLException {
+
+        return getApplicationIds(conn, SubscriptionValidationSQLConstants.GET_APPLICATION_IDS_BY_API_UUID_SQL,
+                apiUUID);
+    }
+
+    /**
+     * @return id of the application of a subscription, if the subscription exists
+     */
+    public Set<Integer> getApplicationIdsBySubscription(Connection conn, int subscriptionId) throws SQLException {
+
+        return getApplicationIds(conn, SubscriptionValidationSQLConstants.GET_APPLICATION_ID_BY_SUBSCRIPTION_ID_SQL,
+                subscriptionId);
+    }
+
+    /**
+     * @return id of the application of a subscription, if the subscription exists
+     */
+    public Set<Integer> getApplicationIdsBySubscription(Connection conn, String subscriptionUUID)
+            throws SQLException {
+
+        return getApplicationIds(conn, SubscriptionValidationSQLConstants.GET_APPLICATION_ID_BY_SUBSCRIPTION_UUID_SQL,
+                subscriptionUUID);
+    }
+
+    /**
+     * @return id of the application of a consumer key, if the key is mapped to an application
+     */
+    public Set<Integer> getApplicationIdsByConsumerKey(Connection conn, String consumerKey) throws SQLException {
+
+        return getApplicationIds(conn, SubscriptionValidationSQLConstants.GET_APPLICATION_ID_BY_CONSUMER_KEY_SQL,
+                consumerKey);
+    }
+
+    /**
+     * @return id of the application of a key mapping, if the key mapping exists
+     */
+    public Set<Integer> getApplicationIdsByKeyMapping(Connection conn, String keyMappingId) throws SQLException {
+
+        return getApplicationIds(conn, SubscriptionValidationSQLConstants.GET_APPLICATION_ID_BY_KEY_MAPPING_ID_SQL,
+                keyMappingId);
+    }
+
+    private Set<Integer> getApplicationIds(Connection conn, String sql, Object key) throws SQLException {
+
+        Set<Integer> applicationIds = new HashSet<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setObject(1, key);
+            try (ResultSet resultSet = ps.executeQuery()) {
+                while (resultSet.next()) {
+                    applicationIds.add(resultSet.getInt("APPLICATION_ID"));
+                }
+            }
+        }
+        return applicationIds;
+    }
+
+    /**
+     * Groups the given applications by the tenant of their subscriber, which is the tenant whose subscription data
+     * they are loaded with. The tenants of applications which are about to be removed have to be looked up before
+     * they are removed.
+     *
+     * @param conn           connection of the transaction changing the applications
+     * @param applicationIds ids of the applications
+     * @return ids of the existing applications, keyed by tenant id
+     * @throws SQLException if the applications could not be read
+     */
+    public Map<Integer, Set<Integer>> getApplicationsByTenant(Connection conn, Collection<Integer> applicationIds)
+            throws SQLException {
+
+        Map<Integer, Set<Integer>> applicationsByTenant = new TreeMap<>();
+        if (applicationIds.isEmpty()) {
+            return applicationsByTenant;
+        }
+        try (PreparedStatement ps =
+                     conn.prepareStatement(SubscriptionValidationSQLConstants.GET_APPLICATION_TENANT_SQL)) {
+            for (Integer applicationId : applicationIds) {
+                ps.setInt(1, applicationId);
+                try (ResultSet resultSet = ps.executeQuery()) {
+                    if (resultSet.next()) {
+                        applicationsByTenant.computeIfAbsent(resultSet.getInt("TENANT_ID"), tenantId -> new TreeSet<>())
+                                .add(applicationId);
+                    }
+                }
+            }
+        }
+        return applicationsByTenant;
+    }
+
+    /**
+     * Records a change of the subscription data of the given applications. See
+     * {@link #recordSubscriptionDataChanges(Connection, Map)}.
+     *
+     * @param conn           connection of the transaction changing the applications
+     * @param applicationIds ids of the changed applications
+     * @throws SQLException if the change could not be recorded
+     */
+    public void recordSubscriptionDataChanges(Connection conn, Collection<Integer> applicationIds)
+            throws SQLException {
+
+        recordSubscriptionDataChanges(conn, getApplicationsByTenant(conn, applicationIds));
+    }
+
+    /**
+     * Records a change of the subscription data of the given applications, i.e. of the applications themselves, of
+     * their subscriptions or of their key mappings, by incrementing the revision of the subscription data of their
+     * tenants and adding the applications to the change log under the new revisions.
+     * <p>
+     * The change has to be recorded in the transaction which changes the applications, after they were changed, so
+     * that the new revision is committed along with the change, and a gateway which loads the changes up to the new
+     * revision finds the changed applications. If the connection is in auto-commit mode, the change is recorded in a
+     * transaction of its own right after the applications were changed. Incrementing the revision locks the revision
+     * of the tenant until the transaction ends, so the revisions of a tenant are committed in order.
+     *
+     * @param conn                 connection of the transaction changing the applications
+     * @param applicationsByTenant ids of the changed applications, keyed by tenant id
+     * @throws SQLException if the change could not be recorded
+     */
+    public void recordSubscriptionDataChanges(Connection conn, Map<Integer, Set<Integer>> applicationsByTenant)
+            throws SQLException {
+
+        if (applicationsByTenant.isEmpty() || !isSubscriptionDataChangeLogAvailable()) {
+            return;
+        }
+        boolean autoCommit = conn.getAutoCommit();
+        if (autoCommit) {
+            conn.setAutoCommit(false);
+        }
+        try {
+            // Tenants are locked in the order of their ids, so that concurrent transactions do not deadlock.
+            for (Map.Entry<Integer, Set<Integer>> entry : new TreeMap<>(applicationsByTenant).entrySet()) {
+                int tenantId = entry.getKey();
+                long revision = incrementSubscriptionDataRevision(conn, tenantId);
+                try (PreparedStatement ps = conn.prepareStatement(
+                        SubscriptionValidationSQLConstants.ADD_SUBSCRIPTION_DATA_CHANGE_SQL)) {
+                    for (Integer applicationId : entry.getValue()) {
+                        ps.setInt(1, tenantId);
+                        ps.setLong(2, revision);
+                        ps.setInt(3, applicationId);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                if (revision % SUBSCRIPTION_DATA_CHANGE_PRUNING_INTERVAL == 0) {
+                    try (PreparedStatement ps = conn.prepareStatement(
+                            SubscriptionValidationSQLConstants.DELETE_SUBSCRIPTION_DATA_CHANGES_SQL)) {
+                        ps.setInt(1, tenantId);
+                        ps.setLong(2, revision - SUBSCRIPTION_DATA_CHANGE_RETENTION);
+                        ps.executeUpdate();
+                    }
+                }
+            }
+            if (autoCommit) {
+                conn.commit();
+            }
+        } catch (SQLException e) {
+            if (autoCommit) {
+                APIMgtDBUtil.rollbackConnection(conn, "record subscription data changes", e);
+            }
+            throw e;
+        } finally {
+            if (autoCommit) {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private long incrementSubscriptionDataRevision(Connection conn, int tenantId) throws SQLException {
+
+        addSubscriptionDataRevision(tenantId);
+        try (PreparedStatement ps = conn.prepareStatement(
+                SubscriptionValidationSQLConstants.INCREMENT_SUBSCRIPTION_DATA_REVISION_SQL)) {
+            ps.setInt(1, tenantId);
+            if (ps.executeUpdate() == 0) {
+                tenantsWithSubscriptionDataRevision.remove(tenantId);
+                throw new SQLException("Subscription data revision of tenant " + tenantId + " does not exist");
+            }
+        }
+        try (PreparedStatement ps =
+                     conn.prepareStatement(SubscriptionValidationSQLConstants.GET_SUBSCRIPTION_DATA_REVISION_SQL)) {
+            ps.setInt(1, tenantId);
+            try (ResultSet resultSet = ps.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong("REVISION");
+            }
+        }
+    }
+
+    /**
+     * Adds the revision of the subscription data of a tenant if it does not exist yet. The revision is added on a
+     * connection of its own, so that an insert which fails as another node added the revision in the meantime does
+     * not abort the transaction recording the change, and so that the transaction does not hold a lock on a missing
+     * row which the insert waits for.
+     */
+    private void addSubscriptionDataRevision(int tenantId) throws SQLException {
+
+        if (tenantsWithSubscriptionDataRevision.contains(tenantId)) {
+            return;
+        }
+        try (Connection conn = APIMgtDBUtil.getConnection()) {
+            conn.setAutoCommit(true);
+            if (!hasSubscriptionDataRevision(conn, tenantId)) {
+                try (PreparedStatement ps = conn.prepareStatement(
+                        SubscriptionValidationSQLConstants.ADD_SUBSCRIPTION_DATA_REVISION_SQL)) {
+                    ps.setInt(1, tenantId);
+                    ps.executeUpdate();
+                } catch (SQLException e) {
+                    if (!hasSubscriptionDataRevision(conn, tenantId)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+        tenantsWithSubscriptionDataRevision.add(tenantId);
+    }
+
+    private boolean hasSubscriptionDataRevision(Connection conn, int tenantId) throws SQLException {
+
+        try (PreparedStatement ps =
+                     conn.prepareStatement(SubscriptionValidationSQLConstants.GET_SUBSCRIPTION_DATA_REVISION_SQL)) {
+            ps.setInt(1, tenantId);
+            try (ResultSet resultSet = ps.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    /**
+     * Checks once whether the tables of the change log exist, so that changes are not recorded on a database which
+     * was not migrated yet, where recording them would fail the transactions changing the applications. The
+     * gateways then derive the entity tags of the lists from their entries, and load them again in full.
+     */
+    private static boolean isSubscriptionDataChangeLogAvailable() {
+
+        Boolean available = subscriptionDataChangeLogAvailable;
+        if (available == null) {
+            synchronized (SubscriptionValidationDAO.class) {
+                available = subscriptionDataChangeLogAvailable;
+                if (available == null) {
+                    try (Connection conn = APIMgtDBUtil.getConnection();
+                         PreparedStatement revisionStatement = conn.prepareStatement(
+                                 SubscriptionValidationSQLConstants.GET_SUBSCRIPTION_DATA_REVISION_SQL);
+                         PreparedStatement changeStatement = conn.prepareStatement(
+                                 SubscriptionValidationSQLConstants.GET_OLDEST_SUBSCRIPTION_DATA_CHANGE_SQL)) {
+                        revisionStatement.setInt(1, MultitenantConstants.INVALID_TENANT_ID);
+                        revisionStatement.executeQuery().close();
+                        changeStatement.setInt(1, MultitenantConstants.INVALID_TENANT_ID);
+                        changeStatement.executeQuery().close();
+                        available = true;
+                    } catch (SQLException e) {
+                        log.warn("Subscription data changes are not recorded, as the AM_SUBSCRIPTION_DATA_REVISION " +
+                                "and AM_SUBSCRIPTION_DATA_CHANGE tables are not available. Run the migration " +
+                                "scripts of the database and restart the server to record them.", e);
+                        available = false;
+                    }
+                    subscriptionDataChangeLogAvailable = available;
+                }
+            }
+        }
+        return available;
+    }
 }
@@ -595,4 +595,77 @@ public class SubscriptionValidationSQLConstants {
             "DEPLOYMENT_NAME FROM AM_API LEFT JOIN AM_REVISION ON AM_API.API_UUID=AM_REVISION.API_UUID LEFT JOIN " +
             "AM_DEPLOYMENT_REVISION_MAPPING ON AM_REVISION.REVISION_UUID=AM_DEPLOYMENT_REVISION_MAPPING.REVISION_UUID" +
             " WHERE AM_API.CONTEXT = ? AND AM_API.API_VERSION= ?";
+
+    public static final String GET_SUBSCRIPTION_DATA_REVISION_SQL =
+            "SELECT REVISION FROM AM_SUBSCRIPTION_DATA_REVISION WHERE TENANT_ID = ?";
+
+    public static final String GET_ALL_SUBSCRIPTION_DATA_REVISIONS_SQL =
+            "SELECT SUM(REVISION) AS REVISION FROM AM_SUBSCRIPTION_DATA_REVISION";
+
+    public static final String INCREMENT_SUBSCRIPTION_DATA_REVISION_SQL =
+            "UPDATE AM_SUBSCRIPTION_DATA_REVISION SET REVISION = REVISION + 1 WHERE TENANT_ID = ?";
+
+    public static final String ADD_SUBSCRIPTION_DATA_REVISION_SQL =
+            "INSERT INTO AM_SUBSCRIPTION_DATA_REVISION (TENANT_ID, REVISION) VALUES (?, 0)";
+
+    public static final String ADD_SUBSCRIPTION_DATA_CHANGE_SQL =
+            "INSERT INTO AM_SUBSCRIPTION_DATA_CHANGE (TENANT_ID, REVISION, APPLICATION_ID) VALUES (?, ?, ?)";
+
+    public static final String GET_SUBSCRIPTION_DATA_CHANGES_SQL =
+            "SELECT DISTINCT APPLICATION_ID FROM AM_SUBSCRIPTION_DATA_CHANGE WHERE TENANT_ID = ? AND " +
+                    "REVISION > ? AND REVISION <= ?";
+
+    public static final String GET_OLDEST_SUBSCRIPTION_DATA_CHANGE_SQL =
+            "SELECT MIN(REVISION) AS REVISION FROM AM_SUBSCRIPTION_DATA_CHANGE WHERE TENANT_ID = ?";
+
+    public static final String DELETE_SUBSCRIPTION_DATA_CHANGES_SQL =
+            "DELETE FROM AM_SUBSCRIPTION_DATA_CHANGE WHERE TENANT_ID = ? AND REVISION <= ?";
+
+    public static final String GET_APPLICATION_TENANT_SQL =
+            "SELECT SUB.TENANT_ID FROM AM_APPLICATION APP, AM_SUBSCRIBER SUB WHERE " +
+                    "APP.SUBSCRIBER_ID = SUB.SUBSCRIBER_ID AND APP.APPLICATION_ID = ?";
+
+    public static final String GET_APPLICATION_ID_BY_SUBSCRIPTION_ID_SQL =
+            "SELECT APPLICATION_ID FROM AM_SUBSCRIPTION WHERE SUBSCRIPTION_ID = ?";
+
+    public static final String GET_APPLICATION_ID_BY_SUBSCRIPTION_UUID_SQL =
+            "SELECT APPLICATION_ID FROM AM_SUBSCRIPTION WHERE UUID = ?";
+
+    public static final String GET_APPLICATION_IDS_BY_API_UUID_SQL =
+            "SELECT DISTINCT SUBS.APPLICATION_ID FROM AM_SUBSCRIPTION SUBS, AM_API API WHERE " +
+                    "SUBS.API_ID = API.API_ID AND API.API_UUID = ?";
+
+    public static final String GET_APPLICATION_ID_BY_CONSUMER_KEY_SQL =
+            "SELECT APPLICATION_ID FROM AM_APPLICATION_KEY_MAPPING WHERE CONSUMER_KEY = ?";
+
+    public static final String GET_APPLICATION_ID_BY_KEY_MAPPING_ID_SQL =
+            "SELECT APPLICATION_ID FROM AM_APPLICATION_KEY_MAPPING WHERE UUID = ?";
+
+    public static final String GET_APPLICATION_SUBSCRIPTIONS_SQL =
+            "SELECT " +
+                    "   SUBS.UUID AS SUBSCRIPTION_UUID," +
+                    "   SUBS.SUBSCRIPTION_ID AS SUB_ID," +
+                    "   SUBS.TIER_ID AS TIER," +
+                    "   SUBS.API_ID AS API_ID," +
+                    "   APP.APPLICATION_ID AS APP_ID," +
+                    "   APP.UUID AS APPLICATION_UUID," +
+                    "   API.API_UUID AS API_UUID," +
+                    "   SUBS.SUB_STATUS AS STATUS" +
+                    " FROM " +
+                    "   AM_SUBSCRIPTION SUBS," +
+                    "   AM_APPLICATION APP," +
+                    "   AM_API API" +
+                    " WHERE " +
+                    "   SUBS.API_ID = API.API_ID AND " +
+                    "   SUBS.APPLICATION_ID = APP.APPLICATION_ID AND " +
+                    "   APP.APPLICATION_ID = ? ";
+
+    public static final String GET_APPLICATION_AM_KEY_MAPPING_SQL =
+            "SELECT APP.UUID,MAPPING.APPLICATION_ID, MAPPING.CONSUMER_KEY,MAPPING.KEY_TYPE,KEYM.NAME AS KEY_MANAGER," +
+                    "MAPPING.STATE" +
+                    " FROM " +
+                    "   AM_APPLICATION_KEY_MAPPING MAPPING,AM_APPLICATION APP,AM_KEY_MANAGER KEYM" +
+                    " WHERE " +
+                    "   MAPPING.APPLICATION_ID = APP.APPLICATION_ID AND" +
+                    "   MAPPING.KEY_MANAGER = KEYM.UUID AND APP.APPLICATION_ID = ?";
 }
@@ -15,6 +15,8 @@ public class GatewayArtifactSynchronizerProperties {
     private String artifactSynchronizerDataSource = "jdbc/WSO2AM_DB";
     private long retryDuartion = 15000 ;
     private String gatewayStartup = "sync";
+    private boolean snapshotEnabled = false;
+    private String snapshotLocation;
     private long eventWaitingTime = 1;
 
 
@@ -112,4 +114,24 @@ public class GatewayArtifactSynchronizerProperties {
 
         this.gatewayStartup = gatewayStartup;
     }
+
+    public boolean isSnapshotEnabled() {
+
+        return snapshotEnabled;
+    }
+
+    public void setSnapshotEnabled(boolean snapshotEnabled) {
+
+        this.snapshotEnabled = snapshotEnabled;
+    }
+
+    public String getSnapshotLocation() {
+
+        return snapshotLocation;
+    }
+
+    public void setSnapshotLocation(String snapshotLocation) {
+
+        this.snapshotLocation = snapshotLocation;
+    }
 }
@@ -42,6 +42,7 @@ public class RedisConfig {
     private long minEvictableIdleTimeMillis = 60000L;
     private long timeBetweenEvictionRunsMillis = 30000L;
     private int numTestsPerEvictionRun = -1;
+    private long counterSyncInterval = 0L;
 
     public int getMaxTotal() {
 
@@ -143,6 +144,16 @@ public class RedisConfig {
         this.numTestsPerEvictionRun = numTestsPerEvictionRun;
     }
 
+    public long getCounterSyncInterval() {
+
+        return counterSyncInterval;
+    }
+
+    public void setCounterSyncInterval(long counterSyncInterval) {
+
+        this.counterSyncInterval = counterSyncInterval;
+    }
+
     /**
      * Public default constructor
      */
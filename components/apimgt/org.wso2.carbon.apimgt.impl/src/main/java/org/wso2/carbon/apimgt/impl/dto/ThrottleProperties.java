@@ -46,6 +46,8 @@ public class ThrottleProperties {
     private boolean enableHeaderConditions = false;
     private boolean enableJwtConditions = false;
     private boolean enableQueryParamConditions =false;
+    private boolean enableBinaryPropertiesEncoding = false;
+    private long frameEventAggregationWindow = 0;
     private String[] skipRedeployingPolicies = new String[]{};
     private Map<String, Long> defaultThrottleTierLimits = new HashMap<String, Long>();
     private TrafficManager trafficManager;
@@ -154,6 +156,26 @@ public class ThrottleProperties {
         this.enableQueryParamConditions = enableQueryParamConditions;
     }
 
+    public boolean isEnableBinaryPropertiesEncoding() {
+        return enableBinaryPropertiesEncoding;
+    }
+
+    public void setEnableBinaryPropertiesEncoding(boolean enableBinaryPropertiesEncoding) {
+        this.enableBinaryPropertiesEncoding = enableBinaryPropertiesEncoding;
+    }
+
+    /**
+     * @return window in milliseconds over which the throttle events of streaming API frames are aggregated, or 0 to
+     * publish an event per frame
+     */
+    public long getFrameEventAggregationWindow() {
+        return frameEventAggregationWindow;
+    }
+
+    public void setFrameEventAggregationWindow(long frameEventAggregationWindow) {
+        this.frameEventAggregationWindow = frameEventAggregationWindow;
+    }
+
     public void setTrafficManager(TrafficManager trafficManager) {
         this.trafficManager = trafficManager;
     }
@@ -21,6 +21,7 @@ package org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer;
 import org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer.exception.ArtifactSynchronizerException;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -46,6 +47,28 @@ public interface ArtifactRetriever {
      */
     String retrieveArtifact(String APIId, String gatewayLabel) throws ArtifactSynchronizerException;
 
+    /**
+     * This method is used to retrieve the artifacts of several APIs from the storage at once. Retrievers which can
+     * not retrieve several artifacts in a single request retrieve them one by one.
+     *
+     * @param apiIds       - UUIDs of the APIs
+     * @param gatewayLabel - Label subscribed by the gateway
+     * @return A List of String contains the artifacts of the APIs which are available in the storage
+     * @throws ArtifactSynchronizerException if there are any errors when retrieving the Artifacts
+     */
+    default List<String> retrieveArtifacts(List<String> apiIds, String gatewayLabel)
+            throws ArtifactSynchronizerException {
+
+        List<String> artifacts = new ArrayList<>();
+        for (String apiId : apiIds) {
+            String artifact = retrieveArtifact(apiId, gatewayLabel);
+            if (artifact != null) {
+                artifacts.add(artifact);
+            }
+        }
+        return artifacts;
+    }
+
     /**
      * This method is used to retrieve data from the storage
      *
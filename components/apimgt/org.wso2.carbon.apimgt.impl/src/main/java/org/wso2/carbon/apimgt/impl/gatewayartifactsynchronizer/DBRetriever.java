@@ -51,6 +51,7 @@ import java.util.Set;
 public class DBRetriever implements ArtifactRetriever {
 
     private static final Log log = LogFactory.getLog(DBRetriever.class);
+    private static final int MAX_API_IDS_PER_REQUEST = 50;
     protected EventHubConfigurationDto eventHubConfigurationDto = ServiceReferenceHolder.getInstance()
             .getAPIManagerConfigurationService().getAPIManagerConfiguration().getEventHubConfigurationDto();
     protected GatewayArtifactSynchronizerProperties gatewayArtifactSynchronizerProperties =
@@ -67,30 +68,49 @@ public class DBRetriever implements ArtifactRetriever {
     public String retrieveArtifact(String apiId, String gatewayLabel)
             throws ArtifactSynchronizerException {
 
-        String tenantDomain = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
-        try {
-            Thread.sleep(gatewayArtifactSynchronizerProperties.getEventWaitingTime());
-        } catch (InterruptedException e) {
-            log.error("Error occurred while waiting to retrieve artifacts from event hub");
+        JSONArray jsonArray = retrieveArtifacts(apiId, gatewayLabel);
+        if (jsonArray != null && jsonArray.length() > 0) {
+            return jsonArray.getString(0);
+        }
+        return null;
+    }
+
+    @Override
+    public List<String> retrieveArtifacts(List<String> apiIds, String gatewayLabel)
+            throws ArtifactSynchronizerException {
+
+        List<String> gatewayRuntimeArtifacts = new ArrayList<>();
+        // Keep the request URLs short by retrieving the artifacts of a limited number of APIs in each request.
+        for (int i = 0; i < apiIds.size(); i += MAX_API_IDS_PER_REQUEST) {
+            List<String> apiIdList = apiIds.subList(i, Math.min(i + MAX_API_IDS_PER_REQUEST, apiIds.size()));
+            JSONArray jsonArray = retrieveArtifacts(String.join(",", apiIdList), gatewayLabel);
+            if (jsonArray != null) {
+                for (int j = 0; j < jsonArray.length(); j++) {
+                    gatewayRuntimeArtifacts.add(jsonArray.getString(j));
+                }
+            }
         }
+        return gatewayRuntimeArtifacts;
+    }
+
+    private JSONArray retrieveArtifacts(String apiIds, String gatewayLabel) throws ArtifactSynchronizerException {
+
+        String tenantDomain = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
         try {
             String encodedGatewayLabel = URLEncoder.encode(gatewayLabel, APIConstants.DigestAuthConstants.CHARSET);
             encodedGatewayLabel = encodedGatewayLabel.replace("\\+", "%20");
-            String path = APIConstants.GatewayArtifactSynchronizer.GATEAY_SYNAPSE_ARTIFACTS + "?apiId=" + apiId +
-                    "&gatewayLabel=" + encodedGatewayLabel + "&type=Synapse";
+            String encodedApiIds = URLEncoder.encode(apiIds, APIConstants.DigestAuthConstants.CHARSET);
+            String path = APIConstants.GatewayArtifactSynchronizer.GATEAY_SYNAPSE_ARTIFACTS + "?apiId=" +
+                    encodedApiIds + "&gatewayLabel=" + encodedGatewayLabel + "&type=Synapse";
             String endpoint = baseURL + path;
             try (CloseableHttpResponse httpResponse = invokeService(endpoint, tenantDomain)) {
-                JSONArray jsonArray = retrieveArtifact(httpResponse);
-                if (jsonArray != null && jsonArray.length() > 0) {
-                    return jsonArray.getString(0);
-                }
+                return retrieveArtifact(httpResponse);
             }
         } catch (IOException e) {
             String msg = "Error while executing the http client";
             log.error(msg, e);
             throw new ArtifactSynchronizerException(msg, e);
         }
-        return null;
     }
 
     private JSONArray retrieveArtifact(CloseableHttpResponse httpResponse)
@@ -0,0 +1,363 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Local snapshot of data synchronized from the control plane, which a gateway loads on startup so that it can serve
+ * traffic before the synchronization with the control plane completes.
+ * <p>
+ * A snapshot file holds a header of a magic number, a format version, the number of entries and a CRC32 checksum,
+ * followed by a tag and the key value entries. The checksum covers the tag, the entries and the number of entries.
+ * Strings are written as their length followed by their UTF-8 bytes, with a length of -1 for null. Snapshots are
+ * written to a temporary file which replaces the previous snapshot only once it is complete, and are read through a
+ * memory mapped buffer after verifying the checksum, so that a partially written or corrupted snapshot is never
+ * loaded. The buffer is unmapped when the snapshot is closed.
+ * <p>
+ * Snapshot files and their directories are created readable by the owner only, where the file system supports POSIX
+ * permissions. Secrets should nevertheless be encrypted before they are added to a snapshot.
+ */
+public final class GatewaySnapshot implements Closeable {
+
+    private static final Log log = LogFactory.getLog(GatewaySnapshot.class);
+
+    private static final int MAGIC = 0x41504D53;
+    private static final byte VERSION = 1;
+    // Magic number, version, entry count and checksum.
+    private static final int HEADER_LENGTH = 4 + 1 + 4 + 8;
+    private static final int COUNT_OFFSET = 5;
+    private static final String SNAPSHOT_EXTENSION = ".snapshot";
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final String POSIX_FILE_ATTRIBUTE_VIEW = "posix";
+    private static final Set<PosixFilePermission> FILE_PERMISSIONS = PosixFilePermissions.fromString("rw-------");
+    private static final Set<PosixFilePermission> DIRECTORY_PERMISSIONS =
+            PosixFilePermissions.fromString("rwx------");
+
+    private final String tag;
+    private final int count;
+    private final MappedByteBuffer buffer;
+    private final ByteBuffer entries;
+    private volatile boolean closed;
+
+    private GatewaySnapshot(String tag, int count, MappedByteBuffer buffer, ByteBuffer entries) {
+
+        this.tag = tag;
+        this.count = count;
+        this.buffer = buffer;
+        this.entries = entries;
+    }
+
+    /**
+     * @param location     directory of the snapshots
+     * @param tenantDomain tenant domain the snapshot belongs to
+     * @param name         name of the snapshot
+     * @return path of the snapshot file
+     */
+    public static Path getPath(String location, String tenantDomain, String name) {
+
+        return Paths.get(location, tenantDomain, name + SNAPSHOT_EXTENSION);
+    }
+
+    /**
+     * Reads a snapshot. The snapshot must be closed once its entries have been read.
+     *
+     * @param file snapshot file
+     * @return the snapshot, or null if there is no snapshot or the snapshot is not valid
+     */
+    public static GatewaySnapshot read(Path file) {
+
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        MappedByteBuffer buffer = null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_LENGTH || channel.size() > Integer.MAX_VALUE) {
+                log.warn("Ignoring snapshot " + file + " of invalid size " + channel.size());
+                return null;
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            GatewaySnapshot snapshot = read(file, buffer);
+            if (snapshot == null) {
+                unmap(buffer);
+            }
+            return snapshot;
+        } catch (IOException | BufferUnderflowException e) {
+            log.warn("Error while reading snapshot " + file, e);
+            unmap(buffer);
+            return null;
+        }
+    }
+
+    private static GatewaySnapshot read(Path file, MappedByteBuffer buffer) {
+
+        if (buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+            log.warn("Ignoring snapshot " + file + " of unsupported format");
+            return null;
+        }
+        int count = buffer.getInt();
+        long checksum = buffer.getLong();
+        CRC32 crc32 = new CRC32();
+        crc32.update(buffer.duplicate());
+        updateChecksum(crc32, count);
+        if (crc32.getValue() != checksum) {
+            log.warn("Ignoring snapshot " + file + " as its checksum does not match");
+            return null;
+        }
+        String tag = readString(buffer);
+        return new GatewaySnapshot(tag, count, buffer, buffer.slice());
+    }
+
+    /**
+     * @return tag the snapshot was written with
+     */
+    public String getTag() {
+
+        return tag;
+    }
+
+    /**
+     * @return number of entries of the snapshot
+     */
+    public int size() {
+
+        return count;
+    }
+
+    /**
+     * Hands each entry of the snapshot to the given consumer, in the order the entries were written.
+     *
+     * @param consumer consumer of the key and the value of each entry
+     */
+    public void forEach(BiConsumer<String, String> consumer) {
+
+        if (closed) {
+            throw new IllegalStateException("Snapshot is closed");
+        }
+        ByteBuffer buffer = entries.duplicate();
+        for (int i = 0; i < count; i++) {
+            String key = readString(buffer);
+            consumer.accept(key, readString(buffer));
+        }
+    }
+
+    /**
+     * Unmaps the buffer of the snapshot, so that the mapping does not hold on to the file until the buffer is
+     * garbage collected.
+     */
+    @Override
+    public void close() {
+
+        if (!closed) {
+            closed = true;
+            unmap(buffer);
+        }
+    }
+
+    /**
+     * Starts writing a snapshot, which replaces the existing snapshot of the file once it is committed.
+     *
+     * @param file snapshot file
+     * @param tag  tag of the snapshot, such as the version of the data it holds
+     * @return writer of the snapshot
+     * @throws IOException if the snapshot file can not be created
+     */
+    public static Writer write(Path file, String tag) throws IOException {
+
+        return new Writer(file, tag);
+    }
+
+    private static void updateChecksum(CRC32 crc32, int count) {
+
+        crc32.update(ByteBuffer.allocate(Integer.BYTES).putInt(0, count).array());
+    }
+
+    /**
+     * Releases a mapped buffer through the cleaner of the buffer, as there is no public API to unmap it. The buffer
+     * is otherwise released when it is garbage collected.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+
+        if (buffer == null) {
+            return;
+        }
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner;
+            try {
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (NoSuchMethodException e) {
+                // Java 8 exposes the cleaner through the buffer itself.
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+                return;
+            }
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Snapshot buffer could not be unmapped, it is released when garbage collected", e);
+            }
+        }
+    }
+
+    private static boolean isPosix(Path file) {
+
+        return file.getFileSystem().supportedFileAttributeViews().contains(POSIX_FILE_ATTRIBUTE_VIEW);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writer of a snapshot. A snapshot which is closed without being committed is discarded.
+     */
+    public static final class Writer implements Closeable {
+
+        private final Path file;
+        private final Path tempFile;
+        private final CRC32 crc32 = new CRC32();
+        private final DataOutputStream outputStream;
+        private int count;
+        private boolean committed;
+
+        private Writer(Path file, String tag) throws IOException {
+
+            this.file = file;
+            this.tempFile = file.resolveSibling(file.getFileName() + TEMP_EXTENSION);
+            Path directory = file.toAbsolutePath().getParent();
+            Files.deleteIfExists(tempFile);
+            if (isPosix(file)) {
+                Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(DIRECTORY_PERMISSIONS));
+                Files.createFile(tempFile, PosixFilePermissions.asFileAttribute(FILE_PERMISSIONS));
+            } else {
+                Files.createDirectories(directory);
+            }
+            OutputStream fileOutputStream = Files.newOutputStream(tempFile);
+            try {
+                fileOutputStream.write(new byte[HEADER_LENGTH]);
+            } catch (IOException e) {
+                fileOutputStream.close();
+                throw e;
+            }
+            this.outputStream = new DataOutputStream(
+                    new CheckedOutputStream(new BufferedOutputStream(fileOutputStream), crc32));
+            writeString(tag);
+        }
+
+        /**
+         * Adds an entry to the snapshot.
+         *
+         * @param key   key of the entry
+         * @param value value of the entry
+         * @throws IOException if the entry can not be written
+         */
+        public void add(String key, String value) throws IOException {
+
+            writeString(key);
+            writeString(value);
+            count++;
+        }
+
+        /**
+         * Completes the snapshot and replaces the existing snapshot with it.
+         *
+         * @throws IOException if the snapshot can not be completed
+         */
+        public void commit() throws IOException {
+
+            outputStream.close();
+            updateChecksum(crc32, count);
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(tempFile.toFile(), "rw")) {
+                randomAccessFile.writeInt(MAGIC);
+                randomAccessFile.writeByte(VERSION);
+                randomAccessFile.seek(COUNT_OFFSET);
+                randomAccessFile.writeInt(count);
+                randomAccessFile.writeLong(crc32.getValue());
+                randomAccessFile.getFD().sync();
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // Fall back to a regular move where atomic moves are not supported.
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            committed = true;
+        }
+
+        private void writeString(String value) throws IOException {
+
+            if (value == null) {
+                outputStream.writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            outputStream.writeInt(bytes.length);
+            outputStream.write(bytes);
+        }
+
+        @Override
+        public void close() throws IOException {
+
+            if (!committed) {
+                outputStream.close();
+                Files.deleteIfExists(tempFile);
+            }
+        }
+    }
+}
@@ -36,6 +36,7 @@ import org.wso2.carbon.apimgt.impl.internal.ServiceReferenceHolder;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -45,6 +46,7 @@ import java.util.Set;
 public class RuntimeArtifactGeneratorUtil {
 
     private static final GatewayArtifactsMgtDAO gatewayArtifactsMgtDAO = GatewayArtifactsMgtDAO.getInstance();
+    private static final String API_ID_SEPARATOR = ",";
 
     public static RuntimeArtifactDto generateRuntimeArtifact(String apiId, String name, String version,
                                                              String gatewayLabel, String type, String tenantDomain)
@@ -192,7 +194,10 @@ public class RuntimeArtifactGeneratorUtil {
         if (StringUtils.isNotEmpty(gatewayLabel)) {
             byte[] decodedValue = Base64.decodeBase64(gatewayLabel.getBytes());
             String[] gatewayLabels = new String(decodedValue).split("\\|");
-            if (StringUtils.isNotEmpty(apiId)) {
+            if (StringUtils.contains(apiId, API_ID_SEPARATOR)) {
+                gatewayArtifacts = gatewayArtifactsMgtDAO
+                        .retrieveGatewayArtifactsByAPIIDs(splitApiIds(apiId), gatewayLabels, tenantDomain);
+            } else if (StringUtils.isNotEmpty(apiId)) {
                 gatewayArtifacts = gatewayArtifactsMgtDAO
                         .retrieveGatewayArtifactsByAPIIDAndLabel(apiId, gatewayLabels, tenantDomain);
             } else {
@@ -225,7 +230,10 @@ public class RuntimeArtifactGeneratorUtil {
         if (StringUtils.isNotEmpty(gatewayLabel)) {
             byte[] decodedValue = Base64.decodeBase64(gatewayLabel.getBytes());
             String[] gatewayLabels = new String(decodedValue).split("\\|");
-            if (StringUtils.isNotEmpty(apiId)) {
+            if (StringUtils.contains(apiId, API_ID_SEPARATOR)) {
+                gatewayArtifacts = gatewayArtifactsMgtDAO
+                        .retrieveAllGatewayArtifactsByAPIIDs(splitApiIds(apiId), gatewayLabels);
+            } else if (StringUtils.isNotEmpty(apiId)) {
                 gatewayArtifacts = gatewayArtifactsMgtDAO
                         .retrieveAllGatewayArtifactsByAPIIDAndLabel(apiId, gatewayLabels);
             } else {
@@ -252,4 +260,18 @@ public class RuntimeArtifactGeneratorUtil {
         return gatewayArtifacts;
     }
 
+    /**
+     * Splits the API ID query parameter of a bulk retrieval, which gateways use to retrieve the artifacts of several
+     * APIs deployed at once in a single request.
+     */
+    private static List<String> splitApiIds(String apiIds) {
+
+        List<String> apiIdList = new ArrayList<>();
+        for (String apiId : apiIds.split(API_ID_SEPARATOR)) {
+            if (StringUtils.isNotBlank(apiId)) {
+                apiIdList.add(apiId.trim());
+            }
+        }
+        return apiIdList;
+    }
 }
@@ -62,6 +62,13 @@ public final class ImportExportConstants {
     public static final String GRAPHQL_COMPLEXITY_INFO_LOCATION =
             File.separator + DEFINITIONS_DIRECTORY + File.separator + "graphql-complexity";
 
+    // Location of the persisted query manifest of a graphql API
+    public static final String GRAPHQL_PERSISTED_QUERY_MANIFEST_LOCATION =
+            File.separator + DEFINITIONS_DIRECTORY + File.separator + "graphql-persisted-queries.json";
+
+    // Operations of the persisted query manifest of a graphql API
+    public static final String GRAPHQL_PERSISTED_QUERY_MANIFEST_OPERATIONS = "operations";
+
     // Location of the wsdl file
     public static final String WSDL_LOCATION = File.separator + "WSDL" + File.separator;
 
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.impl.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.apimgt.impl.APIConstants;
+import org.wso2.carbon.apimgt.impl.utils.JWTUtil;
+
+import java.io.IOException;
+import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the keys of a JWKS endpoint by key id, keeping the parsed public keys and their signature verifiers so
+ * that they are shared by all the tokens signed with them.
+ * <p>
+ * Once the refresh interval has passed, the key set is downloaded again in the background while the keys downloaded
+ * earlier are used. A key id which is not in the key set causes the key set to be downloaded again, as the keys may
+ * have been rotated, but not within the minimum fetch interval of the previous download, so unknown key ids are
+ * rejected without a download each. Only one download is in progress at a time, and the tokens which need it wait
+ * for it.
+ */
+public class JWKSKeyResolver {
+
+    private static final Log log = LogFactory.getLog(JWKSKeyResolver.class);
+    private static final long DEFAULT_REFRESH_INTERVAL = TimeUnit.MINUTES.toMillis(15);
+    private static final long DEFAULT_MIN_FETCH_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+    private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "JWKSRefresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String jwksUrl;
+    private final JWKSFetcher fetcher;
+    private final long refreshInterval;
+    private final long minFetchInterval;
+    private volatile KeySet keySet;
+    private long lastFetchTime;
+    private CompletableFuture<KeySet> fetch;
+
+    /**
+     * @param jwksUrl URL of the JWKS endpoint
+     */
+    public JWKSKeyResolver(String jwksUrl) {
+
+        this(jwksUrl, JWTUtil::retrieveJWKSConfiguration,
+                Long.getLong(APIConstants.JWKS_REFRESH_INTERVAL, DEFAULT_REFRESH_INTERVAL),
+                Long.getLong(APIConstants.JWKS_MIN_FETCH_INTERVAL, DEFAULT_MIN_FETCH_INTERVAL));
+    }
+
+    /**
+     * @param jwksUrl          URL of the JWKS endpoint
+     * @param fetcher          downloads the key set
+     * @param refreshInterval  time in milliseconds after which the key set is downloaded again
+     * @param minFetchInterval minimum time in milliseconds between two downloads
+     */
+    JWKSKeyResolver(String jwksUrl, JWKSFetcher fetcher, long refreshInterval, long minFetchInterval) {
+
+        this.jwksUrl = jwksUrl;
+        this.fetcher = fetcher;
+        this.refreshInterval = refreshInterval;
+        this.minFetchInterval = minFetchInterval;
+    }
+
+    /**
+     * @return URL of the JWKS endpoint
+     */
+    public String getJwksUrl() {
+
+        return jwksUrl;
+    }
+
+    /**
+     * Returns the key of the given key id, downloading the key set if the key is not known.
+     *
+     * @param keyID key id of the token header
+     * @return key of the key id, or null if the key set does not have the key id
+     */
+    public Key resolve(String keyID) {
+
+        long now = System.currentTimeMillis();
+        KeySet current = keySet;
+        if (current != null) {
+            Key key = current.keys.get(keyID);
+            if (key != null) {
+                if (now - current.fetchTime >= refreshInterval) {
+                    fetch(now, false);
+                }
+                return key;
+            }
+        }
+        current = fetch(now, true);
+        return current != null ? current.keys.get(keyID) : null;
+    }
+
+    /**
+     * Downloads the key set, unless a download is already in progress or the previous one was within the minimum
+     * fetch interval.
+     *
+     * @param now  current time in milliseconds
+     * @param wait whether to wait for the download, or to download in the background
+     * @return key set after the download if waited for, otherwise the current key set
+     */
+    private KeySet fetch(long now, boolean wait) {
+
+        CompletableFuture<KeySet> future;
+        boolean download = false;
+        synchronized (this) {
+            future = fetch;
+            if (future == null) {
+                if (now - lastFetchTime < minFetchInterval) {
+                    return keySet;
+                }
+                future = new CompletableFuture<>();
+                fetch = future;
+                lastFetchTime = now;
+                download = true;
+            }
+        }
+        if (download) {
+            CompletableFuture<KeySet> downloadFuture = future;
+            if (wait) {
+                download(downloadFuture);
+            } else {
+                executor.execute(() -> download(downloadFuture));
+            }
+        }
+        if (!wait) {
+            return keySet;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("Error while retrieving JWKS from " + jwksUrl, e);
+        }
+        return keySet;
+    }
+
+    private void download(CompletableFuture<KeySet> future) {
+
+        try {
+            if (log.isDebugEnabled()) {
+                log.debug("Retrieving JWKS from " + jwksUrl);
+            }
+            String jwksInfo = fetcher.fetch(jwksUrl);
+            if (jwksInfo == null) {
+                throw new IOException("Unexpected response from the JWKS endpoint");
+            }
+            keySet = new KeySet(JWKSet.parse(jwksInfo), System.currentTimeMillis());
+        } catch (IOException | ParseException | RuntimeException e) {
+            log.error("Error while retrieving JWKS from " + jwksUrl, e);
+        } finally {
+            synchronized (this) {
+                fetch = null;
+            }
+            future.complete(keySet);
+        }
+    }
+
+    /**
+     * Downloads a JWKS.
+     */
+    interface JWKSFetcher {
+
+        String fetch(String jwksUrl) throws IOException;
+    }
+
+    /**
+     * Key of a key set, with the verifier of its signatures if it is an RSA key.
+     */
+    public static final class Key {
+
+        private final JWK jwk;
+        private final RSAPublicKey publicKey;
+        private final JWSVerifier verifier;
+
+        private Key(JWK jwk, RSAPublicKey publicKey, JWSVerifier verifier) {
+
+            this.jwk = jwk;
+            this.publicKey = publicKey;
+            this.verifier = verifier;
+        }
+
+        public JWK getJwk() {
+
+            return jwk;
+        }
+
+        /**
+         * @return RSA public key, or null if the key is not an RSA key
+         */
+        public RSAPublicKey getPublicKey() {
+
+            return publicKey;
+        }
+
+        /**
+         * @return verifier of the signatures of the key, or null if the key is not an RSA key
+         */
+        public JWSVerifier getVerifier() {
+
+            return verifier;
+        }
+    }
+
+    /**
+     * Keys of a downloaded key set by key id.
+     */
+    private static final class KeySet {
+
+        private final Map<String, Key> keys;
+        private final long fetchTime;
+
+        private KeySet(JWKSet jwkSet, long fetchTime) {
+
+            Map<String, Key> keys = new HashMap<>();
+            for (JWK jwk : jwkSet.getKeys()) {
+                if (jwk.getKeyID() == null) {
+                    continue;
+                }
+                RSAPublicKey publicKey = null;
+                JWSVerifier verifier = null;
+                if (jwk instanceof RSAKey) {
+                    try {
+                        publicKey = ((RSAKey) jwk).toRSAPublicKey();
+                        verifier = new RSASSAVerifier(publicKey);
+                    } catch (JOSEException e) {
+                        log.error("Error while reading the RSA key " + jwk.getKeyID(), e);
+                        continue;
+                    }
+                }
+                keys.put(jwk.getKeyID(), new Key(jwk, publicKey, verifier));
+            }
+            this.keys = Collections.unmodifiableMap(keys);
+            this.fetchTime = fetchTime;
+        }
+    }
+}
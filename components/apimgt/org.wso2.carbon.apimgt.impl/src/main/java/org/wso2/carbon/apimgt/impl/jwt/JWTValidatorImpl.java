@@ -18,9 +18,6 @@
 
 package org.wso2.carbon.apimgt.impl.jwt;
 
-import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.util.DateUtils;
@@ -38,20 +35,21 @@ import org.wso2.carbon.apimgt.impl.APIManagerConfiguration;
 import org.wso2.carbon.apimgt.impl.internal.ServiceReferenceHolder;
 import org.wso2.carbon.apimgt.impl.utils.JWTUtil;
 
-import java.io.IOException;
 import java.security.interfaces.RSAPublicKey;
 import java.text.ParseException;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.UUID;
 
 public class JWTValidatorImpl implements JWTValidator {
 
     TokenIssuerDto tokenIssuer;
     private Log log = LogFactory.getLog(JWTValidatorImpl.class);
     JWTTransformer jwtTransformer;
-    private JWKSet jwkSet;
+    private volatile JWKSKeyResolver jwksKeyResolver;
+    private final String signatureCacheScope = UUID.randomUUID().toString();
 
     @Override
     public JWTValidationInfo validateToken(SignedJWTInfo signedJWTInfo) throws APIManagementException {
@@ -59,7 +57,7 @@ public class JWTValidatorImpl implements JWTValidator {
         JWTValidationInfo jwtValidationInfo = new JWTValidationInfo();
         boolean state;
         try {
-            state = validateSignature(signedJWTInfo.getSignedJWT());
+            state = verifySignature(signedJWTInfo);
             if (state) {
                 JWTClaimsSet jwtClaimsSet = signedJWTInfo.getJwtClaimsSet();
                 state = isValidCertificateBoundAccessToken(signedJWTInfo);
@@ -132,47 +130,59 @@ public class JWTValidatorImpl implements JWTValidator {
         this.jwtTransformer.loadConfiguration(tokenIssuer);
     }
 
+    /**
+     * Validates the signature of a token, unless the signature of the same token has already been verified by this
+     * validator.
+     */
+    private boolean verifySignature(SignedJWTInfo signedJWTInfo) throws APIManagementException {
+
+        String token = signedJWTInfo.getToken();
+        if (token == null) {
+            return validateSignature(signedJWTInfo.getSignedJWT());
+        }
+        VerifiedSignatureCache verifiedSignatureCache = VerifiedSignatureCache.getInstance();
+        if (verifiedSignatureCache.isVerified(signatureCacheScope, token)) {
+            return true;
+        }
+        boolean verified = validateSignature(signedJWTInfo.getSignedJWT());
+        if (verified) {
+            JWTClaimsSet jwtClaimsSet = signedJWTInfo.getJwtClaimsSet();
+            String tokenIdentifier = jwtClaimsSet.getJWTID();
+            if (StringUtils.isEmpty(tokenIdentifier) && signedJWTInfo.getSignedJWT().getSignature() != null) {
+                tokenIdentifier = signedJWTInfo.getSignedJWT().getSignature().toString();
+            }
+            Date expirationTime = jwtClaimsSet.getExpirationTime();
+            verifiedSignatureCache.put(signatureCacheScope, token, tokenIdentifier,
+                    expirationTime != null ? expirationTime.getTime() : 0);
+        }
+        return verified;
+    }
+
     protected boolean validateSignature(SignedJWT signedJWT) throws APIManagementException {
 
         String certificateAlias = APIConstants.GATEWAY_PUBLIC_CERTIFICATE_ALIAS;
-        try {
-            String keyID = signedJWT.getHeader().getKeyID();
-            if (StringUtils.isNotEmpty(keyID)) {
-                if (tokenIssuer.getJwksConfigurationDTO().isEnabled() &&
-                        StringUtils.isNotEmpty(tokenIssuer.getJwksConfigurationDTO().getUrl())) {
-                    // Check JWKSet Available in Cache
-                    if (jwkSet == null) {
-                        jwkSet = retrieveJWKSet();
-                    }
-                    if (jwkSet.getKeyByKeyId(keyID) == null) {
-                        jwkSet = retrieveJWKSet();
-                    }
-                    if (jwkSet.getKeyByKeyId(keyID) instanceof RSAKey) {
-                        RSAKey keyByKeyId = (RSAKey) jwkSet.getKeyByKeyId(keyID);
-                        RSAPublicKey rsaPublicKey = keyByKeyId.toRSAPublicKey();
-                        if (rsaPublicKey != null) {
-                            return JWTUtil.verifyTokenSignature(signedJWT, rsaPublicKey);
-                        }
-                    } else {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Key Algorithm not supported");
-                        }
-                        return false; // return false to produce 401 unauthenticated response
-                    }
-                } else if (tokenIssuer.getCertificate() != null) {
-                    log.debug("Retrieve certificate from Token issuer and validating");
-                    RSAPublicKey rsaPublicKey = (RSAPublicKey) tokenIssuer.getCertificate().getPublicKey();
-                    return JWTUtil.verifyTokenSignature(signedJWT, rsaPublicKey);
+        String keyID = signedJWT.getHeader().getKeyID();
+        if (StringUtils.isNotEmpty(keyID)) {
+            if (tokenIssuer.getJwksConfigurationDTO().isEnabled() &&
+                    StringUtils.isNotEmpty(tokenIssuer.getJwksConfigurationDTO().getUrl())) {
+                JWKSKeyResolver.Key key = getJWKSKeyResolver().resolve(keyID);
+                if (key != null && key.getVerifier() != null) {
+                    return JWTUtil.verifyTokenSignature(signedJWT, key.getVerifier());
                 } else {
-                    return JWTUtil.verifyTokenSignature(signedJWT, keyID);
+                    if (log.isDebugEnabled()) {
+                        log.debug("Key " + keyID + " not found in JWKS or Key Algorithm not supported");
+                    }
+                    return false; // return false to produce 401 unauthenticated response
                 }
+            } else if (tokenIssuer.getCertificate() != null) {
+                log.debug("Retrieve certificate from Token issuer and validating");
+                RSAPublicKey rsaPublicKey = (RSAPublicKey) tokenIssuer.getCertificate().getPublicKey();
+                return JWTUtil.verifyTokenSignature(signedJWT, rsaPublicKey);
+            } else {
+                return JWTUtil.verifyTokenSignature(signedJWT, keyID);
             }
-            return JWTUtil.verifyTokenSignature(signedJWT, certificateAlias);
-        } catch (ParseException | JOSEException | IOException e) {
-            log.error("Error while parsing JWT", e);
         }
-
-        return true;
+        return JWTUtil.verifyTokenSignature(signedJWT, certificateAlias);
     }
 
     protected boolean validateTokenExpiry(JWTClaimsSet jwtClaimsSet) {
@@ -221,11 +231,19 @@ public class JWTValidatorImpl implements JWTValidator {
         jwtValidationInfo.setJti(jwtClaimsSet.getJWTID());
     }
 
-    private JWKSet retrieveJWKSet() throws IOException, ParseException {
+    private JWKSKeyResolver getJWKSKeyResolver() {
 
-        String jwksInfo = JWTUtil
-                .retrieveJWKSConfiguration(tokenIssuer.getJwksConfigurationDTO().getUrl());
-        jwkSet = JWKSet.parse(jwksInfo);
-        return jwkSet;
+        JWKSKeyResolver resolver = jwksKeyResolver;
+        String jwksUrl = tokenIssuer.getJwksConfigurationDTO().getUrl();
+        if (resolver == null || !jwksUrl.equals(resolver.getJwksUrl())) {
+            synchronized (this) {
+                resolver = jwksKeyResolver;
+                if (resolver == null || !jwksUrl.equals(resolver.getJwksUrl())) {
+                    resolver = new JWKSKeyResolver(jwksUrl);
+                    jwksKeyResolver = resolver;
+                }
+            }
+        }
+        return resolver;
     }
 }
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.impl.jwt;
+
+import org.wso2.carbon.apimgt.impl.APIConstants;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of the JWTs whose signatures have been verified, so that a token is verified once per node instead of on
+ * each request which misses the gateway token cache.
+ * <p>
+ * A token is identified by the first 128 bits of the SHA-256 digest of the validator scope and the serialized token,
+ * and only the digest, the expiry time and a hash of the revocation identifier of the token are kept, in primitive
+ * arrays of a fixed size. The arrays are split into segments, each guarded by its own lock, and each digest maps to
+ * a bucket of four entries in a segment. When a bucket is full, the entry which expires first is replaced.
+ * <p>
+ * An entry expires with its token, and at the latest after the maximum expiry time of the cache, so that tokens
+ * signed with a key which has been removed are verified again.
+ */
+public class VerifiedSignatureCache {
+
+    private static final int DEFAULT_SIZE = 65536;
+    private static final long DEFAULT_EXPIRY = TimeUnit.MINUTES.toMillis(15);
+    private static final int WAYS = 4;
+    private static final int MAX_SEGMENTS = 64;
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final VerifiedSignatureCache instance = new VerifiedSignatureCache(
+            Integer.getInteger(APIConstants.VERIFIED_SIGNATURE_CACHE_SIZE, DEFAULT_SIZE),
+            Long.getLong(APIConstants.VERIFIED_SIGNATURE_CACHE_EXPIRY, DEFAULT_EXPIRY));
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final int bucketMask;
+    private final long maxExpiry;
+
+    /**
+     * @param size      maximum number of tokens to hold, rounded up to a power of two. The cache is disabled if it
+     *                  is not positive.
+     * @param maxExpiry maximum time in milliseconds to hold a token
+     */
+    VerifiedSignatureCache(int size, long maxExpiry) {
+
+        this.maxExpiry = maxExpiry;
+        if (size <= 0 || maxExpiry <= 0) {
+            this.segments = new Segment[0];
+            this.segmentMask = 0;
+            this.bucketMask = 0;
+            return;
+        }
+        int capacity = Integer.highestOneBit(Math.max(size, WAYS * MAX_SEGMENTS) - 1) << 1;
+        int segmentCount = Math.min(MAX_SEGMENTS, capacity / WAYS);
+        int bucketCount = capacity / WAYS / segmentCount;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(bucketCount * WAYS);
+        }
+        this.segmentMask = segmentCount - 1;
+        this.bucketMask = bucketCount - 1;
+    }
+
+    public static VerifiedSignatureCache getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Checks whether the signature of a token has been verified.
+     *
+     * @param scope scope of the validator which verified the token
+     * @param token serialized token
+     * @return true if the signature of the token has been verified and the entry has not expired
+     */
+    public boolean isVerified(String scope, String token) {
+
+        if (segments.length == 0) {
+            return false;
+        }
+        long[] digest = digest(scope, token);
+        return segmentOf(digest).contains(bucketOf(digest), digest[0], digest[1], System.currentTimeMillis());
+    }
+
+    /**
+     * Adds a token whose signature has been verified.
+     *
+     * @param scope           scope of the validator which verified the token
+     * @param token           serialized token
+     * @param tokenIdentifier identifier of the token in revocation events, the jti or the signature of the token
+     * @param expiryTime      expiry time of the token in milliseconds, or 0 if the token does not expire
+     */
+    public void put(String scope, String token, String tokenIdentifier, long expiryTime) {
+
+        if (segments.length == 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiry = now + maxExpiry;
+        if (expiryTime > 0) {
+            if (expiryTime <= now) {
+                return;
+            }
+            expiry = Math.min(expiry, expiryTime);
+        }
+        long[] digest = digest(scope, token);
+        segmentOf(digest).put(bucketOf(digest), digest[0], digest[1], expiry, identifierHash(tokenIdentifier), now);
+    }
+
+    /**
+     * Removes the tokens with the given identifier, as they have been revoked.
+     *
+     * @param tokenIdentifier jti or signature of the revoked token
+     */
+    public void invalidate(String tokenIdentifier) {
+
+        if (tokenIdentifier == null) {
+            return;
+        }
+        long identifierHash = identifierHash(tokenIdentifier);
+        for (Segment segment : segments) {
+            segment.remove(identifierHash);
+        }
+    }
+
+    private Segment segmentOf(long[] digest) {
+
+        return segments[(int) (digest[1] >>> 32) & segmentMask];
+    }
+
+    private int bucketOf(long[] digest) {
+
+        return ((int) digest[0] & bucketMask) * WAYS;
+    }
+
+    private static long[] digest(String scope, String token) {
+
+        MessageDigest messageDigest = newMessageDigest();
+        messageDigest.update(scope.getBytes(StandardCharsets.UTF_8));
+        messageDigest.update((byte) 0);
+        ByteBuffer digest = ByteBuffer.wrap(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        return new long[]{digest.getLong(), digest.getLong()};
+    }
+
+    private static long identifierHash(String tokenIdentifier) {
+
+        if (tokenIdentifier == null) {
+            return 0;
+        }
+        return ByteBuffer.wrap(newMessageDigest().digest(tokenIdentifier.getBytes(StandardCharsets.UTF_8)))
+                .getLong();
+    }
+
+    private static MessageDigest newMessageDigest() {
+
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not supported", e);
+        }
+    }
+
+    /**
+     * Entries of a segment, in buckets of {@link #WAYS} consecutive slots. A slot with expiry time 0 is empty.
+     */
+    private static final class Segment {
+
+        private final long[] digestHigh;
+        private final long[] digestLow;
+        private final long[] expiries;
+        private final long[] identifierHashes;
+
+        private Segment(int slots) {
+
+            this.digestHigh = new long[slots];
+            this.digestLow = new long[slots];
+            this.expiries = new long[slots];
+            this.identifierHashes = new long[slots];
+        }
+
+        private synchronized boolean contains(int bucket, long high, long low, long now) {
+
+            for (int slot = bucket; slot < bucket + WAYS; slot++) {
+                if (digestHigh[slot] == high && digestLow[slot] == low && expiries[slot] != 0) {
+                    if (expiries[slot] > now) {
+                        return true;
+                    }
+                    expiries[slot] = 0;
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        private synchronized void put(int bucket, long high, long low, long expiry, long identifierHash, long now) {
+
+            int victim = bucket;
+            for (int slot = bucket; slot < bucket + WAYS; slot++) {
+                if (digestHigh[slot] == high && digestLow[slot] == low) {
+                    victim = slot;
+                    break;
+                }
+                if (expiries[slot] <= now) {
+                    expiries[slot] = 0;
+                }
+                if (expiries[slot] < expiries[victim]) {
+                    victim = slot;
+                }
+            }
+            digestHigh[victim] = high;
+            digestLow[victim] = low;
+            expiries[victim] = expiry;
+            identifierHashes[victim] = identifierHash;
+        }
+
+        private synchronized void remove(long identifierHash) {
+
+            for (int slot = 0; slot < expiries.length; slot++) {
+                if (identifierHashes[slot] == identifierHash && expiries[slot] != 0) {
+                    expiries[slot] = 0;
+                }
+            }
+        }
+    }
+}
@@ -14,6 +14,7 @@ public class DeployAPIInGatewayEvent extends Event {
     private Set<String> gatewayLabels;
     private Set<APIEvent> associatedApis;
     private String context;
+    private String revision;
 
     public DeployAPIInGatewayEvent(String eventId, long timestamp, String type, String tenantDomain, int apiId,
                                    String uuid, Set<String> gatewayLabels, String name, String version, String provider,
@@ -155,4 +156,18 @@ public class DeployAPIInGatewayEvent extends Event {
 
         this.uuid = uuid;
     }
+
+    /**
+     * @return UUID of the revision deployed by the event, which gateways use to tell whether the artifact in the
+     * storage is already the deployed revision
+     */
+    public String getRevision() {
+
+        return revision;
+    }
+
+    public void setRevision(String revision) {
+
+        this.revision = revision;
+    }
 }
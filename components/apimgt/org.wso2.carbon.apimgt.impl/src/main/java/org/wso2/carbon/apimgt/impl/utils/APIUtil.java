@@ -6682,6 +6682,49 @@ public final class APIUtil {
         return result;
     }
 
+    /**
+     * Parses a dotted decimal IPv4 address.
+     *
+     * @param ip IP address
+     * @return numeric value of the address, or -1 if it is not a plain dotted decimal IPv4 address
+     */
+    public static long parseIPv4(String ip) {
+
+        int length = ip.length();
+        if (length < 7 || length > 15) {
+            return -1;
+        }
+        long value = 0;
+        int octet = 0;
+        int digits = 0;
+        int dots = 0;
+        for (int i = 0; i < length; i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digits > 0 && octet == 0) {
+                    // Leading zeros are interpreted differently across resolvers.
+                    return -1;
+                }
+                octet = octet * 10 + (c - '0');
+                digits++;
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && digits > 0 && dots < 3) {
+                value = (value << 8) | octet;
+                octet = 0;
+                digits = 0;
+                dots++;
+            } else {
+                return -1;
+            }
+        }
+        if (dots != 3 || digits == 0) {
+            return -1;
+        }
+        return (value << 8) | octet;
+    }
+
     /**
      * This method provides the BigInteger value for the given IP address. This supports both IPv4 and IPv6 address
      *
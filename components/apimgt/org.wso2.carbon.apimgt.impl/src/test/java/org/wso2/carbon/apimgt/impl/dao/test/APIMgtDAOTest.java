@@ -65,10 +65,12 @@ import org.wso2.carbon.apimgt.api.model.policy.QueryParameterCondition;
 import org.wso2.carbon.apimgt.api.model.policy.QuotaPolicy;
 import org.wso2.carbon.apimgt.api.model.policy.RequestCountLimit;
 import org.wso2.carbon.apimgt.api.model.policy.SubscriptionPolicy;
+import org.wso2.carbon.apimgt.api.model.subscription.SubscriptionDataChanges;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.APIManagerConfiguration;
 import org.wso2.carbon.apimgt.impl.APIManagerConfigurationServiceImpl;
 import org.wso2.carbon.apimgt.impl.dao.ApiMgtDAO;
+import org.wso2.carbon.apimgt.impl.dao.SubscriptionValidationDAO;
 import org.wso2.carbon.apimgt.impl.dto.APIInfoDTO;
 import org.wso2.carbon.apimgt.impl.dto.APIKeyInfoDTO;
 import org.wso2.carbon.apimgt.impl.dto.ApplicationRegistrationWorkflowDTO;
@@ -806,7 +808,7 @@ public class APIMgtDAOTest {
         assertNotNull(versionList);
         assertTrue(versionList.contains("1.0.0"));
         assertTrue(versionList.contains("2.0.0"));
-        apiMgtDAO.deleteAPI(api.getUuid());
+        apiMgtDAO.deleteAPI(api.getUUID());
         apiMgtDAO.deleteAPI(api2.getUuid());
     }
 
@@ -825,7 +827,7 @@ public class APIMgtDAOTest {
                 .getGatewayVendorByAPIUUID(apiUUID);
         assertNotNull(gatewayVendor);
         assertTrue(gatewayVendor.equals("testGatewayVendor"));
-        apiMgtDAO.deleteAPI(api.getUuid());
+        apiMgtDAO.deleteAPI(api.getUUID());
     }
 
     @Test
@@ -843,7 +845,7 @@ public class APIMgtDAOTest {
         String gatewayVendor = apiMgtDAO.getGatewayVendorByAPIUUID(apiUUID);
         assertNotNull(gatewayVendor);
         assertTrue(gatewayVendor.equals("wso2"));
-        apiMgtDAO.deleteAPI(api.getUuid());
+        apiMgtDAO.deleteAPI(api.getUUID());
     }
 
     @Test
@@ -911,7 +913,7 @@ public class APIMgtDAOTest {
         assertTrue(api.getContext().equals(apiMgtDAO.getAPIContext(api.getUuid())));
         apiMgtDAO.removeSubscription(apiId, application.getId());
         apiMgtDAO.removeSubscriptionById(subsId);
-        apiMgtDAO.deleteAPI(api.getUuid());
+        apiMgtDAO.deleteAPI(api.getUUID());
         apiMgtDAO.deleteAPI(api1.getUuid());
         assertNotNull(apiMgtDAO.getWorkflowReference(application.getName(), subscriber.getName()));
         applicationRegistrationWorkflowDTO.setStatus(WorkflowStatus.APPROVED);
@@ -1008,7 +1010,7 @@ public class APIMgtDAOTest {
         apiMgtDAO.updateDefaultAPIPublishedVersion(apiId);
         apiMgtDAO.removeAllSubscriptions(api.getUuid());
         assertTrue(apiMgtDAO.getAPINamesMatchingContext(api.getContext()).size() > 0);
-        apiMgtDAO.deleteAPI(api.getUuid());
+        apiMgtDAO.deleteAPI(api.getUUID());
         apiMgtDAO.deleteApplication(application);
         apiMgtDAO.removeThrottlePolicy(PolicyConstants.POLICY_LEVEL_APP, "testCreateApplicationRegistrationEntry",
                 -1234);
@@ -1018,6 +1020,62 @@ public class APIMgtDAOTest {
     }
 
 
+    @Test
+    public void testSubscriptionDataChanges() throws Exception {
+
+        SubscriptionValidationDAO subscriptionValidationDAO = new SubscriptionValidationDAO();
+        Subscriber subscriber = new Subscriber("testSubscriptionDataChanges");
+        String organization = "testOrg";
+        subscriber.setTenantId(-1234);
+        subscriber.setEmail("abc@wso2.com");
+        subscriber.setSubscribedDate(new Date(System.currentTimeMillis()));
+        apiMgtDAO.addSubscriber(subscriber, null);
+        Policy applicationPolicy = getApplicationPolicy("testSubscriptionDataChanges");
+        applicationPolicy.setTenantId(-1234);
+        apiMgtDAO.addApplicationPolicy((ApplicationPolicy) applicationPolicy);
+        SubscriptionPolicy subscriptionPolicy = (SubscriptionPolicy) getSubscriptionPolicy(
+                "testSubscriptionDataChanges");
+        apiMgtDAO.addSubscriptionPolicy(subscriptionPolicy);
+        APIIdentifier apiId = new APIIdentifier("testSubscriptionDataChanges", "testSubscriptionDataChanges",
+                "1.0.0");
+        API api = new API(apiId);
+        api.setContext("/testSubscriptionDataChanges");
+        api.setContextTemplate("/testSubscriptionDataChanges/{version}");
+        api.setVersionTimestamp(String.valueOf(System.currentTimeMillis()));
+        api.setUUID(UUID.randomUUID().toString());
+        api.getId().setId(apiMgtDAO.addAPI(api, -1234, organization));
+        apiId.setTier(subscriptionPolicy.getPolicyName());
+        // The current revision is returned along with the incomplete changes since a revision which does not exist.
+        long revision = subscriptionValidationDAO.getSubscriptionDataChanges(-1234, Long.MAX_VALUE, 0).getRevision();
+
+        Application application = new Application("testSubscriptionDataChanges", subscriber);
+        application.setTier("testSubscriptionDataChanges");
+        application.setId(apiMgtDAO.addApplication(application, "testSubscriptionDataChanges", organization));
+        apiMgtDAO.addSubscription(new ApiTypeWrapper(api), application, APIConstants.SubscriptionStatus.UNBLOCKED,
+                subscriber.getName());
+        SubscriptionDataChanges changes = subscriptionValidationDAO.getSubscriptionDataChanges(-1234, revision, 100);
+        assertTrue(changes.isComplete());
+        assertTrue(changes.getRevision() > revision);
+        assertEquals(Collections.singleton(application.getId()), changes.getApplicationIds());
+        assertEquals(1, changes.getApplications().size());
+        assertEquals(1, changes.getSubscriptions().size());
+        assertEquals(api.getUUID(), changes.getSubscriptions().get(0).getApiUUID());
+        assertFalse(subscriptionValidationDAO.getSubscriptionDataChanges(-1234, revision, 0).isComplete());
+        assertTrue(subscriptionValidationDAO.getSubscriptionDataChanges(-1234, changes.getRevision(), 100)
+                .getApplicationIds().isEmpty());
+
+        // The changes of a removed application have no entries, so that the entries loaded before are removed.
+        revision = changes.getRevision();
+        apiMgtDAO.deleteApplication(application);
+        changes = subscriptionValidationDAO.getSubscriptionDataChanges(-1234, revision, 100);
+        assertTrue(changes.isComplete());
+        assertEquals(Collections.singleton(application.getId()), changes.getApplicationIds());
+        assertTrue(changes.getApplications().isEmpty());
+        assertTrue(changes.getSubscriptions().isEmpty());
+        assertTrue(changes.getApplicationKeyMappings().isEmpty());
+        apiMgtDAO.deleteAPI(api.getUUID());
+    }
+
     @Test
     public void testAddAndGetSubscriptionPolicy() throws Exception {
         SubscriptionPolicy subscriptionPolicy = (SubscriptionPolicy) getSubscriptionPolicy
@@ -1173,7 +1231,7 @@ public class APIMgtDAOTest {
         }
         apiMgtDAO.deleteApplication(application);
         apiMgtDAO.removeThrottlePolicy(PolicyConstants.POLICY_LEVEL_APP, applicationPolicy.getPolicyName(), -1234);
-        apiMgtDAO.deleteAPI(api.getUuid());
+        apiMgtDAO.deleteAPI(api.getUUID());
         deleteSubscriber(subscriber.getId());
     }
 
@@ -1221,7 +1279,7 @@ public class APIMgtDAOTest {
         apiMgtDAO.deleteExternalAPIStoresDetails(api.getUuid(), apiStoreSet);
         apiMgtDAO.updateExternalAPIStoresDetails(api.getUuid(), Collections.<APIStore>emptySet());
         assertTrue(apiMgtDAO.getExternalAPIStoresDetails(api.getUuid()).size()==0);
-        apiMgtDAO.deleteAPI(api.getUuid());
+        apiMgtDAO.deleteAPI(api.getUUID());
     }
 
     @Test
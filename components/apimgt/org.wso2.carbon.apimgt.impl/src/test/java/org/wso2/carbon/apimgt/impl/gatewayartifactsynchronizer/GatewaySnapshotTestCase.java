@@ -0,0 +1,118 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class GatewaySnapshotTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+
+        Path file = GatewaySnapshot.getPath(temporaryFolder.getRoot().getPath(), "carbon.super", "artifacts");
+        try (GatewaySnapshot.Writer writer = GatewaySnapshot.write(file, "Default")) {
+            writer.add("api-1", "{\"name\":\"PizzaShackAPI\"}");
+            writer.add("api-2", "{\"name\":\"Ünicode\"}");
+            writer.add("api-3", null);
+            writer.commit();
+        }
+
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (GatewaySnapshot snapshot = GatewaySnapshot.read(file)) {
+            Assert.assertNotNull(snapshot);
+            Assert.assertEquals("Default", snapshot.getTag());
+            Assert.assertEquals(3, snapshot.size());
+            snapshot.forEach(entries::put);
+        }
+        Assert.assertEquals("{\"name\":\"PizzaShackAPI\"}", entries.get("api-1"));
+        Assert.assertEquals("{\"name\":\"Ünicode\"}", entries.get("api-2"));
+        Assert.assertTrue(entries.containsKey("api-3"));
+        Assert.assertNull(entries.get("api-3"));
+    }
+
+    @Test
+    public void testSnapshotIsReadableByOwnerOnly() throws IOException {
+
+        Assume.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Path file = GatewaySnapshot.getPath(temporaryFolder.getRoot().getPath(), "carbon.super", "artifacts");
+        try (GatewaySnapshot.Writer writer = GatewaySnapshot.write(file, null)) {
+            writer.add("api-1", "{}");
+            writer.commit();
+        }
+        Assert.assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(file));
+        Assert.assertEquals(PosixFilePermissions.fromString("rwx------"),
+                Files.getPosixFilePermissions(file.getParent()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClosedSnapshotCanNotBeRead() throws IOException {
+
+        Path file = GatewaySnapshot.getPath(temporaryFolder.getRoot().getPath(), "carbon.super", "artifacts");
+        try (GatewaySnapshot.Writer writer = GatewaySnapshot.write(file, null)) {
+            writer.add("api-1", "{}");
+            writer.commit();
+        }
+        GatewaySnapshot snapshot = GatewaySnapshot.read(file);
+        Assert.assertNotNull(snapshot);
+        snapshot.close();
+        snapshot.forEach((key, value) -> Assert.fail());
+    }
+
+    @Test
+    public void testUncommittedSnapshotIsDiscarded() throws IOException {
+
+        Path file = GatewaySnapshot.getPath(temporaryFolder.getRoot().getPath(), "carbon.super", "artifacts");
+        try (GatewaySnapshot.Writer writer = GatewaySnapshot.write(file, null)) {
+            writer.add("api-1", "{}");
+        }
+        Assert.assertNull(GatewaySnapshot.read(file));
+        Assert.assertEquals(0, Files.list(file.getParent()).count());
+    }
+
+    @Test
+    public void testCorruptedSnapshotIsIgnored() throws IOException {
+
+        Path file = GatewaySnapshot.getPath(temporaryFolder.getRoot().getPath(), "carbon.super", "subscriptions");
+        try (GatewaySnapshot.Writer writer = GatewaySnapshot.write(file, "\"1-abc\"")) {
+            writer.add("sub-1", "{\"subscriptionState\":\"UNBLOCKED\"}");
+            writer.commit();
+        }
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw")) {
+            randomAccessFile.seek(randomAccessFile.length() - 3);
+            randomAccessFile.write('X');
+        }
+        Assert.assertNull(GatewaySnapshot.read(file));
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.impl.jwt;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.carbon.apimgt.impl.utils.JWTUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit test cases related JWKSKeyResolver.
+ */
+public class JWKSKeyResolverTest {
+
+    private static final String JWKS_URL = "https://localhost:9443/oauth2/jwks";
+
+    @Test
+    public void testConcurrentLookupsShareOneDownload() throws Exception {
+
+        RSAKey rsaKey = new RSAKeyGenerator(2048).keyID("kid1").generate();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger downloads = new AtomicInteger();
+        JWKSKeyResolver resolver = new JWKSKeyResolver(JWKS_URL, url -> {
+            downloads.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new JWKSet(rsaKey).toJSONObject().toString();
+        }, TimeUnit.MINUTES.toMillis(15), TimeUnit.SECONDS.toMillis(30));
+
+        int threads = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<JWKSKeyResolver.Key>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executorService.submit(() -> resolver.resolve("kid1")));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            JWKSKeyResolver.Key first = futures.get(0).get(10, TimeUnit.SECONDS);
+            Assert.assertNotNull(first);
+            for (Future<JWKSKeyResolver.Key> future : futures) {
+                Assert.assertSame(first, future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        Assert.assertEquals(1, downloads.get());
+
+        SignedJWT signedJWT = sign(rsaKey);
+        Assert.assertTrue(JWTUtil.verifyTokenSignature(signedJWT, resolver.resolve("kid1").getVerifier()));
+        Assert.assertEquals(1, downloads.get());
+    }
+
+    @Test
+    public void testUnknownKeyIdsAreRateLimited() throws Exception {
+
+        RSAKey rsaKey = new RSAKeyGenerator(2048).keyID("kid1").generate();
+        AtomicInteger downloads = new AtomicInteger();
+        JWKSKeyResolver resolver = new JWKSKeyResolver(JWKS_URL, url -> {
+            downloads.incrementAndGet();
+            return new JWKSet(rsaKey).toJSONObject().toString();
+        }, TimeUnit.MINUTES.toMillis(15), TimeUnit.SECONDS.toMillis(30));
+
+        Assert.assertNotNull(resolver.resolve("kid1"));
+        for (int i = 0; i < 100; i++) {
+            Assert.assertNull(resolver.resolve("unknown" + i));
+        }
+        Assert.assertEquals(1, downloads.get());
+    }
+
+    @Test
+    public void testRotatedKeyIsDownloaded() throws Exception {
+
+        RSAKey oldKey = new RSAKeyGenerator(2048).keyID("kid1").generate();
+        RSAKey newKey = new RSAKeyGenerator(2048).keyID("kid2").generate();
+        AtomicInteger downloads = new AtomicInteger();
+        JWKSKeyResolver resolver = new JWKSKeyResolver(JWKS_URL, url -> {
+            RSAKey rsaKey = downloads.incrementAndGet() == 1 ? oldKey : newKey;
+            return new JWKSet(rsaKey).toJSONObject().toString();
+        }, TimeUnit.MINUTES.toMillis(15), 0);
+
+        Assert.assertNotNull(resolver.resolve("kid1"));
+        JWKSKeyResolver.Key key = resolver.resolve("kid2");
+        Assert.assertNotNull(key);
+        Assert.assertTrue(JWTUtil.verifyTokenSignature(sign(newKey), key.getVerifier()));
+        Assert.assertEquals(2, downloads.get());
+    }
+
+    @Test
+    public void testKeySetIsRefreshedInBackground() throws Exception {
+
+        RSAKey rsaKey = new RSAKeyGenerator(2048).keyID("kid1").generate();
+        AtomicInteger downloads = new AtomicInteger();
+        JWKSKeyResolver resolver = new JWKSKeyResolver(JWKS_URL, url -> {
+            downloads.incrementAndGet();
+            return new JWKSet(rsaKey).toJSONObject().toString();
+        }, 0, 0);
+
+        JWKSKeyResolver.Key first = resolver.resolve("kid1");
+        Assert.assertNotNull(first);
+        // The key set is stale, so the key downloaded earlier is returned while the key set is downloaded again
+        Assert.assertSame(first, resolver.resolve("kid1"));
+        long deadline = System.currentTimeMillis() + 10000;
+        while (resolver.resolve("kid1") == first && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertNotSame(first, resolver.resolve("kid1"));
+        Assert.assertTrue(downloads.get() >= 2);
+    }
+
+    @Test
+    public void testFailedDownload() throws Exception {
+
+        AtomicInteger downloads = new AtomicInteger();
+        JWKSKeyResolver resolver = new JWKSKeyResolver(JWKS_URL, url -> {
+            downloads.incrementAndGet();
+            return null;
+        }, TimeUnit.MINUTES.toMillis(15), TimeUnit.SECONDS.toMillis(30));
+
+        Assert.assertNull(resolver.resolve("kid1"));
+        Assert.assertNull(resolver.resolve("kid1"));
+        Assert.assertEquals(1, downloads.get());
+    }
+
+    private SignedJWT sign(RSAKey rsaKey) throws Exception {
+
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(rsaKey.getKeyID()).build(),
+                new JWTClaimsSet.Builder().subject("admin").build());
+        signedJWT.sign(new RSASSASigner(rsaKey));
+        return signedJWT;
+    }
+}
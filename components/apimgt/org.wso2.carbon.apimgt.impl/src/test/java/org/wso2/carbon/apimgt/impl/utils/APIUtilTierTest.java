@@ -735,6 +735,17 @@ public class APIUtilTierTest {
         Assert.assertEquals(ipString, longToIp(ipLong));
     }
 
+    @Test
+    public void TestParseIPv4() {
+        String ipString = InetAddresses.fromInteger(new Random().nextInt()).getHostAddress();
+        Assert.assertEquals(APIUtil.ipToLong(ipString), APIUtil.parseIPv4(ipString));
+        Assert.assertEquals(0xFFFFFFFFL, APIUtil.parseIPv4("255.255.255.255"));
+        Assert.assertEquals(-1, APIUtil.parseIPv4("010.0.0.1"));
+        Assert.assertEquals(-1, APIUtil.parseIPv4("256.0.0.1"));
+        Assert.assertEquals(-1, APIUtil.parseIPv4("1.2.3"));
+        Assert.assertEquals(-1, APIUtil.parseIPv4("::1"));
+    }
+
     private String longToIp(long ip) {
         return ((ip >> 24) & 0xFF) + "." + ((ip >> 16) & 0xFF) + "." + ((ip >> 8) & 0xFF) + "." + (ip & 0xFF);
     }
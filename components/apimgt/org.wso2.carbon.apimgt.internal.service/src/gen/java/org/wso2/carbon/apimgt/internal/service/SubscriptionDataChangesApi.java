@@ -0,0 +1,50 @@
+package org.wso2.carbon.apimgt.internal.service;
+
+import org.wso2.carbon.apimgt.internal.service.dto.ErrorDTO;
+import org.wso2.carbon.apimgt.internal.service.dto.SubscriptionDataChangesDTO;
+import org.wso2.carbon.apimgt.internal.service.SubscriptionDataChangesApiService;
+import org.wso2.carbon.apimgt.internal.service.impl.SubscriptionDataChangesApiServiceImpl;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+
+import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+import javax.inject.Inject;
+
+import io.swagger.annotations.*;
+import java.io.InputStream;
+
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.apache.cxf.jaxrs.ext.multipart.Attachment;
+import org.apache.cxf.jaxrs.ext.multipart.Multipart;
+
+import java.util.Map;
+import java.util.List;
+import javax.validation.constraints.*;
+@Path("/subscription-data-changes")
+
+@Api(description = "the subscription-data-changes API")
+
+@Produces({ "application/json" })
+
+
+public class SubscriptionDataChangesApi  {
+
+  @Context MessageContext securityContext;
+
+SubscriptionDataChangesApiService delegate = new SubscriptionDataChangesApiServiceImpl();
+
+
+    @GET
+    
+    
+    @Produces({ "application/json" })
+    @ApiOperation(value = "Get the changes of the subscription data since a revision", notes = "This will provide the applications changed since the given revision of the subscription data of the tenant, along with their current subscriptions and key mappings. ", response = SubscriptionDataChangesDTO.class, tags={ "Subscription Validation" })
+    @ApiResponses(value = { 
+        @ApiResponse(code = 200, message = "Changes of the subscription data since the given revision", response = SubscriptionDataChangesDTO.class),
+        @ApiResponse(code = 200, message = "Unexpected error", response = ErrorDTO.class) })
+    public Response subscriptionDataChangesGet(@ApiParam(value = "This is used to specify the tenant domain, where the resource need to be   retrieved from. " ,required=true)@HeaderParam("xWSO2Tenant") String xWSO2Tenant,  @NotNull @ApiParam(value = "Revision of the subscription data previously loaded, as given by the entity tag of the subscription data lists. ",required=true)  @QueryParam("since") Long since) throws APIManagementException{
+        return delegate.subscriptionDataChangesGet(xWSO2Tenant, since, securityContext);
+    }
+}
@@ -0,0 +1,185 @@
+package org.wso2.carbon.apimgt.internal.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import java.util.ArrayList;
+import java.util.List;
+import org.wso2.carbon.apimgt.internal.service.dto.ApplicationKeyMappingListDTO;
+import org.wso2.carbon.apimgt.internal.service.dto.ApplicationListDTO;
+import org.wso2.carbon.apimgt.internal.service.dto.SubscriptionListDTO;
+import javax.validation.constraints.*;
+
+
+import io.swagger.annotations.*;
+import java.util.Objects;
+
+import javax.xml.bind.annotation.*;
+import org.wso2.carbon.apimgt.rest.api.common.annotations.Scope;
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+
+
+public class SubscriptionDataChangesDTO   {
+  
+    private Long revision = null;
+    private Boolean complete = null;
+    private List<Integer> applicationIds = new ArrayList<>();
+    private ApplicationListDTO applications = null;
+    private SubscriptionListDTO subscriptions = null;
+    private ApplicationKeyMappingListDTO applicationKeyMappings = null;
+
+  /**
+   * Revision of the subscription data the changes lead to. 
+   **/
+  public SubscriptionDataChangesDTO revision(Long revision) {
+    this.revision = revision;
+    return this;
+  }
+
+  
+  @ApiModelProperty(value = "Revision of the subscription data the changes lead to. ")
+  @JsonProperty("revision")
+  public Long getRevision() {
+    return revision;
+  }
+  public void setRevision(Long revision) {
+    this.revision = revision;
+  }
+
+  /**
+   * False if the changes since the given revision are not available, in which case the subscription data has to be loaded again. 
+   **/
+  public SubscriptionDataChangesDTO complete(Boolean complete) {
+    this.complete = complete;
+    return this;
+  }
+
+  
+  @ApiModelProperty(value = "False if the changes since the given revision are not available, in which case the subscription data has to be loaded again. ")
+  @JsonProperty("complete")
+  public Boolean isComplete() {
+    return complete;
+  }
+  public void setComplete(Boolean complete) {
+    this.complete = complete;
+  }
+
+  /**
+   * Ids of the changed applications. A changed application which is not in the applications was removed. 
+   **/
+  public SubscriptionDataChangesDTO applicationIds(List<Integer> applicationIds) {
+    this.applicationIds = applicationIds;
+    return this;
+  }
+
+  
+  @ApiModelProperty(value = "Ids of the changed applications. A changed application which is not in the applications was removed. ")
+  @JsonProperty("applicationIds")
+  public List<Integer> getApplicationIds() {
+    return applicationIds;
+  }
+  public void setApplicationIds(List<Integer> applicationIds) {
+    this.applicationIds = applicationIds;
+  }
+
+  /**
+   **/
+  public SubscriptionDataChangesDTO applications(ApplicationListDTO applications) {
+    this.applications = applications;
+    return this;
+  }
+
+  
+  @ApiModelProperty(value = "")
+  @JsonProperty("applications")
+  public ApplicationListDTO getApplications() {
+    return applications;
+  }
+  public void setApplications(ApplicationListDTO applications) {
+    this.applications = applications;
+  }
+
+  /**
+   **/
+  public SubscriptionDataChangesDTO subscriptions(SubscriptionListDTO subscriptions) {
+    this.subscriptions = subscriptions;
+    return this;
+  }
+
+  
+  @ApiModelProperty(value = "")
+  @JsonProperty("subscriptions")
+  public SubscriptionListDTO getSubscriptions() {
+    return subscriptions;
+  }
+  public void setSubscriptions(SubscriptionListDTO subscriptions) {
+    this.subscriptions = subscriptions;
+  }
+
+  /**
+   **/
+  public SubscriptionDataChangesDTO applicationKeyMappings(ApplicationKeyMappingListDTO applicationKeyMappings) {
+    this.applicationKeyMappings = applicationKeyMappings;
+    return this;
+  }
+
+  
+  @ApiModelProperty(value = "")
+  @JsonProperty("applicationKeyMappings")
+  public ApplicationKeyMappingListDTO getApplicationKeyMappings() {
+    return applicationKeyMappings;
+  }
+  public void setApplicationKeyMappings(ApplicationKeyMappingListDTO applicationKeyMappings) {
+    this.applicationKeyMappings = applicationKeyMappings;
+  }
+
+
+  @Override
+  public boolean equals(java.lang.Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    SubscriptionDataChangesDTO subscriptionDataChanges = (SubscriptionDataChangesDTO) o;
+    return Objects.equals(revision, subscriptionDataChanges.revision) &&
+        Objects.equals(complete, subscriptionDataChanges.complete) &&
+        Objects.equals(applicationIds, subscriptionDataChanges.applicationIds) &&
+        Objects.equals(applications, subscriptionDataChanges.applications) &&
+        Objects.equals(subscriptions, subscriptionDataChanges.subscriptions) &&
+        Objects.equals(applicationKeyMappings, subscriptionDataChanges.applicationKeyMappings);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(revision, complete, applicationIds, applications, subscriptions, applicationKeyMappings);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("class SubscriptionDataChangesDTO {\n");
+    
+    sb.append("    revision: ").append(toIndentedString(revision)).append("\n");
+    sb.append("    complete: ").append(toIndentedString(complete)).append("\n");
+    sb.append("    applicationIds: ").append(toIndentedString(applicationIds)).append("\n");
+    sb.append("    applications: ").append(toIndentedString(applications)).append("\n");
+    sb.append("    subscriptions: ").append(toIndentedString(subscriptions)).append("\n");
+    sb.append("    applicationKeyMappings: ").append(toIndentedString(applicationKeyMappings)).append("\n");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Convert the given object to string with each line indented by 4 spaces
+   * (except the first line).
+   */
+  private String toIndentedString(java.lang.Object o) {
+    if (o == null) {
+      return "null";
+    }
+    return o.toString().replace("\n", "\n    ");
+  }
+}
+
@@ -25,6 +25,7 @@ import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.dao.SubscriptionValidationDAO;
 import org.wso2.carbon.apimgt.internal.service.ApplicationKeyMappingsApiService;
 import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.wso2.carbon.apimgt.internal.service.utils.EntityTagUtil;
 import org.wso2.carbon.apimgt.internal.service.utils.SubscriptionValidationDataUtil;
 import org.wso2.carbon.apimgt.rest.api.util.utils.RestApiUtil;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
@@ -53,21 +54,26 @@ public class ApplicationKeyMappingsApiServiceImpl implements ApplicationKeyMappi
             return Response.ok().entity(SubscriptionValidationDataUtil.
                     fromApplicationKeyMappingToApplicationKeyMappingListDTO(applicationKeyMappings)).build();
         }
+        EntityTagUtil.ListQuery<ApplicationKeyMapping, RuntimeException> applicationKeyMappings;
+        String revisionTenantDomain = null;
         if (StringUtils.isNotEmpty(organization) && !organization.equalsIgnoreCase(APIConstants.ORG_ALL_QUERY_PARAM))   {
-            return Response.ok().entity(SubscriptionValidationDataUtil.
-                    fromApplicationKeyMappingToApplicationKeyMappingListDTO(subscriptionValidationDAO.
-                            getAllApplicationKeyMappingsByOrganization(organization))).build();
+            applicationKeyMappings = () -> subscriptionValidationDAO.getAllApplicationKeyMappingsByOrganization(
+                    organization);
+            if (organization.equals(xWSO2Tenant)) {
+                revisionTenantDomain = xWSO2Tenant;
+            }
         } else if (StringUtils.isNotEmpty(organization) && organization.equalsIgnoreCase(APIConstants.ORG_ALL_QUERY_PARAM) &&
                 xWSO2Tenant.equalsIgnoreCase(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME)) {
-            return Response.ok().entity(SubscriptionValidationDataUtil.
-                    fromApplicationKeyMappingToApplicationKeyMappingListDTO(subscriptionValidationDAO.
-                            getAllApplicationKeyMappings())).build();
+            applicationKeyMappings = subscriptionValidationDAO::getAllApplicationKeyMappings;
         } else if (StringUtils.isNotEmpty(xWSO2Tenant)) {
-            return Response.ok().entity(SubscriptionValidationDataUtil.
-                    fromApplicationKeyMappingToApplicationKeyMappingListDTO(subscriptionValidationDAO.
-                            getAllApplicationKeyMappings(xWSO2Tenant))).build();
-
+            String tenantDomain = xWSO2Tenant;
+            applicationKeyMappings = () -> subscriptionValidationDAO.getAllApplicationKeyMappings(tenantDomain);
+            revisionTenantDomain = tenantDomain;
+        } else {
+            return null;
         }
-        return null;
+        return EntityTagUtil.buildListResponse(revisionTenantDomain, applicationKeyMappings,
+                SubscriptionValidationDataUtil::fromApplicationKeyMappingToApplicationKeyMappingListDTO,
+                EntityTagUtil::canonicalForm, messageContext);
     }
 }
@@ -24,6 +24,7 @@ import org.wso2.carbon.apimgt.api.model.subscription.Application;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.dao.SubscriptionValidationDAO;
 import org.wso2.carbon.apimgt.internal.service.ApplicationsApiService;
+import org.wso2.carbon.apimgt.internal.service.utils.EntityTagUtil;
 import org.wso2.carbon.apimgt.internal.service.utils.SubscriptionValidationDataUtil;
 import org.wso2.carbon.apimgt.rest.api.util.utils.RestApiUtil;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
@@ -47,17 +48,20 @@ public class ApplicationsApiServiceImpl implements ApplicationsApiService {
         if (StringUtils.isNotEmpty(organization) && !organization.equalsIgnoreCase(APIConstants.ORG_ALL_QUERY_PARAM)) {
             xWSO2Tenant = SubscriptionValidationDataUtil.validateTenantDomain(organization, messageContext);
         }
+        EntityTagUtil.ListQuery<Application, RuntimeException> applications;
+        String revisionTenantDomain = null;
         if (StringUtils.isNotEmpty(organization) && organization.equalsIgnoreCase(APIConstants.ORG_ALL_QUERY_PARAM) &&
                 xWSO2Tenant.equalsIgnoreCase(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME)) {
-            return Response.ok().entity(SubscriptionValidationDataUtil.fromApplicationToApplicationListDTO(
-                    subscriptionValidationDAO.getAllApplications())).build();
+            applications = subscriptionValidationDAO::getAllApplications;
+        } else if (StringUtils.isNotEmpty(xWSO2Tenant)) {
+            String tenantDomain = xWSO2Tenant;
+            applications = () -> subscriptionValidationDAO.getAllApplications(tenantDomain);
+            revisionTenantDomain = tenantDomain;
+        } else {
+            applications = subscriptionValidationDAO::getAllApplications;
         }
-        if (StringUtils.isNotEmpty(xWSO2Tenant)) {
-            return Response.ok().entity(SubscriptionValidationDataUtil.fromApplicationToApplicationListDTO(
-                    subscriptionValidationDAO.getAllApplications(xWSO2Tenant)))
-                    .build();
-        }
-        return Response.ok().entity(SubscriptionValidationDataUtil.fromApplicationToApplicationListDTO(
-                subscriptionValidationDAO.getAllApplications())).build();
+        return EntityTagUtil.buildListResponse(revisionTenantDomain, applications,
+                SubscriptionValidationDataUtil::fromApplicationToApplicationListDTO, EntityTagUtil::canonicalForm,
+                messageContext);
     }
 }
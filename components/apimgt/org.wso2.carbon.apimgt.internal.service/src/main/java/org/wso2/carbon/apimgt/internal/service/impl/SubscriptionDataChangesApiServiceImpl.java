@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.internal.service.impl;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.api.model.subscription.Application;
+import org.wso2.carbon.apimgt.api.model.subscription.SubscriptionDataChanges;
+import org.wso2.carbon.apimgt.impl.APIConstants;
+import org.wso2.carbon.apimgt.impl.dao.SubscriptionValidationDAO;
+import org.wso2.carbon.apimgt.impl.utils.APIUtil;
+import org.wso2.carbon.apimgt.internal.service.SubscriptionDataChangesApiService;
+import org.wso2.carbon.apimgt.internal.service.dto.SubscriptionDataChangesDTO;
+import org.wso2.carbon.apimgt.internal.service.utils.SubscriptionValidationDataUtil;
+import org.wso2.carbon.apimgt.rest.api.util.utils.RestApiUtil;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import javax.ws.rs.core.Response;
+
+public class SubscriptionDataChangesApiServiceImpl implements SubscriptionDataChangesApiService {
+
+    // Beyond this many changed applications, loading the lists again is cheaper than loading each application.
+    private static final int MAX_CHANGED_APPLICATION_COUNT = 500;
+
+    @Override
+    public Response subscriptionDataChangesGet(String xWSO2Tenant, Long since, MessageContext messageContext)
+            throws APIManagementException {
+
+        xWSO2Tenant = SubscriptionValidationDataUtil.validateTenantDomain(xWSO2Tenant, messageContext);
+        String organization = RestApiUtil.getOrganization(messageContext);
+        SubscriptionDataChangesDTO subscriptionDataChangesDTO = new SubscriptionDataChangesDTO();
+        subscriptionDataChangesDTO.setComplete(false);
+        // The revisions are kept per tenant, so the changes are only available for the lists of a single tenant, as
+        // loaded by a gateway whose organization is its tenant.
+        if (since == null || StringUtils.isEmpty(xWSO2Tenant) || (StringUtils.isNotEmpty(organization) &&
+                (organization.equalsIgnoreCase(APIConstants.ORG_ALL_QUERY_PARAM) ||
+                        !organization.equals(xWSO2Tenant)))) {
+            return Response.ok().entity(subscriptionDataChangesDTO).build();
+        }
+        int tenantId = APIUtil.getTenantIdFromTenantDomain(xWSO2Tenant);
+        if (tenantId == MultitenantConstants.INVALID_TENANT_ID) {
+            return Response.ok().entity(subscriptionDataChangesDTO).build();
+        }
+        SubscriptionDataChanges changes = new SubscriptionValidationDAO().getSubscriptionDataChanges(tenantId, since,
+                MAX_CHANGED_APPLICATION_COUNT);
+        if (StringUtils.isNotEmpty(organization)) {
+            // The lists of an organization only have the applications of the organization.
+            Set<Integer> otherApplicationIds = new HashSet<>();
+            for (Application application : changes.getApplications()) {
+                if (!organization.equals(application.getOrganization())) {
+                    otherApplicationIds.add(application.getId());
+                }
+            }
+            changes.getApplications().removeIf(application -> otherApplicationIds.contains(application.getId()));
+            changes.getSubscriptions().removeIf(subscription -> otherApplicationIds.contains(subscription.getAppId()));
+            changes.getApplicationKeyMappings().removeIf(
+                    keyMapping -> otherApplicationIds.contains(keyMapping.getApplicationId()));
+        }
+        subscriptionDataChangesDTO.setRevision(changes.getRevision());
+        subscriptionDataChangesDTO.setComplete(changes.isComplete());
+        subscriptionDataChangesDTO.setApplicationIds(new ArrayList<>(changes.getApplicationIds()));
+        subscriptionDataChangesDTO.setApplications(
+                SubscriptionValidationDataUtil.fromApplicationToApplicationListDTO(changes.getApplications()));
+        subscriptionDataChangesDTO.setSubscriptions(
+                SubscriptionValidationDataUtil.fromSubscriptionToSubscriptionListDTO(changes.getSubscriptions()));
+        subscriptionDataChangesDTO.setApplicationKeyMappings(SubscriptionValidationDataUtil
+                .fromApplicationKeyMappingToApplicationKeyMappingListDTO(changes.getApplicationKeyMappings()));
+        return Response.ok().entity(subscriptionDataChangesDTO).build();
+    }
+}
@@ -25,6 +25,7 @@ import org.wso2.carbon.apimgt.api.model.subscription.Subscription;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.dao.SubscriptionValidationDAO;
 import org.wso2.carbon.apimgt.internal.service.SubscriptionsApiService;
+import org.wso2.carbon.apimgt.internal.service.utils.EntityTagUtil;
 import org.wso2.carbon.apimgt.internal.service.utils.SubscriptionValidationDataUtil;
 import org.wso2.carbon.apimgt.rest.api.util.utils.RestApiUtil;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
@@ -60,20 +61,29 @@ public class SubscriptionsApiServiceImpl implements SubscriptionsApiService {
             }
             result = Response.ok().entity(
                     SubscriptionValidationDataUtil.fromSubscriptionToSubscriptionListDTO(subscriptionList)).build();
-        } else if (StringUtils.isNotEmpty(organization) &&
-                !organization.equalsIgnoreCase(APIConstants.ORG_ALL_QUERY_PARAM)) {
-            result = Response.ok().entity(SubscriptionValidationDataUtil.fromSubscriptionToSubscriptionListDTO(
-                    subscriptionValidationDAO.getAllSubscriptionsByOrganization(organization))).build();
-        } else if (StringUtils.isNotEmpty(organization) && organization.equalsIgnoreCase(APIConstants.ORG_ALL_QUERY_PARAM) &&
-                xWSO2Tenant.equalsIgnoreCase(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME)) {
-            result = Response.ok().entity(SubscriptionValidationDataUtil.fromSubscriptionToSubscriptionListDTO(
-                    subscriptionValidationDAO.getAllSubscriptions())).build();
-        } else if (StringUtils.isNotEmpty(xWSO2Tenant)) {
-            result = Response.ok().entity(SubscriptionValidationDataUtil.fromSubscriptionToSubscriptionListDTO(
-                    subscriptionValidationDAO.getAllSubscriptions(xWSO2Tenant))).build();
         } else {
-            result = Response.ok().entity(SubscriptionValidationDataUtil.fromSubscriptionToSubscriptionListDTO(
-                    subscriptionValidationDAO.getAllSubscriptions())).build();
+            EntityTagUtil.ListQuery<Subscription, APIManagementException> subscriptions;
+            String revisionTenantDomain = null;
+            if (StringUtils.isNotEmpty(organization) &&
+                    !organization.equalsIgnoreCase(APIConstants.ORG_ALL_QUERY_PARAM)) {
+                subscriptions = () -> subscriptionValidationDAO.getAllSubscriptionsByOrganization(organization);
+                if (organization.equals(xWSO2Tenant)) {
+                    revisionTenantDomain = xWSO2Tenant;
+                }
+            } else if (StringUtils.isNotEmpty(organization) &&
+                    organization.equalsIgnoreCase(APIConstants.ORG_ALL_QUERY_PARAM) &&
+                    xWSO2Tenant.equalsIgnoreCase(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME)) {
+                subscriptions = subscriptionValidationDAO::getAllSubscriptions;
+            } else if (StringUtils.isNotEmpty(xWSO2Tenant)) {
+                String tenantDomain = xWSO2Tenant;
+                subscriptions = () -> subscriptionValidationDAO.getAllSubscriptions(tenantDomain);
+                revisionTenantDomain = tenantDomain;
+            } else {
+                subscriptions = subscriptionValidationDAO::getAllSubscriptions;
+            }
+            result = EntityTagUtil.buildListResponse(revisionTenantDomain, subscriptions,
+                    SubscriptionValidationDataUtil::fromSubscriptionToSubscriptionListDTO,
+                    EntityTagUtil::canonicalForm, messageContext);
         }
 
         return result;
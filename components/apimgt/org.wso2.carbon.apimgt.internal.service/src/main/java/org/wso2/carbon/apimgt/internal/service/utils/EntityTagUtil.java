@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.internal.service.utils;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+import org.wso2.carbon.apimgt.api.model.subscription.Application;
+import org.wso2.carbon.apimgt.api.model.subscription.ApplicationKeyMapping;
+import org.wso2.carbon.apimgt.api.model.subscription.Subscription;
+import org.wso2.carbon.apimgt.impl.dao.SubscriptionValidationDAO;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Response;
+
+/**
+ * Builds conditional responses for the bulk list resources polled by gateways when loading the subscription data of
+ * a tenant, so that a gateway which sends back the entity tag of the list it last loaded gets a 304 response without
+ * a body as long as the list did not change.
+ * <p>
+ * The entity tag is the revision of the subscription data of the tenant, which is incremented in each transaction
+ * changing the applications of the tenant, their subscriptions or their key mappings. The revision is read before
+ * the list is queried, so an unchanged list is answered without querying it, and a change committed while the list
+ * is queried is loaded again on the next request. A gateway holding the lists of a tenant at a revision loads the
+ * changes since that revision from the subscription data changes resource. Lists of several tenants are tagged with
+ * the sum of the revisions of all the tenants, which no changes can be loaded since. If the revision cannot be read,
+ * e.g. before the database has been migrated, the entity tag is derived from the canonical fields of the entries of
+ * the list instead.
+ */
+public class EntityTagUtil {
+
+    private static final Log log = LogFactory.getLog(EntityTagUtil.class);
+    private static final String SHA_256 = "SHA-256";
+    private static final String REVISION_TAG_PREFIX = "r";
+    private static final String REVISION_SUM_TAG_PREFIX = "s";
+    private static final String DIGEST_TAG_PREFIX = "d";
+
+    private EntityTagUtil() {
+
+    }
+
+    /**
+     * Builds the response of a list resource, or a 304 response if the entity tag of the list matches the
+     * If-None-Match header of the request.
+     *
+     * @param tenantDomain   tenant domain of the list, or null if the list has the entries of several tenants
+     * @param entries        queries the entries of the list
+     * @param listDTO        converts the entries to the list DTO used as the response entity
+     * @param canonicalForm  canonical form of an entry, used to derive the entity tag if there is no revision
+     * @param messageContext message context of the request
+     * @param <T>            entry type
+     * @param <E>            exception thrown when querying the entries
+     * @return response of the list resource
+     * @throws E if the entries could not be queried
+     */
+    public static <T, E extends Exception> Response buildListResponse(String tenantDomain, ListQuery<T, E> entries,
+                                                                      Function<List<T>, Object> listDTO,
+                                                                      Function<T, String> canonicalForm,
+                                                                      MessageContext messageContext) throws E {
+
+        EntityTag entityTag = getRevisionTag(tenantDomain);
+        if (entityTag != null) {
+            Response notModified = evaluatePreconditions(entityTag, messageContext);
+            if (notModified != null) {
+                return notModified;
+            }
+        }
+        List<T> list = entries.get();
+        if (entityTag == null) {
+            entityTag = new EntityTag(getDigestTag(list, canonicalForm));
+            Response notModified = evaluatePreconditions(entityTag, messageContext);
+            if (notModified != null) {
+                return notModified;
+            }
+        }
+        return Response.ok().entity(listDTO.apply(list)).tag(entityTag).build();
+    }
+
+    private static EntityTag getRevisionTag(String tenantDomain) {
+
+        try {
+            long revision = new SubscriptionValidationDAO().getSubscriptionDataRevision(tenantDomain);
+            return new EntityTag((tenantDomain != null ? REVISION_TAG_PREFIX : REVISION_SUM_TAG_PREFIX) +
+                    Long.toHexString(revision));
+        } catch (APIManagementException e) {
+            log.warn("Subscription data revision is not available. The entity tag is derived from the list.", e);
+            return null;
+        }
+    }
+
+    private static Response evaluatePreconditions(EntityTag entityTag, MessageContext messageContext) {
+
+        if (messageContext == null || messageContext.getRequest() == null) {
+            return null;
+        }
+        Response.ResponseBuilder notModified = messageContext.getRequest().evaluatePreconditions(entityTag);
+        return notModified != null ? notModified.tag(entityTag).build() : null;
+    }
+
+    /**
+     * Computes an entity tag of the given list entries which does not depend on the order of the entries, as the
+     * queries behind the list resources do not define one. The digest of the canonical form of each entry is
+     * summed, so that a change of any entry, or of the number of entries, changes the tag.
+     *
+     * @param entries       entries of the list
+     * @param canonicalForm canonical form of an entry
+     * @param <T>           entry type
+     * @return entity tag value
+     */
+    static <T> String getDigestTag(List<T> entries, Function<T, String> canonicalForm) {
+
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance(SHA_256);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+        long sum = 0;
+        int count = 0;
+        if (entries != null) {
+            for (T entry : entries) {
+                byte[] digest = messageDigest.digest(canonicalForm.apply(entry).getBytes(StandardCharsets.UTF_8));
+                long value = 0;
+                for (int i = 0; i < Long.BYTES; i++) {
+                    value = (value << 8) | (digest[i] & 0xFF);
+                }
+                sum += value;
+                count++;
+            }
+        }
+        return DIGEST_TAG_PREFIX + Integer.toHexString(count) + "-" + Long.toHexString(sum);
+    }
+
+    /**
+     * @param subscription subscription
+     * @return canonical form of the fields of the subscription loaded by the gateways
+     */
+    public static String canonicalForm(Subscription subscription) {
+
+        return join(subscription.getSubscriptionId(), subscription.getSubscriptionUUID(),
+                subscription.getPolicyId(), subscription.getApiId(), subscription.getApiUUID(),
+                subscription.getAppId(), subscription.getApplicationUUID(), subscription.getSubscriptionState());
+    }
+
+    /**
+     * @param application application
+     * @return canonical form of the fields of the application loaded by the gateways
+     */
+    public static String canonicalForm(Application application) {
+
+        Map<String, String> attributes = application.getAttributes() != null ?
+                new TreeMap<>(application.getAttributes()) : null;
+        return join(application.getId(), application.getUuid(), application.getName(),
+                application.getSubName(), application.getPolicy(), application.getTokenType(),
+                application.getOrganization(),
+                application.getGroupIds() != null ? new TreeSet<>(application.getGroupIds()) : null, attributes);
+    }
+
+    /**
+     * @param applicationKeyMapping application key mapping
+     * @return canonical form of the fields of the application key mapping loaded by the gateways
+     */
+    public static String canonicalForm(ApplicationKeyMapping applicationKeyMapping) {
+
+        return join(applicationKeyMapping.getApplicationId(), applicationKeyMapping.getApplicationUUID(),
+                applicationKeyMapping.getConsumerKey(), applicationKeyMapping.getKeyType(),
+                applicationKeyMapping.getKeyManager(), applicationKeyMapping.getWfState());
+    }
+
+    /**
+     * Joins the given fields, each prefixed with its length, so that the boundaries of the fields are unambiguous.
+     * Sorted collections are used for the fields backed by hash based collections, so that the form does not depend
+     * on their iteration order.
+     */
+    private static String join(Object... fields) {
+
+        StringBuilder canonicalForm = new StringBuilder();
+        for (Object field : fields) {
+            if (field == null) {
+                canonicalForm.append("-1:");
+            } else {
+                String value = field.toString();
+                canonicalForm.append(value.length()).append(':').append(value);
+            }
+        }
+        return canonicalForm.toString();
+    }
+
+    /**
+     * Queries the entries of a list resource.
+     *
+     * @param <T> entry type
+     * @param <E> exception thrown when querying the entries
+     */
+    public interface ListQuery<T, E extends Exception> {
+
+        List<T> get() throws E;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *  Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.internal.service.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.carbon.apimgt.api.model.subscription.Application;
+import org.wso2.carbon.apimgt.api.model.subscription.Subscription;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class EntityTagUtilTest {
+
+    @Test
+    public void testEntityTagDoesNotDependOnOrder() {
+
+        Subscription sub1 = subscription("sub-1", "UNBLOCKED");
+        Subscription sub2 = subscription("sub-2", "UNBLOCKED");
+        Subscription sub3 = subscription("sub-3", "UNBLOCKED");
+        Assert.assertEquals(EntityTagUtil.getDigestTag(Arrays.asList(sub1, sub2, sub3), EntityTagUtil::canonicalForm),
+                EntityTagUtil.getDigestTag(Arrays.asList(sub3, sub1, sub2), EntityTagUtil::canonicalForm));
+    }
+
+    @Test
+    public void testEntityTagChangesWithEntries() {
+
+        Subscription sub1 = subscription("sub-1", "UNBLOCKED");
+        Subscription sub2 = subscription("sub-2", "UNBLOCKED");
+        String entityTag = EntityTagUtil.getDigestTag(Arrays.asList(sub1, sub2), EntityTagUtil::canonicalForm);
+        Assert.assertNotEquals(entityTag, EntityTagUtil.getDigestTag(
+                Arrays.asList(sub1, subscription("sub-2", "BLOCKED")), EntityTagUtil::canonicalForm));
+        Assert.assertNotEquals(entityTag,
+                EntityTagUtil.getDigestTag(Collections.singletonList(sub1), EntityTagUtil::canonicalForm));
+        Assert.assertNotEquals(entityTag,
+                EntityTagUtil.getDigestTag(Arrays.asList(sub1, sub2, sub2), EntityTagUtil::canonicalForm));
+        Assert.assertEquals(EntityTagUtil.<Subscription>getDigestTag(null, EntityTagUtil::canonicalForm),
+                EntityTagUtil.getDigestTag(Collections.<Subscription>emptyList(), EntityTagUtil::canonicalForm));
+    }
+
+    @Test
+    public void testEntityTagDoesNotDependOnAttributeOrder() {
+
+        Application application = new Application();
+        Application sameApplication = new Application();
+        for (int i = 0; i < 32; i++) {
+            application.addAttribute("attribute" + i, "value" + i);
+            application.addGroupId("group" + i);
+            sameApplication.addAttribute("attribute" + (31 - i), "value" + (31 - i));
+            sameApplication.addGroupId("group" + (31 - i));
+        }
+        Assert.assertEquals(EntityTagUtil.canonicalForm(application), EntityTagUtil.canonicalForm(sameApplication));
+        sameApplication.getAttributes().put("attribute0", "changed");
+        Assert.assertNotEquals(EntityTagUtil.canonicalForm(application),
+                EntityTagUtil.canonicalForm(sameApplication));
+    }
+
+    private static Subscription subscription(String subscriptionUUID, String state) {
+
+        Subscription subscription = new Subscription();
+        subscription.setSubscriptionUUID(subscriptionUUID);
+        subscription.setSubscriptionState(state);
+        subscription.setApiId(1);
+        subscription.setAppId(1);
+        return subscription;
+    }
+}
@@ -25,10 +25,12 @@ import org.wso2.carbon.apimgt.keymgt.model.entity.ApplicationKeyMapping;
 import org.wso2.carbon.apimgt.keymgt.model.entity.ApplicationPolicy;
 import org.wso2.carbon.apimgt.keymgt.model.entity.Scope;
 import org.wso2.carbon.apimgt.keymgt.model.entity.Subscription;
+import org.wso2.carbon.apimgt.keymgt.model.entity.SubscriptionDataChanges;
 import org.wso2.carbon.apimgt.keymgt.model.entity.SubscriptionPolicy;
 import org.wso2.carbon.apimgt.keymgt.model.exception.DataLoadingException;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * This interface abstracts Data Loading operations. Interface will be consumed by
@@ -62,6 +64,62 @@ public interface SubscriptionDataLoader {
      */
     public List<ApplicationKeyMapping> loadAllKeyMappings(String tenantDomain) throws DataLoadingException;
 
+    /**
+     * Loads all subscriptions from underlying Storage, handing each of them to the given consumer as soon as it is
+     * read, instead of collecting them into a list.
+     *
+     * @param tenantDomain tenant domain
+     * @param consumer     consumer of the loaded {@link Subscription}s
+     * @throws DataLoadingException If any error
+     */
+    default void loadAllSubscriptions(String tenantDomain, Consumer<Subscription> consumer)
+            throws DataLoadingException {
+
+        loadAllSubscriptions(tenantDomain).forEach(consumer);
+    }
+
+    /**
+     * Loads all Applications, handing each of them to the given consumer as soon as it is read.
+     *
+     * @param tenantDomain tenant domain
+     * @param consumer     consumer of the loaded {@link Application}s
+     * @throws DataLoadingException If any error
+     */
+    default void loadAllApplications(String tenantDomain, Consumer<Application> consumer)
+            throws DataLoadingException {
+
+        loadAllApplications(tenantDomain).forEach(consumer);
+    }
+
+    /**
+     * Loads all Key Mappings, handing each of them to the given consumer as soon as it is read.
+     *
+     * @param tenantDomain tenant domain
+     * @param consumer     consumer of the loaded {@link ApplicationKeyMapping}s
+     * @throws DataLoadingException If any error
+     */
+    default void loadAllKeyMappings(String tenantDomain, Consumer<ApplicationKeyMapping> consumer)
+            throws DataLoadingException {
+
+        loadAllKeyMappings(tenantDomain).forEach(consumer);
+    }
+
+    /**
+     * Loads the changes of the subscriptions, applications and key mappings of a tenant since the given revision of
+     * the subscription data, as given by the entity tags of the lists previously loaded.
+     *
+     * @param tenantDomain tenant domain
+     * @param since        revision of the subscription data previously loaded
+     * @return the changes since the revision, or null if changes can not be loaded, in which case the lists have to
+     * be loaded again
+     * @throws DataLoadingException If any error
+     */
+    default SubscriptionDataChanges loadSubscriptionDataChanges(String tenantDomain, long since)
+            throws DataLoadingException {
+
+        return null;
+    }
+
     /**
      * Load all {@link API} objects owned by all Tenants.
      *
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.keymgt.model.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Changes of the subscription data of a tenant since a revision, as returned by the subscription data changes
+ * resource of the control plane.
+ */
+public class SubscriptionDataChanges {
+
+    private long revision;
+    private boolean complete;
+    private List<Integer> applicationIds = new ArrayList<>();
+    private ApplicationList applications = new ApplicationList();
+    private SubscriptionList subscriptions = new SubscriptionList();
+    private ApplicationKeyMappingList applicationKeyMappings = new ApplicationKeyMappingList();
+
+    public long getRevision() {
+
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+
+        this.revision = revision;
+    }
+
+    public boolean isComplete() {
+
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+
+        this.complete = complete;
+    }
+
+    public List<Integer> getApplicationIds() {
+
+        return applicationIds;
+    }
+
+    public void setApplicationIds(List<Integer> applicationIds) {
+
+        this.applicationIds = applicationIds;
+    }
+
+    public ApplicationList getApplications() {
+
+        return applications;
+    }
+
+    public void setApplications(ApplicationList applications) {
+
+        this.applications = applications;
+    }
+
+    public SubscriptionList getSubscriptions() {
+
+        return subscriptions;
+    }
+
+    public void setSubscriptions(SubscriptionList subscriptions) {
+
+        this.subscriptions = subscriptions;
+    }
+
+    public ApplicationKeyMappingList getApplicationKeyMappings() {
+
+        return applicationKeyMappings;
+    }
+
+    public void setApplicationKeyMappings(ApplicationKeyMappingList applicationKeyMappings) {
+
+        this.applicationKeyMappings = applicationKeyMappings;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.keymgt.model.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Secondary index over the entities of one of the maps of {@link SubscriptionDataStoreImpl}. Entities are grouped
+ * by an index key derived from the entity, and kept against their primary key within the group. Entities for which
+ * the index key is null are not indexed.
+ * <p>
+ * The index does not synchronize with the primary map by itself. It is updated while holding the primary map entry
+ * of the entity, so that updates of the same entity are applied to the primary map and the index in the same order.
+ *
+ * @param <I> index key type
+ * @param <K> primary key type
+ * @param <V> entity type
+ */
+class SecondaryIndex<I, K, V> {
+
+    private final Function<V, I> indexKeyFunction;
+    private final Map<I, Map<K, V>> index = new ConcurrentHashMap<>();
+
+    SecondaryIndex(Function<V, I> indexKeyFunction) {
+
+        this.indexKeyFunction = indexKeyFunction;
+    }
+
+    /**
+     * Replaces the indexed entry of the given primary key.
+     *
+     * @param key      primary key
+     * @param oldValue entity previously held against the key, or null
+     * @param newValue entity now held against the key, or null if the key was removed
+     */
+    void update(K key, V oldValue, V newValue) {
+
+        if (oldValue != null) {
+            remove(key, oldValue);
+        }
+        if (newValue != null) {
+            add(key, newValue);
+        }
+    }
+
+    private void add(K key, V value) {
+
+        I indexKey = indexKeyFunction.apply(value);
+        if (indexKey == null) {
+            return;
+        }
+        index.compute(indexKey, (k, entities) -> {
+            if (entities == null) {
+                entities = new ConcurrentHashMap<>();
+            }
+            entities.put(key, value);
+            return entities;
+        });
+    }
+
+    private void remove(K key, V value) {
+
+        I indexKey = indexKeyFunction.apply(value);
+        if (indexKey == null) {
+            return;
+        }
+        index.computeIfPresent(indexKey, (k, entities) -> {
+            entities.remove(key, value);
+            return entities.isEmpty() ? null : entities;
+        });
+    }
+
+    /**
+     * @param indexKey index key
+     * @return entities indexed under the given key
+     */
+    Collection<V> get(I indexKey) {
+
+        Map<K, V> entities = indexKey != null ? index.get(indexKey) : null;
+        if (entities == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableCollection(entities.values());
+    }
+
+    /**
+     * @param indexKey index key
+     * @return one of the entities indexed under the given key, or null if there is none
+     */
+    V getFirst(I indexKey) {
+
+        Map<K, V> entities = indexKey != null ? index.get(indexKey) : null;
+        if (entities == null) {
+            return null;
+        }
+        Iterator<V> iterator = entities.values().iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+}
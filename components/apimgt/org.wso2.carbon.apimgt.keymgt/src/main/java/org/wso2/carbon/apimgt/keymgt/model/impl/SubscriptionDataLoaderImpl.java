@@ -18,9 +18,15 @@
 package org.wso2.carbon.apimgt.keymgt.model.impl;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
@@ -29,6 +35,7 @@ import org.apache.http.util.EntityUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.dto.EventHubConfigurationDto;
 import org.wso2.carbon.apimgt.impl.dto.GatewayArtifactSynchronizerProperties;
+import org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer.GatewaySnapshot;
 import org.wso2.carbon.apimgt.impl.utils.APIUtil;
 import org.wso2.carbon.apimgt.keymgt.internal.ServiceReferenceHolder;
 import org.wso2.carbon.apimgt.keymgt.model.SubscriptionDataLoader;
@@ -45,19 +52,26 @@ import org.wso2.carbon.apimgt.keymgt.model.entity.ApplicationPolicyList;
 import org.wso2.carbon.apimgt.keymgt.model.entity.Scope;
 import org.wso2.carbon.apimgt.keymgt.model.entity.ScopesList;
 import org.wso2.carbon.apimgt.keymgt.model.entity.Subscription;
+import org.wso2.carbon.apimgt.keymgt.model.entity.SubscriptionDataChanges;
 import org.wso2.carbon.apimgt.keymgt.model.entity.SubscriptionList;
 import org.wso2.carbon.apimgt.keymgt.model.entity.SubscriptionPolicy;
 import org.wso2.carbon.apimgt.keymgt.model.entity.SubscriptionPolicyList;
 import org.wso2.carbon.apimgt.keymgt.model.exception.DataLoadingException;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
 
@@ -67,9 +81,23 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
     public static final int retrievalTimeoutInSeconds = 15;
     public static final int retrievalRetries = 15;
     public static final String UTF8 = "UTF-8";
+    private static final String LIST = "list";
+    private static final Gson GSON = new Gson();
+    private final Map<String, String> entityTags;
 
     public SubscriptionDataLoaderImpl() {
 
+        this(new ConcurrentHashMap<>());
+    }
+
+    /**
+     * @param entityTags entity tags of the lists previously loaded by the caller, keyed by the resource path. The
+     *                   lists are requested conditionally on these tags, and the tags are updated as lists are loaded.
+     */
+    public SubscriptionDataLoaderImpl(Map<String, String> entityTags) {
+
+        this.entityTags = entityTags;
+
         this.getEventHubConfigurationDto = ServiceReferenceHolder.getInstance()
                 .getAPIManagerConfigurationService().getAPIManagerConfiguration()
                 .getEventHubConfigurationDto();
@@ -135,6 +163,215 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
         return applicationKeyMappings;
     }
 
+    @Override
+    public void loadAllSubscriptions(String tenantDomain, Consumer<Subscription> consumer)
+            throws DataLoadingException {
+
+        streamList(APIConstants.SubscriptionValidationResources.SUBSCRIPTIONS, tenantDomain, Subscription.class,
+                consumer);
+    }
+
+    @Override
+    public void loadAllApplications(String tenantDomain, Consumer<Application> consumer)
+            throws DataLoadingException {
+
+        streamList(APIConstants.SubscriptionValidationResources.APPLICATIONS, tenantDomain, Application.class,
+                consumer);
+    }
+
+    @Override
+    public void loadAllKeyMappings(String tenantDomain, Consumer<ApplicationKeyMapping> consumer)
+            throws DataLoadingException {
+
+        streamList(APIConstants.SubscriptionValidationResources.APPLICATION_KEY_MAPPINGS, tenantDomain,
+                ApplicationKeyMapping.class, consumer);
+    }
+
+    /**
+     * Reads the list of entities returned by the given endpoint directly from the response stream, handing each
+     * entity to the consumer as soon as it is parsed, so that the whole response is never held in memory. The list
+     * is requested only if it changed since it was last loaded, in which case no entity is handed to the consumer.
+     */
+    private <T> void streamList(String path, String tenantDomain, Class<T> entityClass, Consumer<T> consumer)
+            throws DataLoadingException {
+
+        // The previous tag is dropped until the new list is fully read, as the entities of a partially read list
+        // may already have been handed over.
+        String previousEntityTag = entityTags.remove(path);
+        HttpResponse httpResponse;
+        try {
+            httpResponse = executeRequest(path, tenantDomain, previousEntityTag);
+        } catch (IOException e) {
+            String msg = "Error while executing the http client " + path;
+            log.error(msg, e);
+            throw new DataLoadingException(msg, e);
+        }
+        if (HttpStatus.SC_NOT_MODIFIED == httpResponse.getStatusLine().getStatusCode()) {
+            entityTags.put(path, previousEntityTag);
+            if (log.isDebugEnabled()) {
+                log.debug("Entities of " + path + " were not modified since they were last loaded");
+            }
+            return;
+        }
+        HttpEntity entity = httpResponse.getEntity();
+        if (entity == null) {
+            return;
+        }
+        Header entityTag = httpResponse.getFirstHeader(HttpHeaders.ETAG);
+        String entityTagValue = entityTag != null ? entityTag.getValue() : null;
+        GatewaySnapshot.Writer snapshotWriter = openSnapshot(path, tenantDomain, entityTagValue);
+        int count = 0;
+        try (JsonReader reader = new JsonReader(new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (LIST.equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        T loadedEntity = GSON.fromJson(reader, entityClass);
+                        consumer.accept(loadedEntity);
+                        count++;
+                        snapshotWriter = addToSnapshot(snapshotWriter, path, loadedEntity);
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            commitSnapshot(snapshotWriter, path);
+        } catch (IOException | JsonParseException e) {
+            String msg = "Error while reading the response of " + path;
+            log.error(msg, e);
+            throw new DataLoadingException(msg, e);
+        } finally {
+            EntityUtils.consumeQuietly(entity);
+            closeSnapshot(snapshotWriter, path);
+        }
+        if (entityTagValue != null) {
+            entityTags.put(path, entityTagValue);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Loaded " + count + " entities from " + path);
+        }
+    }
+
+    /**
+     * Loads the changes since the given revision with a single request, as the lists are loaded again in full if
+     * the changes can not be loaded, e.g. from a control plane without the subscription data changes resource.
+     */
+    @Override
+    public SubscriptionDataChanges loadSubscriptionDataChanges(String tenantDomain, long since)
+            throws DataLoadingException {
+
+        String endPoint = APIConstants.SubscriptionValidationResources.SUBSCRIPTION_DATA_CHANGES + "?since=" + since;
+        HttpResponse httpResponse;
+        try {
+            httpResponse = executeRequest(endPoint, tenantDomain, null, 1);
+        } catch (IOException e) {
+            throw new DataLoadingException("Error while executing the http client " + endPoint, e);
+        }
+        HttpEntity entity = httpResponse.getEntity();
+        if (entity == null) {
+            return null;
+        }
+        try (Reader reader = new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8)) {
+            return GSON.fromJson(reader, SubscriptionDataChanges.class);
+        } catch (IOException | JsonParseException e) {
+            throw new DataLoadingException("Error while reading the response of " + endPoint, e);
+        } finally {
+            EntityUtils.consumeQuietly(entity);
+        }
+    }
+
+    /**
+     * Hands the entities of the local snapshot of the given endpoint to the consumer, and keeps the entity tag of
+     * the snapshot so that the entities are not loaded again from the endpoint if they did not change since.
+     *
+     * @return true if the entities were loaded from a snapshot
+     */
+    <T> boolean loadSnapshot(String path, String tenantDomain, Class<T> entityClass, Consumer<T> consumer) {
+
+        if (!gatewayArtifactSynchronizerProperties.isSnapshotEnabled() || tenantDomain == null) {
+            return false;
+        }
+        try (GatewaySnapshot snapshot = GatewaySnapshot.read(getSnapshotPath(path, tenantDomain))) {
+            if (snapshot == null) {
+                return false;
+            }
+            try {
+                snapshot.forEach((key, value) -> consumer.accept(GSON.fromJson(value, entityClass)));
+            } catch (JsonParseException e) {
+                log.warn("Error while loading the snapshot of " + path + " of tenant " + tenantDomain, e);
+                return false;
+            }
+            if (snapshot.getTag() != null) {
+                entityTags.put(path, snapshot.getTag());
+            }
+            log.info("Loaded " + snapshot.size() + " entities of " + path + " of tenant " + tenantDomain
+                    + " from the local snapshot");
+            return true;
+        }
+    }
+
+    private GatewaySnapshot.Writer openSnapshot(String path, String tenantDomain, String entityTag) {
+
+        if (!gatewayArtifactSynchronizerProperties.isSnapshotEnabled() || tenantDomain == null) {
+            return null;
+        }
+        try {
+            return GatewaySnapshot.write(getSnapshotPath(path, tenantDomain), entityTag);
+        } catch (IOException e) {
+            log.warn("Error while creating the snapshot of " + path + " of tenant " + tenantDomain, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the writer, or null if the snapshot could not be written and was discarded. A snapshot which can not
+     * be written does not fail the loading of the entities.
+     */
+    private GatewaySnapshot.Writer addToSnapshot(GatewaySnapshot.Writer snapshotWriter, String path, Object entity) {
+
+        if (snapshotWriter != null) {
+            try {
+                snapshotWriter.add(null, GSON.toJson(entity));
+            } catch (IOException e) {
+                log.warn("Error while writing the snapshot of " + path, e);
+                closeSnapshot(snapshotWriter, path);
+                return null;
+            }
+        }
+        return snapshotWriter;
+    }
+
+    private void commitSnapshot(GatewaySnapshot.Writer snapshotWriter, String path) {
+
+        if (snapshotWriter != null) {
+            try {
+                snapshotWriter.commit();
+            } catch (IOException e) {
+                log.warn("Error while writing the snapshot of " + path, e);
+            }
+        }
+    }
+
+    private void closeSnapshot(GatewaySnapshot.Writer snapshotWriter, String path) {
+
+        if (snapshotWriter != null) {
+            try {
+                snapshotWriter.close();
+            } catch (IOException e) {
+                log.warn("Error while closing the snapshot of " + path, e);
+            }
+        }
+    }
+
+    private Path getSnapshotPath(String path, String tenantDomain) {
+
+        return GatewaySnapshot.getPath(gatewayArtifactSynchronizerProperties.getSnapshotLocation(), tenantDomain,
+                path.substring(path.lastIndexOf('/') + 1));
+    }
+
     @Override
     public List<API> loadAllApis(String tenantDomain) throws DataLoadingException {
 
@@ -423,6 +660,35 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
 
     private String invokeService(String path, String tenantDomain) throws DataLoadingException, IOException {
 
+        HttpResponse httpResponse = executeRequest(path, tenantDomain);
+        String responseString = EntityUtils.toString(httpResponse.getEntity(), UTF8);
+        if (log.isDebugEnabled()) {
+            log.debug("Response : " + responseString);
+        }
+        return responseString;
+    }
+
+    private HttpResponse executeRequest(String path, String tenantDomain) throws DataLoadingException, IOException {
+
+        return executeRequest(path, tenantDomain, null);
+    }
+
+    /**
+     * @param entityTag entity tag of the previously loaded response, if the response is only needed when it changed.
+     *                  A 304 response is returned if it did not change.
+     */
+    private HttpResponse executeRequest(String path, String tenantDomain, String entityTag)
+            throws DataLoadingException, IOException {
+
+        return executeRequest(path, tenantDomain, entityTag, retrievalRetries);
+    }
+
+    /**
+     * @param retries number of attempts of the request before failing
+     */
+    private HttpResponse executeRequest(String path, String tenantDomain, String entityTag, int retries)
+            throws DataLoadingException, IOException {
+
         String serviceURLStr = getEventHubConfigurationDto.getServiceUrl().concat(APIConstants.INTERNAL_WEB_APP_EP);
         HttpGet method = new HttpGet(serviceURLStr + path);
 
@@ -436,6 +702,9 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
             if (tenantDomain != null) {
                 method.setHeader(APIConstants.HEADER_TENANT, tenantDomain);
             }
+            if (entityTag != null) {
+                method.setHeader(HttpHeaders.IF_NONE_MATCH, entityTag);
+            }
             HttpClient httpClient = APIUtil.getHttpClient(servicePort, serviceProtocol);
 
             HttpResponse httpResponse = null;
@@ -444,7 +713,7 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
             do {
                 try {
                     httpResponse = httpClient.execute(method);
-                    if (HttpStatus.SC_OK != httpResponse.getStatusLine().getStatusCode()) {
+                    if (!isSuccessful(httpResponse, entityTag)) {
                         log.error("Could not retrieve subscriptions for tenantDomain: " + tenantDomain
                                 + ". Received response with status code "
                                 + httpResponse.getStatusLine().getStatusCode());
@@ -453,7 +722,7 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
                     retry = false;
                 } catch (IOException | DataLoadingException ex) {
                     retryCount++;
-                    if (retryCount < retrievalRetries) {
+                    if (retryCount < retries) {
                         retry = true;
                         log.warn("Failed retrieving " + path + " from remote endpoint: " + ex.getMessage()
                                 + ". Retrying after " + retrievalTimeoutInSeconds +
@@ -468,16 +737,18 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
                     }
                 }
             } while (retry);
-            if (HttpStatus.SC_OK != httpResponse.getStatusLine().getStatusCode()) {
+            if (!isSuccessful(httpResponse, entityTag)) {
                 log.error("Could not retrieve subscriptions for tenantDomain : " + tenantDomain);
                 throw new DataLoadingException("Error while retrieving subscription from " + path);
             }
-            String responseString = EntityUtils.toString(httpResponse.getEntity(), UTF8);
-            if (log.isDebugEnabled()) {
-                log.debug("Response : " + responseString);
-            }
-            return responseString;
+            return httpResponse;
+
+    }
+
+    private static boolean isSuccessful(HttpResponse httpResponse, String entityTag) {
 
+        int statusCode = httpResponse.getStatusLine().getStatusCode();
+        return HttpStatus.SC_OK == statusCode || (entityTag != null && HttpStatus.SC_NOT_MODIFIED == statusCode);
     }
 
     private byte[] getServiceCredentials(EventHubConfigurationDto eventHubConfigurationDto) {
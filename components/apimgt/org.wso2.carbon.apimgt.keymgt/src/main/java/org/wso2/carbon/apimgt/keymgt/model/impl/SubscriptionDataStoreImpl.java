@@ -37,12 +37,14 @@ import org.wso2.carbon.apimgt.keymgt.model.entity.ApplicationKeyMappingCacheKey;
 import org.wso2.carbon.apimgt.keymgt.model.entity.ApplicationPolicy;
 import org.wso2.carbon.apimgt.keymgt.model.entity.Scope;
 import org.wso2.carbon.apimgt.keymgt.model.entity.Subscription;
+import org.wso2.carbon.apimgt.keymgt.model.entity.SubscriptionDataChanges;
 import org.wso2.carbon.apimgt.keymgt.model.entity.SubscriptionPolicy;
 import org.wso2.carbon.apimgt.keymgt.model.exception.DataLoadingException;
 import org.wso2.carbon.apimgt.keymgt.model.util.SubscriptionDataStoreUtil;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -50,14 +52,21 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
 
     public static final String DELEM_PERIOD = ":";
     public static final int LOADING_POOL_SIZE = 7;
     private static final Log log = LogFactory.getLog(SubscriptionDataStoreImpl.class);
+    private static final String[] SUBSCRIPTION_DATA_PATHS = {
+            APIConstants.SubscriptionValidationResources.SUBSCRIPTIONS,
+            APIConstants.SubscriptionValidationResources.APPLICATIONS,
+            APIConstants.SubscriptionValidationResources.APPLICATION_KEY_MAPPINGS};
+    private static final String WEAK_TAG_PREFIX = "W/";
+    private static final String REVISION_TAG_PREFIX = "r";
     private final EventHubConfigurationDto eventHubConfiguration;
     private boolean scopesInitialized;
     // Maps for keeping Subscription related details.
@@ -71,15 +80,37 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
     private Map<String, ApplicationPolicy> appPolicyMap;
     private Map<String, Subscription> subscriptionMap;
     private Map<String, Scope> scopesMap;
+    // Secondary indexes, updated along with the entries of the maps they index. Keys which identify a single
+    // entity are kept in unique indexes, which hold the entity directly instead of a map per key.
+    private UniqueIndex<String, String, Subscription> subscriptionByUUIDIndex;
+    private UniqueIndex<String, String, Subscription> subscriptionByAPIAndAppUUIDIndex;
+    private SecondaryIndex<Integer, String, Subscription> subscriptionsByAPIIdIndex;
+    private SecondaryIndex<String, String, Subscription> subscriptionsByAppUUIDIndex;
+    private UniqueIndex<String, Integer, Application> applicationByUUIDIndex;
+    private SecondaryIndex<String, Integer, Application> applicationsByNameIndex;
+    private SecondaryIndex<Integer, ApplicationKeyMappingCacheKey, ApplicationKeyMapping> keyMappingsByAppIdIndex;
+    private SecondaryIndex<String, String, API> defaultApiByContextIndex;
     private boolean apisInitialized;
     private boolean apiPoliciesInitialized;
     private String tenantDomain;
+    // Entity tags of the lists last loaded in to the store, so that lists which did not change since are not loaded
+    // again when the store is initialized again.
+    private final Map<String, String> entityTags = new ConcurrentHashMap<>();
+    // Cache keys of the subscriptions loaded from the local snapshot which were not confirmed by the control plane
+    // yet, as they may have been blocked or removed while the gateway was down. Such a subscription is loaded again
+    // from the control plane when it is first looked up, until the subscriptions are loaded by the loading task.
+    private final Set<String> snapshotSubscriptionKeys = ConcurrentHashMap.newKeySet();
     private ScheduledExecutorService executorService = Executors.newScheduledThreadPool(LOADING_POOL_SIZE);
 
     public SubscriptionDataStoreImpl(String tenantDomain) {
 
-        this.eventHubConfiguration = ServiceReferenceHolder.getInstance()
-                .getAPIManagerConfigurationService().getAPIManagerConfiguration().getEventHubConfigurationDto();
+        this(tenantDomain, ServiceReferenceHolder.getInstance()
+                .getAPIManagerConfigurationService().getAPIManagerConfiguration().getEventHubConfigurationDto());
+    }
+
+    SubscriptionDataStoreImpl(String tenantDomain, EventHubConfigurationDto eventHubConfiguration) {
+
+        this.eventHubConfiguration = eventHubConfiguration;
         this.tenantDomain = tenantDomain;
         initializeStore();
     }
@@ -96,13 +127,48 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         this.subscriptionMap = new ConcurrentHashMap<>();
         this.scopesMap = new ConcurrentHashMap<>();
         this.apiNameVersionMap = new ConcurrentHashMap<>();
+        this.subscriptionByUUIDIndex = new UniqueIndex<>(Subscription::getSubscriptionUUId);
+        this.subscriptionByAPIAndAppUUIDIndex = new UniqueIndex<>(subscription ->
+                subscription.getApiUUID() != null && subscription.getApplicationUUID() != null ?
+                        subscription.getApiUUID() + DELEM_PERIOD + subscription.getApplicationUUID() : null);
+        this.subscriptionsByAPIIdIndex = new SecondaryIndex<>(Subscription::getApiId);
+        this.subscriptionsByAppUUIDIndex = new SecondaryIndex<>(Subscription::getApplicationUUID);
+        this.applicationByUUIDIndex = new UniqueIndex<>(Application::getUUID);
+        this.applicationsByNameIndex = new SecondaryIndex<>(Application::getName);
+        this.keyMappingsByAppIdIndex = new SecondaryIndex<>(ApplicationKeyMapping::getApplicationId);
+        this.defaultApiByContextIndex = new SecondaryIndex<>(api -> api.isDefaultVersion() && api.getContext() != null ?
+                api.getContext().replace("/" + api.getApiVersion(), "") : null);
     }
 
     @Override
     public void init() {
+        loadSnapshots();
         initializeLoadingTasks();
     }
 
+    /**
+     * Loads the subscriptions, applications and key mappings of the local snapshots of the tenant into a store which
+     * was not loaded yet, so that requests can be validated before the loading tasks complete. The loading tasks
+     * then only load the lists which changed since the snapshots were written. Subscriptions of the snapshot are
+     * confirmed with the control plane when they are first looked up before the subscriptions are loaded.
+     */
+    private void loadSnapshots() {
+
+        if (!entityTags.isEmpty()) {
+            return;
+        }
+        SubscriptionDataLoaderImpl subscriptionDataLoader = new SubscriptionDataLoaderImpl(entityTags);
+        subscriptionDataLoader.loadSnapshot(APIConstants.SubscriptionValidationResources.SUBSCRIPTIONS, tenantDomain,
+                Subscription.class, subscription -> {
+                    putSubscription(subscription);
+                    snapshotSubscriptionKeys.add(subscription.getCacheKey());
+                });
+        subscriptionDataLoader.loadSnapshot(APIConstants.SubscriptionValidationResources.APPLICATIONS, tenantDomain,
+                Application.class, this::putApplication);
+        subscriptionDataLoader.loadSnapshot(APIConstants.SubscriptionValidationResources.APPLICATION_KEY_MAPPINGS,
+                tenantDomain, ApplicationKeyMapping.class, this::putApplicationKeyMapping);
+    }
+
     @Override
     public Application getApplicationById(int appId) {
 
@@ -251,23 +317,32 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         String subscriptionCacheKey = SubscriptionDataStoreUtil.getSubscriptionCacheKey(appId, apiId);
         String synchronizeKey = "SubscriptionDataStoreImpl-Subscription-" + subscriptionCacheKey;
         Subscription subscription = subscriptionMap.get(subscriptionCacheKey);
-        if (subscription == null) {
+        if (subscription == null || snapshotSubscriptionKeys.contains(subscriptionCacheKey)) {
             synchronized (synchronizeKey.intern()) {
                 subscription = subscriptionMap.get(subscriptionCacheKey);
-                if (subscription != null) {
+                boolean fromSnapshot = snapshotSubscriptionKeys.contains(subscriptionCacheKey);
+                if (subscription != null && !fromSnapshot) {
                     return subscription;
                 }
+                Subscription snapshotSubscription = subscription;
                 try {
                     subscription = new SubscriptionDataLoaderImpl().getSubscriptionById(Integer.toString(apiId),
                             Integer.toString(appId));
+                    if (subscription != null && !StringUtils.isEmpty(subscription.getSubscriptionId())) {
+                        // load to the memory
+                        log.debug("Loading Subscription to the in-memory datastore.");
+                        putSubscription(subscription);
+                    } else if (snapshotSubscription != null) {
+                        log.debug("Removing Subscription of the local snapshot which no longer exists.");
+                        removeSubscriptionEntry(subscriptionCacheKey);
+                    }
                 } catch (DataLoadingException e) {
                     log.error("Error while Retrieving Subscription Data From Internal API", e);
+                    // The subscription of the snapshot is used until the subscriptions are loaded, as the control
+                    // plane is not reachable.
+                    subscription = snapshotSubscription;
                 }
-                if (subscription != null && !StringUtils.isEmpty(subscription.getSubscriptionId())) {
-                    // load to the memory
-                    log.debug("Loading Subscription to the in-memory datastore.");
-                    subscriptionMap.put(subscription.getCacheKey(), subscription);
-                }
+                snapshotSubscriptionKeys.remove(subscriptionCacheKey);
             }
         }
         if (log.isDebugEnabled()) {
@@ -298,61 +373,57 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
                     try {
                         log.debug("Calling loadAllApis. ");
                         List<API> apiList = new SubscriptionDataLoaderImpl().loadAllApis(tenantDomain);
-                        apiByUUIDMap.clear();
-                        for (API api : apiList) {
-                            apiByUUIDMap.put(api.getUuid(), api);
-                            String key = api.getApiName().concat(":").concat(api.getApiVersion());
-                            apiNameVersionMap.put(key, api);
-                        }
                         apisInitialized = true;
                         return apiList;
                     } catch (APIManagementException e) {
                         log.error("Exception while loading APIs " + e);
                     }
                     return null;
-                });
+                }, this::putAPI, this::removeAPIEntry);
 
         executorService.schedule(apiTask, eventHubConfiguration.getInitDelay(), TimeUnit.MILLISECONDS);
 
         Runnable subscriptionLoadingTask = new PopulateTask<>(subscriptionMap,
-                () -> {
-                    try {
-                        log.debug("Calling loadAllSubscriptions.");
-                        return new SubscriptionDataLoaderImpl().loadAllSubscriptions(tenantDomain);
-                    } catch (APIManagementException e) {
-                        log.error("Exception while loading Subscriptions " + e);
-                    }
-                    return null;
-                });
-
-        executorService.schedule(subscriptionLoadingTask, eventHubConfiguration.getInitDelay(), TimeUnit.MILLISECONDS);
+                consumer -> {
+                    log.debug("Calling loadAllSubscriptions.");
+                    new SubscriptionDataLoaderImpl(entityTags).loadAllSubscriptions(tenantDomain, consumer);
+                    // The subscriptions of the snapshot are either confirmed by an unchanged list, or replaced by
+                    // the loaded list.
+                    snapshotSubscriptionKeys.clear();
+                }, (key, subscription) -> putSubscription(subscription), this::removeSubscriptionEntry);
 
         Runnable applicationLoadingTask = new PopulateTask<>(applicationMap,
-                () -> {
-                    try {
-                        log.debug("Calling loadAllApplications.");
-                        return new SubscriptionDataLoaderImpl().loadAllApplications(tenantDomain);
-                    } catch (APIManagementException e) {
-                        log.error("Exception while loading Applications " + e);
-                    }
-                    return null;
-                });
-
-        executorService.schedule(applicationLoadingTask, eventHubConfiguration.getInitDelay(), TimeUnit.MILLISECONDS);
+                consumer -> {
+                    log.debug("Calling loadAllApplications.");
+                    new SubscriptionDataLoaderImpl(entityTags).loadAllApplications(tenantDomain, consumer);
+                }, (key, application) -> putApplication(application), this::removeApplicationEntry);
 
         Runnable keyMappingsTask =
                 new PopulateTask<>(applicationKeyMappingMap,
-                        () -> {
-                            try {
-                                log.debug("Calling loadAllKeyMappings.");
-                                return new SubscriptionDataLoaderImpl().loadAllKeyMappings(tenantDomain);
-                            } catch (APIManagementException e) {
-                                log.error("Exception while loading ApplicationKeyMapping " + e);
-                            }
-                            return null;
-                        });
-
-        executorService.schedule(keyMappingsTask, eventHubConfiguration.getInitDelay(), TimeUnit.MILLISECONDS);
+                        consumer -> {
+                            log.debug("Calling loadAllKeyMappings.");
+                            new SubscriptionDataLoaderImpl(entityTags).loadAllKeyMappings(tenantDomain, consumer);
+                        }, (key, keyMapping) -> putApplicationKeyMapping(keyMapping),
+                        this::removeApplicationKeyMappingEntry);
+
+        long loadedRevision = getLoadedSubscriptionDataRevision();
+        if (loadedRevision >= 0) {
+            // The subscriptions, applications and key mappings were loaded at a revision of the subscription data of
+            // the tenant, so only the applications changed since are loaded, unless their changes are not available.
+            executorService.schedule(() -> {
+                if (!loadSubscriptionDataChanges(loadedRevision)) {
+                    executorService.execute(subscriptionLoadingTask);
+                    executorService.execute(applicationLoadingTask);
+                    executorService.execute(keyMappingsTask);
+                }
+            }, eventHubConfiguration.getInitDelay(), TimeUnit.MILLISECONDS);
+        } else {
+            executorService.schedule(subscriptionLoadingTask, eventHubConfiguration.getInitDelay(),
+                    TimeUnit.MILLISECONDS);
+            executorService.schedule(applicationLoadingTask, eventHubConfiguration.getInitDelay(),
+                    TimeUnit.MILLISECONDS);
+            executorService.schedule(keyMappingsTask, eventHubConfiguration.getInitDelay(), TimeUnit.MILLISECONDS);
+        }
 
         Runnable apiPolicyLoadingTask =
                 new PopulateTask<>(apiPolicyMap,
@@ -433,7 +504,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         synchronized (synchronizeKey.intern()) {
             Subscription retrievedSubscription = subscriptionMap.get(subscription.getCacheKey());
             if (retrievedSubscription == null) {
-                subscriptionMap.put(subscription.getCacheKey(), subscription);
+                putSubscription(subscription);
             } else {
                 if (log.isDebugEnabled()) {
                     log.debug("Retrieved Subscription from Map :" + retrievedSubscription.toString());
@@ -444,7 +515,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
                     }
                 } else {
                     if (!APIConstants.SubscriptionStatus.ON_HOLD.equals(subscription.getSubscriptionState())) {
-                        subscriptionMap.put(subscription.getCacheKey(), subscription);
+                        putSubscription(subscription);
                     } else {
                         if (log.isDebugEnabled()) {
                             log.debug("Drop the Event " + subscription.toString() + " since the event was marked as " +
@@ -461,19 +532,190 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         }
     }
 
+    /**
+     * @return the oldest revision of the subscription data the subscriptions, applications and key mappings were
+     * loaded at, or -1 if any of them was not loaded, or was loaded without a revision
+     */
+    long getLoadedSubscriptionDataRevision() {
+
+        long loadedRevision = Long.MAX_VALUE;
+        for (String path : SUBSCRIPTION_DATA_PATHS) {
+            String entityTag = entityTags.get(path);
+            if (entityTag == null) {
+                return -1;
+            }
+            if (entityTag.startsWith(WEAK_TAG_PREFIX)) {
+                entityTag = entityTag.substring(WEAK_TAG_PREFIX.length());
+            }
+            entityTag = StringUtils.strip(entityTag, "\"");
+            if (!entityTag.startsWith(REVISION_TAG_PREFIX)) {
+                return -1;
+            }
+            try {
+                loadedRevision = Math.min(loadedRevision,
+                        Long.parseLong(entityTag.substring(REVISION_TAG_PREFIX.length()), 16));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        return loadedRevision;
+    }
+
+    /**
+     * Loads the applications changed since the given revision of the subscription data, along with their
+     * subscriptions and key mappings.
+     *
+     * @return false if the changes could not be loaded, in which case the lists have to be loaded again
+     */
+    private boolean loadSubscriptionDataChanges(long since) {
+
+        SubscriptionDataChanges changes;
+        try {
+            changes = new SubscriptionDataLoaderImpl(entityTags).loadSubscriptionDataChanges(tenantDomain, since);
+        } catch (DataLoadingException e) {
+            log.warn("Error while loading the subscription data changes of tenant " + tenantDomain + " since revision "
+                    + since + ". Loading the subscription data again.", e);
+            return false;
+        }
+        if (changes == null || !changes.isComplete()) {
+            log.info("Subscription data changes of tenant " + tenantDomain + " since revision " + since
+                    + " are not available. Loading the subscription data again.");
+            return false;
+        }
+        applySubscriptionDataChanges(changes);
+        log.info("Loaded the changes of " + changes.getApplicationIds().size() + " applications of tenant "
+                + tenantDomain + " since revision " + since + " of the subscription data");
+        return true;
+    }
+
+    /**
+     * Replaces the subscriptions and key mappings of each changed application, and the application itself, with the
+     * loaded ones. The loaded entries are added before the ones which are no longer present are removed, so that
+     * lookups do not miss entries which are present both before and after the change.
+     */
+    void applySubscriptionDataChanges(SubscriptionDataChanges changes) {
+
+        Set<Integer> loadedApplicationIds = new HashSet<>();
+        Set<String> loadedSubscriptionKeys = new HashSet<>();
+        Set<ApplicationKeyMappingCacheKey> loadedKeyMappingKeys = new HashSet<>();
+        Map<Integer, String> applicationUUIDs = new HashMap<>();
+        for (Integer applicationId : changes.getApplicationIds()) {
+            Application application = applicationMap.get(applicationId);
+            if (application != null) {
+                applicationUUIDs.put(applicationId, application.getUUID());
+            }
+        }
+        for (Application application : changes.getApplications().getList()) {
+            putApplication(application);
+            loadedApplicationIds.add(application.getId());
+        }
+        for (Subscription subscription : changes.getSubscriptions().getList()) {
+            putSubscription(subscription);
+            loadedSubscriptionKeys.add(subscription.getCacheKey());
+        }
+        for (ApplicationKeyMapping keyMapping : changes.getApplicationKeyMappings().getList()) {
+            putApplicationKeyMapping(keyMapping);
+            loadedKeyMappingKeys.add(keyMapping.getCacheKey());
+        }
+        for (Integer applicationId : changes.getApplicationIds()) {
+            List<Subscription> subscriptions = new ArrayList<>();
+            if (applicationUUIDs.containsKey(applicationId)) {
+                subscriptions.addAll(subscriptionsByAppUUIDIndex.get(applicationUUIDs.get(applicationId)));
+            } else {
+                // The application was not loaded, but its subscriptions may have been.
+                for (Subscription subscription : subscriptionMap.values()) {
+                    if (applicationId.equals(subscription.getAppId())) {
+                        subscriptions.add(subscription);
+                    }
+                }
+            }
+            for (Subscription subscription : subscriptions) {
+                if (!loadedSubscriptionKeys.contains(subscription.getCacheKey())) {
+                    removeSubscriptionEntry(subscription.getCacheKey());
+                }
+            }
+            for (ApplicationKeyMapping keyMapping : new ArrayList<>(keyMappingsByAppIdIndex.get(applicationId))) {
+                if (!loadedKeyMappingKeys.contains(keyMapping.getCacheKey())) {
+                    removeApplicationKeyMappingEntry(keyMapping.getCacheKey());
+                }
+            }
+            if (!loadedApplicationIds.contains(applicationId)) {
+                removeApplicationEntry(applicationId);
+            }
+        }
+        // The subscriptions of the snapshot are confirmed by the changes since the revision of the snapshot.
+        snapshotSubscriptionKeys.clear();
+        String entityTag = "\"" + REVISION_TAG_PREFIX + Long.toHexString(changes.getRevision()) + "\"";
+        for (String path : SUBSCRIPTION_DATA_PATHS) {
+            entityTags.put(path, entityTag);
+        }
+    }
+
     @Override
     public void removeSubscription(Subscription subscription) {
 
-        subscriptionMap.remove(subscription.getCacheKey());
+        removeSubscriptionEntry(subscription.getCacheKey());
+    }
+
+    private void putSubscription(Subscription subscription) {
+
+        snapshotSubscriptionKeys.remove(subscription.getCacheKey());
+        subscriptionMap.compute(subscription.getCacheKey(), (key, existing) -> {
+            indexSubscription(key, existing, subscription);
+            return subscription;
+        });
+    }
+
+    private void removeSubscriptionEntry(String subscriptionCacheKey) {
+
+        snapshotSubscriptionKeys.remove(subscriptionCacheKey);
+        subscriptionMap.computeIfPresent(subscriptionCacheKey, (key, existing) -> {
+            indexSubscription(key, existing, null);
+            return null;
+        });
+    }
+
+    private void indexSubscription(String key, Subscription oldSubscription, Subscription newSubscription) {
+
+        subscriptionByUUIDIndex.update(key, oldSubscription, newSubscription);
+        subscriptionByAPIAndAppUUIDIndex.update(key, oldSubscription, newSubscription);
+        subscriptionsByAPIIdIndex.update(key, oldSubscription, newSubscription);
+        subscriptionsByAppUUIDIndex.update(key, oldSubscription, newSubscription);
     }
 
     @Override
     public void addOrUpdateAPI(API api) {
 
-        String key = api.getApiName().concat(":").concat(api.getApiVersion());
-        apiByUUIDMap.put(api.getUuid(), api);
-        apiNameVersionMap.put(key, api);
-        apiMap.put(api.getCacheKey(), api);
+        putAPI(api.getCacheKey(), api);
+    }
+
+    private void putAPI(String apiCacheKey, API api) {
+
+        apiMap.compute(apiCacheKey, (key, existing) -> {
+            if (existing != null) {
+                apiByUUIDMap.remove(existing.getUuid(), existing);
+                apiNameVersionMap.remove(getNameVersionKey(existing), existing);
+            }
+            apiByUUIDMap.put(api.getUuid(), api);
+            apiNameVersionMap.put(getNameVersionKey(api), api);
+            defaultApiByContextIndex.update(key, existing, api);
+            return api;
+        });
+    }
+
+    private void removeAPIEntry(String apiCacheKey) {
+
+        apiMap.computeIfPresent(apiCacheKey, (key, existing) -> {
+            apiByUUIDMap.remove(existing.getUuid(), existing);
+            apiNameVersionMap.remove(getNameVersionKey(existing), existing);
+            defaultApiByContextIndex.update(key, existing, null);
+            return null;
+        });
+    }
+
+    private static String getNameVersionKey(API api) {
+
+        return api.getApiName().concat(":").concat(api.getApiVersion());
     }
 
     @Override
@@ -482,10 +724,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         try {
             API newAPI = new SubscriptionDataLoaderImpl().getApi(api.getContext(), api.getApiVersion());
             if (newAPI != null) {
-                apiMap.put(api.getCacheKey(), newAPI);
-                String key = newAPI.getApiName().concat(":").concat(newAPI.getApiVersion());
-                apiNameVersionMap.put(key, newAPI);
-                apiByUUIDMap.put(newAPI.getUuid(), newAPI);
+                putAPI(api.getCacheKey(), newAPI);
             }
         } catch (DataLoadingException e) {
             log.error("Exception while loading api for " + api.getContext() + " " + api.getApiVersion(), e);
@@ -496,23 +735,42 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
     @Override
     public void removeAPI(API api) {
 
-        String key = api.getApiName().concat(":").concat(api.getApiVersion());
-        apiByUUIDMap.remove(api.getUuid());
-        apiNameVersionMap.remove(key);
-        apiMap.remove(api.getCacheKey());
+        apiMap.compute(api.getCacheKey(), (key, existing) -> {
+            if (existing != null) {
+                defaultApiByContextIndex.update(key, existing, null);
+            }
+            apiByUUIDMap.remove(api.getUuid());
+            apiNameVersionMap.remove(getNameVersionKey(api));
+            return null;
+        });
     }
 
     @Override
     public void addOrUpdateApplicationKeyMapping(ApplicationKeyMapping applicationKeyMapping) {
 
-        applicationKeyMappingMap.remove(applicationKeyMapping.getCacheKey());
-        applicationKeyMappingMap.put(applicationKeyMapping.getCacheKey(), applicationKeyMapping);
+        putApplicationKeyMapping(applicationKeyMapping);
     }
 
     @Override
     public void removeApplicationKeyMapping(ApplicationKeyMapping applicationKeyMapping) {
 
-        applicationKeyMappingMap.remove(applicationKeyMapping.getCacheKey());
+        removeApplicationKeyMappingEntry(applicationKeyMapping.getCacheKey());
+    }
+
+    private void putApplicationKeyMapping(ApplicationKeyMapping applicationKeyMapping) {
+
+        applicationKeyMappingMap.compute(applicationKeyMapping.getCacheKey(), (key, existing) -> {
+            keyMappingsByAppIdIndex.update(key, existing, applicationKeyMapping);
+            return applicationKeyMapping;
+        });
+    }
+
+    private void removeApplicationKeyMappingEntry(ApplicationKeyMappingCacheKey keyMappingCacheKey) {
+
+        applicationKeyMappingMap.computeIfPresent(keyMappingCacheKey, (key, existing) -> {
+            keyMappingsByAppIdIndex.update(key, existing, null);
+            return null;
+        });
     }
 
     @Override
@@ -544,16 +802,38 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
     @Override
     public void addOrUpdateApplication(Application application) {
 
-        applicationMap.remove(application.getId());
-        applicationMap.put(application.getId(), application);
+        putApplication(application);
     }
 
     @Override
     public void removeApplication(Application application) {
 
-        applicationMap.remove(application.getId());
-        subscriptionMap.values().removeIf(subscription ->
-                subscription != null && application.getUUID().equals(subscription.getApplicationUUID()));
+        removeApplicationEntry(application.getId());
+        for (Subscription subscription : new ArrayList<>(subscriptionsByAppUUIDIndex.get(application.getUUID()))) {
+            removeSubscriptionEntry(subscription.getCacheKey());
+        }
+    }
+
+    private void putApplication(Application application) {
+
+        applicationMap.compute(application.getId(), (key, existing) -> {
+            indexApplication(key, existing, application);
+            return application;
+        });
+    }
+
+    private void removeApplicationEntry(Integer applicationId) {
+
+        applicationMap.computeIfPresent(applicationId, (key, existing) -> {
+            indexApplication(key, existing, null);
+            return null;
+        });
+    }
+
+    private void indexApplication(Integer key, Application oldApplication, Application newApplication) {
+
+        applicationByUUIDIndex.update(key, oldApplication, newApplication);
+        applicationsByNameIndex.update(key, oldApplication, newApplication);
     }
 
     @Override
@@ -578,17 +858,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
     @Override
     public API getDefaultApiByContext(String context) {
 
-        Set<String> set = apiMap.keySet()
-                .stream()
-                .filter(s -> s.startsWith(context))
-                .collect(Collectors.toSet());
-        for (String key : set) {
-            API api = apiMap.get(key);
-            if (api.isDefaultVersion() && (api.getContext().replace("/" + api.getApiVersion(), "")).equals(context)) {
-                return api;
-            }
-        }
-        return null;
+        return defaultApiByContextIndex.getFirst(context);
     }
 
     public boolean isScopesInitialized() {
@@ -598,53 +868,29 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
     @Override
     public Subscription getSubscriptionBySubscriptionUUID(String subscriptionUUID) {
 
-        for (Subscription subscription : subscriptionMap.values()) {
-            if (subscriptionUUID.equals(subscription.getSubscriptionUUId())) {
-                return subscription;
-            }
+        Subscription subscription = subscriptionByUUIDIndex.get(subscriptionUUID);
+        if (confirmSnapshotSubscription(subscription)) {
+            subscription = subscriptionByUUIDIndex.get(subscriptionUUID);
         }
-        return null;
+        return subscription;
     }
 
     @Override
     public List<Application> getApplicationsByName(String name) {
 
-        List<Application> applicationList = new ArrayList<>();
-        if (applicationMap != null) {
-            for (Application application : applicationMap.values()) {
-                if (application.getName().equals(name)) {
-                    applicationList.add(application);
-                }
-            }
-        }
-        return applicationList;
+        return new ArrayList<>(applicationsByNameIndex.get(name));
     }
 
     @Override
     public Application getApplicationByUUID(String uuid) {
 
-        if (applicationMap != null) {
-            for (Application application : applicationMap.values()) {
-                if (application.getUUID().equals(uuid)) {
-                    return application;
-                }
-            }
-        }
-        return null;
+        return applicationByUUIDIndex.get(uuid);
     }
 
     @Override
     public List<Subscription> getSubscriptionsByAPIId(int apiId) {
 
-        List<Subscription> subscriptionList = new ArrayList<>();
-        if (subscriptionMap != null) {
-            for (Subscription subscription : subscriptionMap.values()) {
-                if (subscription.getApiId() == apiId) {
-                    subscriptionList.add(subscription);
-                }
-            }
-        }
-        return subscriptionList;
+        return new ArrayList<>(subscriptionsByAPIIdIndex.get(apiId));
     }
 
     @Override
@@ -656,28 +902,31 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
     @Override
     public Subscription getSubscriptionByUUID(String apiUUID, String appUUID) {
 
-        if (subscriptionMap != null) {
-            for (Subscription subscription : subscriptionMap.values()) {
-                if (subscription.getApiUUID().equals(apiUUID) && subscription.getApplicationUUID().equals(appUUID)) {
-                    return subscription;
-                }
-            }
+        Subscription subscription = subscriptionByAPIAndAppUUIDIndex.get(apiUUID + DELEM_PERIOD + appUUID);
+        if (confirmSnapshotSubscription(subscription)) {
+            subscription = subscriptionByAPIAndAppUUIDIndex.get(apiUUID + DELEM_PERIOD + appUUID);
         }
-        return null;
+        return subscription;
+    }
+
+    /**
+     * Confirms a subscription of the local snapshot with the control plane, if it was not confirmed yet.
+     *
+     * @return true if the subscription was confirmed, in which case it may have been replaced or removed
+     */
+    private boolean confirmSnapshotSubscription(Subscription subscription) {
+
+        if (subscription == null || !snapshotSubscriptionKeys.contains(subscription.getCacheKey())) {
+            return false;
+        }
+        getSubscriptionById(subscription.getAppId(), subscription.getApiId());
+        return true;
     }
 
     @Override
     public List<ApplicationKeyMapping> getKeyMappingByApplicationId(int applicationId) {
 
-        List<ApplicationKeyMapping> applicationKeyMappings = new ArrayList<>();
-        if (applicationKeyMappingMap != null) {
-            for (ApplicationKeyMapping applicationKeyMapping : applicationKeyMappingMap.values()) {
-                if (applicationKeyMapping.getApplicationId() == applicationId) {
-                    applicationKeyMappings.add(applicationKeyMapping);
-                }
-            }
-        }
-        return applicationKeyMappings;
+        return new ArrayList<>(keyMappingsByAppIdIndex.get(applicationId));
     }
 
     @Override
@@ -766,39 +1015,81 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         API
     }
 
+    /**
+     * Loads entities, handing each of them to the given consumer as soon as it is loaded.
+     */
+    @FunctionalInterface
+    private interface EntityLoader<V> {
+
+        void load(Consumer<V> consumer) throws APIManagementException;
+    }
+
     private static class PopulateTask<K, V extends CacheableEntity<K>> implements Runnable {
 
         private Map<K, V> entityMap;
-        private Supplier<List<V>> supplier;
+        private EntityLoader<V> loader;
+        private BiConsumer<K, V> putFunction;
+        private Consumer<K> removeFunction;
 
         PopulateTask(Map<K, V> entityMap, Supplier<List<V>> supplier) {
 
+            this(entityMap, supplier, entityMap::put, entityMap::remove);
+        }
+
+        PopulateTask(Map<K, V> entityMap, Supplier<List<V>> supplier, BiConsumer<K, V> putFunction,
+                     Consumer<K> removeFunction) {
+
+            this(entityMap, consumer -> {
+                List<V> list = supplier.get();
+                if (list != null) {
+                    list.forEach(consumer);
+                } else if (log.isDebugEnabled()) {
+                    log.debug("List is null for " + supplier.getClass());
+                }
+            }, putFunction, removeFunction);
+        }
+
+        /**
+         * @param loader         loader of the entities, which adds each entity to the map as soon as it is loaded
+         * @param putFunction    function adding or replacing an entry of the map, along with any index of the map
+         * @param removeFunction function removing an entry of the map, along with any index of the map
+         */
+        PopulateTask(Map<K, V> entityMap, EntityLoader<V> loader, BiConsumer<K, V> putFunction,
+                     Consumer<K> removeFunction) {
+
             this.entityMap = entityMap;
-            this.supplier = supplier;
+            this.loader = loader;
+            this.putFunction = putFunction;
+            this.removeFunction = removeFunction;
         }
 
         public void run() {
 
-            List<V> list = supplier.get();
-            HashMap<K, V> tempMap = new HashMap<>();
-
-            if (list != null) {
-                for (V v : list) {
-                    tempMap.put(v.getCacheKey(), v);
+            Set<K> loadedKeys = new HashSet<>();
+            try {
+                loader.load(v -> {
                     if (log.isDebugEnabled()) {
                         log.debug(String.format("Adding entry Key : %s Value : %s", v.getCacheKey(), v));
                     }
+                    putFunction.accept(v.getCacheKey(), v);
+                    loadedKeys.add(v.getCacheKey());
+                });
+            } catch (APIManagementException e) {
+                // Entries which were not loaded are kept, as the loading did not complete.
+                log.error("Exception while loading entities to the in-memory datastore", e);
+                return;
+            }
 
-                    if (!tempMap.isEmpty()) {
-                        entityMap.clear();
-                        entityMap.putAll(tempMap);
+            if (!loadedKeys.isEmpty()) {
+                // Entries are added as they are loaded rather than clearing the map first, so that lookups do not
+                // miss entries which are present both before and after loading. Only the entries which are no
+                // longer present are removed at the end. A list which did not change since it was last loaded is not
+                // loaded again, which leaves the map as it is.
+                for (K key : new ArrayList<>(entityMap.keySet())) {
+                    if (!loadedKeys.contains(key)) {
+                        removeFunction.accept(key);
                     }
                 }
-
-            } else {
-                if (log.isDebugEnabled()) {
-                    log.debug("List is null for " + supplier.getClass());
-                }
             }
         }
     }
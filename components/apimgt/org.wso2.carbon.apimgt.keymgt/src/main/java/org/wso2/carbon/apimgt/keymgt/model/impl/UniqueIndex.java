@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.keymgt.model.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Secondary index over the entities of one of the maps of {@link SubscriptionDataStoreImpl}, for an index key which
+ * identifies a single entity. Unlike {@link SecondaryIndex}, each index key is mapped directly to its entity, so the
+ * index holds a single map entry per entity. Entities for which the index key is null are not indexed.
+ * <p>
+ * An entity is only removed from the index if it is still the entity held against its index key, so that an entity
+ * which replaced it under another primary key is kept. The index is updated while holding the primary map entry of
+ * the entity, as with {@link SecondaryIndex}.
+ *
+ * @param <I> index key type
+ * @param <K> primary key type
+ * @param <V> entity type
+ */
+class UniqueIndex<I, K, V> {
+
+    private final Function<V, I> indexKeyFunction;
+    private final Map<I, V> index = new ConcurrentHashMap<>();
+
+    UniqueIndex(Function<V, I> indexKeyFunction) {
+
+        this.indexKeyFunction = indexKeyFunction;
+    }
+
+    /**
+     * Replaces the indexed entry of the given primary key.
+     *
+     * @param key      primary key
+     * @param oldValue entity previously held against the key, or null
+     * @param newValue entity now held against the key, or null if the key was removed
+     */
+    void update(K key, V oldValue, V newValue) {
+
+        if (oldValue != null) {
+            I indexKey = indexKeyFunction.apply(oldValue);
+            if (indexKey != null) {
+                index.remove(indexKey, oldValue);
+            }
+        }
+        if (newValue != null) {
+            I indexKey = indexKeyFunction.apply(newValue);
+            if (indexKey != null) {
+                index.put(indexKey, newValue);
+            }
+        }
+    }
+
+    /**
+     * @param indexKey index key
+     * @return entity indexed under the given key, or null if there is none
+     */
+    V get(I indexKey) {
+
+        return indexKey != null ? index.get(indexKey) : null;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.apimgt.keymgt.model.impl;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.carbon.apimgt.impl.dto.EventHubConfigurationDto;
+import org.wso2.carbon.apimgt.keymgt.model.entity.API;
+import org.wso2.carbon.apimgt.keymgt.model.entity.Application;
+import org.wso2.carbon.apimgt.keymgt.model.entity.ApplicationKeyMapping;
+import org.wso2.carbon.apimgt.keymgt.model.entity.Subscription;
+import org.wso2.carbon.apimgt.keymgt.model.entity.SubscriptionDataChanges;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test cases for the secondary lookups of {@link SubscriptionDataStoreImpl}
+ */
+public class SubscriptionDataStoreImplTestCase {
+
+    private SubscriptionDataStoreImpl subscriptionDataStore;
+
+    @Before
+    public void init() {
+
+        subscriptionDataStore = new SubscriptionDataStoreImpl("carbon.super", new EventHubConfigurationDto());
+    }
+
+    @After
+    public void destroy() {
+
+        subscriptionDataStore.destroy();
+    }
+
+    @Test
+    public void testSubscriptionLookups() {
+
+        subscriptionDataStore.addOrUpdateSubscription(subscription("sub-1", 1, "app-1", 10, "api-10", 1));
+        subscriptionDataStore.addOrUpdateSubscription(subscription("sub-2", 2, "app-2", 10, "api-10", 1));
+        subscriptionDataStore.addOrUpdateSubscription(subscription("sub-3", 1, "app-1", 11, "api-11", 1));
+
+        Assert.assertEquals(1, subscriptionDataStore.getSubscriptionBySubscriptionUUID("sub-1").getAppId()
+                .intValue());
+        Assert.assertEquals(2, subscriptionDataStore.getSubscriptionsByAPIId(10).size());
+        Assert.assertEquals(1, subscriptionDataStore.getSubscriptionsByAPIId(11).size());
+        Assert.assertTrue(subscriptionDataStore.getSubscriptionsByAPIId(12).isEmpty());
+        Assert.assertEquals("sub-3", subscriptionDataStore.getSubscriptionByUUID("api-11", "app-1")
+                .getSubscriptionUUId());
+        Assert.assertNull(subscriptionDataStore.getSubscriptionByUUID("api-11", "app-2"));
+
+        // An update of the same subscription replaces its index entries.
+        subscriptionDataStore.addOrUpdateSubscription(subscription("sub-1-renewed", 1, "app-1", 10, "api-10", 2));
+        Assert.assertNull(subscriptionDataStore.getSubscriptionBySubscriptionUUID("sub-1"));
+        Assert.assertNotNull(subscriptionDataStore.getSubscriptionBySubscriptionUUID("sub-1-renewed"));
+        Assert.assertEquals(2, subscriptionDataStore.getSubscriptionsByAPIId(10).size());
+
+        // An older event does not replace the subscription or its index entries.
+        subscriptionDataStore.addOrUpdateSubscription(subscription("sub-1-old", 1, "app-1", 10, "api-10", 0));
+        Assert.assertNull(subscriptionDataStore.getSubscriptionBySubscriptionUUID("sub-1-old"));
+
+        subscriptionDataStore.removeSubscription(subscription("sub-2", 2, "app-2", 10, "api-10", 3));
+        Assert.assertNull(subscriptionDataStore.getSubscriptionBySubscriptionUUID("sub-2"));
+        Assert.assertNull(subscriptionDataStore.getSubscriptionByUUID("api-10", "app-2"));
+        Assert.assertEquals(1, subscriptionDataStore.getSubscriptionsByAPIId(10).size());
+    }
+
+    @Test
+    public void testApplicationLookups() {
+
+        subscriptionDataStore.addOrUpdateApplication(application(1, "app-1", "DefaultApplication"));
+        subscriptionDataStore.addOrUpdateApplication(application(2, "app-2", "DefaultApplication"));
+        subscriptionDataStore.addOrUpdateApplication(application(3, "app-3", "PizzaApp"));
+
+        Assert.assertEquals(2, subscriptionDataStore.getApplicationsByName("DefaultApplication").size());
+        Assert.assertEquals(3, subscriptionDataStore.getApplicationByUUID("app-3").getId().intValue());
+        Assert.assertNull(subscriptionDataStore.getApplicationByUUID(null));
+
+        subscriptionDataStore.addOrUpdateApplication(application(2, "app-2", "RenamedApp"));
+        Assert.assertEquals(1, subscriptionDataStore.getApplicationsByName("DefaultApplication").size());
+        Assert.assertEquals(1, subscriptionDataStore.getApplicationsByName("RenamedApp").size());
+
+        subscriptionDataStore.addOrUpdateSubscription(subscription("sub-1", 1, "app-1", 10, "api-10", 1));
+        subscriptionDataStore.addOrUpdateSubscription(subscription("sub-2", 1, "app-1", 11, "api-11", 1));
+        subscriptionDataStore.addOrUpdateSubscription(subscription("sub-3", 2, "app-2", 11, "api-11", 1));
+        subscriptionDataStore.removeApplication(application(1, "app-1", "DefaultApplication"));
+        Assert.assertNull(subscriptionDataStore.getApplicationByUUID("app-1"));
+        Assert.assertTrue(subscriptionDataStore.getApplicationsByName("DefaultApplication").isEmpty());
+        Assert.assertNull(subscriptionDataStore.getSubscriptionBySubscriptionUUID("sub-1"));
+        Assert.assertNull(subscriptionDataStore.getSubscriptionBySubscriptionUUID("sub-2"));
+        Assert.assertTrue(subscriptionDataStore.getSubscriptionsByAPIId(10).isEmpty());
+        Assert.assertEquals(1, subscriptionDataStore.getSubscriptionsByAPIId(11).size());
+    }
+
+    @Test
+    public void testKeyMappingLookups() {
+
+        subscriptionDataStore.addOrUpdateApplicationKeyMapping(keyMapping(1, "key-1", "Resident Key Manager"));
+        subscriptionDataStore.addOrUpdateApplicationKeyMapping(keyMapping(1, "key-2", "Resident Key Manager"));
+        subscriptionDataStore.addOrUpdateApplicationKeyMapping(keyMapping(2, "key-3", "Resident Key Manager"));
+
+        Assert.assertEquals(2, subscriptionDataStore.getKeyMappingByApplicationId(1).size());
+        Assert.assertEquals(1, subscriptionDataStore.getKeyMappingByApplicationId(2).size());
+
+        subscriptionDataStore.removeApplicationKeyMapping(keyMapping(1, "key-1", "Resident Key Manager"));
+        List<ApplicationKeyMapping> keyMappings = subscriptionDataStore.getKeyMappingByApplicationId(1);
+        Assert.assertEquals(1, keyMappings.size());
+        Assert.assertEquals("key-2", keyMappings.get(0).getConsumerKey());
+    }
+
+    @Test
+    public void testDefaultApiLookup() {
+
+        API api = api("api-1", "PizzaShackAPI", "1.0.0", "/pizzashack/1.0.0", false);
+        API defaultApi = api("api-2", "PizzaShackAPI", "2.0.0", "/pizzashack/2.0.0", true);
+        subscriptionDataStore.addOrUpdateAPI(api);
+        subscriptionDataStore.addOrUpdateAPI(defaultApi);
+        subscriptionDataStore.addOrUpdateAPI(api("api-3", "Pizza", "1.0.0", "/pizza/1.0.0", false));
+
+        Assert.assertEquals("api-2", subscriptionDataStore.getDefaultApiByContext("/pizzashack").getUuid());
+        Assert.assertNull(subscriptionDataStore.getDefaultApiByContext("/pizza"));
+        Assert.assertEquals("api-1", subscriptionDataStore.getAPIByUUID("api-1").getUuid());
+
+        // Moving the default version replaces the default API of the context.
+        subscriptionDataStore.addOrUpdateAPI(api("api-2", "PizzaShackAPI", "2.0.0", "/pizzashack/2.0.0", false));
+        subscriptionDataStore.addOrUpdateAPI(api("api-1", "PizzaShackAPI", "1.0.0", "/pizzashack/1.0.0", true));
+        Assert.assertEquals("api-1", subscriptionDataStore.getDefaultApiByContext("/pizzashack").getUuid());
+
+        subscriptionDataStore.removeAPI(api("api-1", "PizzaShackAPI", "1.0.0", "/pizzashack/1.0.0", true));
+        Assert.assertNull(subscriptionDataStore.getDefaultApiByContext("/pizzashack"));
+        Assert.assertNull(subscriptionDataStore.getAPIByUUID("api-1"));
+        Assert.assertNull(subscriptionDataStore.getApiByNameAndVersion("PizzaShackAPI", "1.0.0"));
+        Assert.assertNotNull(subscriptionDataStore.getApiByNameAndVersion("PizzaShackAPI", "2.0.0"));
+    }
+
+    @Test
+    public void testSubscriptionDataChanges() {
+
+        Assert.assertEquals(-1, subscriptionDataStore.getLoadedSubscriptionDataRevision());
+        subscriptionDataStore.addOrUpdateApplication(application(1, "app-1", "DefaultApplication"));
+        subscriptionDataStore.addOrUpdateApplication(application(2, "app-2", "PizzaApp"));
+        subscriptionDataStore.addOrUpdateApplication(application(3, "app-3", "RemovedApp"));
+        subscriptionDataStore.addOrUpdateSubscription(subscription("sub-1", 1, "app-1", 10, "api-10", 1));
+        subscriptionDataStore.addOrUpdateSubscription(subscription("sub-2", 1, "app-1", 11, "api-11", 1));
+        subscriptionDataStore.addOrUpdateSubscription(subscription("sub-3", 2, "app-2", 10, "api-10", 1));
+        subscriptionDataStore.addOrUpdateSubscription(subscription("sub-4", 3, "app-3", 10, "api-10", 1));
+        subscriptionDataStore.addOrUpdateApplicationKeyMapping(keyMapping(1, "key-1", "Resident Key Manager"));
+        subscriptionDataStore.addOrUpdateApplicationKeyMapping(keyMapping(2, "key-2", "Resident Key Manager"));
+        subscriptionDataStore.addOrUpdateApplicationKeyMapping(keyMapping(3, "key-3", "Resident Key Manager"));
+
+        // Application 1 was unsubscribed from API 11, subscribed to API 12 and got a new key, application 3 was
+        // removed, and application 2 did not change.
+        SubscriptionDataChanges changes = new SubscriptionDataChanges();
+        changes.setRevision(0x2a);
+        changes.setComplete(true);
+        changes.setApplicationIds(Arrays.asList(1, 3));
+        changes.getApplications().getList().add(application(1, "app-1", "RenamedApp"));
+        changes.getSubscriptions().getList().add(subscription("sub-1", 1, "app-1", 10, "api-10", 2));
+        changes.getSubscriptions().getList().add(subscription("sub-5", 1, "app-1", 12, "api-12", 2));
+        changes.getApplicationKeyMappings().getList().add(keyMapping(1, "key-1", "Resident Key Manager"));
+        changes.getApplicationKeyMappings().getList().add(keyMapping(1, "key-4", "Resident Key Manager"));
+        subscriptionDataStore.applySubscriptionDataChanges(changes);
+
+        Assert.assertEquals("RenamedApp", subscriptionDataStore.getApplicationByUUID("app-1").getName());
+        Assert.assertNotNull(subscriptionDataStore.getSubscriptionBySubscriptionUUID("sub-1"));
+        Assert.assertNull(subscriptionDataStore.getSubscriptionBySubscriptionUUID("sub-2"));
+        Assert.assertNotNull(subscriptionDataStore.getSubscriptionByUUID("api-12", "app-1"));
+        Assert.assertEquals(2, subscriptionDataStore.getKeyMappingByApplicationId(1).size());
+
+        Assert.assertNull(subscriptionDataStore.getApplicationByUUID("app-3"));
+        Assert.assertNull(subscriptionDataStore.getSubscriptionBySubscriptionUUID("sub-4"));
+        Assert.assertTrue(subscriptionDataStore.getKeyMappingByApplicationId(3).isEmpty());
+
+        Assert.assertNotNull(subscriptionDataStore.getApplicationByUUID("app-2"));
+        Assert.assertNotNull(subscriptionDataStore.getSubscriptionBySubscriptionUUID("sub-3"));
+        Assert.assertEquals(1, subscriptionDataStore.getKeyMappingByApplicationId(2).size());
+        Assert.assertEquals(2, subscriptionDataStore.getSubscriptionsByAPIId(10).size());
+
+        // The next changes are loaded since the revision of the applied changes.
+        Assert.assertEquals(0x2a, subscriptionDataStore.getLoadedSubscriptionDataRevision());
+    }
+
+    private static Subscription subscription(String uuid, int appId, String appUUID, int apiId, String apiUUID,
+                                             long timeStamp) {
+
+        Subscription subscription = new Subscription();
+        subscription.setSubscriptionUUId(uuid);
+        subscription.setSubscriptionId(uuid);
+        subscription.setAppId(appId);
+        subscription.setApplicationUUID(appUUID);
+        subscription.setApiId(apiId);
+        subscription.setApiUUID(apiUUID);
+        subscription.setSubscriptionState("UNBLOCKED");
+        subscription.setTimeStamp(timeStamp);
+        return subscription;
+    }
+
+    private static Application application(int id, String uuid, String name) {
+
+        Application application = new Application();
+        application.setId(id);
+        application.setUUID(uuid);
+        application.setName(name);
+        return application;
+    }
+
+    private static ApplicationKeyMapping keyMapping(int applicationId, String consumerKey, String keyManager) {
+
+        ApplicationKeyMapping keyMapping = new ApplicationKeyMapping();
+        keyMapping.setApplicationId(applicationId);
+        keyMapping.setConsumerKey(consumerKey);
+        keyMapping.setKeyManager(keyManager);
+        return keyMapping;
+    }
+
+    private static API api(String uuid, String name, String version, String context, boolean isDefaultVersion) {
+
+        API api = new API();
+        api.setUuid(uuid);
+        api.setApiName(name);
+        api.setApiVersion(version);
+        api.setContext(context);
+        api.setDefaultVersion(isDefaultVersion);
+        return api;
+    }
+}
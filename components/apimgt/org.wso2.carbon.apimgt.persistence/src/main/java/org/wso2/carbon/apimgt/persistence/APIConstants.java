@@ -363,6 +363,7 @@ public final class APIConstants {
     public static final String GRAPHQL_SCHEMA_FILE_EXTENSION = ".graphql";
     public static final String GRAPHQL_LOCAL_ENTRY_EXTENSION = "_graphQL";
     public static final String GRAPHQL_SCHEMA_PROVIDER_SEPERATOR = "--";
+    public static final String GRAPHQL_PERSISTED_QUERY_MANIFEST_FILE_NAME = "graphql-persisted-queries.json";
     public static final String ALLOW_MULTIPLE_STATUS = "allowMultipleStatus";
     public static final String ALLOW_MULTIPLE_VERSIONS = "allowMultipleVersions";
 
@@ -309,6 +309,28 @@ public interface APIPersistence {
      */
     String getGraphQLSchema(Organization org, String apiId) throws GraphQLPersistenceException;
 
+    /**
+     * Save the persisted query manifest of a GraphQL API, or remove it. The manifest is kept with the API, so that
+     * the revisions of the API carry the manifest of the API at the time they were created.
+     *
+     * @param org      Organization the GraphQL API is owned by
+     * @param apiId    API ID
+     * @param manifest persisted query manifest of the API, or null to remove it
+     * @throws GraphQLPersistenceException
+     */
+    void saveGraphQLPersistedQueryManifest(Organization org, String apiId, String manifest)
+                                    throws GraphQLPersistenceException;
+
+    /**
+     * Get the persisted query manifest of a GraphQL API
+     *
+     * @param org   Organization the GraphQL API is owned by
+     * @param apiId API ID or API revision ID
+     * @return persisted query manifest, or null if the API does not have one
+     * @throws GraphQLPersistenceException
+     */
+    String getGraphQLPersistedQueryManifest(Organization org, String apiId) throws GraphQLPersistenceException;
+
     /* ======= Documentation  =======
     ================================ */
 
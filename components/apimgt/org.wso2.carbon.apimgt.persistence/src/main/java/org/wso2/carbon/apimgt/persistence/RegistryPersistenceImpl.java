@@ -2115,6 +2115,90 @@ public class RegistryPersistenceImpl implements APIPersistence {
         }
         return schemaDoc;
     }
+
+    @Override
+    public void saveGraphQLPersistedQueryManifest(Organization org, String apiId, String manifest)
+            throws GraphQLPersistenceException {
+        boolean tenantFlowStarted = false;
+        try {
+            String tenantDomain = org.getName();
+            RegistryHolder holder = getRegistry(tenantDomain);
+            Registry registry = holder.getRegistry();
+            tenantFlowStarted = holder.isTenantFlowStarted();
+            BasicAPI api = getbasicAPIInfo(apiId, registry);
+            if (api == null) {
+                throw new GraphQLPersistenceException("API not foud ", ExceptionCodes.API_NOT_FOUND);
+            }
+            String saveResourcePath = APIConstants.API_ROOT_LOCATION + RegistryConstants.PATH_SEPARATOR
+                    + api.apiProvider + RegistryConstants.PATH_SEPARATOR + api.apiName
+                    + RegistryConstants.PATH_SEPARATOR + api.apiVersion + RegistryConstants.PATH_SEPARATOR
+                    + APIConstants.GRAPHQL_PERSISTED_QUERY_MANIFEST_FILE_NAME;
+            if (manifest == null) {
+                if (registry.resourceExists(saveResourcePath)) {
+                    registry.delete(saveResourcePath);
+                }
+                return;
+            }
+            Resource resource;
+            if (!registry.resourceExists(saveResourcePath)) {
+                resource = registry.newResource();
+            } else {
+                resource = registry.get(saveResourcePath);
+            }
+            resource.setContent(manifest);
+            resource.setMediaType(APIConstants.APPLICATION_JSON_MEDIA_TYPE);
+            registry.put(saveResourcePath, resource);
+
+            RegistryPersistenceUtil.clearResourcePermissions(saveResourcePath,
+                    new APIIdentifier(api.apiProvider, api.apiName, api.apiVersion),
+                    ((UserRegistry) registry).getTenantId());
+            RegistryPersistenceUtil.setResourcePermissions(api.apiProvider, api.visibility, api.visibleRoles,
+                    saveResourcePath);
+        } catch (RegistryException | APIManagementException | APIPersistenceException e) {
+            throw new GraphQLPersistenceException("Error while saving the persisted query manifest of api " + apiId,
+                    e);
+        } finally {
+            if (tenantFlowStarted) {
+                RegistryPersistenceUtil.endTenantFlow();
+            }
+        }
+    }
+
+    @Override
+    public String getGraphQLPersistedQueryManifest(Organization org, String apiId)
+            throws GraphQLPersistenceException {
+        boolean tenantFlowStarted = false;
+        String manifest = null;
+        try {
+            String tenantDomain = org.getName();
+            RegistryHolder holder = getRegistry(tenantDomain);
+            Registry registry = holder.getRegistry();
+            tenantFlowStarted = holder.isTenantFlowStarted();
+            BasicAPI api = getbasicAPIInfo(apiId, registry);
+            if (api == null) {
+                throw new GraphQLPersistenceException("API not foud ", ExceptionCodes.API_NOT_FOUND);
+            }
+            // The artifact path is used, so that the manifest of a revision is read from the revision.
+            String apiPath = GovernanceUtils.getArtifactPath(registry, apiId);
+            int prependIndex = apiPath.lastIndexOf("/api");
+            String manifestResourcePath = apiPath.substring(0, prependIndex) + RegistryConstants.PATH_SEPARATOR
+                    + APIConstants.GRAPHQL_PERSISTED_QUERY_MANIFEST_FILE_NAME;
+            if (registry.resourceExists(manifestResourcePath)) {
+                Resource manifestResource = registry.get(manifestResourcePath);
+                manifest = IOUtils.toString(manifestResource.getContentStream(),
+                        RegistryConstants.DEFAULT_CHARSET_ENCODING);
+            }
+        } catch (APIPersistenceException | RegistryException | IOException e) {
+            throw new GraphQLPersistenceException("Error while accessing the persisted query manifest of api "
+                    + apiId, e);
+        } finally {
+            if (tenantFlowStarted) {
+                RegistryPersistenceUtil.endTenantFlow();
+            }
+        }
+        return manifest;
+    }
+
     @Override
     public Documentation addDocumentation(Organization org, String apiId, Documentation documentation)
             throws DocumentationPersistenceException {
@@ -134,6 +134,7 @@ public class SynapseArtifactGenerator implements GatewayArtifactGenerator {
                                 }
                             }
                             if (gatewayAPIDTO != null) {
+                                gatewayAPIDTO.setRevision(runTimeArtifact.getRevision());
                                 String content = new Gson().toJson(gatewayAPIDTO);
                                 synapseArtifacts.add(content);
                             }
@@ -65,6 +65,8 @@ import org.wso2.carbon.apimgt.rest.api.publisher.v1.dto.MediationPolicyDTO;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -205,6 +207,12 @@ public class TemplateBuilderUtil {
         if (APIConstants.GRAPHQL_API.equals(api.getType())) {
             Map<String, String> apiUUIDProperty = new HashMap<String, String>();
             apiUUIDProperty.put(APIConstants.API_UUID, api.getUUID());
+            JSONObject additionalProperties = api.getAdditionalProperties();
+            if (additionalProperties != null
+                    && additionalProperties.get(APIConstants.GRAPHQL_PERSISTED_QUERIES_PROPERTY) != null) {
+                apiUUIDProperty.put(APIConstants.GRAPHQL_PERSISTED_QUERIES_HANDLER_PROPERTY,
+                        additionalProperties.get(APIConstants.GRAPHQL_PERSISTED_QUERIES_PROPERTY).toString());
+            }
             vtb.addHandler("org.wso2.carbon.apimgt.gateway.handlers.graphQL.GraphQLAPIHandler",
                     apiUUIDProperty);
         }
@@ -649,6 +657,7 @@ public class TemplateBuilderUtil {
             gatewayAPIDTO.setLocalEntriesToBeAdd(addGatewayContentToList(graphqlLocalEntry,
                     gatewayAPIDTO.getLocalEntriesToBeAdd()));
             gatewayAPIDTO.setGraphQLSchema(api.getGraphQLSchema());
+            addPersistedQueryManifest(api, gatewayAPIDTO, extractedPath);
             Set<URITemplate> uriTemplates = new HashSet<>();
             URITemplate template = new URITemplate();
             template.setAuthType("Any");
@@ -803,6 +812,45 @@ public class TemplateBuilderUtil {
         addWebsocketTopicResourceKeys(api);
     }
 
+    /**
+     * Adds the persisted query manifest of a GraphQL API in the API artifact as a local entry, from which the
+     * gateway pre-registers the persisted queries of the API. The manifest is exported with the revision being
+     * deployed, from the manifest imported with the API. The local entry of an earlier deployment is removed, so
+     * that a manifest removed from the API is not kept.
+     *
+     * @param api           GraphQL API
+     * @param gatewayAPIDTO gateway artifact of the API
+     * @param extractedPath path of the extracted API artifact
+     * @throws APIManagementException if the manifest cannot be read
+     */
+    private static void addPersistedQueryManifest(API api, GatewayAPIDTO gatewayAPIDTO, String extractedPath)
+            throws APIManagementException {
+
+        String localEntryName = api.getUUID() + APIConstants.GRAPHQL_PERSISTED_QUERIES_LOCAL_ENTRY_EXTENSION;
+        gatewayAPIDTO.setLocalEntriesToBeRemove(GatewayUtils.addStringToList(localEntryName,
+                gatewayAPIDTO.getLocalEntriesToBeRemove()));
+        if (extractedPath == null) {
+            return;
+        }
+        File manifest = new File(extractedPath + ImportExportConstants.GRAPHQL_PERSISTED_QUERY_MANIFEST_LOCATION);
+        if (!manifest.exists()) {
+            return;
+        }
+        try {
+            String content = new String(Files.readAllBytes(manifest.toPath()), StandardCharsets.UTF_8);
+            GatewayContentDTO manifestLocalEntry = new GatewayContentDTO();
+            manifestLocalEntry.setName(localEntryName);
+            // A "]]>" in a query would end the CDATA section, so the section is split around it
+            manifestLocalEntry.setContent("<localEntry key=\"" + localEntryName + "\">" + "<![CDATA["
+                    + content.replace("]]>", "]]]]><![CDATA[>") + "]]>" + "</localEntry>");
+            gatewayAPIDTO.setLocalEntriesToBeAdd(addGatewayContentToList(manifestLocalEntry,
+                    gatewayAPIDTO.getLocalEntriesToBeAdd()));
+        } catch (IOException e) {
+            throw new APIManagementException("Error while reading the persisted query manifest of API "
+                    + api.getUUID(), e);
+        }
+    }
+
     private static void setCustomSequencesToBeAdded(API api, GatewayAPIDTO gatewayAPIDTO, String extractedPath,
                                                     APIDTO apidto) throws APIManagementException {
 
@@ -889,6 +889,13 @@ public class ExportUtils {
                         CommonUtil.writeDtoToFile(archivePath + ImportExportConstants.GRAPHQL_COMPLEXITY_INFO_LOCATION,
                                 exportFormat, ImportExportConstants.GRAPHQL_COMPLEXITY, graphQLQueryComplexityInfoDTO);
                     }
+                    String persistedQueryManifest = apiProvider.getGraphQLPersistedQueryManifest(currentApiUuid,
+                            organization);
+                    if (persistedQueryManifest != null) {
+                        CommonUtil.writeFile(
+                                archivePath + ImportExportConstants.GRAPHQL_PERSISTED_QUERY_MANIFEST_LOCATION,
+                                persistedQueryManifest);
+                    }
                 }
                 // For GraphQL APIs, swagger export is not needed
                 if (!APIConstants.APITransportType.GRAPHQL.toString().equalsIgnoreCase(apiType)) {
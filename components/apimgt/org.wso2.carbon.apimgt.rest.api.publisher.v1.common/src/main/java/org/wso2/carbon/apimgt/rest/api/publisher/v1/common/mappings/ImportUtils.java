@@ -103,6 +103,7 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.DirectoryIteratorException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
@@ -148,6 +149,7 @@ public class ImportUtils {
         String userName = RestApiCommonUtil.getLoggedInUsername();
         APIDefinitionValidationResponse validationResponse = null;
         String graphQLSchema = null;
+        String graphQLPersistedQueryManifest = null;
         API importedApi = null;
         String currentStatus;
         String targetStatus;
@@ -195,6 +197,8 @@ public class ImportUtils {
             // Validate the GraphQL schema
             if (APIConstants.APITransportType.GRAPHQL.toString().equalsIgnoreCase(apiType)) {
                 graphQLSchema = retrieveValidatedGraphqlSchemaFromArchive(extractedFolderPath);
+                graphQLPersistedQueryManifest = retrieveValidatedGraphQLPersistedQueryManifestFromArchive(
+                        extractedFolderPath);
             }
             // Validate the WSDL of SOAP APIs
             if (APIConstants.API_TYPE_SOAP.equalsIgnoreCase(apiType)) {
@@ -285,6 +289,9 @@ public class ImportUtils {
                 if (graphqlComplexityInfo != null && graphqlComplexityInfo.getList().size() != 0) {
                     apiProvider.addOrUpdateComplexityDetails(importedApi.getUuid(), graphqlComplexityInfo);
                 }
+                // An API imported without a manifest does not keep the manifest of the API it overwrites
+                apiProvider.saveGraphQLPersistedQueryManifest(importedApi.getUuid(), graphQLPersistedQueryManifest,
+                        organization);
             }
             // Add/update Async API definition for streaming APIs
             if (PublisherCommonUtils.isStreamingAPI(importedApiDTO)) {
@@ -1132,6 +1139,40 @@ public class ImportUtils {
         }
     }
 
+    /**
+     * Retrieve the persisted query manifest of a GraphQL API from the archive directory, if the archive has one, and
+     * validate that it has the operations of the manifest.
+     *
+     * @param pathToArchive Path to API archive
+     * @return Persisted query manifest, or null if the archive does not have one
+     * @throws APIManagementException If an error occurs while reading the file or the manifest is invalid
+     */
+    private static String retrieveValidatedGraphQLPersistedQueryManifestFromArchive(String pathToArchive)
+            throws APIManagementException {
+
+        File file = new File(pathToArchive + ImportExportConstants.GRAPHQL_PERSISTED_QUERY_MANIFEST_LOCATION);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            String manifest = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+            JsonElement operations = new JsonParser().parse(manifest).getAsJsonObject()
+                    .get(ImportExportConstants.GRAPHQL_PERSISTED_QUERY_MANIFEST_OPERATIONS);
+            if (operations == null || !operations.isJsonArray()) {
+                throw new APIManagementException("Error occurred while importing the API. The persisted query "
+                        + "manifest does not have the operations of the manifest.",
+                        ExceptionCodes.ERROR_READING_META_DATA);
+            }
+            return manifest;
+        } catch (IOException e) {
+            throw new APIManagementException("Error while reading the persisted query manifest from path: "
+                    + pathToArchive, e, ExceptionCodes.ERROR_READING_META_DATA);
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new APIManagementException("Error occurred while importing the API. Invalid persisted query "
+                    + "manifest found.", e, ExceptionCodes.ERROR_READING_META_DATA);
+        }
+    }
+
     /**
      * Retrieve graphql complexity information from the file and validate it with the schema.
      *
@@ -48,6 +48,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Throttles the events of each throttle key within a time window, to a maximum event count. Takes an optional 4th
+ * parameter with the number of events each event stands for, so that a single event can carry the summarized count
+ * of many frames of a streaming API. Events without a count are counted as one event.
+ */
 public class AsyncAPIThrottleStreamProcessor extends StreamProcessor implements SchedulingProcessor, FindableProcessor {
     private long timeInMilliSeconds;
     private final ComplexEventChunk<StreamEvent> expiredEventChunk = new ComplexEventChunk<StreamEvent>(true);
@@ -56,6 +61,7 @@ public class AsyncAPIThrottleStreamProcessor extends StreamProcessor implements
     private long expireEventTime = -1;
     private long startTime = -1;
     private long maxEventCount = -1;
+    private ExpressionExecutor eventCountExecutor;
     private final Map<String, AtomicLong> throttledStateMap = new HashMap<>();
 
 
@@ -74,7 +80,7 @@ public class AsyncAPIThrottleStreamProcessor extends StreamProcessor implements
                                    ExpressionExecutor[] attributeExpressionExecutors,
                                    ExecutionPlanContext executionPlanContext) {
         this.executionPlanContext = executionPlanContext;
-        if (attributeExpressionExecutors.length == 3) {
+        if (attributeExpressionExecutors.length == 3 || attributeExpressionExecutors.length == 4) {
             if (attributeExpressionExecutors[0] instanceof ConstantExpressionExecutor) {
                 if (attributeExpressionExecutors[0].getReturnType() == Attribute.Type.INT) {
                     timeInMilliSeconds = (Integer) ((ConstantExpressionExecutor) attributeExpressionExecutors[0]).getValue();
@@ -113,9 +119,20 @@ public class AsyncAPIThrottleStreamProcessor extends StreamProcessor implements
                 throw new ExecutionPlanValidationException("Async Throttle batch window 3nd parameter needs to be a " +
                         "Long or Int type but found a " + attributeExpressionExecutors[2].getReturnType());
             }
+
+            if (attributeExpressionExecutors.length == 4) {
+                if (attributeExpressionExecutors[3].getReturnType() == Attribute.Type.INT
+                        || attributeExpressionExecutors[3].getReturnType() == Attribute.Type.LONG) {
+                    eventCountExecutor = attributeExpressionExecutors[3];
+                } else {
+                    throw new ExecutionPlanValidationException("Async Throttle batch window 4th parameter needs to " +
+                            "be a Long or Int type but found a " + attributeExpressionExecutors[3].getReturnType());
+                }
+            }
         } else {
-            throw new ExecutionPlanValidationException("Throttle batch window should have 3 parameters " +
-                    "(<int|long|time> windowTime (and <int|long> startTime) (and <int|long> eventCount), but found "
+            throw new ExecutionPlanValidationException("Throttle batch window should have 3 or 4 parameters " +
+                    "(<int|long|time> windowTime (and <int|long> startTime) (and <int|long> eventCount) " +
+                    "(and optionally <int|long> event weight), but found "
                     + attributeExpressionExecutors.length + " input attributes");
         }
 
@@ -156,16 +173,18 @@ public class AsyncAPIThrottleStreamProcessor extends StreamProcessor implements
                 }
                 if (streamEvent.getOutputData()[0] != null) {
                     throttleKey = streamEvent.getOutputData()[0].toString();
+                    long weight = getEventWeight(streamEvent);
                     if (throttledStateMap.containsKey(throttleKey)) {
-                        eventCount = throttledStateMap.get(throttleKey).incrementAndGet();
+                        eventCount = throttledStateMap.get(throttleKey).addAndGet(weight);
                         if (eventCount > maxEventCount) {
                             complexEventPopulater.populateComplexEvent(streamEvent, new Object[]{expireEventTime, true});
                         } else {
                             complexEventPopulater.populateComplexEvent(streamEvent, new Object[]{expireEventTime, false});
                         }
                     } else {
-                        throttledStateMap.put(throttleKey, new AtomicLong(1));
-                        complexEventPopulater.populateComplexEvent(streamEvent, new Object[]{expireEventTime, false});
+                        throttledStateMap.put(throttleKey, new AtomicLong(weight));
+                        complexEventPopulater.populateComplexEvent(streamEvent,
+                                new Object[]{expireEventTime, weight > 1 && weight > maxEventCount});
                     }
                 } else {
                     complexEventPopulater.populateComplexEvent(streamEvent, new Object[]{expireEventTime, false});
@@ -224,6 +243,22 @@ public class AsyncAPIThrottleStreamProcessor extends StreamProcessor implements
                 executionPlanContext, variableExpressionExecutors, eventTableMap, queryName);
     }
 
+    /**
+     * Returns the number of events the given event stands for.
+     *
+     * @param streamEvent event
+     * @return value of the event weight parameter, or 1 if the parameter is not given or has no positive value
+     */
+    private long getEventWeight(StreamEvent streamEvent) {
+        if (eventCountExecutor != null) {
+            Object weight = eventCountExecutor.execute(streamEvent);
+            if (weight instanceof Number && ((Number) weight).longValue() > 0) {
+                return ((Number) weight).longValue();
+            }
+        }
+        return 1;
+    }
+
     private long addTimeShift(long currentTime) {
         long timePassedUntilNow = (currentTime - startTime) % timeInMilliSeconds;
         return currentTime + (timeInMilliSeconds - timePassedUntilNow);
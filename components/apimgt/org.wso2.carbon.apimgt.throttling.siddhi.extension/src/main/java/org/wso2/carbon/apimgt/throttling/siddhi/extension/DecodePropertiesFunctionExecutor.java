@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2022, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.apimgt.throttling.siddhi.extension;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.apimgt.common.gateway.util.ThrottleEventPropertiesCodec;
+import org.wso2.siddhi.core.config.ExecutionPlanContext;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.function.FunctionExecutor;
+import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.exception.ExecutionPlanValidationException;
+
+import java.util.HashMap;
+
+/**
+ * Decodes the binary encoded properties of a throttle request event into a map, the same way
+ * map:createFromJSON decodes the JSON form of the properties. Malformed properties are decoded to an empty map,
+ * so that the request is still counted against the throttle keys which do not depend on the properties.
+ * <p/>
+ * Usage:
+ * throttler:decodeProperties(properties)
+ */
+public class DecodePropertiesFunctionExecutor extends FunctionExecutor {
+    private static final Log log = LogFactory.getLog(DecodePropertiesFunctionExecutor.class);
+    private Attribute.Type returnType = Attribute.Type.OBJECT;
+
+    @Override
+    protected void init(ExpressionExecutor[] attributeExpressionExecutors, ExecutionPlanContext executionPlanContext) {
+        if (attributeExpressionExecutors.length != 1) {
+            throw new ExecutionPlanValidationException("Invalid no of arguments passed to the function, "
+                    + "required 1 parameter, but found " + attributeExpressionExecutors.length);
+        }
+        if (attributeExpressionExecutors[0].getReturnType() != Attribute.Type.STRING) {
+            throw new ExecutionPlanValidationException("Invalid parameter type found for the argument of "
+                    + "throttler:decodeProperties() function, required " + Attribute.Type.STRING + ", but found "
+                    + attributeExpressionExecutors[0].getReturnType());
+        }
+    }
+
+    @Override
+    protected Object execute(Object[] data) {
+        return null;
+    }
+
+    @Override
+    protected Object execute(Object data) {
+        try {
+            return ThrottleEventPropertiesCodec.decode((String) data);
+        } catch (IllegalArgumentException e) {
+            log.error("Error while decoding throttle event properties", e);
+            return new HashMap<String, Object>();
+        }
+    }
+
+    @Override
+    public void start() {
+        //Nothing to start
+    }
+
+    @Override
+    public void stop() {
+        //Nothing to stop
+    }
+
+    @Override
+    public Attribute.Type getReturnType() {
+        return returnType;
+    }
+
+    @Override
+    public Object[] currentState() {
+        return null;    //No need to maintain a state.
+    }
+
+    @Override
+    public void restoreState(Object[] state) {
+        //Since there's no need to maintain a state, nothing needs to be done here.
+    }
+}
@@ -163,4 +163,57 @@ public class ThrottlingTimeLengthWindowTestCase {
 
     }
 
+    @Test
+    public void throttleTimeLengthWindowWeightedEventsTest() throws InterruptedException {
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String requestStream = "" +
+                "define stream RequestStream (messageID string, isEligible bool, throttleKey string, eventCount long);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from RequestStream#throttler:timeLength(10 sec, 0, 5, eventCount) " +
+                "select throttleKey, isThrottled, expiryTimeStamp group by throttleKey " +
+                "insert all events into outputStream ;";
+
+        ExecutionPlanRuntime executionPlanRuntime = siddhiManager.createExecutionPlanRuntime(requestStream + query);
+
+        executionPlanRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    inEventCount = inEventCount + inEvents.length;
+                    for (Event event : inEvents) {
+                        switch (count.incrementAndGet()) {
+                            case 1:
+                            case 2:
+                                Assert.assertEquals(false, event.getData(1));
+                                break;
+                            case 3:
+                            case 4:
+                                Assert.assertEquals(true, event.getData(1));
+                                break;
+                            default:
+                                Assert.fail("Received more than expected number of events. Expected maximum : 4," +
+                                        "Received : " + count.get());
+                        }
+                    }
+                }
+                eventArrived = true;
+            }
+
+        });
+
+        InputHandler inputHandler = executionPlanRuntime.getInputHandler("RequestStream");
+        executionPlanRuntime.start();
+        inputHandler.send(new Object[]{"message123", true, "message123:1234", 3L});
+        inputHandler.send(new Object[]{"message123", true, "message123:1234", 2L});
+        inputHandler.send(new Object[]{"message123", true, "message123:1234", 1L});
+        inputHandler.send(new Object[]{"message456", true, "message456:1234", 6L});
+        Assert.assertEquals(4, inEventCount);
+        Assert.assertTrue(eventArrived);
+        executionPlanRuntime.shutdown();
+
+    }
 }
@@ -1341,6 +1341,21 @@ CREATE TABLE AM_API_REVISION_METADATA (
 )
 /
 
+CREATE TABLE AM_SUBSCRIPTION_DATA_REVISION (
+    TENANT_ID INTEGER NOT NULL,
+    REVISION NUMBER(19) NOT NULL,
+    PRIMARY KEY (TENANT_ID)
+)
+/
+
+CREATE TABLE AM_SUBSCRIPTION_DATA_CHANGE (
+    TENANT_ID INTEGER NOT NULL,
+    REVISION NUMBER(19) NOT NULL,
+    APPLICATION_ID INTEGER NOT NULL,
+    PRIMARY KEY (TENANT_ID, REVISION, APPLICATION_ID)
+)
+/
+
 CREATE TABLE AM_API_URL_MAPPING (
     URL_MAPPING_ID INTEGER,
     API_ID INTEGER NOT NULL,
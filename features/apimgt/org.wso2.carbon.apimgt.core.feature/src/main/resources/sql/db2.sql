@@ -2797,6 +2797,19 @@ CREATE TABLE AM_API_REVISION_METADATA (
             FOREIGN KEY(REVISION_UUID) REFERENCES AM_REVISION(REVISION_UUID) ON DELETE CASCADE
 )/
 
+CREATE TABLE AM_SUBSCRIPTION_DATA_REVISION (
+            TENANT_ID INTEGER NOT NULL,
+            REVISION BIGINT NOT NULL,
+            PRIMARY KEY (TENANT_ID)
+)/
+
+CREATE TABLE AM_SUBSCRIPTION_DATA_CHANGE (
+            TENANT_ID INTEGER NOT NULL,
+            REVISION BIGINT NOT NULL,
+            APPLICATION_ID INTEGER NOT NULL,
+            PRIMARY KEY (TENANT_ID, REVISION, APPLICATION_ID)
+)/
+
 CREATE TABLE AM_DEPLOYMENT_REVISION_MAPPING (
             NAME VARCHAR(255) NOT NULL,
             VHOST VARCHAR(255) NULL,
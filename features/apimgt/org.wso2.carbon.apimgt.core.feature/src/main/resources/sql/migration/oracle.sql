@@ -0,0 +1,18 @@
+-- Creates the tables holding the revisions and the change log of the subscription data of each tenant, which are
+-- read by the gateways to load only the applications whose subscriptions, key mappings or attributes changed.
+-- Run this script on a database created with the scripts of a release without these tables.
+
+CREATE TABLE AM_SUBSCRIPTION_DATA_REVISION (
+    TENANT_ID INTEGER NOT NULL,
+    REVISION NUMBER(19) NOT NULL,
+    PRIMARY KEY (TENANT_ID)
+)
+/
+
+CREATE TABLE AM_SUBSCRIPTION_DATA_CHANGE (
+    TENANT_ID INTEGER NOT NULL,
+    REVISION NUMBER(19) NOT NULL,
+    APPLICATION_ID INTEGER NOT NULL,
+    PRIMARY KEY (TENANT_ID, REVISION, APPLICATION_ID)
+)
+/
@@ -2278,6 +2278,23 @@ CREATE TABLE AM_API_REVISION_METADATA (
   UNIQUE (API_UUID,REVISION_UUID)
 );
 
+IF NOT  EXISTS (SELECT * FROM SYS.OBJECTS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[AM_SUBSCRIPTION_DATA_REVISION]') AND TYPE IN (N'U'))
+
+CREATE TABLE AM_SUBSCRIPTION_DATA_REVISION (
+  TENANT_ID INTEGER NOT NULL,
+  REVISION BIGINT NOT NULL,
+  PRIMARY KEY (TENANT_ID)
+);
+
+IF NOT  EXISTS (SELECT * FROM SYS.OBJECTS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[AM_SUBSCRIPTION_DATA_CHANGE]') AND TYPE IN (N'U'))
+
+CREATE TABLE AM_SUBSCRIPTION_DATA_CHANGE (
+  TENANT_ID INTEGER NOT NULL,
+  REVISION BIGINT NOT NULL,
+  APPLICATION_ID INTEGER NOT NULL,
+  PRIMARY KEY (TENANT_ID, REVISION, APPLICATION_ID)
+);
+
 IF NOT EXISTS (SELECT * FROM SYS.OBJECTS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[AM_DEPLOYMENT_REVISION_MAPPING]') AND TYPE IN (N'U'))
 CREATE TABLE AM_DEPLOYMENT_REVISION_MAPPING (
   NAME VARCHAR(255) NOT NULL,
@@ -2087,6 +2087,19 @@ CREATE TABLE IF NOT EXISTS AM_API_REVISION_METADATA (
     FOREIGN KEY(REVISION_UUID) REFERENCES AM_REVISION(REVISION_UUID) ON DELETE CASCADE
 )ENGINE INNODB;
 
+CREATE TABLE IF NOT EXISTS AM_SUBSCRIPTION_DATA_REVISION (
+    TENANT_ID INTEGER NOT NULL,
+    REVISION BIGINT NOT NULL,
+    PRIMARY KEY (TENANT_ID)
+)ENGINE INNODB;
+
+CREATE TABLE IF NOT EXISTS AM_SUBSCRIPTION_DATA_CHANGE (
+    TENANT_ID INTEGER NOT NULL,
+    REVISION BIGINT NOT NULL,
+    APPLICATION_ID INTEGER NOT NULL,
+    PRIMARY KEY (TENANT_ID, REVISION, APPLICATION_ID)
+)ENGINE INNODB;
+
 CREATE TABLE IF NOT EXISTS AM_DEPLOYMENT_REVISION_MAPPING (
   NAME VARCHAR(255) NOT NULL,
   VHOST VARCHAR(255) NULL,
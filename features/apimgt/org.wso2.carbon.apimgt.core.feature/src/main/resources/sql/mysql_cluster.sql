@@ -1594,6 +1594,19 @@ CREATE TABLE IF NOT EXISTS AM_API_REVISION_METADATA (
     UNIQUE (API_UUID,REVISION_UUID)
 )ENGINE NDB;
 
+CREATE TABLE IF NOT EXISTS AM_SUBSCRIPTION_DATA_REVISION (
+    TENANT_ID INTEGER NOT NULL,
+    REVISION BIGINT NOT NULL,
+    PRIMARY KEY (TENANT_ID)
+)ENGINE NDB;
+
+CREATE TABLE IF NOT EXISTS AM_SUBSCRIPTION_DATA_CHANGE (
+    TENANT_ID INTEGER NOT NULL,
+    REVISION BIGINT NOT NULL,
+    APPLICATION_ID INTEGER NOT NULL,
+    PRIMARY KEY (TENANT_ID, REVISION, APPLICATION_ID)
+)ENGINE NDB;
+
 CREATE TABLE IF NOT EXISTS AM_GRAPHQL_COMPLEXITY (
     UUID VARCHAR(256),
     API_ID INTEGER NOT NULL,
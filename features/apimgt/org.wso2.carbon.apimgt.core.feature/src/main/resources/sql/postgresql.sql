@@ -2373,6 +2373,21 @@ CREATE TABLE IF NOT EXISTS AM_API_REVISION_METADATA (
     UNIQUE (API_UUID,REVISION_UUID)
 );
 
+DROP TABLE IF EXISTS AM_SUBSCRIPTION_DATA_REVISION;
+CREATE TABLE IF NOT EXISTS AM_SUBSCRIPTION_DATA_REVISION (
+    TENANT_ID INTEGER NOT NULL,
+    REVISION BIGINT NOT NULL,
+    PRIMARY KEY (TENANT_ID)
+);
+
+DROP TABLE IF EXISTS AM_SUBSCRIPTION_DATA_CHANGE;
+CREATE TABLE IF NOT EXISTS AM_SUBSCRIPTION_DATA_CHANGE (
+    TENANT_ID INTEGER NOT NULL,
+    REVISION BIGINT NOT NULL,
+    APPLICATION_ID INTEGER NOT NULL,
+    PRIMARY KEY (TENANT_ID, REVISION, APPLICATION_ID)
+);
+
 DROP TABLE IF EXISTS AM_DEPLOYMENT_REVISION_MAPPING;
 CREATE TABLE IF NOT EXISTS AM_DEPLOYMENT_REVISION_MAPPING (
             NAME VARCHAR(255) NOT NULL,